@@ -1,13 +1,16 @@
 package io.github.k8soperators.microservicebootstrapoperator;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
-import io.fabric8.kubernetes.client.KubernetesClient;
+import io.github.k8soperators.microservicebootstrapoperator.service.StorageVersionMigrator;
 import io.javaoperatorsdk.operator.Operator;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 
 @Slf4j
@@ -19,8 +22,8 @@ public class MicroserviceBootstrapOperatorApplication {
     }
 
     @Bean
-    public CommandLineRunner commandLineRunner(KubernetesClient client, Operator operator, 
-                                              Reconciler<AppConfig> appConfigReconciler) {
+    @ConditionalOnOperatorMode
+    public CommandLineRunner commandLineRunner(Operator operator, Reconciler<AppConfig> appConfigReconciler) {
         return args -> {
             log.info("Starting Microservice Bootstrap Operator");
             
@@ -33,4 +36,18 @@ public class MicroserviceBootstrapOperatorApplication {
             log.info("Microservice Bootstrap Operator started successfully");
         };
     }
+
+    /**
+     * Job mode: migrates the stored AppConfigs and exits without reconciling. The operator services are not
+     * created in this mode, see {@link ConditionalOnOperatorMode}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "operator.migration.enabled", havingValue = "true")
+    public CommandLineRunner migrationRunner(StorageVersionMigrator migrator, ConfigurableApplicationContext context) {
+        return args -> {
+            log.info("Starting AppConfig storage version migration");
+            StorageVersionMigrator.MigrationReport report = migrator.migrate();
+            System.exit(SpringApplication.exit(context, () -> report.failed() == 0 ? 0 : 1));
+        };
+    }
 }
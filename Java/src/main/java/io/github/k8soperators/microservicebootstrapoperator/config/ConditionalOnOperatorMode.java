@@ -0,0 +1,21 @@
+package io.github.k8soperators.microservicebootstrapoperator.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers a bean only when the application runs as the operator.
+ * In job mode ({@code operator.migration.enabled=true}) these beans are left out, so the informers, timers and
+ * worker pools they start on creation never run in the migration job.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@ConditionalOnProperty(name = "operator.migration.enabled", havingValue = "false", matchIfMissing = true)
+public @interface ConditionalOnOperatorMode {
+}
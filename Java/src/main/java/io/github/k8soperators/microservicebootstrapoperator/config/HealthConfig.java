@@ -1,5 +1,6 @@
 package io.github.k8soperators.microservicebootstrapoperator.config;
 
+import io.github.k8soperators.microservicebootstrapoperator.service.SidecarInjectionService;
 import io.javaoperatorsdk.operator.Operator;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -25,4 +26,23 @@ public class HealthConfig {
             }
         };
     }
+
+    /**
+     * Keeps the operator out of service until the sidecar registry has synced, so a restarted operator does
+     * not answer admission requests with an empty registry. Part of the readiness group.
+     */
+    @Bean
+    @ConditionalOnOperatorMode
+    public HealthIndicator sidecarRegistryHealthIndicator(SidecarInjectionService sidecarInjectionService) {
+        return () -> {
+            if (sidecarInjectionService.isRegistrySynced()) {
+                return Health.up()
+                        .withDetail("status", "Sidecar registry synced")
+                        .build();
+            }
+            return Health.outOfService()
+                    .withDetail("status", "Waiting for the AppConfig informer to sync")
+                    .build();
+        };
+    }
 }
@@ -0,0 +1,282 @@
+package io.github.k8soperators.microservicebootstrapoperator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tunable operator settings bound from the "operator" prefix in application.properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "operator")
+public class OperatorProperties {
+
+    /**
+     * Secret rotation settings
+     */
+    private SecretRotation secretRotation = new SecretRotation();
+
+    /**
+     * Certificate issuing settings for the "tls" rotation strategy
+     */
+    private Tls tls = new Tls();
+
+    /**
+     * Workload rollout settings for changed Secrets and ConfigMaps
+     */
+    private Rollout rollout = new Rollout();
+
+    /**
+     * Sidecar injection settings
+     */
+    private Sidecar sidecar = new Sidecar();
+
+    /**
+     * Server-side apply settings for the dependent resources of AppConfigs
+     */
+    private Apply apply = new Apply();
+
+    /**
+     * Role template settings for the Roles of AppConfigs
+     */
+    private Rbac rbac = new Rbac();
+
+    /**
+     * NetworkPolicy generation settings
+     */
+    private Network network = new Network();
+
+    /**
+     * Storage version migration settings
+     */
+    private Migration migration = new Migration();
+
+    /**
+     * How sidecars are added to pods
+     */
+    public enum InjectionMode {
+        /**
+         * Pods are mutated at admission time by the mutating webhook, requires a MutatingWebhookConfiguration
+         */
+        WEBHOOK,
+        /**
+         * Pods are watched and patched after creation. The API server rejects adding containers to an existing
+         * pod, so in this mode sidecars only reach pods through the workload template backfill
+         */
+        INFORMER
+    }
+
+    @Data
+    public static class SecretRotation {
+        /**
+         * Sustained number of rotations started per second across all namespaces
+         */
+        private double rotationsPerSecond = 5.0;
+
+        /**
+         * Number of rotations that may start back to back before the rate limit applies
+         */
+        private int burst = 10;
+
+        /**
+         * Maximum number of rotations running at the same time in one namespace
+         */
+        private int maxConcurrentPerNamespace = 2;
+
+        /**
+         * Window over which throttled rotations are spread, in seconds
+         */
+        private int jitterWindowSeconds = 30;
+    }
+
+    @Data
+    public static class Tls {
+        /**
+         * Key pair algorithm, RSA or EC
+         */
+        private String keyAlgorithm = "EC";
+
+        /**
+         * Key size in bits (e.g. 256 for EC, 2048 for RSA)
+         */
+        private int keySize = 256;
+
+        /**
+         * Number of pre-generated key pairs kept ready in the pool
+         */
+        private int keyPoolSize = 32;
+
+        /**
+         * Number of background threads refilling the key pool
+         */
+        private int keyPoolRefillThreads = 1;
+
+        /**
+         * Namespace of the Secret holding the operator CA
+         */
+        private String caSecretNamespace = "default";
+
+        /**
+         * Name of the Secret holding the operator CA
+         */
+        private String caSecretName = "microservice-bootstrap-operator-ca";
+
+        /**
+         * Validity of the operator CA certificate in days
+         */
+        private int caValidityDays = 3650;
+
+        /**
+         * Default validity of issued certificates in days
+         */
+        private int certificateValidityDays = 90;
+    }
+
+    @Data
+    public static class Rollout {
+        /**
+         * Roll out Deployments and StatefulSets that reference a changed Secret or ConfigMap
+         */
+        private boolean enabled = true;
+
+        /**
+         * Sustained number of workload patches per second
+         */
+        private double patchesPerSecond = 2.0;
+
+        /**
+         * Number of workload patches that may be sent back to back before the rate limit applies
+         */
+        private int burst = 5;
+    }
+
+    @Data
+    public static class Sidecar {
+        /**
+         * How sidecars are added to pods. Without the webhook installed sidecars only reach pods through the
+         * workload template backfill
+         */
+        private InjectionMode injectionMode = InjectionMode.WEBHOOK;
+
+        /**
+         * Label selector pre-filtering the pods watched in informer mode, empty to watch all pods of
+         * namespaces with sidecar-enabled AppConfigs
+         */
+        private String podLabelSelector = "";
+
+        /**
+         * Number of threads injecting sidecars into queued pods in informer mode
+         */
+        private int workers = 4;
+
+        /**
+         * Maximum number of pods waiting for injection
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * How long pod events wait for queue capacity before the pod is dropped
+         */
+        private long enqueueTimeoutMillis = 1000;
+
+        /**
+         * Add the sidecars of a newly registered AppConfig generation to the pod templates of matching
+         * Deployments and StatefulSets, so existing pods get them through a regular rollout
+         */
+        private boolean backfill = true;
+
+        /**
+         * Sustained number of workload patches per second while backfilling
+         */
+        private double backfillPatchesPerSecond = 2.0;
+
+        /**
+         * Number of backfill patches that may be sent back to back before the rate limit applies
+         */
+        private int backfillBurst = 5;
+    }
+
+    @Data
+    public static class Apply {
+        /**
+         * Field manager owning the fields the operator applies
+         */
+        private String fieldManager = "microservice-bootstrap-operator";
+
+        /**
+         * Take over fields owned by other field managers instead of failing the apply with a conflict
+         */
+        private boolean forceConflicts = true;
+
+        /**
+         * Send applies as dry runs, the API server validates them without persisting anything
+         */
+        private boolean dryRun = false;
+
+        /**
+         * Field managers of the create and update requests the operator sent before it used server-side apply.
+         * Their fields are transferred to the apply field manager, so keys dropped from the desired state are removed
+         */
+        private List<String> legacyFieldManagers = new ArrayList<>(List.of("fabric8-kubernetes-client"));
+    }
+
+    @Data
+    public static class Rbac {
+        /**
+         * Resolve the secret-reader, pod-reader and config-editor role names to their own rules instead of the
+         * config-reader rules; the operator can only create such Roles once its own ClusterRole grants those rules
+         */
+        private boolean roleTemplates = false;
+    }
+
+    @Data
+    public static class Network {
+        /**
+         * Merge the NetworkPolicies of AppConfigs in the same namespace that have identical rules into one
+         * policy selecting all of their apps, so the CNI evaluates fewer policies
+         */
+        private boolean aggregatePolicies = false;
+    }
+
+    @Data
+    public static class Migration {
+        /**
+         * Run as a migration job: rewrite all AppConfigs in the storage version and exit instead of starting the operator
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of AppConfigs listed per page
+         */
+        private int pageSize = 100;
+
+        /**
+         * Number of AppConfigs rewritten in parallel
+         */
+        private int concurrency = 4;
+
+        /**
+         * Sustained rate of AppConfig rewrites
+         */
+        private double writesPerSecond = 20.0;
+
+        /**
+         * Maximum number of rewrites sent in a burst
+         */
+        private int burst = 20;
+
+        /**
+         * Namespace of the ConfigMap checkpointing the migration progress
+         */
+        private String checkpointNamespace = "default";
+
+        /**
+         * Name of the ConfigMap checkpointing the migration progress
+         */
+        private String checkpointName = "microservice-bootstrap-operator-migration";
+    }
+}
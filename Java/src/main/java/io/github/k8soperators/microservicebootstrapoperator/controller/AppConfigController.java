@@ -1,31 +1,43 @@
 package io.github.k8soperators.microservicebootstrapoperator.controller;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
 import io.github.k8soperators.microservicebootstrapoperator.service.ConfigMapService;
+import io.github.k8soperators.microservicebootstrapoperator.service.FinalizationService;
 import io.github.k8soperators.microservicebootstrapoperator.service.NetworkPolicyService;
 import io.github.k8soperators.microservicebootstrapoperator.service.RBACService;
+import io.github.k8soperators.microservicebootstrapoperator.service.SecretRotationExecutor;
+import io.github.k8soperators.microservicebootstrapoperator.service.SecretRotationScheduler;
 import io.github.k8soperators.microservicebootstrapoperator.service.SecretRotationService;
 import io.github.k8soperators.microservicebootstrapoperator.service.SidecarInjectionService;
+import io.github.k8soperators.microservicebootstrapoperator.util.AppConfigValidator;
 import io.github.k8soperators.microservicebootstrapoperator.util.RetryUtil;
 import io.github.k8soperators.microservicebootstrapoperator.util.VersionConverter;
 import io.fabric8.kubernetes.api.model.Condition;
+import io.fabric8.kubernetes.api.model.StatusCause;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.javaoperatorsdk.operator.api.reconciler.*;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
+@ConditionalOnOperatorMode
 @RequiredArgsConstructor
-public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHandler<AppConfig> {
+public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHandler<AppConfig>,
+        EventSourceInitializer<AppConfig> {
 
     private static final String FINALIZER_NAME = "microservice.example.com/finalizer";
+    private static final long ROTATION_RETRY_DELAY_MS = 60000;
 
     private final KubernetesClient kubernetesClient;
     private final ConfigMapService configMapService;
@@ -33,9 +45,15 @@ public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHa
     private final NetworkPolicyService networkPolicyService;
     private final SecretRotationService secretRotationService;
     private final SidecarInjectionService sidecarInjectionService;
+    private final FinalizationService finalizationService;
+    private final SecretRotationScheduler secretRotationScheduler;
+    private final SecretRotationExecutor secretRotationExecutor;
 
-    // Event sources are configured automatically by the framework
-    // No need to override prepareEventSources in newer SDK versions
+    @Override
+    public Map<String, EventSource> prepareEventSources(EventSourceContext<AppConfig> context) {
+        // Secret rotation deadlines fire reconciles through the rotation scheduler
+        return EventSourceInitializer.nameEventSources(secretRotationScheduler.getEventSource());
+    }
 
     @Override
     public UpdateControl<AppConfig> reconcile(AppConfig appConfig, Context<AppConfig> context) {
@@ -52,11 +70,17 @@ public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHa
             return UpdateControl.updateResource(appConfig);
         }
         
-        // Check if version conversion is needed
-        boolean wasConverted = VersionConverter.checkAndConvertIfNeeded(appConfig);
-        if (wasConverted) {
-            log.info("AppConfig was converted to the latest version, updating CR");
-            return UpdateControl.updateResource(appConfig);
+        // Served versions are converted by the conversion webhook; legacy version labels are converted in memory only
+        VersionConverter.checkAndConvertIfNeeded(appConfig);
+
+        // Specs the validating webhook would reject are reported once instead of failing every retry
+        List<StatusCause> violations = AppConfigValidator.validate(appConfig.getSpec());
+        if (!violations.isEmpty()) {
+            String message = AppConfigValidator.message(violations);
+            log.warn("Skipping invalid AppConfig {}/{}: {}", appConfig.getMetadata().getNamespace(),
+                    appConfig.getMetadata().getName(), message);
+            addErrorCondition(appConfig, "Invalid spec: " + message);
+            return UpdateControl.updateStatus(appConfig);
         }
 
         try {
@@ -68,14 +92,18 @@ public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHa
                 10000 // max backoff in ms
             );
 
-            // Setup RBAC if configured - idempotent operation
+            // Setup RBAC if configured - idempotent operation; a removed rbac section releases its shared Roles
             if (appConfig.getSpec().getRbac() != null) {
                 rbacService.setupRBAC(appConfig);
+            } else {
+                rbacService.releaseRBAC(appConfig);
             }
 
-            // Setup NetworkPolicy if configured - idempotent operation
+            // Setup NetworkPolicy if configured - idempotent operation; a disabled policy is released
             if (appConfig.getSpec().getNetworkPolicy() != null && appConfig.getSpec().getNetworkPolicy().isEnabled()) {
                 networkPolicyService.setupNetworkPolicy(appConfig);
+            } else {
+                networkPolicyService.releaseNetworkPolicy(appConfig);
             }
             
             // Register for sidecar injection if configured
@@ -83,32 +111,33 @@ public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHa
                 sidecarInjectionService.registerAppConfig(appConfig);
             }
 
-            // Handle secret rotation if enabled
+            // Handle secret rotation if enabled, deadlines are tracked by the rotation scheduler
             if (appConfig.getSpec().getSecretRotation() != null && appConfig.getSpec().getSecretRotation().isEnabled()) {
-                boolean shouldRotate = shouldRotateSecrets(appConfig);
-                if (shouldRotate) {
-                    // Secret rotation with retry for resilience
-                    RetryUtil.executeWithRetry(
-                        () -> secretRotationService.rotateSecrets(appConfig),
-                        3, // max retries
-                        1000, // initial backoff in ms
-                        10000 // max backoff in ms
-                    );
-                    appConfig.getStatus().updateLastSecretRotationTime();
+                if (secretRotationScheduler.isRotationDue(appConfig)) {
+                    boolean rotated;
+                    try {
+                        // Rotation is throttled by the executor, every source write is retried by the rotation itself
+                        rotated = secretRotationExecutor.execute(appConfig,
+                                () -> secretRotationService.rotateSecrets(appConfig));
+                    } catch (Exception e) {
+                        // Try again shortly instead of waiting for the next interval
+                        secretRotationScheduler.defer(appConfig, ROTATION_RETRY_DELAY_MS);
+                        throw e;
+                    }
+                    if (rotated) {
+                        appConfig.getStatus().updateLastSecretRotationTime();
+                        secretRotationScheduler.recordRotation(appConfig);
+                    }
                 }
+            } else {
+                secretRotationScheduler.unschedule(appConfig);
+                secretRotationService.forgetSecrets(appConfig);
             }
 
             // Update status
             appConfig.getStatus().updateLastSyncTime();
             addSuccessCondition(appConfig);
 
-            // Determine if we need to requeue based on secret rotation interval
-            if (appConfig.getSpec().getSecretRotation() != null && appConfig.getSpec().getSecretRotation().isEnabled()) {
-                int intervalHours = appConfig.getSpec().getSecretRotation().getIntervalHours();
-                return UpdateControl.updateStatus(appConfig)
-                        .rescheduleAfter(intervalHours * 60 * 60 * 1000); // Convert hours to milliseconds
-            }
-
             return UpdateControl.updateStatus(appConfig);
         } catch (KubernetesClientException e) {
             log.error("Kubernetes API error reconciling AppConfig: {}", e.getMessage(), e);
@@ -146,29 +175,22 @@ public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHa
             log.info("Finalizing AppConfig: {}/{}", appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
             
             try {
+                secretRotationScheduler.unschedule(appConfig);
+                secretRotationService.forgetSecrets(appConfig);
+                
                 // Unregister from sidecar injection if configured
                 if (appConfig.getSpec().getSidecarInjection() != null && appConfig.getSpec().getSidecarInjection().isEnabled()) {
                     sidecarInjectionService.unregisterAppConfig(appConfig);
                 }
+
+                // Drop the references to shared Roles, deleting the ones no other AppConfig uses
+                rbacService.releaseRBAC(appConfig);
+
+                // Leave the NetworkPolicy shared with other AppConfigs of the namespace
+                networkPolicyService.releaseNetworkPolicy(appConfig);
                 
-                // Clean up resources created by this AppConfig
-                if (appConfig.getStatus() != null && appConfig.getStatus().getCreatedResources() != null) {
-                    for (String resourceName : appConfig.getStatus().getCreatedResources()) {
-                        log.info("Cleaning up resource: {}", resourceName);
-                        try {
-                            // Use retry for deletion to ensure resources are properly cleaned up
-                            RetryUtil.executeWithRetry(
-                                () -> cleanupResource(resourceName, appConfig),
-                                3, // max retries
-                                1000, // initial backoff in ms
-                                5000 // max backoff in ms
-                            );
-                        } catch (Exception e) {
-                            // Log but continue with other resources
-                            log.warn("Failed to clean up resource: {}, continuing with others", resourceName, e);
-                        }
-                    }
-                }
+                // Clean up resources created by this AppConfig with one collection delete per kind
+                finalizationService.finalizeResources(appConfig);
                 
                 removeFinalizer(appConfig);
                 return UpdateControl.updateResource(appConfig);
@@ -182,74 +204,6 @@ public class AppConfigController implements Reconciler<AppConfig>, ErrorStatusHa
         return UpdateControl.noUpdate();
     }
     
-    /**
-     * Clean up a specific resource created by this AppConfig
-     * 
-     * @param resourceName The resource name in format "kind:namespace/name"
-     * @param appConfig The parent AppConfig
-     */
-    private void cleanupResource(String resourceName, AppConfig appConfig) {
-        // Parse the resource type and name
-        String[] parts = resourceName.split(":", 2);
-        if (parts.length != 2) {
-            log.warn("Invalid resource name format: {}", resourceName);
-            return;
-        }
-        
-        String kind = parts[0];
-        String namespacedName = parts[1];
-        String[] nameParts = namespacedName.split("/", 2);
-        
-        if (nameParts.length != 2) {
-            log.warn("Invalid namespaced name format: {}", namespacedName);
-            return;
-        }
-        
-        String namespace = nameParts[0];
-        String name = nameParts[1];
-        
-        log.info("Deleting resource of kind {} with name {}/{}", kind, namespace, name);
-        
-        // Delete the resource based on its kind
-        switch (kind.toLowerCase()) {
-            case "configmap":
-                kubernetesClient.configMaps().inNamespace(namespace).withName(name).delete();
-                break;
-            case "secret":
-                kubernetesClient.secrets().inNamespace(namespace).withName(name).delete();
-                break;
-            case "serviceaccount":
-                kubernetesClient.serviceAccounts().inNamespace(namespace).withName(name).delete();
-                break;
-            case "role":
-                kubernetesClient.rbac().roles().inNamespace(namespace).withName(name).delete();
-                break;
-            case "rolebinding":
-                kubernetesClient.rbac().roleBindings().inNamespace(namespace).withName(name).delete();
-                break;
-            case "networkpolicy":
-                kubernetesClient.network().networkPolicies().inNamespace(namespace).withName(name).delete();
-                break;
-            default:
-                log.warn("Unknown resource kind: {}", kind);
-        }
-    }
-
-    private boolean shouldRotateSecrets(AppConfig appConfig) {
-        if (appConfig.getStatus().getLastSecretRotationTime() == null) {
-            return true;
-        }
-        
-        try {
-            ZonedDateTime lastRotation = ZonedDateTime.parse(appConfig.getStatus().getLastSecretRotationTime());
-            ZonedDateTime nextRotation = lastRotation.plusHours(appConfig.getSpec().getSecretRotation().getIntervalHours());
-            return ZonedDateTime.now().isAfter(nextRotation);
-        } catch (Exception e) {
-            log.warn("Error parsing last rotation time, will rotate secrets", e);
-            return true;
-        }
-    }
-
     private boolean hasFinalizer(AppConfig resource) {
         return Optional.ofNullable(resource.getMetadata().getFinalizers())
                 .map(finalizers -> finalizers.contains(FINALIZER_NAME))
@@ -6,7 +6,9 @@ import lombok.Data;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class AppConfigStatus {
@@ -34,6 +36,12 @@ public class AppConfigStatus {
     @JsonProperty("createdResources")
     private List<String> createdResources = new ArrayList<>();
 
+    /**
+     * Rotation status per secret source
+     */
+    @JsonProperty("secretSources")
+    private Map<String, SecretSourceStatus> secretSources = new HashMap<>();
+
     /**
      * Updates the last sync time to now
      */
@@ -58,4 +66,27 @@ public class AppConfigStatus {
             createdResources.add(resourceName);
         }
     }
+
+    /**
+     * Records the outcome of a rotation attempt for a secret source
+     *
+     * @param source the secret source
+     * @param secretName the name of the Secret holding the source credentials
+     * @param error the failure, or null if the rotation succeeded
+     */
+    public void updateSecretSourceStatus(String source, String secretName, Throwable error) {
+        if (secretSources == null) {
+            secretSources = new HashMap<>();
+        }
+        SecretSourceStatus sourceStatus = secretSources.computeIfAbsent(source, s -> new SecretSourceStatus());
+        sourceStatus.setSecretName(secretName);
+        if (error == null) {
+            sourceStatus.setState("Rotated");
+            sourceStatus.setMessage(null);
+            sourceStatus.setLastRotationTime(ZonedDateTime.now().toString());
+        } else {
+            sourceStatus.setState("Failed");
+            sourceStatus.setMessage(error.getMessage());
+        }
+    }
 }
@@ -3,6 +3,10 @@ package io.github.k8soperators.microservicebootstrapoperator.model;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 
@@ -11,6 +15,14 @@ import java.util.Map;
  */
 @Data
 public class SecretRotationConfig {
+    /**
+     * Source whose credentials are written to the "&lt;appName&gt;-secrets" Secret
+     */
+    public static final String DEFAULT_SOURCE = "default";
+
+    private static final int MAX_SECRET_NAME_LENGTH = 253;
+    private static final int HASH_LENGTH = 10;
+
     /**
      * Enable secret rotation
      */
@@ -40,4 +52,54 @@ public class SecretRotationConfig {
      */
     @JsonProperty("strategyConfig")
     private Map<String, String> strategyConfig;
+
+    /**
+     * Returns the name of the Secret holding the credentials of a source.
+     * The default source is written to "&lt;appName&gt;-secrets", every other source to
+     * "&lt;appName&gt;-&lt;source&gt;-secrets" with the source lowercased, runs of other characters turned into a
+     * single dash and leading and trailing dashes dropped. A source without letters or digits is replaced by a
+     * hash of it, and names longer than a Secret name allows are truncated and suffixed with a hash of the full
+     * name, so every source gets a distinct valid name.
+     *
+     * @param appName the application name
+     * @param source the secret source
+     * @return the Secret name
+     */
+    public static String secretName(String appName, String source) {
+        if (DEFAULT_SOURCE.equals(source)) {
+            return truncate(String.format("%s-secrets", appName));
+        }
+        String segment = sourceSegment(source);
+        if (segment.isEmpty()) {
+            segment = hash(source);
+        }
+        return truncate(String.format("%s-%s-secrets", appName, segment));
+    }
+
+    /**
+     * Returns the part of the Secret name derived from a source
+     *
+     * @param source the secret source
+     * @return the source lowercased and reduced to DNS characters, empty if it has no letter or digit
+     */
+    public static String sourceSegment(String source) {
+        return source.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+
+    private static String truncate(String name) {
+        if (name.length() <= MAX_SECRET_NAME_LENGTH) {
+            return name;
+        }
+        String prefix = name.substring(0, MAX_SECRET_NAME_LENGTH - HASH_LENGTH - 1).replaceAll("[-.]+$", "");
+        return prefix + "-" + hash(name);
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
 }
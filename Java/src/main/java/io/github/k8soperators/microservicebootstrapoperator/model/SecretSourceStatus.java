@@ -0,0 +1,34 @@
+package io.github.k8soperators.microservicebootstrapoperator.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+/**
+ * Rotation status of a single secret source
+ */
+@Data
+public class SecretSourceStatus {
+    /**
+     * Name of the Secret holding the credentials of this source
+     */
+    @JsonProperty("secretName")
+    private String secretName;
+
+    /**
+     * Last time the credentials of this source were rotated successfully
+     */
+    @JsonProperty("lastRotationTime")
+    private String lastRotationTime;
+
+    /**
+     * Outcome of the last rotation attempt (Rotated, Failed)
+     */
+    @JsonProperty("state")
+    private String state;
+
+    /**
+     * Error message of the last failed rotation attempt
+     */
+    @JsonProperty("message")
+    private String message;
+}
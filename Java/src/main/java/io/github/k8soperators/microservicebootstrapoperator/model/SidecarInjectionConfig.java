@@ -1,6 +1,7 @@
 package io.github.k8soperators.microservicebootstrapoperator.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.fabric8.kubernetes.api.model.LabelSelectorRequirement;
 import lombok.Data;
 
 import java.util.List;
@@ -35,6 +36,12 @@ public class SidecarInjectionConfig {
     @JsonProperty("selectorLabels")
     private Map<String, String> selectorLabels;
 
+    /**
+     * Set-based requirements pods must also satisfy (In, NotIn, Exists, DoesNotExist)
+     */
+    @JsonProperty("matchExpressions")
+    private List<LabelSelectorRequirement> matchExpressions;
+
     /**
      * Environment variables for the sidecar
      */
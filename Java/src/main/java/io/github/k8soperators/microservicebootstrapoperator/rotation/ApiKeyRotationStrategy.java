@@ -0,0 +1,29 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.CredentialGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates an API key and secret as URL-safe Base64 tokens
+ */
+public class ApiKeyRotationStrategy implements RotationStrategy {
+
+    public static final String NAME = "api-key";
+    private static final int DEFAULT_KEY_BYTES = 16;
+    private static final int DEFAULT_SECRET_BYTES = 32;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, String> generate(RotationContext context) {
+        Map<String, String> secretData = new HashMap<>();
+        secretData.put("api-key", CredentialGenerator.token(context.getPositiveInt("keyLength", DEFAULT_KEY_BYTES)));
+        secretData.put("api-secret", CredentialGenerator.token(context.getPositiveInt("secretLength", DEFAULT_SECRET_BYTES)));
+        return secretData;
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.CertificateSigner;
+
+import java.util.List;
+
+/**
+ * Issues TLS certificates for rotation strategies
+ */
+public interface CertificateIssuer {
+
+    /**
+     * Issues a certificate
+     *
+     * @param commonName the subject common name
+     * @param dnsNames additional DNS subject alternative names
+     * @param organization the subject organization, may be null
+     * @param validityDays the validity in days, or 0 for the configured default
+     * @return the PEM encoded certificate, key and CA certificate
+     */
+    CertificateSigner.IssuedCertificate issue(String commonName, List<String> dnsNames,
+                                              String organization, int validityDays);
+}
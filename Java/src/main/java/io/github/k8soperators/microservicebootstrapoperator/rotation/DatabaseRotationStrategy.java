@@ -0,0 +1,35 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.CredentialGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates database credentials and the in-cluster connection URL
+ */
+public class DatabaseRotationStrategy implements RotationStrategy {
+
+    public static final String NAME = "database";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, String> generate(RotationContext context) {
+        Map<String, String> secretData = new HashMap<>();
+        secretData.put("db-username", DefaultRotationStrategy.username(
+                context.get("usernamePrefix", context.getAppName())));
+        secretData.put("db-password", CredentialGenerator.password(
+                context.getPositiveInt("passwordLength", DefaultRotationStrategy.DEFAULT_PASSWORD_LENGTH)));
+        secretData.put("db-url", databaseUrl(context));
+        return secretData;
+    }
+
+    private static String databaseUrl(RotationContext context) {
+        String dbName = context.getAppName().toLowerCase().replaceAll("[^a-z0-9]", "");
+        return String.format("jdbc:postgresql://db.%s.svc.cluster.local:5432/%s", context.getNamespace(), dbName);
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.CredentialGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates a username and password, also used for unknown strategy names
+ */
+public class DefaultRotationStrategy implements RotationStrategy {
+
+    public static final String NAME = "default";
+    static final int DEFAULT_PASSWORD_LENGTH = 16;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, String> generate(RotationContext context) {
+        Map<String, String> secretData = new HashMap<>();
+        secretData.put("username", username(context.getAppName()));
+        secretData.put("password", CredentialGenerator.password(
+                context.getPositiveInt("passwordLength", DEFAULT_PASSWORD_LENGTH)));
+        return secretData;
+    }
+
+    /**
+     * Generates a username from a base name and a random suffix
+     *
+     * @param base the application name or configured prefix
+     * @return a username
+     */
+    static String username(String base) {
+        return base.toLowerCase().replaceAll("[^a-z0-9]", "") + "_" + Integer.toHexString(CredentialGenerator.nextInt(0x1000));
+    }
+}
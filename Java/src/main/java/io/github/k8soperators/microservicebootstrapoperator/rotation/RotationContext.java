@@ -0,0 +1,64 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+
+import java.util.Map;
+
+/**
+ * Input of a {@link RotationStrategy}
+ *
+ * @param appConfig the AppConfig whose secrets are rotated
+ * @param strategyConfig the strategy configuration, never null
+ * @param certificateIssuer issuer for strategies that need certificates
+ */
+public record RotationContext(AppConfig appConfig, Map<String, String> strategyConfig,
+                              CertificateIssuer certificateIssuer) {
+
+    public RotationContext {
+        strategyConfig = strategyConfig != null ? strategyConfig : Map.of();
+    }
+
+    /**
+     * Returns a strategy config value
+     *
+     * @param key the config key
+     * @param defaultValue the value to use when the key is not set
+     * @return the configured or default value
+     */
+    public String get(String key, String defaultValue) {
+        String value = strategyConfig.get(key);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    /**
+     * Returns a positive integer strategy config value
+     *
+     * @param key the config key
+     * @param defaultValue the value to use when the key is not set
+     * @return the configured or default value
+     * @throws IllegalArgumentException if the value is not a positive integer
+     */
+    public int getPositiveInt(String key, int defaultValue) {
+        String value = strategyConfig.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("strategyConfig." + key + " must be a positive integer: " + value);
+    }
+
+    public String getAppName() {
+        return appConfig.getSpec().getAppName();
+    }
+
+    public String getNamespace() {
+        return appConfig.getMetadata().getNamespace();
+    }
+}
@@ -0,0 +1,27 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import java.util.Map;
+
+/**
+ * Service provider interface for secret rotation strategies.
+ * Implementations are discovered with {@link java.util.ServiceLoader}: a strategy is added by putting a jar
+ * on the classpath that lists it in META-INF/services. Implementations are shared between rotation
+ * threads and must be thread safe.
+ */
+public interface RotationStrategy {
+
+    /**
+     * Returns the name referenced by spec.secretRotation.strategy, matched case-insensitively
+     *
+     * @return the strategy name
+     */
+    String getName();
+
+    /**
+     * Generates the credentials of one secret
+     *
+     * @param context the AppConfig being rotated and its strategy configuration
+     * @return mutable map of secret data (unencoded)
+     */
+    Map<String, String> generate(RotationContext context);
+}
@@ -0,0 +1,70 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Registry of the {@link RotationStrategy} implementations found on the classpath.
+ * Strategies are discovered once at startup; a later provider with the same name replaces an earlier one.
+ */
+@Slf4j
+@Component
+public class RotationStrategyRegistry {
+
+    private final Map<String, RotationStrategy> strategies = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    public RotationStrategyRegistry() {
+        this(ServiceLoader.load(RotationStrategy.class, RotationStrategyRegistry.class.getClassLoader()));
+    }
+
+    /**
+     * Creates a registry from the given strategies
+     *
+     * @param providers the strategies to register, must include the default strategy
+     */
+    public RotationStrategyRegistry(Iterable<RotationStrategy> providers) {
+        for (RotationStrategy strategy : providers) {
+            RotationStrategy previous = strategies.put(strategy.getName(), strategy);
+            if (previous != null) {
+                log.warn("Rotation strategy {} provided by {} replaces {}", strategy.getName(),
+                        strategy.getClass().getName(), previous.getClass().getName());
+            }
+        }
+        if (!strategies.containsKey(DefaultRotationStrategy.NAME)) {
+            throw new IllegalStateException("No '" + DefaultRotationStrategy.NAME + "' rotation strategy on the classpath");
+        }
+        log.info("Registered rotation strategies: {}", strategies.keySet());
+    }
+
+    /**
+     * Looks up a strategy by name, falling back to the default strategy for unknown or missing names
+     *
+     * @param name the strategy name from the AppConfig, may be null
+     * @return the strategy
+     */
+    public RotationStrategy get(String name) {
+        RotationStrategy strategy = name != null ? strategies.get(name) : null;
+        if (strategy == null) {
+            if (name != null) {
+                log.debug("Unknown rotation strategy {}, using {}", name, DefaultRotationStrategy.NAME);
+            }
+            return strategies.get(DefaultRotationStrategy.NAME);
+        }
+        return strategy;
+    }
+
+    /**
+     * Returns the names of all registered strategies
+     *
+     * @return the strategy names
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(strategies.keySet());
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.CertificateSigner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issues a TLS certificate from the operator CA.
+ * Supported strategy config keys are commonName (defaults to the in-cluster service name),
+ * dnsNames (comma separated), organization and validityDays.
+ */
+public class TlsRotationStrategy implements RotationStrategy {
+
+    public static final String NAME = "tls";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, String> generate(RotationContext context) {
+        if (context.certificateIssuer() == null) {
+            throw new IllegalStateException("No certificate issuer available for the tls strategy");
+        }
+        String commonName = context.get("commonName",
+                String.format("%s.%s.svc", context.getAppName(), context.getNamespace()));
+        List<String> dnsNames = new ArrayList<>();
+        for (String dnsName : context.get("dnsNames", "").split(",")) {
+            if (!dnsName.isBlank()) {
+                dnsNames.add(dnsName.trim());
+            }
+        }
+
+        CertificateSigner.IssuedCertificate certificate = context.certificateIssuer().issue(commonName, dnsNames,
+                context.get("organization", null), context.getPositiveInt("validityDays", 0));
+        Map<String, String> secretData = new HashMap<>();
+        secretData.put("tls.crt", certificate.certificatePem());
+        secretData.put("tls.key", certificate.privateKeyPem());
+        secretData.put("ca.crt", certificate.caCertificatePem());
+        return secretData;
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.rotation.CertificateIssuer;
+import io.github.k8soperators.microservicebootstrapoperator.util.CertificateSigner;
+import io.github.k8soperators.microservicebootstrapoperator.util.KeyPairPool;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service issuing TLS certificates from an operator-managed local CA.
+ * The CA is persisted in a Secret so it survives restarts, and leaf key pairs come from a
+ * background-refilled pool so only the cheap signing step runs on reconcile threads.
+ */
+@Slf4j
+@Service
+@ConditionalOnOperatorMode
+public class CertificateAuthorityService implements CertificateIssuer {
+
+    private static final String CA_COMMON_NAME = "microservice-bootstrap-operator-ca";
+    private static final String CA_CERT_KEY = "ca.crt";
+    private static final String CA_KEY_KEY = "ca.key";
+
+    private final KubernetesClient kubernetesClient;
+    private final OperatorProperties.Tls config;
+    private volatile KeyPairPool keyPairPool;
+    private volatile CertificateSigner signer;
+
+    public CertificateAuthorityService(KubernetesClient kubernetesClient, OperatorProperties properties) {
+        this.kubernetesClient = kubernetesClient;
+        this.config = properties.getTls();
+    }
+
+    /**
+     * Stop the key pair pool when the service is destroyed
+     */
+    @PreDestroy
+    public synchronized void cleanup() {
+        if (keyPairPool != null) {
+            keyPairPool.close();
+        }
+    }
+
+    /**
+     * Returns the key pair pool, starting it on first use so operators without TLS rotation
+     * never spend CPU on key generation
+     *
+     * @return the started key pair pool
+     */
+    private KeyPairPool keyPairPool() {
+        KeyPairPool current = keyPairPool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (keyPairPool == null) {
+                KeyPairPool pool = new KeyPairPool(config.getKeyAlgorithm(), config.getKeySize(), config.getKeyPoolSize());
+                pool.start(config.getKeyPoolRefillThreads());
+                keyPairPool = pool;
+            }
+            return keyPairPool;
+        }
+    }
+
+    /**
+     * Issues a certificate signed by the operator CA
+     *
+     * @param commonName the subject common name
+     * @param dnsNames additional DNS subject alternative names
+     * @param organization the subject organization, may be null
+     * @param validityDays the validity in days, or 0 for the configured default
+     * @return the PEM encoded certificate, key and CA certificate
+     */
+    @Override
+    public CertificateSigner.IssuedCertificate issue(String commonName, List<String> dnsNames,
+                                                     String organization, int validityDays) {
+        int validity = validityDays > 0 ? validityDays : config.getCertificateValidityDays();
+        return getSigner().issue(keyPairPool().take(), commonName, dnsNames, organization, validity);
+    }
+
+    /**
+     * Returns the CA signer, loading the CA from its Secret or creating it on first use
+     *
+     * @return the CA signer
+     */
+    private CertificateSigner getSigner() {
+        CertificateSigner current = signer;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (signer == null) {
+                signer = loadOrCreateCa();
+            }
+            return signer;
+        }
+    }
+
+    private CertificateSigner loadOrCreateCa() {
+        String namespace = config.getCaSecretNamespace();
+        String name = config.getCaSecretName();
+
+        Secret existing = kubernetesClient.secrets().inNamespace(namespace).withName(name).get();
+        if (existing != null) {
+            log.info("Loaded operator CA from Secret {}/{}", namespace, name);
+            return fromSecret(existing);
+        }
+
+        CertificateSigner created = CertificateSigner.createSelfSigned(
+                keyPairPool().take(), CA_COMMON_NAME, config.getCaValidityDays());
+        Secret caSecret = new SecretBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace(namespace)
+                    .addToLabels(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE)
+                .endMetadata()
+                .withStringData(Map.of(
+                        CA_CERT_KEY, created.getCaCertificatePem(),
+                        CA_KEY_KEY, created.getCaPrivateKeyPem()))
+                .build();
+        try {
+            kubernetesClient.secrets().inNamespace(namespace).resource(caSecret).create();
+            log.info("Created operator CA in Secret {}/{}", namespace, name);
+            return created;
+        } catch (KubernetesClientException e) {
+            if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+            // Another replica created the CA first, use theirs
+            return fromSecret(kubernetesClient.secrets().inNamespace(namespace).withName(name).get());
+        }
+    }
+
+    private static CertificateSigner fromSecret(Secret secret) {
+        Map<String, String> data = secret.getData();
+        return CertificateSigner.fromPem(decode(data.get(CA_CERT_KEY)), decode(data.get(CA_KEY_KEY)));
+    }
+
+    private static String decode(String value) {
+        return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+}
@@ -1,12 +1,13 @@
 package io.github.k8soperators.microservicebootstrapoperator.service;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
 import io.github.k8soperators.microservicebootstrapoperator.util.RetryUtil;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jgit.api.Git;
@@ -21,6 +22,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 /**
@@ -29,10 +31,12 @@ import java.util.stream.Stream;
  */
 @Slf4j
 @Service
+@ConditionalOnOperatorMode
 @RequiredArgsConstructor
 public class ConfigMapService {
 
-    private final KubernetesClient kubernetesClient;
+    private final ResourceApplier resourceApplier;
+    private final WorkloadRolloutService workloadRolloutService;
     private static final String TEMP_DIR_PREFIX = "github-config-";
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_BACKOFF_MS = 1000;
@@ -190,22 +194,23 @@ public class ConfigMapService {
                     .withName(configMapName)
                     .withNamespace(appConfig.getMetadata().getNamespace())
                     .withOwnerReferences(ownerRef)
-                    .addToLabels("app", appConfig.getSpec().getAppName())
-                    .addToLabels("managed-by", "microservice-bootstrap-operator")
+                    .addToLabels(ResourceLabels.forAppConfig(appConfig))
                 .endMetadata()
                 .withData(data)
                 .build();
         
         // Apply the ConfigMap with retry
         try {
+            AtomicBoolean applied = new AtomicBoolean();
             RetryUtil.executeWithRetry(() -> {
-                kubernetesClient.configMaps()
-                        .inNamespace(appConfig.getMetadata().getNamespace())
-                        .resource(configMap)
-                        .createOrReplace();
-                log.info("Created/updated ConfigMap {} in namespace {}", 
-                        configMapName, appConfig.getMetadata().getNamespace());
+                // Unchanged content sends no request
+                applied.set(resourceApplier.apply(configMap));
             }, MAX_RETRIES, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS);
+            if (applied.get()) {
+                // Only content that was written can have changed what the workloads see
+                workloadRolloutService.onContentChange(WorkloadRolloutService.CONFIG_MAP,
+                        appConfig.getMetadata().getNamespace(), configMapName, data);
+            }
         } catch (Exception e) {
             log.error("Failed to create/update ConfigMap {} in namespace {}: {}", 
                     configMapName, appConfig.getMetadata().getNamespace(), e.getMessage(), e);
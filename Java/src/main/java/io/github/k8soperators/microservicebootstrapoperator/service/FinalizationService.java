@@ -0,0 +1,242 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
+import io.github.k8soperators.microservicebootstrapoperator.util.RetryUtil;
+import io.fabric8.kubernetes.api.model.DeletionPropagation;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.StatusDetails;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for cleaning up the resources created by an AppConfig when it is deleted.
+ * Issues one label-selector collection delete per kind and namespace and runs the kinds in parallel,
+ * so a finalizer clears in a single round of API calls regardless of how many resources were created.
+ * Tracked resources the selector did not cover, created before the operator labelled them, are deleted by name.
+ */
+@Slf4j
+@Service
+@ConditionalOnOperatorMode
+public class FinalizationService {
+
+    private static final int MAX_PARALLEL_DELETES = 6;
+    private static final int MAX_RETRIES = 2;
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 2000;
+
+    private final KubernetesClient kubernetesClient;
+    private final ExecutorService executor;
+
+    public FinalizationService(KubernetesClient kubernetesClient) {
+        this.kubernetesClient = kubernetesClient;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(MAX_PARALLEL_DELETES, runnable -> {
+            Thread thread = new Thread(runnable, "finalizer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Shut down the delete worker pool when the service is destroyed
+     */
+    @PreDestroy
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Deletes all resources recorded in the AppConfig status.
+     * Kinds that were never recorded are left to ownerReference garbage collection, which the API server
+     * performs once the AppConfig itself is gone, since every dependent carries a controller owner reference.
+     * A tracked resource missed by the collection delete is deleted by name when the AppConfig is its only owner,
+     * so policies shared with other AppConfigs are kept.
+     *
+     * @param appConfig the AppConfig being finalized
+     */
+    public void finalizeResources(AppConfig appConfig) {
+        if (appConfig.getStatus() == null || appConfig.getStatus().getCreatedResources() == null
+                || appConfig.getStatus().getCreatedResources().isEmpty()) {
+            log.info("No tracked resources for AppConfig {}/{}, relying on garbage collection",
+                    appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
+            return;
+        }
+
+        Map<DeleteTarget, Set<String>> targets = collectTargets(appConfig);
+        Map<String, String> selector = ResourceLabels.selectorFor(appConfig);
+
+        List<CompletableFuture<Void>> deletes = new ArrayList<>();
+        for (Map.Entry<DeleteTarget, Set<String>> target : targets.entrySet()) {
+            deletes.add(CompletableFuture.runAsync(
+                    () -> deleteCollection(target.getKey(), target.getValue(), selector, appConfig), executor));
+        }
+        CompletableFuture.allOf(deletes.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Groups the tracked resources into distinct (kind, namespace) pairs
+     *
+     * @param appConfig the AppConfig being finalized
+     * @return the collection deletes to issue, with the names of the tracked resources each one should cover
+     */
+    Map<DeleteTarget, Set<String>> collectTargets(AppConfig appConfig) {
+        Map<DeleteTarget, Set<String>> targets = new LinkedHashMap<>();
+        for (String resourceName : appConfig.getStatus().getCreatedResources()) {
+            DeleteTarget target = parseTarget(resourceName, appConfig.getMetadata().getNamespace());
+            if (target == null) {
+                log.warn("Invalid resource name format: {}", resourceName);
+                continue;
+            }
+            targets.computeIfAbsent(target, key -> new LinkedHashSet<>()).add(parseName(resourceName));
+        }
+        return targets;
+    }
+
+    /**
+     * Parses a tracked resource entry. Supported formats are "Kind/namespace/name", "Kind/name"
+     * and the legacy "kind:namespace/name".
+     *
+     * @param resourceName the tracked resource entry
+     * @param defaultNamespace namespace to use when the entry does not carry one
+     * @return the delete target, or null if the entry cannot be parsed
+     */
+    static DeleteTarget parseTarget(String resourceName, String defaultNamespace) {
+        String kind;
+        String[] nameParts;
+        int colon = resourceName.indexOf(':');
+        if (colon > 0) {
+            kind = resourceName.substring(0, colon);
+            nameParts = resourceName.substring(colon + 1).split("/");
+        } else {
+            String[] parts = resourceName.split("/");
+            if (parts.length < 2) {
+                return null;
+            }
+            kind = parts[0];
+            nameParts = Arrays.copyOfRange(parts, 1, parts.length);
+        }
+
+        String namespace;
+        if (nameParts.length == 2) {
+            namespace = nameParts[0];
+        } else if (nameParts.length == 1) {
+            namespace = defaultNamespace;
+        } else {
+            return null;
+        }
+        return new DeleteTarget(kind.toLowerCase(), namespace);
+    }
+
+    /**
+     * Returns the resource name of a tracked resource entry accepted by {@link #parseTarget}
+     *
+     * @param resourceName the tracked resource entry
+     * @return the name of the resource
+     */
+    static String parseName(String resourceName) {
+        return resourceName.substring(Math.max(resourceName.lastIndexOf('/'), resourceName.indexOf(':')) + 1);
+    }
+
+    /**
+     * Issues a single collection delete for all resources of one kind in one namespace, then deletes the tracked
+     * resources the selector did not match by name
+     *
+     * @param target the kind and namespace to delete from
+     * @param names the names of the tracked resources of the kind and namespace
+     * @param selector the label selector identifying the AppConfig's resources
+     * @param appConfig the AppConfig being finalized
+     */
+    private void deleteCollection(DeleteTarget target, Set<String> names, Map<String, String> selector,
+                                  AppConfig appConfig) {
+        NonNamespaceOperation<? extends HasMetadata, ?, ? extends Resource<? extends HasMetadata>> resources =
+                resources(target);
+        if (resources == null) {
+            log.warn("Unknown resource kind: {}", target.kind());
+            return;
+        }
+        log.info("Deleting {} resources in namespace {} with selector {}", target.kind(), target.namespace(), selector);
+        try {
+            Set<String> remaining = new LinkedHashSet<>(names);
+            RetryUtil.executeWithRetry(() -> {
+                List<StatusDetails> deleted = resources.withLabels(selector)
+                        .withPropagationPolicy(DeletionPropagation.BACKGROUND).delete();
+                if (deleted != null) {
+                    deleted.forEach(details -> remaining.remove(details.getName()));
+                }
+            }, MAX_RETRIES, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS);
+            for (String name : remaining) {
+                RetryUtil.executeWithRetry(() -> deleteUnlabelled(resources, target, name, appConfig),
+                        MAX_RETRIES, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS);
+            }
+        } catch (Exception e) {
+            // Log but continue, anything left behind is still garbage collected through its owner reference
+            log.warn("Failed to delete {} resources in namespace {}, continuing with others",
+                    target.kind(), target.namespace(), e);
+        }
+    }
+
+    /**
+     * Deletes a tracked resource by name if it still exists and the AppConfig is its only owner
+     */
+    private void deleteUnlabelled(NonNamespaceOperation<? extends HasMetadata, ?, ? extends Resource<? extends HasMetadata>> resources,
+                                  DeleteTarget target, String name, AppConfig appConfig) {
+        HasMetadata resource = resources.withName(name).get();
+        if (resource == null || !isOwnedOnlyBy(resource, appConfig)) {
+            return;
+        }
+        resources.withName(name).withPropagationPolicy(DeletionPropagation.BACKGROUND).delete();
+        log.info("Deleted unlabelled {} {}/{}", target.kind(), target.namespace(), name);
+    }
+
+    private static boolean isOwnedOnlyBy(HasMetadata resource, AppConfig appConfig) {
+        List<OwnerReference> owners = resource.getMetadata().getOwnerReferences();
+        String uid = appConfig.getMetadata().getUid();
+        return uid != null && owners != null && !owners.isEmpty()
+                && owners.stream().allMatch(owner -> uid.equals(owner.getUid()));
+    }
+
+    private NonNamespaceOperation<? extends HasMetadata, ?, ? extends Resource<? extends HasMetadata>> resources(
+            DeleteTarget target) {
+        switch (target.kind()) {
+            case "configmap":
+                return kubernetesClient.configMaps().inNamespace(target.namespace());
+            case "secret":
+                return kubernetesClient.secrets().inNamespace(target.namespace());
+            case "serviceaccount":
+                return kubernetesClient.serviceAccounts().inNamespace(target.namespace());
+            case "role":
+                return kubernetesClient.rbac().roles().inNamespace(target.namespace());
+            case "rolebinding":
+                return kubernetesClient.rbac().roleBindings().inNamespace(target.namespace());
+            case "networkpolicy":
+                return kubernetesClient.network().networkPolicies().inNamespace(target.namespace());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * A single collection delete: one kind in one namespace
+     */
+    record DeleteTarget(String kind, String namespace) {
+    }
+}
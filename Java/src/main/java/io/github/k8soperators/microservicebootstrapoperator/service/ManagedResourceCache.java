@@ -0,0 +1,166 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicy;
+import io.fabric8.kubernetes.api.model.rbac.Role;
+import io.fabric8.kubernetes.api.model.rbac.RoleBinding;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.Informable;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shared informer caches of the ConfigMap, RBAC and NetworkPolicy resources the operator manages.
+ * Informers only watch resources labelled as managed by the operator and index them by owning AppConfig,
+ * so reconciles read existing resources from memory. Reads fall back to the API server on a cache miss,
+ * e.g. for resources created before the operator labelled them or while a cache is still syncing.
+ * AppConfigs themselves are cached too, for reconciles that look at the other AppConfigs of a namespace.
+ */
+@Slf4j
+@Service
+@ConditionalOnOperatorMode
+@RequiredArgsConstructor
+public class ManagedResourceCache {
+
+    static final String APP_CONFIG_INDEX = "appConfig";
+
+    private final KubernetesClient kubernetesClient;
+    private final Map<Class<?>, SharedIndexInformer<?>> informers = new ConcurrentHashMap<>();
+
+    /**
+     * Start the informers of the managed resource kinds
+     */
+    @PostConstruct
+    public void init() {
+        startInformer(ConfigMap.class, () -> kubernetesClient.configMaps().inAnyNamespace()
+                .withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE));
+        startInformer(ServiceAccount.class, () -> kubernetesClient.serviceAccounts().inAnyNamespace()
+                .withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE));
+        startInformer(Role.class, () -> kubernetesClient.rbac().roles().inAnyNamespace()
+                .withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE));
+        startInformer(RoleBinding.class, () -> kubernetesClient.rbac().roleBindings().inAnyNamespace()
+                .withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE));
+        startInformer(NetworkPolicy.class, () -> kubernetesClient.network().networkPolicies().inAnyNamespace()
+                .withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE));
+        startInformer(AppConfig.class, () -> kubernetesClient.resources(AppConfig.class).inAnyNamespace());
+    }
+
+    /**
+     * Stop the informers when the cache is destroyed
+     */
+    @PreDestroy
+    public void cleanup() {
+        informers.values().forEach(SharedIndexInformer::stop);
+        informers.clear();
+    }
+
+    /**
+     * Sets the informer a resource kind is read from
+     *
+     * @param type the resource class
+     * @param informer informer of the managed resources, indexed by {@link #APP_CONFIG_INDEX}
+     */
+    <T extends HasMetadata> void useInformer(Class<T> type, SharedIndexInformer<T> informer) {
+        informers.put(type, informer);
+    }
+
+    /**
+     * Returns a resource from the cache, or from the API server if the cache does not have it
+     *
+     * @param type the resource class
+     * @param namespace the namespace of the resource
+     * @param name the name of the resource
+     * @param apiGet reads the resource from the API server, called on a cache miss only
+     * @return the resource, or null if it does not exist
+     */
+    public <T extends HasMetadata> T get(Class<T> type, String namespace, String name, Supplier<T> apiGet) {
+        SharedIndexInformer<T> informer = informer(type);
+        if (informer != null && informer.hasSynced()) {
+            T cached = informer.getStore().getByKey(Cache.namespaceKeyFunc(namespace, name));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return apiGet.get();
+    }
+
+    /**
+     * Returns the cached resources of a kind owned by an AppConfig
+     *
+     * @param type the resource class
+     * @param namespace the namespace of the AppConfig
+     * @param appConfigName the name of the AppConfig
+     * @return the cached resources, empty if the kind is not cached
+     */
+    public <T extends HasMetadata> List<T> listForAppConfig(Class<T> type, String namespace, String appConfigName) {
+        SharedIndexInformer<T> informer = informer(type);
+        if (informer == null) {
+            return List.of();
+        }
+        return informer.getIndexer().byIndex(APP_CONFIG_INDEX,
+                Cache.namespaceKeyFunc(namespace, ResourceLabels.appConfigLabelValue(appConfigName)));
+    }
+
+    /**
+     * Returns the resources of a kind in a namespace from the cache, or from the API server while the cache
+     * is not synced
+     *
+     * @param type the resource class
+     * @param namespace the namespace
+     * @param apiList lists the resources from the API server, called when the cache cannot answer only
+     * @return the resources of the namespace
+     */
+    public <T extends HasMetadata> List<T> list(Class<T> type, String namespace, Supplier<List<T>> apiList) {
+        SharedIndexInformer<T> informer = informer(type);
+        if (informer != null && informer.hasSynced()) {
+            return informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, namespace);
+        }
+        return apiList.get();
+    }
+
+    /**
+     * Returns the informer of a cached kind, so other services can add their indexers and event handlers
+     * instead of watching the kind again. The informer belongs to the cache and must not be stopped.
+     *
+     * @param type the resource class
+     * @return the running informer, or null if the kind is not cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends HasMetadata> SharedIndexInformer<T> informer(Class<T> type) {
+        return (SharedIndexInformer<T>) informers.get(type);
+    }
+
+    private <T extends HasMetadata> void startInformer(Class<T> type, Supplier<Informable<T>> informable) {
+        try {
+            SharedIndexInformer<T> informer = informable.get().runnableInformer(0);
+            informer.addIndexers(Map.of(APP_CONFIG_INDEX, ManagedResourceCache::appConfigKeys));
+            informer.start();
+            informers.put(type, informer);
+        } catch (Exception e) {
+            log.warn("Failed to start the {} cache, reads go to the API server", type.getSimpleName(), e);
+        }
+    }
+
+    static List<String> appConfigKeys(HasMetadata resource) {
+        Map<String, String> labels = resource.getMetadata().getLabels();
+        String appConfig = labels != null ? labels.get(ResourceLabels.APP_CONFIG_LABEL) : null;
+        return appConfig != null
+                ? List.of(Cache.namespaceKeyFunc(resource.getMetadata().getNamespace(), appConfig))
+                : List.of();
+    }
+}
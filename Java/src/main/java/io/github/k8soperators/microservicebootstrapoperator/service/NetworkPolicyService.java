@@ -1,101 +1,344 @@
 package io.github.k8soperators.microservicebootstrapoperator.service;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.NetworkPolicyConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.NetworkPolicyRule;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
 import io.fabric8.kubernetes.api.model.LabelSelector;
 import io.fabric8.kubernetes.api.model.LabelSelectorBuilder;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
 import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicy;
 import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyBuilder;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyEgressRule;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyIngressRule;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicySpec;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.dsl.Resource;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Service creating the NetworkPolicy of an AppConfig.
+ * The ingress and egress rule strings are compiled by {@link NetworkPolicyRule} into real policy rules. Policies
+ * are written through the {@link ResourceApplier}, which skips them while they are up to date. With
+ * {@code operator.network.aggregate-policies} the AppConfigs of a namespace that have identical rules share one
+ * policy selecting all of their apps. The AppConfigs and policies of the namespace are read from the
+ * {@link ManagedResourceCache}, and syncs of the same namespace are serialized so concurrent reconciles do not
+ * delete each other's groups.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
+@ConditionalOnOperatorMode
 public class NetworkPolicyService {
 
+    static final String POLICY_GROUP_LABEL = "microservice.example.com/network-policy-group";
+    private static final String RESOURCE_PREFIX = "NetworkPolicy/";
+    private static final String INGRESS = "Ingress";
+    private static final String EGRESS = "Egress";
+
     private final KubernetesClient kubernetesClient;
+    private final ResourceApplier resourceApplier;
+    private final ManagedResourceCache resourceCache;
+    private final OperatorProperties.Network config;
+    private final Map<String, Object> namespaceLocks = new ConcurrentHashMap<>();
+
+    public NetworkPolicyService(KubernetesClient kubernetesClient, ResourceApplier resourceApplier,
+                                ManagedResourceCache resourceCache, OperatorProperties properties) {
+        this.kubernetesClient = kubernetesClient;
+        this.resourceApplier = resourceApplier;
+        this.resourceCache = resourceCache;
+        this.config = properties.getNetwork();
+    }
 
     /**
      * Sets up NetworkPolicy for the given AppConfig
      *
      * @param appConfig the AppConfig resource
+     * @throws IllegalArgumentException if an ingress or egress rule is invalid
      */
     public void setupNetworkPolicy(AppConfig appConfig) {
         log.info("Setting up NetworkPolicy for: {}/{}", appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
-        
+
         if (appConfig.getSpec().getNetworkPolicy() == null || !appConfig.getSpec().getNetworkPolicy().isEnabled()) {
             log.info("NetworkPolicy not enabled, skipping");
             return;
         }
 
-        String networkPolicyName = String.format("%s-network-policy", appConfig.getSpec().getAppName());
-        
-        // Create a basic NetworkPolicy
+        CompiledPolicy policy = compile(appConfig.getSpec().getNetworkPolicy());
+        String networkPolicyName;
+        if (config.isAggregatePolicies()) {
+            networkPolicyName = syncNamespace(appConfig.getMetadata().getNamespace(), appConfig, null)
+                    .get(appConfig.getMetadata().getName());
+        } else {
+            networkPolicyName = policyName(appConfig);
+            resourceApplier.apply(appPolicy(appConfig, policy));
+        }
+
+        // Track created resource
+        String resourceName = RESOURCE_PREFIX + networkPolicyName;
+        if (appConfig.getStatus() != null) {
+            appConfig.getStatus().addCreatedResource(resourceName);
+        }
+    }
+
+    /**
+     * Releases the NetworkPolicy of an AppConfig that is deleted or no longer enables one.
+     * The AppConfig leaves the aggregated policy it shares with other AppConfigs, and the policy it owns alone is
+     * deleted. Nothing is done for AppConfigs whose status tracks no NetworkPolicy.
+     *
+     * @param appConfig the AppConfig
+     */
+    public void releaseNetworkPolicy(AppConfig appConfig) {
+        if (appConfig.getStatus() == null || appConfig.getStatus().getCreatedResources() == null
+                || appConfig.getStatus().getCreatedResources().stream().noneMatch(r -> r.startsWith(RESOURCE_PREFIX))) {
+            return;
+        }
+        String namespace = appConfig.getMetadata().getNamespace();
+        if (config.isAggregatePolicies()) {
+            syncNamespace(namespace, null, appConfig.getMetadata().getName());
+        }
+        String name = policyName(appConfig);
+        kubernetesClient.network().networkPolicies().inNamespace(namespace).withName(name).delete();
+        log.info("Deleted NetworkPolicy {}/{} of AppConfig {}", namespace, name, appConfig.getMetadata().getName());
+        appConfig.getStatus().getCreatedResources().removeIf(r -> r.startsWith(RESOURCE_PREFIX));
+    }
+
+    /**
+     * Applies the policies of all AppConfigs of a namespace, one per distinct set of rules, and deletes policies
+     * of groups that no longer exist
+     *
+     * @param namespace the namespace
+     * @param current the AppConfig being reconciled, replaces its possibly older listed version, may be null
+     * @param removed the name of an AppConfig to leave out, may be null
+     * @return the name of the policy covering each AppConfig
+     */
+    private Map<String, String> syncNamespace(String namespace, AppConfig current, String removed) {
+        synchronized (lockFor(namespace)) {
+            return syncGroups(namespace, current, removed);
+        }
+    }
+
+    private Map<String, String> syncGroups(String namespace, AppConfig current, String removed) {
+        Map<CompiledPolicy, List<AppConfig>> groups = group(namespace, current, removed);
+
+        Map<String, String> policyNames = new HashMap<>();
+        Set<String> desired = new HashSet<>();
+        Set<String> superseded = new HashSet<>();
+        for (Map.Entry<CompiledPolicy, List<AppConfig>> group : groups.entrySet()) {
+            List<AppConfig> members = group.getValue();
+            NetworkPolicy policy = members.size() == 1
+                    ? appPolicy(members.get(0), group.getKey())
+                    : groupPolicy(namespace, members, group.getKey());
+            resourceApplier.apply(policy);
+            desired.add(policy.getMetadata().getName());
+            for (AppConfig member : members) {
+                policyNames.put(member.getMetadata().getName(), policy.getMetadata().getName());
+                if (members.size() > 1) {
+                    superseded.add(policyName(member));
+                }
+            }
+        }
+
+        List<NetworkPolicy> managed = resourceCache.list(NetworkPolicy.class, namespace,
+                () -> kubernetesClient.network().networkPolicies().inNamespace(namespace)
+                        .withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE).list().getItems());
+        for (NetworkPolicy existing : managed) {
+            String name = existing.getMetadata().getName();
+            Map<String, String> labels = existing.getMetadata().getLabels();
+            boolean staleGroup = labels != null && labels.containsKey(POLICY_GROUP_LABEL) && !desired.contains(name);
+            if (staleGroup || superseded.contains(name)) {
+                kubernetesClient.network().networkPolicies().inNamespace(namespace).withName(name).delete();
+                log.info("Deleted superseded NetworkPolicy {}/{}", namespace, name);
+            }
+        }
+        return policyNames;
+    }
+
+    /**
+     * Groups the AppConfigs of a namespace with an enabled NetworkPolicy by their compiled rules
+     */
+    private Map<CompiledPolicy, List<AppConfig>> group(String namespace, AppConfig current, String removed) {
+        List<AppConfig> appConfigs = new ArrayList<>(resourceCache.list(AppConfig.class, namespace,
+                () -> kubernetesClient.resources(AppConfig.class).inNamespace(namespace).list().getItems()));
+        if (current != null) {
+            appConfigs.removeIf(a -> a.getMetadata().getName().equals(current.getMetadata().getName()));
+            appConfigs.add(current);
+        }
+        // A stable member order keeps the applied policy, and so its hash, unchanged between reconciles
+        appConfigs.sort(Comparator.comparing(a -> a.getMetadata().getName()));
+
+        Map<CompiledPolicy, List<AppConfig>> groups = new LinkedHashMap<>();
+        for (AppConfig appConfig : appConfigs) {
+            NetworkPolicyConfig networkPolicy = appConfig.getSpec() != null ? appConfig.getSpec().getNetworkPolicy() : null;
+            if (appConfig.getMetadata().getName().equals(removed)
+                    || appConfig.getMetadata().getDeletionTimestamp() != null
+                    || networkPolicy == null || !networkPolicy.isEnabled()) {
+                continue;
+            }
+            CompiledPolicy policy;
+            try {
+                policy = compile(networkPolicy);
+            } catch (IllegalArgumentException e) {
+                if (appConfig == current) {
+                    throw e;
+                }
+                // Reported by the reconcile of that AppConfig
+                log.debug("Skipping AppConfig {}/{} with invalid network policy rules", namespace,
+                        appConfig.getMetadata().getName());
+                continue;
+            }
+            groups.computeIfAbsent(policy, p -> new ArrayList<>()).add(appConfig);
+        }
+        return groups;
+    }
+
+    private Object lockFor(String namespace) {
+        return namespaceLocks.computeIfAbsent(namespace, n -> new Object());
+    }
+
+    /**
+     * Compiles the ingress and egress rules of a NetworkPolicy configuration
+     *
+     * @param networkPolicy the NetworkPolicy configuration
+     * @return the compiled rules
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    static CompiledPolicy compile(NetworkPolicyConfig networkPolicy) {
+        return new CompiledPolicy(compileRules(networkPolicy.getIngress()), compileRules(networkPolicy.getEgress()));
+    }
+
+    private static List<NetworkPolicyRule> compileRules(List<String> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return List.of();
+        }
+        List<NetworkPolicyRule> compiled = new ArrayList<>(rules.size());
+        for (String rule : rules) {
+            compiled.add(NetworkPolicyRule.compile(rule));
+        }
+        return List.copyOf(compiled);
+    }
+
+    private NetworkPolicy appPolicy(AppConfig appConfig, CompiledPolicy policy) {
         Map<String, String> matchLabels = new HashMap<>();
         matchLabels.put("app", appConfig.getSpec().getAppName());
-        
+
         LabelSelector podSelector = new LabelSelectorBuilder()
                 .withMatchLabels(matchLabels)
                 .build();
-        
-        NetworkPolicy networkPolicy = new NetworkPolicyBuilder()
+
+        return new NetworkPolicyBuilder()
                 .withNewMetadata()
-                    .withName(networkPolicyName)
+                    .withName(policyName(appConfig))
                     .withNamespace(appConfig.getMetadata().getNamespace())
-                    .withOwnerReferences(createOwnerReference(appConfig))
+                    .withOwnerReferences(createOwnerReference(appConfig, true))
+                    .addToLabels(ResourceLabels.forAppConfig(appConfig))
                 .endMetadata()
-                .withNewSpec()
-                    .withPodSelector(podSelector)
-                    // In a real implementation, ingress and egress rules would be configured
-                    // based on appConfig.getSpec().getNetworkPolicy().getIngress() and appConfig.getSpec().getNetworkPolicy().getEgress()
-                .endSpec()
+                .withSpec(policy.toSpec(podSelector))
                 .build();
+    }
 
-        Resource<NetworkPolicy> networkPolicyResource = kubernetesClient.network().networkPolicies()
-                .inNamespace(appConfig.getMetadata().getNamespace())
-                .withName(networkPolicyName);
-
-        if (networkPolicyResource.get() == null) {
-            kubernetesClient.network().networkPolicies()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(networkPolicy)
-                    .create();
-            log.info("Created NetworkPolicy: {}/{}", appConfig.getMetadata().getNamespace(), networkPolicyName);
-        } else {
-            kubernetesClient.network().networkPolicies()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(networkPolicy)
-                    .serverSideApply();
-            log.info("Updated NetworkPolicy: {}/{}", appConfig.getMetadata().getNamespace(), networkPolicyName);
+    private NetworkPolicy groupPolicy(String namespace, List<AppConfig> members, CompiledPolicy policy) {
+        String group = policy.hash();
+        List<String> appNames = new ArrayList<>();
+        List<OwnerReference> owners = new ArrayList<>();
+        for (AppConfig member : members) {
+            appNames.add(member.getSpec().getAppName());
+            // Garbage collected once every member is gone
+            owners.add(createOwnerReference(member, false));
         }
+        LabelSelector podSelector = new LabelSelectorBuilder()
+                .addNewMatchExpression()
+                    .withKey(ResourceLabels.APP_LABEL)
+                    .withOperator("In")
+                    .withValues(appNames)
+                .endMatchExpression()
+                .build();
 
-        // Track created resource
-        String resourceName = String.format("NetworkPolicy/%s", networkPolicyName);
-        if (appConfig.getStatus() != null) {
-            appConfig.getStatus().addCreatedResource(resourceName);
-        }
+        return new NetworkPolicyBuilder()
+                .withNewMetadata()
+                    .withName("network-policy-" + group)
+                    .withNamespace(namespace)
+                    .withOwnerReferences(owners)
+                    .addToLabels(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE)
+                    .addToLabels(POLICY_GROUP_LABEL, group)
+                .endMetadata()
+                .withSpec(policy.toSpec(podSelector))
+                .build();
+    }
+
+    private static String policyName(AppConfig appConfig) {
+        return String.format("%s-network-policy", appConfig.getSpec().getAppName());
     }
 
     /**
      * Creates an owner reference for the given AppConfig
      *
      * @param appConfig the AppConfig resource
+     * @param controller whether the AppConfig is the only owner
      * @return the owner reference
      */
-    private io.fabric8.kubernetes.api.model.OwnerReference createOwnerReference(AppConfig appConfig) {
-        return new io.fabric8.kubernetes.api.model.OwnerReferenceBuilder()
+    private OwnerReference createOwnerReference(AppConfig appConfig, boolean controller) {
+        return new OwnerReferenceBuilder()
                 .withApiVersion(appConfig.getApiVersion())
                 .withKind(appConfig.getKind())
                 .withName(appConfig.getMetadata().getName())
                 .withUid(appConfig.getMetadata().getUid())
-                .withBlockOwnerDeletion(true)
-                .withController(true)
+                .withBlockOwnerDeletion(controller)
+                .withController(controller)
                 .build();
     }
+
+    /**
+     * The compiled rules of a NetworkPolicy configuration, equal for configurations with the same rules
+     *
+     * @param ingress the ingress rules, empty to deny all ingress
+     * @param egress the egress rules, empty to leave egress unrestricted
+     */
+    record CompiledPolicy(List<NetworkPolicyRule> ingress, List<NetworkPolicyRule> egress) {
+
+        NetworkPolicySpec toSpec(LabelSelector podSelector) {
+            List<NetworkPolicyIngressRule> ingressRules = new ArrayList<>(ingress.size());
+            for (NetworkPolicyRule rule : ingress) {
+                ingressRules.add(rule.toIngressRule());
+            }
+            List<NetworkPolicyEgressRule> egressRules = new ArrayList<>(egress.size());
+            for (NetworkPolicyRule rule : egress) {
+                egressRules.add(rule.toEgressRule());
+            }
+            // Ingress is always isolated; egress only once rules are given, so existing apps keep their egress
+            List<String> policyTypes = egress.isEmpty() ? List.of(INGRESS) : List.of(INGRESS, EGRESS);
+            return new NetworkPolicySpec(
+                    egressRules, ingressRules, podSelector, new ArrayList<>(policyTypes));
+        }
+
+        /**
+         * Returns a short stable hash of the rules, naming the aggregated policy
+         *
+         * @return the first 10 hex characters of the SHA-256 of the rules
+         */
+        String hash() {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(toString().getBytes(StandardCharsets.UTF_8));
+                return HexFormat.of().formatHex(digest).substring(0, 10);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
 }
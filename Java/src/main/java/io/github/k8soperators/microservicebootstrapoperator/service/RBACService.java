@@ -1,6 +1,9 @@
 package io.github.k8soperators.microservicebootstrapoperator.service;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.service.RoleTemplateCatalog.RoleTemplate;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
 import io.fabric8.kubernetes.api.model.ServiceAccount;
 import io.fabric8.kubernetes.api.model.ServiceAccountBuilder;
 import io.fabric8.kubernetes.api.model.rbac.Role;
@@ -8,19 +11,42 @@ import io.fabric8.kubernetes.api.model.rbac.RoleBinding;
 import io.fabric8.kubernetes.api.model.rbac.RoleBindingBuilder;
 import io.fabric8.kubernetes.api.model.rbac.RoleBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-
+/**
+ * Service creating the ServiceAccount, Roles and RoleBindings of an AppConfig.
+ * Roles are resolved through the {@link RoleTemplateCatalog}: each distinct rule set is materialized once per
+ * namespace as a shared Role, and only the RoleBindings are created per AppConfig. A shared Role is deleted once
+ * no other AppConfig declares it or references it from a RoleBinding. Resources are written through the {@link ResourceApplier},
+ * so steady-state reconciles send no requests.
+ */
 @Slf4j
 @Service
+@ConditionalOnOperatorMode
 @RequiredArgsConstructor
 public class RBACService {
 
+    static final String ROLE_TEMPLATE_LABEL = "microservice.example.com/role-template";
+    private static final String ROLE_PREFIX = "Role/";
+    private static final int HTTP_UNPROCESSABLE_ENTITY = 422;
+
     private final KubernetesClient kubernetesClient;
+    private final ResourceApplier resourceApplier;
+    private final RoleTemplateCatalog roleTemplateCatalog;
+    // Shared Roles of a namespace are created and released under one lock, so a release never races a new reference
+    private final Map<String, Object> namespaceLocks = new ConcurrentHashMap<>();
 
     /**
      * Sets up RBAC for the given AppConfig
@@ -39,21 +65,133 @@ public class RBACService {
         String serviceAccountName = appConfig.getSpec().getRbac().getServiceAccountName();
         createServiceAccount(appConfig, serviceAccountName);
 
-        // Create Roles
+        Map<String, RoleTemplate> roles = new LinkedHashMap<>();
         if (appConfig.getSpec().getRbac().getRoles() != null) {
             for (String roleName : appConfig.getSpec().getRbac().getRoles()) {
-                createRole(appConfig, roleName);
+                roles.put(roleName, roleTemplateCatalog.resolve(roleName));
+            }
+        }
+
+        synchronized (lockFor(appConfig.getMetadata().getNamespace())) {
+            // Create the shared Roles, once per distinct rule set
+            Set<String> sharedRoles = new LinkedHashSet<>();
+            for (RoleTemplate template : roles.values()) {
+                if (sharedRoles.add(template.roleName())) {
+                    createSharedRole(appConfig, template);
+                }
+            }
+
+            // Create RoleBindings
+            if (appConfig.getSpec().getRbac().getRoleBindings() != null) {
+                for (String roleBindingName : appConfig.getSpec().getRbac().getRoleBindings()) {
+                    String roleName = roleBindingName.replace("Binding", "");
+                    RoleTemplate template = roles.get(roleName);
+                    // Bindings of roles the AppConfig does not declare keep pointing at the Role of that name
+                    createRoleBinding(appConfig, roleBindingName, serviceAccountName,
+                            template != null ? template.roleName() : roleName);
+                }
+            }
+
+            releaseSharedRoles(appConfig, sharedRoles);
+        }
+    }
+
+    /**
+     * Releases the shared Roles of a deleted AppConfig or one without RBAC configuration, deleting those no other
+     * AppConfig uses
+     *
+     * @param appConfig the AppConfig
+     */
+    public void releaseRBAC(AppConfig appConfig) {
+        synchronized (lockFor(appConfig.getMetadata().getNamespace())) {
+            releaseSharedRoles(appConfig, Set.of());
+        }
+    }
+
+    /**
+     * Drops the references of an AppConfig to the shared Roles it no longer uses.
+     * References are counted from the RoleBindings of other AppConfigs and from the roles other AppConfigs declare,
+     * so a Role declared without a binding is kept as well. Both are read from the API server rather than a cache,
+     * so a reference created just before is never missed.
+     *
+     * @param appConfig the AppConfig
+     * @param keep the shared Roles the AppConfig still uses
+     */
+    private void releaseSharedRoles(AppConfig appConfig, Set<String> keep) {
+        if (appConfig.getStatus() == null || appConfig.getStatus().getCreatedResources() == null) {
+            return;
+        }
+        String namespace = appConfig.getMetadata().getNamespace();
+        List<String> released = new ArrayList<>();
+        for (String resource : appConfig.getStatus().getCreatedResources()) {
+            if (resource.startsWith(ROLE_PREFIX + RoleTemplateCatalog.SHARED_ROLE_PREFIX)
+                    && !keep.contains(resource.substring(ROLE_PREFIX.length()))) {
+                released.add(resource);
             }
         }
+        if (released.isEmpty()) {
+            return;
+        }
 
-        // Create RoleBindings
-        if (appConfig.getSpec().getRbac().getRoleBindings() != null) {
-            for (String roleBindingName : appConfig.getSpec().getRbac().getRoleBindings()) {
-                createRoleBinding(appConfig, roleBindingName, serviceAccountName);
+        List<RoleBinding> bindings = kubernetesClient.rbac().roleBindings().inNamespace(namespace)
+                .withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE).list().getItems();
+        String appConfigLabel = ResourceLabels.appConfigLabelValue(appConfig.getMetadata().getName());
+        Set<String> declared = declaredSharedRoles(namespace, appConfig.getMetadata().getName());
+        for (String resource : released) {
+            String roleName = resource.substring(ROLE_PREFIX.length());
+            long references = bindings.stream()
+                    .filter(binding -> roleName.equals(binding.getRoleRef().getName()))
+                    .filter(binding -> !appConfigLabel.equals(
+                            binding.getMetadata().getLabels().get(ResourceLabels.APP_CONFIG_LABEL)))
+                    .count();
+            if (declared.contains(roleName)) {
+                references++;
+            }
+            if (references == 0) {
+                kubernetesClient.rbac().roles().inNamespace(namespace).withName(roleName).delete();
+                log.info("Deleted unreferenced shared Role: {}/{}", namespace, roleName);
+            } else {
+                log.debug("Shared Role {}/{} still bound by {} RoleBindings", namespace, roleName, references);
             }
+            appConfig.getStatus().getCreatedResources().remove(resource);
         }
     }
 
+    /**
+     * Collects the shared Roles the other AppConfigs of a namespace declare, from their roles or their status.
+     * AppConfigs being deleted release their own Roles and are not counted.
+     *
+     * @param namespace the namespace
+     * @param excluded the name of the AppConfig releasing its Roles
+     * @return the names of the declared shared Roles
+     */
+    private Set<String> declaredSharedRoles(String namespace, String excluded) {
+        Set<String> declared = new HashSet<>();
+        for (AppConfig other : kubernetesClient.resources(AppConfig.class).inNamespace(namespace).list().getItems()) {
+            if (other.getMetadata().getName().equals(excluded) || other.getMetadata().getDeletionTimestamp() != null) {
+                continue;
+            }
+            if (other.getSpec() != null && other.getSpec().getRbac() != null
+                    && other.getSpec().getRbac().getRoles() != null) {
+                for (String roleName : other.getSpec().getRbac().getRoles()) {
+                    declared.add(roleTemplateCatalog.resolve(roleName).roleName());
+                }
+            }
+            if (other.getStatus() != null && other.getStatus().getCreatedResources() != null) {
+                for (String resource : other.getStatus().getCreatedResources()) {
+                    if (resource.startsWith(ROLE_PREFIX + RoleTemplateCatalog.SHARED_ROLE_PREFIX)) {
+                        declared.add(resource.substring(ROLE_PREFIX.length()));
+                    }
+                }
+            }
+        }
+        return declared;
+    }
+
+    private Object lockFor(String namespace) {
+        return namespaceLocks.computeIfAbsent(namespace, n -> new Object());
+    }
+
     /**
      * Creates a ServiceAccount for the given AppConfig
      *
@@ -66,22 +204,11 @@ public class RBACService {
                     .withName(serviceAccountName)
                     .withNamespace(appConfig.getMetadata().getNamespace())
                     .withOwnerReferences(createOwnerReference(appConfig))
+                    .addToLabels(ResourceLabels.forAppConfig(appConfig))
                 .endMetadata()
                 .build();
 
-        Resource<ServiceAccount> serviceAccountResource = kubernetesClient.serviceAccounts()
-                .inNamespace(appConfig.getMetadata().getNamespace())
-                .withName(serviceAccountName);
-
-        if (serviceAccountResource.get() == null) {
-            kubernetesClient.serviceAccounts()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(serviceAccount)
-                    .create();
-            log.info("Created ServiceAccount: {}/{}", appConfig.getMetadata().getNamespace(), serviceAccountName);
-        } else {
-            log.info("ServiceAccount already exists: {}/{}", appConfig.getMetadata().getNamespace(), serviceAccountName);
-        }
+        resourceApplier.apply(serviceAccount);
 
         // Track created resource
         String resourceName = String.format("ServiceAccount/%s", serviceAccountName);
@@ -91,48 +218,28 @@ public class RBACService {
     }
 
     /**
-     * Creates a Role for the given AppConfig
+     * Creates the shared Role of a role template in the namespace of the given AppConfig.
+     * The Role has no owner references and no AppConfig label, so neither garbage collection nor the
+     * finalization of a single AppConfig removes it; it is deleted by reference counting instead.
      *
      * @param appConfig the AppConfig resource
-     * @param roleName the name of the Role to create
+     * @param template the role template
      */
-    private void createRole(AppConfig appConfig, String roleName) {
-        // In a real implementation, you would define specific rules based on the role name
-        // For demonstration, we'll create a simple role with read access to configmaps
-        
+    private void createSharedRole(AppConfig appConfig, RoleTemplate template) {
         Role role = new RoleBuilder()
                 .withNewMetadata()
-                    .withName(roleName)
+                    .withName(template.roleName())
                     .withNamespace(appConfig.getMetadata().getNamespace())
-                    .withOwnerReferences(createOwnerReference(appConfig))
+                    .addToLabels(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE)
+                    .addToLabels(ROLE_TEMPLATE_LABEL, template.roleName().substring(RoleTemplateCatalog.SHARED_ROLE_PREFIX.length()))
                 .endMetadata()
-                .addNewRule()
-                    .withApiGroups("")
-                    .withResources("configmaps")
-                    .withVerbs("get", "list", "watch")
-                .endRule()
+                .withRules(template.rules())
                 .build();
 
-        Resource<Role> roleResource = kubernetesClient.rbac().roles()
-                .inNamespace(appConfig.getMetadata().getNamespace())
-                .withName(roleName);
-
-        if (roleResource.get() == null) {
-            kubernetesClient.rbac().roles()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(role)
-                    .create();
-            log.info("Created Role: {}/{}", appConfig.getMetadata().getNamespace(), roleName);
-        } else {
-            kubernetesClient.rbac().roles()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(role)
-                    .serverSideApply();
-            log.info("Updated Role: {}/{}", appConfig.getMetadata().getNamespace(), roleName);
-        }
+        resourceApplier.apply(role);
 
-        // Track created resource
-        String resourceName = String.format("Role/%s", roleName);
+        // Track the reference, released when the AppConfig stops using the Role
+        String resourceName = ROLE_PREFIX + template.roleName();
         if (appConfig.getStatus() != null) {
             appConfig.getStatus().addCreatedResource(resourceName);
         }
@@ -144,21 +251,20 @@ public class RBACService {
      * @param appConfig the AppConfig resource
      * @param roleBindingName the name of the RoleBinding to create
      * @param serviceAccountName the name of the ServiceAccount to bind to
+     * @param roleName the name of the Role to bind
      */
-    private void createRoleBinding(AppConfig appConfig, String roleBindingName, String serviceAccountName) {
-        // In a real implementation, you would determine the appropriate role based on the binding name
-        // For demonstration, we'll use the same name for the role and the binding
-        
+    private void createRoleBinding(AppConfig appConfig, String roleBindingName, String serviceAccountName, String roleName) {
         RoleBinding roleBinding = new RoleBindingBuilder()
                 .withNewMetadata()
                     .withName(roleBindingName)
                     .withNamespace(appConfig.getMetadata().getNamespace())
                     .withOwnerReferences(createOwnerReference(appConfig))
+                    .addToLabels(ResourceLabels.forAppConfig(appConfig))
                 .endMetadata()
                 .withNewRoleRef()
                     .withApiGroup("rbac.authorization.k8s.io")
                     .withKind("Role")
-                    .withName(roleBindingName.replace("Binding", ""))
+                    .withName(roleName)
                 .endRoleRef()
                 .addNewSubject()
                     .withKind("ServiceAccount")
@@ -167,22 +273,17 @@ public class RBACService {
                 .endSubject()
                 .build();
 
-        Resource<RoleBinding> roleBindingResource = kubernetesClient.rbac().roleBindings()
-                .inNamespace(appConfig.getMetadata().getNamespace())
-                .withName(roleBindingName);
-
-        if (roleBindingResource.get() == null) {
-            kubernetesClient.rbac().roleBindings()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(roleBinding)
-                    .create();
-            log.info("Created RoleBinding: {}/{}", appConfig.getMetadata().getNamespace(), roleBindingName);
-        } else {
-            kubernetesClient.rbac().roleBindings()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(roleBinding)
-                    .serverSideApply();
-            log.info("Updated RoleBinding: {}/{}", appConfig.getMetadata().getNamespace(), roleBindingName);
+        try {
+            resourceApplier.apply(roleBinding);
+        } catch (KubernetesClientException e) {
+            if (e.getCode() != HTTP_UNPROCESSABLE_ENTITY || resourceApplier.isDryRun()) {
+                throw e;
+            }
+            // The roleRef of a binding is immutable, a binding moved to another Role is recreated
+            log.info("RoleBinding {}/{} points at another Role, recreating it", appConfig.getMetadata().getNamespace(), roleBindingName);
+            kubernetesClient.rbac().roleBindings().inNamespace(appConfig.getMetadata().getNamespace())
+                    .withName(roleBindingName).delete();
+            resourceApplier.apply(roleBinding);
         }
 
         // Track created resource
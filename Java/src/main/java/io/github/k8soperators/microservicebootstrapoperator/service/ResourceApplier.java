@@ -0,0 +1,215 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.fabric8.kubernetes.api.model.FieldsV1;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntryBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service writing the dependent resources of AppConfigs with server-side apply.
+ * Every write is a single apply request under the operator's field manager, so it creates the resource if it
+ * is missing and updates only the fields the operator owns otherwise. The desired state is hashed into an
+ * annotation; when the live resource in the {@link ManagedResourceCache} already carries the same hash the
+ * apply is skipped and no request is sent.
+ * Resources last written by the operator's create and update requests keep those fields under the legacy
+ * field managers, where an apply that drops them would not remove them. Before the first apply such fields
+ * are transferred to the apply field manager.
+ */
+@Slf4j
+@Service
+@ConditionalOnOperatorMode
+public class ResourceApplier {
+
+    static final String APPLIED_HASH_ANNOTATION = "microservice.example.com/applied-hash";
+    private static final String APPLY_OPERATION = "Apply";
+    private static final String UPDATE_OPERATION = "Update";
+
+    // Sorted map keys make the hash independent of the order labels and data were added in
+    private static final ObjectMapper CANONICAL_MAPPER = Serialization.jsonMapper().copy()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final KubernetesClient kubernetesClient;
+    private final ManagedResourceCache resourceCache;
+    private final OperatorProperties.Apply config;
+    // Resources missing from the cache whose managed fields were already checked by this process
+    private final Set<String> checkedResources = ConcurrentHashMap.newKeySet();
+
+    public ResourceApplier(KubernetesClient kubernetesClient, ManagedResourceCache resourceCache,
+                           OperatorProperties properties) {
+        this.kubernetesClient = kubernetesClient;
+        this.resourceCache = resourceCache;
+        this.config = properties.getApply();
+    }
+
+    /**
+     * Applies the desired state of a resource unless the live resource was last applied from the same state
+     *
+     * @param desired the desired resource, its metadata must include the namespace
+     * @return true if the resource was written, false if it is already up to date or the apply was a dry run
+     */
+    public <T extends HasMetadata> boolean apply(T desired) {
+        String namespace = desired.getMetadata().getNamespace();
+        String name = desired.getMetadata().getName();
+        String hash = hash(desired);
+
+        String key = desired.getKind() + "/" + namespace + "/" + name;
+        T live = resourceCache.get(type(desired), namespace, name,
+                () -> checkedResources.add(key) ? kubernetesClient.resource(desired).get() : null);
+        boolean migrated = live != null && takeOverLegacyFields(live);
+        if (!migrated && live != null && live.getMetadata().getAnnotations() != null
+                && hash.equals(live.getMetadata().getAnnotations().get(APPLIED_HASH_ANNOTATION))) {
+            log.debug("{} {}/{} is up to date, skipping apply", desired.getKind(), namespace, name);
+            return false;
+        }
+
+        if (desired.getMetadata().getAnnotations() == null) {
+            desired.getMetadata().setAnnotations(new HashMap<>());
+        }
+        desired.getMetadata().getAnnotations().put(APPLIED_HASH_ANNOTATION, hash);
+        kubernetesClient.resource(desired).patch(patchContext());
+        log.info("Applied {} {}/{}{}", desired.getKind(), namespace, name, config.isDryRun() ? " (dry run)" : "");
+        // A dry run persists nothing, callers must not act on a change
+        return !config.isDryRun();
+    }
+
+    /**
+     * Returns whether applies are only validated by the API server, see {@code operator.apply.dry-run}
+     *
+     * @return true if nothing is persisted
+     */
+    public boolean isDryRun() {
+        return config.isDryRun();
+    }
+
+    /**
+     * Transfers the fields owned by legacy field managers to the apply field manager
+     *
+     * @param live the live resource, not modified
+     * @return true if the managed fields were rewritten
+     */
+    <T extends HasMetadata> boolean takeOverLegacyFields(T live) {
+        List<ManagedFieldsEntry> entries = live.getMetadata().getManagedFields();
+        if (config.isDryRun() || entries == null || entries.stream().noneMatch(this::isLegacy)) {
+            return false;
+        }
+        Map<String, Object> owned = new LinkedHashMap<>();
+        List<ManagedFieldsEntry> kept = new ArrayList<>();
+        for (ManagedFieldsEntry entry : entries) {
+            boolean applied = config.getFieldManager().equals(entry.getManager())
+                    && APPLY_OPERATION.equals(entry.getOperation()) && entry.getSubresource() == null;
+            if ((applied || isLegacy(entry)) && entry.getFieldsV1() != null) {
+                mergeFields(owned, entry.getFieldsV1().getAdditionalProperties());
+            } else if (!applied && !isLegacy(entry)) {
+                kept.add(entry);
+            }
+        }
+        FieldsV1 fields = new FieldsV1();
+        fields.setAdditionalProperties(owned);
+        kept.add(new ManagedFieldsEntryBuilder()
+                .withManager(config.getFieldManager())
+                .withOperation(APPLY_OPERATION)
+                .withApiVersion(live.getApiVersion())
+                .withFieldsType("FieldsV1")
+                .withFieldsV1(fields)
+                .withTime(ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS)
+                        .format(DateTimeFormatter.ISO_INSTANT))
+                .build());
+
+        // The resourceVersion makes the rewrite fail instead of dropping entries added in between
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("managedFields", kept);
+        metadata.put("resourceVersion", live.getMetadata().getResourceVersion());
+        kubernetesClient.resource(live).patch(PatchContext.of(PatchType.JSON_MERGE),
+                Serialization.asJson(Map.of("metadata", metadata)));
+        log.info("Transferred legacy managed fields of {} {}/{} to {}", live.getKind(),
+                live.getMetadata().getNamespace(), live.getMetadata().getName(), config.getFieldManager());
+        return true;
+    }
+
+    private boolean isLegacy(ManagedFieldsEntry entry) {
+        return UPDATE_OPERATION.equals(entry.getOperation()) && entry.getSubresource() == null
+                && config.getLegacyFieldManagers().contains(entry.getManager());
+    }
+
+    /**
+     * Adds a FieldsV1 set to another, both are nested maps keyed by field path elements
+     */
+    @SuppressWarnings("unchecked")
+    private static void mergeFields(Map<String, Object> target, Map<String, Object> source) {
+        source.forEach((field, value) -> {
+            Object existing = target.get(field);
+            if (existing instanceof Map && value instanceof Map) {
+                mergeFields((Map<String, Object>) existing, (Map<String, Object>) value);
+            } else if (value instanceof Map) {
+                Map<String, Object> copy = new LinkedHashMap<>();
+                mergeFields(copy, (Map<String, Object>) value);
+                target.put(field, copy);
+            } else if (existing == null) {
+                target.put(field, value);
+            }
+        });
+    }
+
+    PatchContext patchContext() {
+        return new PatchContext.Builder()
+                .withPatchType(PatchType.SERVER_SIDE_APPLY)
+                .withFieldManager(config.getFieldManager())
+                .withForce(config.isForceConflicts())
+                .withDryRun(config.isDryRun() ? List.of("All") : null)
+                .build();
+    }
+
+    /**
+     * Computes the hash of a desired resource, ignoring a previously stamped hash annotation
+     *
+     * @param desired the desired resource
+     * @return the hex encoded SHA-256 hash of the canonical JSON form
+     */
+    static String hash(HasMetadata desired) {
+        Map<String, String> annotations = desired.getMetadata().getAnnotations();
+        String previous = annotations != null ? annotations.remove(APPLIED_HASH_ANNOTATION) : null;
+        try {
+            byte[] json = CANONICAL_MAPPER.writeValueAsBytes(desired);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + desired.getKind(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            if (previous != null) {
+                annotations.put(APPLIED_HASH_ANNOTATION, previous);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends HasMetadata> Class<T> type(T resource) {
+        return (Class<T>) resource.getClass();
+    }
+}
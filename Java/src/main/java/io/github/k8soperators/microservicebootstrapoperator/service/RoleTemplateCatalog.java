@@ -0,0 +1,98 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.fabric8.kubernetes.api.model.rbac.PolicyRule;
+import io.fabric8.kubernetes.api.model.rbac.PolicyRuleBuilder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Catalog of the rule sets behind the role names in {@code spec.rbac.roles}.
+ * Every rule set is normalized and hashed, so role names with the same rules resolve to the same template and
+ * are materialized as one shared Role per namespace. Names that are not in the catalog get the
+ * {@value #DEFAULT_TEMPLATE} rules, which is what every role received before templates existed. The other
+ * templates grant more than the operator holds by default and are only used with
+ * {@code operator.rbac.role-templates}.
+ */
+@Service
+public class RoleTemplateCatalog {
+
+    static final String DEFAULT_TEMPLATE = "config-reader";
+    static final String SHARED_ROLE_PREFIX = "shared-role-";
+
+    private static final List<String> READ_VERBS = List.of("get", "list", "watch");
+
+    private final Map<String, RoleTemplate> templates;
+
+    public RoleTemplateCatalog(OperatorProperties properties) {
+        RoleTemplate defaultTemplate = template(rule("", "configmaps", READ_VERBS));
+        this.templates = properties.getRbac().isRoleTemplates()
+                ? Map.of(
+                        DEFAULT_TEMPLATE, defaultTemplate,
+                        "secret-reader", template(rule("", "secrets", READ_VERBS)),
+                        "pod-reader", template(rule("", "pods", READ_VERBS)),
+                        "config-editor", template(rule("", "configmaps",
+                                List.of("get", "list", "watch", "create", "update", "patch"))))
+                : Map.of(DEFAULT_TEMPLATE, defaultTemplate);
+    }
+
+    /**
+     * Resolves a role name to its template
+     *
+     * @param roleName the role name from the AppConfig
+     * @return the template, the default template for unknown names
+     */
+    public RoleTemplate resolve(String roleName) {
+        RoleTemplate template = templates.get(roleName);
+        return template != null ? template : templates.get(DEFAULT_TEMPLATE);
+    }
+
+    /**
+     * Builds a template from a rule set
+     *
+     * @param rules the rules, in any order
+     * @return the template named after the hash of the normalized rules
+     */
+    static RoleTemplate template(PolicyRule... rules) {
+        // Sorted rules with sorted fields, so equal rule sets hash equally regardless of their order
+        TreeSet<String> canonical = new TreeSet<>();
+        for (PolicyRule rule : rules) {
+            canonical.add(String.join(",", new TreeSet<>(rule.getApiGroups())) + "|"
+                    + String.join(",", new TreeSet<>(rule.getResources())) + "|"
+                    + String.join(",", new TreeSet<>(rule.getVerbs())));
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(String.join(";", canonical).getBytes(StandardCharsets.UTF_8));
+            return new RoleTemplate(SHARED_ROLE_PREFIX + HexFormat.of().formatHex(digest).substring(0, 10),
+                    List.of(rules));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static PolicyRule rule(String apiGroup, String resource, List<String> verbs) {
+        return new PolicyRuleBuilder()
+                .withApiGroups(apiGroup)
+                .withResources(resource)
+                .withVerbs(new ArrayList<>(verbs))
+                .build();
+    }
+
+    /**
+     * A normalized rule set
+     *
+     * @param roleName the name of the shared Role materializing the rules in a namespace
+     * @param rules the rules
+     */
+    public record RoleTemplate(String roleName, List<PolicyRule> rules) {
+    }
+}
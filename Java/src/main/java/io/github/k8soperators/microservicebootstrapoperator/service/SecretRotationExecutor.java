@@ -0,0 +1,79 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.Jitter;
+import io.github.k8soperators.microservicebootstrapoperator.util.RateLimiter;
+import io.github.k8soperators.microservicebootstrapoperator.util.RetryUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service admitting secret rotations under a global rotations-per-second limit and a per-namespace
+ * concurrency cap. Rotations that are not admitted are deferred through the rotation scheduler by the
+ * time until the next permit plus a deterministic jitter, so a burst of due rotations flattens into a
+ * steady trickle instead of blocking reconcile threads.
+ */
+@Slf4j
+@Service
+@ConditionalOnOperatorMode
+public class SecretRotationExecutor {
+
+    private static final long MIN_DEFER_MILLIS = 1000;
+
+    private final SecretRotationScheduler secretRotationScheduler;
+    private final RateLimiter rateLimiter;
+    private final int maxConcurrentPerNamespace;
+    private final long jitterWindowMillis;
+    private final Map<String, Semaphore> namespacePermits = new ConcurrentHashMap<>();
+
+    public SecretRotationExecutor(SecretRotationScheduler secretRotationScheduler, OperatorProperties properties) {
+        OperatorProperties.SecretRotation config = properties.getSecretRotation();
+        this.secretRotationScheduler = secretRotationScheduler;
+        this.rateLimiter = new RateLimiter(config.getRotationsPerSecond(), config.getBurst());
+        this.maxConcurrentPerNamespace = config.getMaxConcurrentPerNamespace();
+        this.jitterWindowMillis = TimeUnit.SECONDS.toMillis(config.getJitterWindowSeconds());
+    }
+
+    /**
+     * Runs the rotation if it is admitted, otherwise defers it
+     *
+     * @param appConfig the AppConfig whose secrets are rotated
+     * @param rotation the rotation to run
+     * @return true if the rotation ran, false if it was deferred
+     * @throws Exception if the rotation fails
+     */
+    public boolean execute(AppConfig appConfig, RetryUtil.ThrowingRunnable rotation) throws Exception {
+        String namespace = appConfig.getMetadata().getNamespace();
+        Semaphore permits = namespacePermits.computeIfAbsent(namespace, ns -> new Semaphore(maxConcurrentPerNamespace));
+
+        if (!permits.tryAcquire()) {
+            deferRotation(appConfig, 0, "namespace concurrency limit reached");
+            return false;
+        }
+        try {
+            long waitMillis = rateLimiter.tryAcquire();
+            if (waitMillis > 0) {
+                deferRotation(appConfig, waitMillis, "global rotation rate limit reached");
+                return false;
+            }
+            rotation.run();
+            return true;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void deferRotation(AppConfig appConfig, long waitMillis, String reason) {
+        String key = appConfig.getMetadata().getNamespace() + "/" + appConfig.getMetadata().getName();
+        long delayMillis = Math.max(MIN_DEFER_MILLIS, waitMillis + Jitter.forKey(key, jitterWindowMillis));
+        log.info("Deferring secret rotation for {} by {} ms: {}", key, delayMillis, reason);
+        secretRotationScheduler.defer(appConfig, delayMillis);
+    }
+}
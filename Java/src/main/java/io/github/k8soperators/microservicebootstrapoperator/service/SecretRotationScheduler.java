@@ -0,0 +1,235 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SecretRotationConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.HierarchicalTimingWheel;
+import io.github.k8soperators.microservicebootstrapoperator.util.Jitter;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.inbound.SimpleInboundEventSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service holding the secret rotation deadlines of all AppConfigs in a single timing wheel.
+ * Deadlines are rebuilt from the AppConfig status on startup and a reconcile is triggered
+ * only when a deadline actually fires.
+ */
+@Slf4j
+@Service
+@ConditionalOnOperatorMode
+public class SecretRotationScheduler {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+    // Deadlines are pushed back by up to this fraction of the interval so rotations spread out
+    private static final double JITTER_FRACTION = 0.05;
+    private static final long MAX_JITTER_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final KubernetesClient kubernetesClient;
+    private final HierarchicalTimingWheel<ResourceID> wheel;
+    private final Map<ResourceID, ScheduledRotation> rotations = new ConcurrentHashMap<>();
+    private final SimpleInboundEventSource eventSource = new SimpleInboundEventSource();
+    private ScheduledExecutorService ticker;
+
+    public SecretRotationScheduler(KubernetesClient kubernetesClient) {
+        this.kubernetesClient = kubernetesClient;
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    }
+
+    /**
+     * Rebuild deadlines from the AppConfig status and start advancing the wheel
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Initializing SecretRotationScheduler");
+        rebuildFromStatus();
+
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "secret-rotation-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop advancing the wheel when the service is destroyed
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the event source through which fired deadlines trigger reconciles
+     *
+     * @return the inbound event source to register with the controller
+     */
+    public SimpleInboundEventSource getEventSource() {
+        return eventSource;
+    }
+
+    /**
+     * Checks whether the rotation deadline for the AppConfig has been reached.
+     * The AppConfig is scheduled from its status the first time it is seen.
+     *
+     * @param appConfig the AppConfig to check
+     * @return true if secrets should be rotated now
+     */
+    public boolean isRotationDue(AppConfig appConfig) {
+        ScheduledRotation rotation = ensureScheduled(appConfig);
+        return System.currentTimeMillis() >= rotation.deadlineMillis();
+    }
+
+    /**
+     * Records a completed rotation and schedules the next deadline
+     *
+     * @param appConfig the AppConfig whose secrets were rotated
+     */
+    public void recordRotation(AppConfig appConfig) {
+        schedule(appConfig, System.currentTimeMillis());
+    }
+
+    /**
+     * Defers the rotation of the AppConfig to a later point in time without recording a rotation
+     *
+     * @param appConfig the AppConfig to defer
+     * @param delayMillis how long to wait before triggering the next reconcile
+     */
+    public void defer(AppConfig appConfig, long delayMillis) {
+        ResourceID resourceId = ResourceID.fromResource(appConfig);
+        ScheduledRotation current = ensureScheduled(appConfig);
+        long deadline = System.currentTimeMillis() + delayMillis;
+        rotations.put(resourceId, new ScheduledRotation(current.lastRotationMillis(), current.intervalHours(), deadline));
+        wheel.schedule(resourceId, deadline);
+    }
+
+    /**
+     * Removes the rotation deadline of the AppConfig
+     *
+     * @param appConfig the AppConfig to unschedule
+     */
+    public void unschedule(AppConfig appConfig) {
+        ResourceID resourceId = ResourceID.fromResource(appConfig);
+        rotations.remove(resourceId);
+        wheel.cancel(resourceId);
+    }
+
+    /**
+     * Returns the number of AppConfigs with a pending rotation deadline
+     *
+     * @return the number of scheduled rotations
+     */
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Lists the AppConfigs once and schedules every enabled rotation from its last rotation time
+     */
+    void rebuildFromStatus() {
+        try {
+            List<AppConfig> appConfigs = kubernetesClient.resources(AppConfig.class).inAnyNamespace().list().getItems();
+            for (AppConfig appConfig : appConfigs) {
+                if (isRotationEnabled(appConfig)) {
+                    ensureScheduled(appConfig);
+                }
+            }
+            log.info("Rebuilt {} secret rotation deadlines from AppConfig status", wheel.size());
+        } catch (Exception e) {
+            log.warn("Failed to rebuild secret rotation deadlines, they will be rebuilt on reconcile", e);
+        }
+    }
+
+    /**
+     * Advances the wheel and triggers a reconcile for every deadline that fired
+     */
+    void tick() {
+        try {
+            List<ResourceID> fired = wheel.advance(System.currentTimeMillis());
+            if (fired.isEmpty()) {
+                return;
+            }
+            log.debug("{} secret rotation deadlines fired", fired.size());
+            if (!eventSource.isRunning()) {
+                // Controller not started yet, the initial reconcile will pick these up
+                return;
+            }
+            for (ResourceID resourceId : fired) {
+                eventSource.propagateEvent(resourceId);
+            }
+        } catch (Exception e) {
+            log.error("Error advancing secret rotation scheduler", e);
+        }
+    }
+
+    private ScheduledRotation ensureScheduled(AppConfig appConfig) {
+        ResourceID resourceId = ResourceID.fromResource(appConfig);
+        ScheduledRotation rotation = rotations.get(resourceId);
+        int intervalHours = appConfig.getSpec().getSecretRotation().getIntervalHours();
+        if (rotation != null && rotation.intervalHours() == intervalHours) {
+            return rotation;
+        }
+        // First sight or interval changed: derive the deadline from the last rotation time in status
+        Long lastRotation = rotation != null ? rotation.lastRotationMillis() : parseLastRotation(appConfig);
+        return schedule(appConfig, lastRotation);
+    }
+
+    private ScheduledRotation schedule(AppConfig appConfig, Long lastRotationMillis) {
+        ResourceID resourceId = ResourceID.fromResource(appConfig);
+        int intervalHours = appConfig.getSpec().getSecretRotation().getIntervalHours();
+        long deadline = lastRotationMillis == null
+                ? System.currentTimeMillis()
+                : lastRotationMillis + intervalHours * HOUR_MILLIS + jitterMillis(appConfig, intervalHours);
+        ScheduledRotation rotation = new ScheduledRotation(lastRotationMillis, intervalHours, deadline);
+        rotations.put(resourceId, rotation);
+        wheel.schedule(resourceId, deadline);
+        return rotation;
+    }
+
+    private Long parseLastRotation(AppConfig appConfig) {
+        if (appConfig.getStatus() == null || appConfig.getStatus().getLastSecretRotationTime() == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(appConfig.getStatus().getLastSecretRotationTime()).toInstant().toEpochMilli();
+        } catch (Exception e) {
+            log.warn("Error parsing last rotation time, will rotate secrets", e);
+            return null;
+        }
+    }
+
+    /**
+     * Computes a stable per-resource jitter so the same AppConfig always lands on the same offset,
+     * including after a restart, while different AppConfigs with equal intervals spread out
+     */
+    static long jitterMillis(AppConfig appConfig, int intervalHours) {
+        String identity = appConfig.getMetadata().getUid() != null
+                ? appConfig.getMetadata().getUid()
+                : appConfig.getMetadata().getNamespace() + "/" + appConfig.getMetadata().getName();
+        long maxJitter = Math.min(MAX_JITTER_MILLIS, (long) (intervalHours * HOUR_MILLIS * JITTER_FRACTION));
+        return Jitter.forKey(identity, maxJitter);
+    }
+
+    private static boolean isRotationEnabled(AppConfig appConfig) {
+        SecretRotationConfig config = appConfig.getSpec() != null ? appConfig.getSpec().getSecretRotation() : null;
+        return config != null && config.isEnabled();
+    }
+
+    private record ScheduledRotation(Long lastRotationMillis, int intervalHours, long deadlineMillis) {
+    }
+}
@@ -1,25 +1,43 @@
 package io.github.k8soperators.microservicebootstrapoperator.service;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SecretRotationConfig;
+import io.github.k8soperators.microservicebootstrapoperator.rotation.RotationContext;
+import io.github.k8soperators.microservicebootstrapoperator.rotation.RotationStrategy;
+import io.github.k8soperators.microservicebootstrapoperator.rotation.RotationStrategyRegistry;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
 import io.github.k8soperators.microservicebootstrapoperator.util.RetryUtil;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.utils.Serialization;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.SecureRandom;
+import javax.annotation.PreDestroy;
+import java.net.HttpURLConnection;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Service for managing and rotating Kubernetes Secrets
@@ -27,18 +45,46 @@ import java.util.UUID;
  */
 @Slf4j
 @Service
+@ConditionalOnOperatorMode
 @RequiredArgsConstructor
 public class SecretRotationService {
 
     private final KubernetesClient kubernetesClient;
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
-    private static final int DEFAULT_PASSWORD_LENGTH = 16;
+    private final CertificateAuthorityService certificateAuthorityService;
+    private final RotationStrategyRegistry rotationStrategyRegistry;
+    private final WorkloadRolloutService workloadRolloutService;
     private static final int MAX_RETRIES = 3;
     private static final long INITIAL_BACKOFF_MS = 1000;
     private static final long MAX_BACKOFF_MS = 10000;
+    private static final String ROTATION_TIMESTAMP_ANNOTATION = "rotation-timestamp";
+    private static final int MAX_PARALLEL_SOURCE_WRITES = 4;
+
+    // Last resourceVersion written per "namespace/name", used as the patch precondition
+    private final Map<String, String> resourceVersions = new ConcurrentHashMap<>();
+
+    // Sources per "namespace/name" AppConfig whose last rotation failed, the only ones rotated on the retry
+    private final Map<String, Set<String>> pendingSources = new ConcurrentHashMap<>();
+
+    // Bounded pool writing the secrets of all sources of one rotation concurrently
+    private final ExecutorService writeExecutor = Executors.newFixedThreadPool(MAX_PARALLEL_SOURCE_WRITES, runnable -> {
+        Thread thread = new Thread(runnable, "secret-rotation-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Shut down the secret writer pool when the service is destroyed
+     */
+    @PreDestroy
+    public void cleanup() {
+        writeExecutor.shutdownNow();
+    }
     
     /**
-     * Rotates secrets for the given AppConfig
+     * Rotates secrets for the given AppConfig.
+     * Credentials for every configured source are generated up front and written concurrently,
+     * then the outcome of each source is recorded in the status. When the previous rotation failed
+     * for some sources, only those sources are rotated again.
      *
      * @param appConfig the AppConfig resource
      */
@@ -50,214 +96,256 @@ public class SecretRotationService {
             return;
         }
 
-        String secretName = String.format("%s-secrets", appConfig.getSpec().getAppName());
-        
-        try {
-            // Determine rotation strategy based on configuration
-            String rotationStrategy = "default";
-            if (appConfig.getSpec().getSecretRotation().getStrategy() != null) {
-                rotationStrategy = appConfig.getSpec().getSecretRotation().getStrategy();
-            }
-            
-            // Generate secret data based on strategy
-            Map<String, String> secretData = generateSecretData(appConfig, rotationStrategy);
+        // Determine rotation strategy based on configuration
+        RotationStrategy rotationStrategy = rotationStrategyRegistry.get(appConfig.getSpec().getSecretRotation().getStrategy());
+        RotationContext rotationContext = new RotationContext(appConfig,
+                appConfig.getSpec().getSecretRotation().getStrategyConfig(), certificateAuthorityService);
+
+        // Generate the credentials of all sources before the first write
+        String appConfigKey = appConfig.getMetadata().getNamespace() + "/" + appConfig.getMetadata().getName();
+        Map<String, String> secretNames = resolveSecretNames(appConfig);
+        Set<String> pending = pendingSources.get(appConfigKey);
+        if (pending != null && secretNames.keySet().stream().anyMatch(pending::contains)) {
+            secretNames.keySet().retainAll(pending);
+            log.info("Retrying secret rotation for failed sources {}", secretNames.keySet());
+        }
+        Map<String, Map<String, String>> secretDataBySource = new LinkedHashMap<>();
+        for (String source : secretNames.keySet()) {
+            Map<String, String> secretData = rotationStrategy.generate(rotationContext);
             
             // Add metadata about rotation
             secretData.put("rotated-at", ZonedDateTime.now().format(DateTimeFormatter.ISO_INSTANT));
             secretData.put("rotation-id", UUID.randomUUID().toString());
-            
-            // Create or update the secret with retry
-            RetryUtil.executeWithRetry(() -> {
-                createOrUpdateSecret(appConfig, secretName, secretData);
-            }, MAX_RETRIES, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS);
-            
-            // Track created resource
-            String resourceName = String.format("Secret/%s/%s", appConfig.getMetadata().getNamespace(), secretName);
+            secretDataBySource.put(source, secretData);
+        }
+
+        // Create or update all secrets with bounded parallelism, each with retry
+        Map<String, CompletableFuture<Void>> writes = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : secretNames.entrySet()) {
+            String source = entry.getKey();
+            String secretName = entry.getValue();
+            writes.put(source, CompletableFuture.runAsync(() -> {
+                try {
+                    RetryUtil.executeWithRetry(() -> {
+                        createOrUpdateSecret(appConfig, secretName, secretDataBySource.get(source));
+                    }, MAX_RETRIES, INITIAL_BACKOFF_MS, MAX_BACKOFF_MS);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, writeExecutor));
+        }
+
+        // Record per-source outcome on the calling thread
+        List<String> failedSources = new ArrayList<>();
+        Exception firstFailure = null;
+        for (Map.Entry<String, CompletableFuture<Void>> entry : writes.entrySet()) {
+            String source = entry.getKey();
+            String secretName = secretNames.get(source);
+            Throwable error = null;
+            try {
+                entry.getValue().join();
+            } catch (CompletionException e) {
+                error = e.getCause() != null ? e.getCause() : e;
+                failedSources.add(source);
+                if (firstFailure == null) {
+                    firstFailure = error instanceof Exception ? (Exception) error : new RuntimeException(error);
+                }
+                log.error("Failed to rotate secret {} for source {} of {}/{}: {}", secretName, source,
+                        appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName(), error.getMessage(), error);
+            }
             if (appConfig.getStatus() != null) {
-                appConfig.getStatus().addCreatedResource(resourceName);
+                appConfig.getStatus().updateSecretSourceStatus(source, secretName, error);
+                if (error == null) {
+                    // Track created resource
+                    appConfig.getStatus().addCreatedResource(
+                            String.format("Secret/%s/%s", appConfig.getMetadata().getNamespace(), secretName));
+                }
+            }
+            if (error == null) {
+                // Restart only the workloads consuming this secret
+                workloadRolloutService.onContentChange(WorkloadRolloutService.SECRET,
+                        appConfig.getMetadata().getNamespace(), secretName, secretDataBySource.get(source));
             }
-            
-            log.info("Successfully rotated secrets for: {}/{}", 
-                    appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
-        } catch (Exception e) {
-            log.error("Failed to rotate secrets for: {}/{}: {}", 
-                    appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName(), e.getMessage(), e);
-            throw new RuntimeException("Secret rotation failed", e);
         }
+
+        if (firstFailure != null) {
+            pendingSources.put(appConfigKey, Set.copyOf(failedSources));
+            log.error("Failed to rotate secrets for: {}/{}, failed sources: {}",
+                    appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName(), failedSources);
+            throw new RuntimeException("Secret rotation failed for sources " + failedSources, firstFailure);
+        }
+        pendingSources.remove(appConfigKey);
+        log.info("Successfully rotated {} secret(s) for: {}/{}", secretNames.size(),
+                appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
     }
-    
+
     /**
-     * Generates secret data based on the specified rotation strategy
+     * Drops the cached resourceVersions of the secrets of an AppConfig being finalized
      *
      * @param appConfig the AppConfig resource
-     * @param strategy the rotation strategy to use
-     * @return Map of secret data
      */
-    private Map<String, String> generateSecretData(AppConfig appConfig, String strategy) {
-        Map<String, String> secretData = new HashMap<>();
-        
-        switch (strategy.toLowerCase()) {
-            case "database":
-                // Generate database credentials
-                secretData.put("db-username", generateUsername(appConfig.getSpec().getAppName()));
-                secretData.put("db-password", generateSecurePassword(DEFAULT_PASSWORD_LENGTH));
-                secretData.put("db-url", generateDatabaseUrl(appConfig));
-                break;
-                
-            case "api-key":
-                // Generate API keys
-                secretData.put("api-key", generateApiKey());
-                secretData.put("api-secret", generateApiSecret());
-                break;
-                
-            case "tls":
-                // In a real implementation, this would generate or obtain TLS certificates
-                // For demonstration, we'll just add placeholder values
-                secretData.put("tls.crt", "placeholder-certificate-data");
-                secretData.put("tls.key", "placeholder-key-data");
-                break;
-                
-            case "default":
-            default:
-                // Generate basic credentials
-                secretData.put("username", generateUsername(appConfig.getSpec().getAppName()));
-                secretData.put("password", generateSecurePassword(DEFAULT_PASSWORD_LENGTH));
-                break;
+    public void forgetSecrets(AppConfig appConfig) {
+        String namespace = appConfig.getMetadata().getNamespace();
+        pendingSources.remove(namespace + "/" + appConfig.getMetadata().getName());
+        List<String> secretNames = new ArrayList<>();
+        if (appConfig.getStatus() != null && appConfig.getStatus().getSecretSources() != null) {
+            appConfig.getStatus().getSecretSources().values().forEach(source -> secretNames.add(source.getSecretName()));
+        }
+        SecretRotationConfig secretRotation = appConfig.getSpec().getSecretRotation();
+        if (secretRotation != null) {
+            List<String> sources = secretRotation.getSources() != null && !secretRotation.getSources().isEmpty()
+                    ? secretRotation.getSources() : List.of(SecretRotationConfig.DEFAULT_SOURCE);
+            for (String source : sources) {
+                if (source != null && !source.isBlank()) {
+                    secretNames.add(SecretRotationConfig.secretName(appConfig.getSpec().getAppName(), source));
+                }
+            }
+        }
+        for (String secretName : secretNames) {
+            resourceVersions.remove(namespace + "/" + secretName);
         }
-        
-        return secretData;
     }
-    
+
+    /**
+     * Maps every configured secret source to the Secret holding its credentials.
+     * Names only depend on the source, so reordering or adding sources never moves credentials
+     * to another Secret. Without sources the default source is rotated.
+     *
+     * @param appConfig the AppConfig resource
+     * @return ordered map of source to secret name
+     * @throws IllegalArgumentException if two sources map to the same Secret
+     */
+    Map<String, String> resolveSecretNames(AppConfig appConfig) {
+        String appName = appConfig.getSpec().getAppName();
+        Map<String, String> secretNames = new LinkedHashMap<>();
+        List<String> sources = appConfig.getSpec().getSecretRotation().getSources();
+        if (sources == null || sources.isEmpty()) {
+            secretNames.put(SecretRotationConfig.DEFAULT_SOURCE,
+                    SecretRotationConfig.secretName(appName, SecretRotationConfig.DEFAULT_SOURCE));
+            return secretNames;
+        }
+        Map<String, String> sourcesBySecret = new HashMap<>();
+        for (String source : sources) {
+            if (source == null || source.isBlank() || secretNames.containsKey(source)) {
+                continue;
+            }
+            String secretName = SecretRotationConfig.secretName(appName, source);
+            String other = sourcesBySecret.putIfAbsent(secretName, source);
+            if (other != null) {
+                throw new IllegalArgumentException(String.format(
+                        "Secret sources %s and %s would both be written to Secret %s", other, source, secretName));
+            }
+            secretNames.put(source, secretName);
+        }
+        return secretNames;
+    }
+
     /**
-     * Creates or updates a Kubernetes Secret
+     * Creates or updates a Kubernetes Secret in a single round trip.
+     * Secrets that are not known yet are created directly; existing secrets receive a JSON merge patch
+     * carrying only the rotated keys, guarded by the last resourceVersion this operator wrote.
      *
      * @param appConfig the AppConfig resource
      * @param secretName the name of the secret
      * @param stringData the secret data (unencoded)
      */
     private void createOrUpdateSecret(AppConfig appConfig, String secretName, Map<String, String> stringData) {
-        Resource<Secret> secretResource = kubernetesClient.secrets()
-                .inNamespace(appConfig.getMetadata().getNamespace())
-                .withName(secretName);
-        
-        Secret existingSecret = secretResource.get();
-        
-        if (existingSecret == null) {
-            // Create new secret
+        String namespace = appConfig.getMetadata().getNamespace();
+        String cacheKey = namespace + "/" + secretName;
+        String rotationTimestamp = ZonedDateTime.now().toString();
+        String knownVersion = resourceVersions.get(cacheKey);
+
+        if (knownVersion == null) {
+            // Create-if-absent fast path, no GET needed
             Secret secret = new SecretBuilder()
                     .withNewMetadata()
                         .withName(secretName)
-                        .withNamespace(appConfig.getMetadata().getNamespace())
+                        .withNamespace(namespace)
                         .withOwnerReferences(createOwnerReference(appConfig))
-                        .addToLabels("app", appConfig.getSpec().getAppName())
-                        .addToLabels("managed-by", "microservice-bootstrap-operator")
-                        .addToAnnotations("rotation-timestamp", ZonedDateTime.now().toString())
+                        .addToLabels(ResourceLabels.forAppConfig(appConfig))
+                        .addToAnnotations(ROTATION_TIMESTAMP_ANNOTATION, rotationTimestamp)
                     .endMetadata()
                     .withStringData(stringData)
                     .build();
-            
-            kubernetesClient.secrets()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(secret)
-                    .create();
-            
-            log.info("Created Secret: {}/{}", appConfig.getMetadata().getNamespace(), secretName);
-        } else {
-            // Update existing secret
-            Map<String, String> existingData = existingSecret.getData();
-            if (existingData == null) {
-                existingData = new HashMap<>();
+            try {
+                Secret created = kubernetesClient.secrets()
+                        .inNamespace(namespace)
+                        .resource(secret)
+                        .create();
+                rememberVersion(cacheKey, created);
+                log.info("Created Secret: {}/{}", namespace, secretName);
+                return;
+            } catch (KubernetesClientException e) {
+                if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                    throw e;
+                }
+                log.debug("Secret {}/{} already exists, patching rotated keys", namespace, secretName);
             }
-            
-            // Convert string data to base64-encoded data
-            Map<String, String> encodedData = new HashMap<>(existingData);
-            for (Map.Entry<String, String> entry : stringData.entrySet()) {
-                encodedData.put(entry.getKey(), Base64.getEncoder().encodeToString(
-                        entry.getValue().getBytes(StandardCharsets.UTF_8)));
+        }
+
+        Resource<Secret> secretResource = kubernetesClient.secrets()
+                .inNamespace(namespace)
+                .withName(secretName);
+        Secret patched;
+        try {
+            patched = secretResource.patch(PatchContext.of(PatchType.JSON_MERGE),
+                    buildRotationPatch(stringData, rotationTimestamp, knownVersion));
+        } catch (KubernetesClientException e) {
+            if (knownVersion == null) {
+                throw e;
             }
-            
-            // Update the secret
-            Secret updatedSecret = new SecretBuilder(existingSecret)
-                    .editMetadata()
-                        .addToAnnotations("rotation-timestamp", ZonedDateTime.now().toString())
-                    .endMetadata()
-                    .withData(encodedData)
-                    .build();
-            
-            kubernetesClient.secrets()
-                    .inNamespace(appConfig.getMetadata().getNamespace())
-                    .resource(updatedSecret)
-                    .replace();
-            
-            log.info("Updated Secret: {}/{}", appConfig.getMetadata().getNamespace(), secretName);
+            if (e.getCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                // The secret was deleted since our last write, the cached version is stale
+                log.info("Secret {}/{} no longer exists, creating it again", namespace, secretName);
+                resourceVersions.remove(cacheKey);
+                createOrUpdateSecret(appConfig, secretName, stringData);
+                return;
+            }
+            if (e.getCode() != HttpURLConnection.HTTP_CONFLICT) {
+                throw e;
+            }
+            // Someone else modified the secret since our last write, refresh the precondition once
+            log.info("Secret {}/{} changed since last rotation, retrying with current resourceVersion", namespace, secretName);
+            resourceVersions.remove(cacheKey);
+            Secret current = secretResource.get();
+            if (current == null) {
+                createOrUpdateSecret(appConfig, secretName, stringData);
+                return;
+            }
+            patched = secretResource.patch(PatchContext.of(PatchType.JSON_MERGE),
+                    buildRotationPatch(stringData, rotationTimestamp, current.getMetadata().getResourceVersion()));
         }
+        rememberVersion(cacheKey, patched);
+        log.info("Updated Secret: {}/{}", namespace, secretName);
     }
-    
+
     /**
-     * Generates a secure random password
+     * Builds a JSON merge patch that only touches the rotated keys and the rotation annotation
      *
-     * @param length the length of the password
-     * @return a secure random password
+     * @param stringData the rotated secret data (unencoded)
+     * @param rotationTimestamp the rotation timestamp annotation value
+     * @param resourceVersion the expected resourceVersion, or null to patch unconditionally
+     * @return the serialized patch
      */
-    private String generateSecurePassword(int length) {
-        // Character set for password generation
-        String chars = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()-_=+[]{}|;:,.<>?";
-        StringBuilder password = new StringBuilder();
-        
-        for (int i = 0; i < length; i++) {
-            int index = SECURE_RANDOM.nextInt(chars.length());
-            password.append(chars.charAt(index));
+    static String buildRotationPatch(Map<String, String> stringData, String rotationTimestamp, String resourceVersion) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("annotations", Map.of(ROTATION_TIMESTAMP_ANNOTATION, rotationTimestamp));
+        if (resourceVersion != null) {
+            // The API server rejects the patch with a conflict if the secret changed in between
+            metadata.put("resourceVersion", resourceVersion);
         }
-        
-        return password.toString();
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("metadata", metadata);
+        patch.put("stringData", stringData);
+        return Serialization.asJson(patch);
     }
-    
-    /**
-     * Generates a username based on the application name
-     *
-     * @param appName the application name
-     * @return a username
-     */
-    private String generateUsername(String appName) {
-        return appName.toLowerCase().replaceAll("[^a-z0-9]", "") + 
-               "_" + 
-               Integer.toHexString(SECURE_RANDOM.nextInt(0x1000));
-    }
-    
-    /**
-     * Generates a database URL
-     *
-     * @param appConfig the AppConfig resource
-     * @return a database URL
-     */
-    private String generateDatabaseUrl(AppConfig appConfig) {
-        String dbName = appConfig.getSpec().getAppName().toLowerCase().replaceAll("[^a-z0-9]", "");
-        return String.format("jdbc:postgresql://db.%s.svc.cluster.local:5432/%s", 
-                appConfig.getMetadata().getNamespace(), dbName);
-    }
-    
-    /**
-     * Generates an API key
-     *
-     * @return an API key
-     */
-    private String generateApiKey() {
-        byte[] bytes = new byte[16];
-        SECURE_RANDOM.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    private void rememberVersion(String cacheKey, Secret secret) {
+        if (secret != null && secret.getMetadata() != null && secret.getMetadata().getResourceVersion() != null) {
+            resourceVersions.put(cacheKey, secret.getMetadata().getResourceVersion());
+        }
     }
     
-    /**
-     * Generates an API secret
-     *
-     * @return an API secret
-     */
-    private String generateApiSecret() {
-        byte[] bytes = new byte[32];
-        SECURE_RANDOM.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
-    }
-
     /**
      * Creates an owner reference for the given AppConfig
      *
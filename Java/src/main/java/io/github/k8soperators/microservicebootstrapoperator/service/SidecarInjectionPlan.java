@@ -0,0 +1,478 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.CompiledLabelSelector;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerBuilder;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.EnvVarBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.VolumeBuilder;
+import io.fabric8.kubernetes.api.model.VolumeMount;
+import io.fabric8.kubernetes.api.model.VolumeMountBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sidecar injection of one AppConfig generation, compiled once when the AppConfig is registered.
+ * A plan covers the sidecarInjection container and the legacy spec.sidecars list, which share the
+ * sidecarInjection selector (selectorLabels and matchExpressions, compiled into predicates). Containers and
+ * volumes are built and serialized up front, including the JSON patch for the common case of a pod that has
+ * containers and volumes but none of the plan's sidecars or volumes, so injecting into a pod does not rebuild
+ * or serialize anything. Plans are immutable and hold no reference to the AppConfig.
+ */
+final class SidecarInjectionPlan {
+
+    private static final String POD_SPEC_PATH = "/spec";
+    private static final String TEMPLATE_SPEC_PATH = "/spec/template/spec";
+
+    private final String namespace;
+    private final String name;
+    private final Long generation;
+    private final CompiledLabelSelector selector;
+    private final List<Container> sidecars;
+    private final List<String> sidecarNames;
+    private final List<String> sidecarJson;
+    private final List<String> volumeNames;
+    private final List<String> volumeJson;
+    private final byte[] appendPatch;
+
+    private SidecarInjectionPlan(AppConfig appConfig) {
+        SidecarInjectionConfig config = appConfig.getSpec().getSidecarInjection();
+        this.namespace = appConfig.getMetadata().getNamespace();
+        this.name = appConfig.getMetadata().getName();
+        this.generation = appConfig.getMetadata().getGeneration();
+        this.selector = CompiledLabelSelector.compile(config.getSelectorLabels(), config.getMatchExpressions());
+
+        this.sidecars = List.copyOf(createSidecarContainers(appConfig));
+        List<String> names = new ArrayList<>();
+        List<String> serializedSidecars = new ArrayList<>();
+        for (Container sidecar : sidecars) {
+            names.add(sidecar.getName());
+            serializedSidecars.add(Serialization.asJson(sidecar));
+        }
+        this.sidecarNames = List.copyOf(names);
+        this.sidecarJson = List.copyOf(serializedSidecars);
+
+        List<String> volumeNameList = new ArrayList<>();
+        List<String> serializedVolumes = new ArrayList<>();
+        for (Volume volume : createSidecarVolumes(config)) {
+            volumeNameList.add(volume.getName());
+            serializedVolumes.add(Serialization.asJson(volume));
+        }
+        this.volumeNames = List.copyOf(volumeNameList);
+        this.volumeJson = List.copyOf(serializedVolumes);
+
+        StringBuilder patch = new StringBuilder("[");
+        sidecarJson.forEach(sidecar -> appendAdd(patch, "/spec/containers/-", sidecar));
+        volumeJson.forEach(volume -> appendAdd(patch, "/spec/volumes/-", volume));
+        this.appendPatch = patch.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compiles the sidecar injection of an AppConfig
+     *
+     * @param appConfig the AppConfig, its sidecar injection must be configured
+     * @return the plan
+     * @throws IllegalArgumentException if the selector has an invalid match expression
+     */
+    static SidecarInjectionPlan compile(AppConfig appConfig) {
+        return new SidecarInjectionPlan(appConfig);
+    }
+
+    /**
+     * Check if sidecars of this plan should be injected into a pod
+     *
+     * @param pod the pod to check
+     * @return true if the pod is in the AppConfig namespace, matches the selector and misses at least one sidecar
+     */
+    boolean appliesTo(Pod pod) {
+        return appliesTo(pod.getMetadata().getNamespace(), pod.getMetadata().getLabels(), pod.getSpec());
+    }
+
+    /**
+     * Check if the selector of this plan matches the pod template of a workload
+     *
+     * @param namespace the namespace of the workload
+     * @param template the pod template
+     * @return true if the workload is in the AppConfig namespace and its template labels match the selector
+     */
+    boolean matches(String namespace, PodTemplateSpec template) {
+        return this.namespace.equals(namespace) && matches(template);
+    }
+
+    private boolean matches(PodTemplateSpec template) {
+        return selector.matches(template.getMetadata() != null ? template.getMetadata().getLabels() : null);
+    }
+
+    private boolean appliesTo(String podNamespace, Map<String, String> labels, PodSpec spec) {
+        if (!namespace.equals(podNamespace) || !selector.matches(labels)) {
+            return false;
+        }
+        List<Container> podContainers = spec != null ? spec.getContainers() : null;
+        for (String sidecarName : sidecarNames) {
+            if (podContainers == null || !containsContainer(podContainers, sidecarName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the RFC 6902 JSON patch adding the missing sidecars of this plan and their volumes to a pod
+     *
+     * @param pod the pod to patch
+     * @return the UTF-8 encoded patch, or null if there is nothing to add; may be shared between calls and
+     *         must not be modified
+     */
+    byte[] patchFor(Pod pod) {
+        return patchFor(pod, List.of(this));
+    }
+
+    /**
+     * Creates a single RFC 6902 JSON patch adding the sidecars of several plans to a pod.
+     * Containers and volumes are deduplicated by name against the pod and across plans, the first plan
+     * contributing a name wins. Volumes are only added by plans that add at least one container.
+     *
+     * @param pod the pod to patch
+     * @param plans the plans in precedence order
+     * @return the UTF-8 encoded patch, or null if there is nothing to add; may be shared between calls and
+     *         must not be modified
+     */
+    static byte[] patchFor(Pod pod, List<SidecarInjectionPlan> plans) {
+        return patchFor(pod.getSpec(), plans, POD_SPEC_PATH);
+    }
+
+    /**
+     * Creates the RFC 6902 JSON patch bringing the sidecars in the pod template of a Deployment or StatefulSet
+     * in line with the plans matching it. Missing sidecars are added with their volumes, sidecars whose image,
+     * environment or volume mounts differ from their plan are replaced, and sidecars of a previous plan that no
+     * matching plan provides any more are removed if they still have the previous plan's spec. Every replaced
+     * or removed container is guarded by a test of its name, so a template changed in between fails the patch
+     * instead of editing the wrong container.
+     *
+     * @param template the pod template
+     * @param plans the plans whose selector matches the template, in precedence order
+     * @param previous the plan replaced or unregistered since the template was last patched, or null
+     * @return the UTF-8 encoded patch, or null if the template is up to date
+     */
+    static byte[] templatePatchFor(PodTemplateSpec template, List<SidecarInjectionPlan> plans,
+                                   SidecarInjectionPlan previous) {
+        PodSpec spec = template.getSpec();
+        List<Container> podContainers = spec.getContainers() != null ? spec.getContainers() : List.of();
+        Map<String, Container> desired = new LinkedHashMap<>();
+        Map<String, String> desiredJson = new HashMap<>();
+        Map<String, String> volumes = new LinkedHashMap<>();
+        for (SidecarInjectionPlan plan : plans) {
+            boolean contributes = false;
+            for (int i = 0; i < plan.sidecars.size(); i++) {
+                if (desired.putIfAbsent(plan.sidecarNames.get(i), plan.sidecars.get(i)) == null) {
+                    desiredJson.put(plan.sidecarNames.get(i), plan.sidecarJson.get(i));
+                    contributes = true;
+                }
+            }
+            if (contributes) {
+                for (int i = 0; i < plan.volumeNames.size(); i++) {
+                    volumes.putIfAbsent(plan.volumeNames.get(i), plan.volumeJson.get(i));
+                }
+            }
+        }
+        Map<String, Container> obsolete = new HashMap<>();
+        if (previous != null && previous.matches(template)) {
+            for (int i = 0; i < previous.sidecars.size(); i++) {
+                if (!desired.containsKey(previous.sidecarNames.get(i))) {
+                    obsolete.put(previous.sidecarNames.get(i), previous.sidecars.get(i));
+                }
+            }
+        }
+
+        StringBuilder patch = new StringBuilder("[");
+        Set<String> present = new HashSet<>();
+        List<Integer> removed = new ArrayList<>();
+        for (int i = 0; i < podContainers.size(); i++) {
+            Container container = podContainers.get(i);
+            present.add(container.getName());
+            Container expected = desired.get(container.getName());
+            String path = TEMPLATE_SPEC_PATH + "/containers/" + i;
+            if (expected != null && !sameSpec(expected, container)) {
+                appendTest(patch, path + "/name", container.getName());
+                appendOp(patch, "replace", path, desiredJson.get(container.getName()));
+            } else if (expected == null && obsolete.containsKey(container.getName())
+                    && sameSpec(obsolete.get(container.getName()), container)) {
+                removed.add(i);
+            }
+        }
+        for (int i = removed.size() - 1; i >= 0; i--) {
+            String path = TEMPLATE_SPEC_PATH + "/containers/" + removed.get(i);
+            appendTest(patch, path + "/name", podContainers.get(removed.get(i)).getName());
+            appendOp(patch, "remove", path, null);
+        }
+        List<String> newContainers = new ArrayList<>();
+        desired.forEach((sidecarName, container) -> {
+            if (!present.contains(sidecarName)) {
+                newContainers.add(desiredJson.get(sidecarName));
+            }
+        });
+        if (spec.getContainers() == null && !newContainers.isEmpty()) {
+            appendAdd(patch, TEMPLATE_SPEC_PATH + "/containers", "[" + String.join(",", newContainers) + "]");
+        } else {
+            newContainers.forEach(container -> appendAdd(patch, TEMPLATE_SPEC_PATH + "/containers/-", container));
+        }
+        if (!newContainers.isEmpty()) {
+            Set<String> volumeNames = new HashSet<>();
+            if (spec.getVolumes() != null) {
+                spec.getVolumes().forEach(volume -> volumeNames.add(volume.getName()));
+            }
+            List<String> newVolumes = new ArrayList<>();
+            volumes.forEach((volumeName, volume) -> {
+                if (volumeNames.add(volumeName)) {
+                    newVolumes.add(volume);
+                }
+            });
+            if (spec.getVolumes() == null && !newVolumes.isEmpty()) {
+                appendAdd(patch, TEMPLATE_SPEC_PATH + "/volumes", "[" + String.join(",", newVolumes) + "]");
+            } else {
+                newVolumes.forEach(volume -> appendAdd(patch, TEMPLATE_SPEC_PATH + "/volumes/-", volume));
+            }
+        }
+        return patch.length() > 1 ? patch.append(']').toString().getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] patchFor(PodSpec spec, List<SidecarInjectionPlan> plans, String specPath) {
+        List<Container> podContainers = spec.getContainers();
+        List<Volume> podVolumes = spec.getVolumes();
+        if (plans.size() == 1 && podContainers != null && POD_SPEC_PATH.equals(specPath)) {
+            SidecarInjectionPlan plan = plans.get(0);
+            if (!plan.sidecarNames.isEmpty() && plan.hasNone(podContainers, podVolumes)) {
+                return plan.appendPatch;
+            }
+        }
+
+        Set<String> containerNames = new HashSet<>();
+        if (podContainers != null) {
+            podContainers.forEach(container -> containerNames.add(container.getName()));
+        }
+        Set<String> volumeNames = new HashSet<>();
+        if (podVolumes != null) {
+            podVolumes.forEach(volume -> volumeNames.add(volume.getName()));
+        }
+        List<String> newContainers = new ArrayList<>();
+        List<String> newVolumes = new ArrayList<>();
+        for (SidecarInjectionPlan plan : plans) {
+            int before = newContainers.size();
+            for (int i = 0; i < plan.sidecarNames.size(); i++) {
+                if (containerNames.add(plan.sidecarNames.get(i))) {
+                    newContainers.add(plan.sidecarJson.get(i));
+                }
+            }
+            if (newContainers.size() == before) {
+                continue;
+            }
+            for (int i = 0; i < plan.volumeNames.size(); i++) {
+                if (volumeNames.add(plan.volumeNames.get(i))) {
+                    newVolumes.add(plan.volumeJson.get(i));
+                }
+            }
+        }
+        if (newContainers.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder patch = new StringBuilder("[");
+        if (podContainers == null) {
+            appendAdd(patch, specPath + "/containers", "[" + String.join(",", newContainers) + "]");
+        } else {
+            newContainers.forEach(container -> appendAdd(patch, specPath + "/containers/-", container));
+        }
+        if (podVolumes == null && !newVolumes.isEmpty()) {
+            appendAdd(patch, specPath + "/volumes", "[" + String.join(",", newVolumes) + "]");
+        } else {
+            newVolumes.forEach(volume -> appendAdd(patch, specPath + "/volumes/-", volume));
+        }
+        return patch.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    String getNamespace() {
+        return namespace;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Long getGeneration() {
+        return generation;
+    }
+
+    CompiledLabelSelector getSelector() {
+        return selector;
+    }
+
+    List<String> getSidecarNames() {
+        return sidecarNames;
+    }
+
+    List<Container> getSidecars() {
+        return sidecars;
+    }
+
+    private boolean hasNone(List<Container> podContainers, List<Volume> podVolumes) {
+        for (String sidecarName : sidecarNames) {
+            if (containsContainer(podContainers, sidecarName)) {
+                return false;
+            }
+        }
+        if (volumeNames.isEmpty()) {
+            return true;
+        }
+        if (podVolumes == null) {
+            return false;
+        }
+        for (String volumeName : volumeNames) {
+            if (containsVolume(podVolumes, volumeName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsContainer(List<Container> podContainers, String containerName) {
+        for (Container container : podContainers) {
+            if (containerName.equals(container.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsVolume(List<Volume> podVolumes, String volumeName) {
+        for (Volume volume : podVolumes) {
+            if (volumeName.equals(volume.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares the fields a plan sets on a sidecar, ignoring the defaults the API server adds to the others
+     */
+    private static boolean sameSpec(Container expected, Container actual) {
+        return Objects.equals(expected.getImage(), actual.getImage())
+                && orEmpty(expected.getEnv()).equals(orEmpty(actual.getEnv()))
+                && orEmpty(expected.getVolumeMounts()).equals(orEmpty(actual.getVolumeMounts()));
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static void appendAdd(StringBuilder patch, String path, String valueJson) {
+        appendOp(patch, "add", path, valueJson);
+    }
+
+    private static void appendTest(StringBuilder patch, String path, String value) {
+        appendOp(patch, "test", path, Serialization.asJson(value));
+    }
+
+    private static void appendOp(StringBuilder patch, String op, String path, String valueJson) {
+        if (patch.length() > 1) {
+            patch.append(',');
+        }
+        patch.append("{\"op\":\"").append(op).append("\",\"path\":\"").append(path).append('"');
+        if (valueJson != null) {
+            patch.append(",\"value\":").append(valueJson);
+        }
+        patch.append('}');
+    }
+
+    /**
+     * Creates the sidecarInjection container followed by the legacy sidecars. The sidecarInjection container
+     * is left out when it has no image but legacy sidecars are configured; legacy sidecars without an image
+     * are skipped and their config becomes environment variables.
+     */
+    private static List<Container> createSidecarContainers(AppConfig appConfig) {
+        SidecarInjectionConfig config = appConfig.getSpec().getSidecarInjection();
+        List<SidecarConfig> legacySidecars = appConfig.getSpec().getSidecars() != null
+                ? appConfig.getSpec().getSidecars()
+                : List.of();
+        List<Container> containers = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        if (config.getImage() != null || legacySidecars.isEmpty()) {
+            String sidecarName = config.getName() != null ? config.getName() : appConfig.getSpec().getAppName() + "-sidecar";
+            containers.add(createSidecarContainer(sidecarName, config.getImage(), config.getEnv(), config.getVolumeMounts()));
+            names.add(sidecarName);
+        }
+        for (int i = 0; i < legacySidecars.size(); i++) {
+            SidecarConfig legacy = legacySidecars.get(i);
+            if (legacy == null || legacy.getImage() == null) {
+                continue;
+            }
+            String sidecarName = legacy.getName() != null
+                    ? legacy.getName()
+                    : appConfig.getSpec().getAppName() + "-sidecar-" + (i + 1);
+            if (names.add(sidecarName)) {
+                containers.add(createSidecarContainer(sidecarName, legacy.getImage(), legacy.getConfig(), null));
+            }
+        }
+        return containers;
+    }
+
+    private static Container createSidecarContainer(String sidecarName, String image, Map<String, String> env,
+                                                    Map<String, String> mounts) {
+        List<EnvVar> envVars = new ArrayList<>();
+        if (env != null) {
+            for (Map.Entry<String, String> entry : env.entrySet()) {
+                envVars.add(new EnvVarBuilder()
+                        .withName(entry.getKey())
+                        .withValue(entry.getValue())
+                        .build());
+            }
+        }
+
+        List<VolumeMount> volumeMounts = new ArrayList<>();
+        if (mounts != null) {
+            for (Map.Entry<String, String> entry : mounts.entrySet()) {
+                volumeMounts.add(new VolumeMountBuilder()
+                        .withName(entry.getKey())
+                        .withMountPath(entry.getValue())
+                        .build());
+            }
+        }
+
+        return new ContainerBuilder()
+                .withName(sidecarName)
+                .withImage(image)
+                .withEnv(envVars)
+                .withVolumeMounts(volumeMounts)
+                .build();
+    }
+
+    private static List<Volume> createSidecarVolumes(SidecarInjectionConfig config) {
+        List<Volume> volumes = new ArrayList<>();
+        if (config.getVolumes() != null) {
+            for (String volumeName : config.getVolumes()) {
+                volumes.add(new VolumeBuilder()
+                        .withName(volumeName)
+                        .withNewEmptyDir()
+                        .endEmptyDir()
+                        .build());
+            }
+        }
+        return List.copyOf(volumes);
+    }
+}
@@ -1,56 +1,269 @@
 package io.github.k8soperators.microservicebootstrapoperator.service;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
-import io.fabric8.kubernetes.api.model.Container;
-import io.fabric8.kubernetes.api.model.ContainerBuilder;
-import io.fabric8.kubernetes.api.model.EnvVar;
-import io.fabric8.kubernetes.api.model.EnvVarBuilder;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.FairWorkQueue;
+import io.github.k8soperators.microservicebootstrapoperator.util.LabelSelectorIndex;
+import io.github.k8soperators.microservicebootstrapoperator.util.RateLimiter;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.Volume;
-import io.fabric8.kubernetes.api.model.VolumeBuilder;
-import io.fabric8.kubernetes.api.model.VolumeMount;
-import io.fabric8.kubernetes.api.model.VolumeMountBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.Informable;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
 import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.ReducedStateItemStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
- * Service for injecting sidecars into pods based on AppConfig specifications
+ * Service for injecting sidecars into pods based on AppConfig specifications.
+ * In webhook mode the sidecar is added at admission time through a JSON patch; in informer mode pods are
+ * watched and patched after creation.
  */
 @Slf4j
 @Service
+@ConditionalOnOperatorMode
 @RequiredArgsConstructor
 public class SidecarInjectionService {
 
+    // Fields kept in the pod informer cache besides namespace, name and resourceVersion
+    private static final String[] CACHED_POD_FIELDS = {"metadata.uid", "metadata.labels", "metadata.deletionTimestamp"};
+    private static final long BACKFILL_PAGE_SIZE = 250;
+    private static final String SIDECAR_ENABLED_INDEX = "sidecarEnabled";
+    private static final String SIDECAR_ENABLED = "true";
+    private static final String DEPLOYMENT = "Deployment";
+    private static final String STATEFUL_SET = "StatefulSet";
+
     private final KubernetesClient kubernetesClient;
-    private SharedIndexInformer<Pod> podInformer;
-    private final Map<String, AppConfig> appConfigCache = new ConcurrentHashMap<>();
+    private final OperatorProperties operatorProperties;
+    private final MeterRegistry meterRegistry;
+    private final ManagedResourceCache resourceCache;
+    private final WorkloadRolloutService workloadRolloutService;
+    private final LabelSelectorIndex<SidecarInjectionPlan> planIndex = new LabelSelectorIndex<>();
+    private final Map<String, SharedIndexInformer<Pod>> podInformers = new ConcurrentHashMap<>();
+    private volatile boolean watchingPods;
+    private FairWorkQueue<Pod> podQueue;
+    private ExecutorService workers;
+    private Timer queueLatency;
+    private Counter rejectedPods;
+    private ExecutorService backfillWorker;
+    private SharedIndexInformer<AppConfig> appConfigInformer;
+    private RateLimiter backfillLimiter;
 
     /**
-     * Initialize the pod informer to watch for pod creation events
+     * Build the sidecar registry and enable pod watching in informer mode.
+     * The registry is filled from the AppConfig informer of the {@link ManagedResourceCache}, so injection is
+     * correct as soon as its cache has synced instead of after every AppConfig has been reconciled again. Pods are only watched in namespaces
+     * with sidecar-enabled AppConfigs; informers start and stop as AppConfigs are registered and unregistered.
+     * Pod events are queued and injected by a worker pool so API calls never block the informer threads.
+     * In both modes newly registered AppConfigs are backfilled into existing workloads by a single
+     * rate-limited worker.
      */
     @PostConstruct
     public void init() {
         log.info("Initializing SidecarInjectionService");
-        
-        // Create a pod informer that watches all namespaces
-        podInformer = kubernetesClient.pods().inAnyNamespace().inform();
-        
-        // Add event handler for pod events
-        podInformer.addEventHandler(new ResourceEventHandler<Pod>() {
+        if (operatorProperties.getSidecar().isBackfill()) {
+            backfillLimiter = new RateLimiter(operatorProperties.getSidecar().getBackfillPatchesPerSecond(),
+                    operatorProperties.getSidecar().getBackfillBurst());
+            backfillWorker = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sidecar-backfill");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (operatorProperties.getSidecar().getInjectionMode() == OperatorProperties.InjectionMode.WEBHOOK) {
+            log.info("Sidecars are injected by the admission webhook, not watching pods");
+        } else {
+            log.warn("Informer injection mode is deprecated: the API server rejects adding containers to existing pods, "
+                    + "sidecars only reach pods through the workload template backfill");
+            startPodWatching();
+        }
+        startAppConfigInformer();
+    }
+
+    private void startPodWatching() {
+        OperatorProperties.Sidecar sidecar = operatorProperties.getSidecar();
+        podQueue = new FairWorkQueue<>(sidecar.getQueueCapacity());
+        Gauge.builder("operator.sidecar.queue.depth", podQueue, FairWorkQueue::size)
+                .description("Pods waiting for sidecar injection")
+                .strongReference(true)
+                .register(meterRegistry);
+        queueLatency = Timer.builder("operator.sidecar.queue.latency")
+                .description("Time pods wait in the queue before sidecar injection starts")
+                .register(meterRegistry);
+        rejectedPods = Counter.builder("operator.sidecar.queue.rejected")
+                .description("Pods dropped because the sidecar injection queue stayed full")
+                .register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(sidecar.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "sidecar-injection-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < sidecar.getWorkers(); i++) {
+            workers.submit(this::drain);
+        }
+        watchingPods = true;
+        planIndex.namespaces().forEach(this::updatePodInformer);
+    }
+
+    /**
+     * Indexes the shared AppConfig informer by whether AppConfigs enable sidecar injection and follows its events.
+     * The AppConfigs already cached are replayed as added and register every sidecar-enabled AppConfig, later
+     * events keep the registry current.
+     */
+    private void startAppConfigInformer() {
+        SharedIndexInformer<AppConfig> informer = resourceCache.informer(AppConfig.class);
+        if (informer == null) {
+            log.warn("The AppConfig cache is not available, sidecars are registered as AppConfigs are reconciled");
+            return;
+        }
+        informer.addIndexers(Map.of(SIDECAR_ENABLED_INDEX, appConfig -> isSidecarEnabled(appConfig)
+                ? List.of(SIDECAR_ENABLED)
+                : List.of()));
+        informer.addEventHandler(new ResourceEventHandler<AppConfig>() {
+            @Override
+            public void onAdd(AppConfig appConfig) {
+                syncAppConfig(appConfig);
+            }
+
+            @Override
+            public void onUpdate(AppConfig oldAppConfig, AppConfig newAppConfig) {
+                syncAppConfig(newAppConfig);
+            }
+
+            @Override
+            public void onDelete(AppConfig appConfig, boolean deletedFinalStateUnknown) {
+                if (planIndex.get(appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName()) != null) {
+                    unregisterAppConfig(appConfig);
+                }
+            }
+        });
+        appConfigInformer = informer;
+    }
+
+    /**
+     * Registers or unregisters an AppConfig seen by the AppConfig informer.
+     * Errors are logged only, the reconciler reports them on the AppConfig status.
+     */
+    private void syncAppConfig(AppConfig appConfig) {
+        try {
+            if (isSidecarEnabled(appConfig)) {
+                registerAppConfig(appConfig);
+            } else if (planIndex.get(appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName()) != null) {
+                unregisterAppConfig(appConfig);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to register AppConfig {}/{} for sidecar injection: {}",
+                    appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName(), e.getMessage());
+        }
+    }
+
+    private static boolean isSidecarEnabled(AppConfig appConfig) {
+        return appConfig.getMetadata().getDeletionTimestamp() == null
+                && appConfig.getSpec() != null
+                && appConfig.getSpec().getSidecarInjection() != null
+                && appConfig.getSpec().getSidecarInjection().isEnabled();
+    }
+
+    /**
+     * Check if the sidecar registry reflects the AppConfigs in the cluster
+     *
+     * @return true once the AppConfig informer has synced
+     */
+    public boolean isRegistrySynced() {
+        return appConfigInformer != null && appConfigInformer.hasSynced();
+    }
+
+    /**
+     * Clean up resources when the service is destroyed
+     */
+    @PreDestroy
+    public synchronized void cleanup() {
+        watchingPods = false;
+        podInformers.values().forEach(SharedIndexInformer::stop);
+        podInformers.clear();
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (backfillWorker != null) {
+            backfillWorker.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts or stops the pod informer of a namespace depending on whether it has sidecar-enabled AppConfigs
+     *
+     * @param namespace the namespace
+     */
+    private synchronized void updatePodInformer(String namespace) {
+        if (!watchingPods) {
+            return;
+        }
+        boolean needed = planIndex.namespaces().contains(namespace);
+        SharedIndexInformer<Pod> informer = podInformers.get(namespace);
+        if (needed && informer == null) {
+            podInformers.put(namespace, startPodInformer(namespace));
+            log.info("Started watching pods in namespace {}", namespace);
+        } else if (!needed && informer != null) {
+            podInformers.remove(namespace).stop();
+            log.info("Stopped watching pods in namespace {}", namespace);
+        }
+    }
+
+    /**
+     * Start a pod informer for a namespace.
+     * Only the pod fields read from the cache are kept; event handlers still receive the complete pod.
+     *
+     * @param namespace the namespace to watch
+     * @return the started informer
+     */
+    private SharedIndexInformer<Pod> startPodInformer(String namespace) {
+        NonNamespaceOperation<Pod, PodList, PodResource> pods = kubernetesClient.pods().inNamespace(namespace);
+        String labelSelector = operatorProperties.getSidecar().getPodLabelSelector();
+        Informable<Pod> informable = labelSelector == null || labelSelector.isBlank()
+                ? pods
+                : pods.withLabelSelector(labelSelector);
+        SharedIndexInformer<Pod> informer = informable.runnableInformer(0);
+        informer.itemStore(new ReducedStateItemStore<>(ReducedStateItemStore.NAME_KEY_STATE, Pod.class, CACHED_POD_FIELDS));
+        informer.addEventHandler(new ResourceEventHandler<Pod>() {
             @Override
             public void onAdd(Pod pod) {
-                handlePodCreation(pod);
+                enqueuePod(pod);
             }
 
             @Override
@@ -63,40 +276,218 @@ public class SidecarInjectionService {
                 // We don't need to handle pod deletion
             }
         });
+        informer.start();
+        return informer;
     }
 
     /**
-     * Clean up resources when the service is destroyed
+     * Queue a created pod for injection, waiting for capacity if the queue is full.
+     * Pods are deduplicated by UID and served round-robin across namespaces.
+     *
+     * @param pod the created pod
      */
-    @PreDestroy
-    public void cleanup() {
-        if (podInformer != null) {
-            podInformer.stop();
+    void enqueuePod(Pod pod) {
+        String namespace = pod.getMetadata().getNamespace();
+        String key = pod.getMetadata().getUid() != null
+                ? pod.getMetadata().getUid()
+                : namespace + "/" + pod.getMetadata().getName();
+        try {
+            if (!podQueue.offer(namespace, key, pod, operatorProperties.getSidecar().getEnqueueTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                rejectedPods.increment();
+                log.warn("Sidecar injection queue is full, dropping pod {}/{}", namespace, pod.getMetadata().getName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inject sidecars into queued pods until interrupted
+     */
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                FairWorkQueue.Item<Pod> item = podQueue.take();
+                queueLatency.record(System.nanoTime() - item.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                handlePodCreation(item.value());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Error injecting sidecar", e);
+            }
         }
     }
 
     /**
-     * Register an AppConfig for sidecar injection
+     * Returns the namespaces whose pods are currently watched
+     *
+     * @return the watched namespaces
+     */
+    Set<String> getWatchedNamespaces() {
+        return Set.copyOf(podInformers.keySet());
+    }
+
+    /**
+     * Register an AppConfig for sidecar injection.
+     * The sidecar is compiled into an injection plan once per AppConfig generation, and every new plan is
+     * backfilled into the pod templates of matching Deployments and StatefulSets. Disabling sidecar injection
+     * removes the sidecars from the pod templates again.
      *
      * @param appConfig the AppConfig to register
+     * @throws IllegalArgumentException if the sidecar selector has an invalid match expression
      */
     public void registerAppConfig(AppConfig appConfig) {
-        if (appConfig.getSpec().getSidecarInjection() != null && appConfig.getSpec().getSidecarInjection().isEnabled()) {
-            String key = appConfig.getMetadata().getNamespace() + "/" + appConfig.getMetadata().getName();
-            appConfigCache.put(key, appConfig);
-            log.info("Registered AppConfig for sidecar injection: {}", key);
+        String namespace = appConfig.getMetadata().getNamespace();
+        String name = appConfig.getMetadata().getName();
+        SidecarInjectionConfig sidecarInjection = appConfig.getSpec().getSidecarInjection();
+        if (sidecarInjection != null && sidecarInjection.isEnabled()) {
+            SidecarInjectionPlan current = planIndex.get(namespace, name);
+            Long generation = appConfig.getMetadata().getGeneration();
+            if (current != null && generation != null && generation.equals(current.getGeneration())) {
+                return;
+            }
+            SidecarInjectionPlan plan;
+            try {
+                plan = SidecarInjectionPlan.compile(appConfig);
+            } catch (IllegalArgumentException e) {
+                // Stop injecting the previous generation's sidecar, the error is reported on the AppConfig status
+                planIndex.remove(namespace, name);
+                updatePodInformer(namespace);
+                throw new IllegalArgumentException("Invalid sidecar selector: " + e.getMessage(), e);
+            }
+            planIndex.put(namespace, name, plan.getSelector(), plan);
+            log.info("Registered AppConfig for sidecar injection: {}/{} (generation {})", namespace, name, generation);
+            submitBackfill(namespace, name, plan, current);
+        } else {
+            // Sidecar injection was disabled on an already registered AppConfig
+            SidecarInjectionPlan previous = planIndex.get(namespace, name);
+            planIndex.remove(namespace, name);
+            if (previous != null) {
+                submitBackfill(namespace, name, null, previous);
+            }
+        }
+        updatePodInformer(namespace);
+    }
+
+    private void submitBackfill(String namespace, String name, SidecarInjectionPlan plan, SidecarInjectionPlan previous) {
+        if (backfillWorker != null) {
+            backfillWorker.submit(() -> backfillWorkloads(namespace, name, plan, previous));
         }
     }
 
     /**
-     * Unregister an AppConfig for sidecar injection
+     * Brings the sidecars in the pod templates of existing Deployments and StatefulSets in line with a new plan,
+     * so their pods get the sidecars through a regular rollout instead of being restarted one by one.
+     * Workloads are read from the informers of the {@link WorkloadRolloutService} when it runs, and listed in
+     * pages otherwise. A workload is patched when its pod template labels match the new or the previous plan,
+     * which is what the selector means for pods; the workload's own labels may differ. The patch adds missing
+     * sidecars, replaces sidecars whose spec changed and removes the sidecars of the previous plan that no
+     * plan provides any more. Patches are rate limited; a plan replaced by a newer generation stops backfilling.
+     *
+     * @param namespace the namespace of the AppConfig
+     * @param name the name of the AppConfig
+     * @param plan the newly registered plan, or null if the AppConfig was unregistered
+     * @param previous the plan registered before, or null
+     */
+    private void backfillWorkloads(String namespace, String name, SidecarInjectionPlan plan, SidecarInjectionPlan previous) {
+        try {
+            int patched = backfill(namespace, name, plan, previous, DEPLOYMENT,
+                    workloadRolloutService.cachedDeployments(namespace),
+                    options -> kubernetesClient.apps().deployments().inNamespace(namespace).list(options),
+                    (workload, patch) -> kubernetesClient.apps().deployments().inNamespace(namespace)
+                            .withName(workload).patch(PatchContext.of(PatchType.JSON), patch));
+            patched += backfill(namespace, name, plan, previous, STATEFUL_SET,
+                    workloadRolloutService.cachedStatefulSets(namespace),
+                    options -> kubernetesClient.apps().statefulSets().inNamespace(namespace).list(options),
+                    (workload, patch) -> kubernetesClient.apps().statefulSets().inNamespace(namespace)
+                            .withName(workload).patch(PatchContext.of(PatchType.JSON), patch));
+            if (patched > 0) {
+                log.info("Backfilled sidecars of AppConfig {}/{} into {} workload(s)", namespace, name, patched);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Failed to backfill sidecars of AppConfig {}/{}", namespace, name, e);
+        }
+    }
+
+    private int backfill(String namespace, String name, SidecarInjectionPlan plan, SidecarInjectionPlan previous,
+                         String kind, List<? extends HasMetadata> cached,
+                         Function<ListOptions, KubernetesResourceList<? extends HasMetadata>> list,
+                         BiConsumer<String, String> patch) throws InterruptedException {
+        if (cached != null) {
+            return backfill(namespace, name, plan, previous, kind, cached, patch);
+        }
+        int patched = 0;
+        String continueToken = null;
+        do {
+            KubernetesResourceList<? extends HasMetadata> page = list.apply(new ListOptionsBuilder()
+                    .withLimit(BACKFILL_PAGE_SIZE)
+                    .withContinue(continueToken)
+                    .build());
+            patched += backfill(namespace, name, plan, previous, kind, page.getItems(), patch);
+            continueToken = page.getMetadata() != null ? page.getMetadata().getContinue() : null;
+        } while (continueToken != null && !continueToken.isEmpty() && planIndex.get(namespace, name) == plan);
+        return patched;
+    }
+
+    private int backfill(String namespace, String name, SidecarInjectionPlan plan, SidecarInjectionPlan previous,
+                         String kind, List<? extends HasMetadata> workloads,
+                         BiConsumer<String, String> patch) throws InterruptedException {
+        int patched = 0;
+        for (HasMetadata workload : workloads) {
+            if (planIndex.get(namespace, name) != plan) {
+                log.debug("AppConfig {}/{} changed, stopping backfill", namespace, name);
+                return patched;
+            }
+            PodTemplateSpec template = templateOf(workload);
+            if (template == null || template.getSpec() == null
+                    || !(plan != null && plan.matches(namespace, template)
+                    || previous != null && previous.matches(namespace, template))) {
+                continue;
+            }
+            Map<String, String> labels = template.getMetadata() != null ? template.getMetadata().getLabels() : null;
+            byte[] templatePatch = SidecarInjectionPlan.templatePatchFor(template, planIndex.match(namespace, labels), previous);
+            if (templatePatch == null) {
+                continue;
+            }
+            backfillLimiter.acquire();
+            try {
+                patch.accept(workload.getMetadata().getName(), new String(templatePatch, StandardCharsets.UTF_8));
+                patched++;
+                log.info("Updated sidecars of {} {}/{}", kind, namespace, workload.getMetadata().getName());
+            } catch (KubernetesClientException e) {
+                log.warn("Failed to update sidecars of {} {}/{}: {}", kind, namespace,
+                        workload.getMetadata().getName(), e.getMessage());
+            }
+        }
+        return patched;
+    }
+
+    private static PodTemplateSpec templateOf(HasMetadata workload) {
+        if (workload instanceof Deployment) {
+            Deployment deployment = (Deployment) workload;
+            return deployment.getSpec() != null ? deployment.getSpec().getTemplate() : null;
+        }
+        StatefulSet statefulSet = (StatefulSet) workload;
+        return statefulSet.getSpec() != null ? statefulSet.getSpec().getTemplate() : null;
+    }
+
+    /**
+     * Unregister an AppConfig for sidecar injection and remove its sidecars from the pod templates of workloads
      *
      * @param appConfig the AppConfig to unregister
      */
     public void unregisterAppConfig(AppConfig appConfig) {
-        String key = appConfig.getMetadata().getNamespace() + "/" + appConfig.getMetadata().getName();
-        appConfigCache.remove(key);
-        log.info("Unregistered AppConfig for sidecar injection: {}", key);
+        String namespace = appConfig.getMetadata().getNamespace();
+        String name = appConfig.getMetadata().getName();
+        SidecarInjectionPlan previous = planIndex.get(namespace, name);
+        planIndex.remove(namespace, name);
+        log.info("Unregistered AppConfig for sidecar injection: {}/{}", namespace, name);
+        if (previous != null) {
+            submitBackfill(namespace, name, null, previous);
+        }
+        updatePodInformer(namespace);
     }
 
     /**
@@ -110,13 +501,32 @@ public class SidecarInjectionService {
             return;
         }
         
-        // Check if the pod matches any registered AppConfig
-        for (AppConfig appConfig : appConfigCache.values()) {
-            if (shouldInjectSidecar(pod, appConfig)) {
-                injectSidecar(pod, appConfig);
-                break;
+        List<SidecarInjectionPlan> plans = findPlans(pod);
+        if (!plans.isEmpty()) {
+            injectSidecars(pod, plans);
+        }
+    }
+
+    /**
+     * Finds the injection plans of every AppConfig with a sidecar missing from a pod.
+     * Plans come from the label index in precedence order: the most specific selector first, ties are
+     * broken by AppConfig name. When plans add a container or volume of the same name the first one wins.
+     *
+     * @param pod the pod
+     * @return the plans, empty if no sidecar should be injected
+     */
+    private List<SidecarInjectionPlan> findPlans(Pod pod) {
+        List<SidecarInjectionPlan> candidates = planIndex.match(pod.getMetadata().getNamespace(), pod.getMetadata().getLabels());
+        if (candidates.size() == 1) {
+            return candidates.get(0).appliesTo(pod) ? candidates : List.of();
+        }
+        List<SidecarInjectionPlan> plans = new ArrayList<>(candidates.size());
+        for (SidecarInjectionPlan plan : candidates) {
+            if (plan.appliesTo(pod)) {
+                plans.add(plan);
             }
         }
+        return plans;
     }
 
     /**
@@ -127,40 +537,27 @@ public class SidecarInjectionService {
      * @return true if the sidecar should be injected
      */
     public boolean shouldInjectSidecar(Pod pod, AppConfig appConfig) {
-        // Skip if pod is not in the same namespace as the AppConfig
-        if (!pod.getMetadata().getNamespace().equals(appConfig.getMetadata().getNamespace())) {
-            return false;
-        }
-        
-        // Check if the pod has the required labels
-        Map<String, String> podLabels = pod.getMetadata().getLabels();
-        if (podLabels == null) {
-            return false;
-        }
-        
-        Map<String, String> selectorLabels = appConfig.getSpec().getSidecarInjection().getSelectorLabels();
-        if (selectorLabels == null || selectorLabels.isEmpty()) {
-            return false;
-        }
-        
-        // Check if all selector labels match
-        for (Map.Entry<String, String> entry : selectorLabels.entrySet()) {
-            String labelValue = podLabels.get(entry.getKey());
-            if (labelValue == null || !labelValue.equals(entry.getValue())) {
-                return false;
-            }
+        return SidecarInjectionPlan.compile(appConfig).appliesTo(pod);
+    }
+
+    /**
+     * Creates the JSON patch adding the sidecars of every matching AppConfig to a pod being admitted
+     *
+     * @param pod the pod from the admission request
+     * @return the UTF-8 encoded RFC 6902 JSON patch, or null if no sidecar has to be injected; the array may be
+     *         shared and must not be modified
+     */
+    public byte[] createInjectionPatch(Pod pod) {
+        if (pod.getMetadata() == null || pod.getSpec() == null) {
+            return null;
         }
-        
-        // Check if the pod already has the sidecar
-        if (pod.getSpec().getContainers() != null) {
-            for (Container container : pod.getSpec().getContainers()) {
-                if (container.getName().equals(getSidecarName(appConfig))) {
-                    return false;
-                }
-            }
+        List<SidecarInjectionPlan> plans = findPlans(pod);
+        if (plans.isEmpty()) {
+            return null;
         }
-        
-        return true;
+        log.debug("Injecting sidecars of {} AppConfig(s) into admitted pod {}/{}", plans.size(), pod.getMetadata().getNamespace(),
+                pod.getMetadata().getName() != null ? pod.getMetadata().getName() : pod.getMetadata().getGenerateName());
+        return SidecarInjectionPlan.patchFor(pod, plans);
     }
 
     /**
@@ -170,45 +567,30 @@ public class SidecarInjectionService {
      * @param appConfig the AppConfig containing sidecar configuration
      */
     public void injectSidecar(Pod pod, AppConfig appConfig) {
+        injectSidecars(pod, List.of(SidecarInjectionPlan.compile(appConfig)));
+    }
+
+    /**
+     * Inject the compiled sidecars of one or more AppConfigs into the pod.
+     * The sidecars of all plans are merged into a single RFC 6902 JSON patch appending only the missing
+     * containers and volumes, so a pod matched by several AppConfigs is written once.
+     *
+     * @param pod the pod to inject the sidecars into
+     * @param plans the injection plans in precedence order
+     */
+    private void injectSidecars(Pod pod, List<SidecarInjectionPlan> plans) {
+        byte[] patchBytes = SidecarInjectionPlan.patchFor(pod, plans);
+        if (patchBytes == null) {
+            return;
+        }
         log.info("Injecting sidecar into pod: {}/{}", pod.getMetadata().getNamespace(), pod.getMetadata().getName());
         
         try {
-            // Create sidecar container
-            Container sidecar = createSidecarContainer(appConfig);
-            
-            // Add volumes if needed
-            List<Volume> volumes = new ArrayList<>();
-            if (pod.getSpec().getVolumes() != null) {
-                volumes.addAll(pod.getSpec().getVolumes());
-            }
-            
-            // Add sidecar-specific volumes
-            if (appConfig.getSpec().getSidecarInjection().getVolumes() != null) {
-                for (String volumeName : appConfig.getSpec().getSidecarInjection().getVolumes()) {
-                    volumes.add(new VolumeBuilder()
-                            .withName(volumeName)
-                            .withNewEmptyDir()
-                            .endEmptyDir()
-                            .build());
-                }
-            }
-            
-            // Update the pod with the sidecar
-            List<Container> containers = new ArrayList<>();
-            if (pod.getSpec().getContainers() != null) {
-                containers.addAll(pod.getSpec().getContainers());
-            }
-            containers.add(sidecar);
-            
-            // Apply the changes to the pod
-            pod.getSpec().setContainers(containers);
-            pod.getSpec().setVolumes(volumes);
-            
-            // Update the pod
+            String patch = new String(patchBytes, StandardCharsets.UTF_8);
             kubernetesClient.pods()
                     .inNamespace(pod.getMetadata().getNamespace())
-                    .resource(pod)
-                    .serverSideApply();
+                    .withName(pod.getMetadata().getName())
+                    .patch(PatchContext.of(PatchType.JSON), patch);
             
             log.info("Successfully injected sidecar into pod: {}/{}", 
                     pod.getMetadata().getNamespace(), pod.getMetadata().getName());
@@ -217,59 +599,4 @@ public class SidecarInjectionService {
                     pod.getMetadata().getNamespace(), pod.getMetadata().getName(), e);
         }
     }
-
-    /**
-     * Create a sidecar container based on AppConfig
-     *
-     * @param appConfig the AppConfig containing sidecar configuration
-     * @return the created sidecar container
-     */
-    private Container createSidecarContainer(AppConfig appConfig) {
-        String sidecarName = getSidecarName(appConfig);
-        String sidecarImage = appConfig.getSpec().getSidecarInjection().getImage();
-        
-        // Create environment variables
-        List<EnvVar> envVars = new ArrayList<>();
-        if (appConfig.getSpec().getSidecarInjection().getEnv() != null) {
-            Map<String, String> envMap = appConfig.getSpec().getSidecarInjection().getEnv();
-            for (Map.Entry<String, String> entry : envMap.entrySet()) {
-                envVars.add(new EnvVarBuilder()
-                        .withName(entry.getKey())
-                        .withValue(entry.getValue())
-                        .build());
-            }
-        }
-        
-        // Create volume mounts
-        List<VolumeMount> volumeMounts = new ArrayList<>();
-        if (appConfig.getSpec().getSidecarInjection().getVolumeMounts() != null) {
-            Map<String, String> mountMap = appConfig.getSpec().getSidecarInjection().getVolumeMounts();
-            for (Map.Entry<String, String> entry : mountMap.entrySet()) {
-                volumeMounts.add(new VolumeMountBuilder()
-                        .withName(entry.getKey())
-                        .withMountPath(entry.getValue())
-                        .build());
-            }
-        }
-        
-        // Build the container
-        return new ContainerBuilder()
-                .withName(sidecarName)
-                .withImage(sidecarImage)
-                .withEnv(envVars)
-                .withVolumeMounts(volumeMounts)
-                .build();
-    }
-
-    /**
-     * Get the name of the sidecar container
-     *
-     * @param appConfig the AppConfig containing sidecar configuration
-     * @return the sidecar container name
-     */
-    private String getSidecarName(AppConfig appConfig) {
-        return appConfig.getSpec().getSidecarInjection().getName() != null
-                ? appConfig.getSpec().getSidecarInjection().getName()
-                : appConfig.getSpec().getAppName() + "-sidecar";
-    }
 }
@@ -0,0 +1,309 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.RateLimiter;
+import io.github.k8soperators.microservicebootstrapoperator.util.VersionConverter;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListOptionsBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Rewrites every AppConfig so the API server stores it in the current storage version.
+ * AppConfigs are listed in pages and each page is rewritten by a bounded pool under a rate limit, so only one
+ * page is held in memory. Progress is checkpointed in a ConfigMap after every page, so an interrupted
+ * migration resumes where it stopped. AppConfigs that could not be rewritten are kept in the checkpoint and
+ * retried by the next run; the checkpoint is deleted once every AppConfig is migrated.
+ */
+@Slf4j
+@Service
+public class StorageVersionMigrator {
+
+    static final String CONTINUE_KEY = "continue";
+    static final String LAST_KEY = "lastKey";
+    static final String MIGRATED_KEY = "migrated";
+    static final String SKIPPED_KEY = "skipped";
+    static final String FAILED_KEY = "failed";
+    static final String FAILED_KEYS_KEY = "failedKeys";
+    static final String LISTED_KEY = "listed";
+    static final int MAX_CONFLICT_RETRIES = 3;
+
+    private final KubernetesClient kubernetesClient;
+    private final OperatorProperties.Migration config;
+
+    public StorageVersionMigrator(KubernetesClient kubernetesClient, OperatorProperties properties) {
+        this.kubernetesClient = kubernetesClient;
+        this.config = properties.getMigration();
+    }
+
+    /**
+     * Migrates all AppConfigs, resuming from the checkpoint if there is one. AppConfigs that failed in a
+     * previous run are retried first.
+     *
+     * @return the counts and throughput of the migration
+     * @throws InterruptedException if interrupted; the checkpoint of the last complete page is kept
+     */
+    public MigrationReport migrate() throws InterruptedException {
+        Map<String, String> checkpoint = loadCheckpoint();
+        String continueToken = emptyToNull(checkpoint.get(CONTINUE_KEY));
+        String lastKey = emptyToNull(checkpoint.get(LAST_KEY));
+        boolean listed = Boolean.parseBoolean(checkpoint.get(LISTED_KEY));
+        Progress progress = new Progress(Integer.parseInt(checkpoint.getOrDefault(MIGRATED_KEY, "0")),
+                Integer.parseInt(checkpoint.getOrDefault(SKIPPED_KEY, "0")), parseKeys(checkpoint.get(FAILED_KEYS_KEY)));
+        if (lastKey != null) {
+            log.info("Resuming AppConfig migration after {}, {} migrated so far", lastKey, progress.migrated);
+        }
+
+        RateLimiter rateLimiter = new RateLimiter(config.getWritesPerSecond(), config.getBurst());
+        ExecutorService executor = Executors.newFixedThreadPool(config.getConcurrency());
+        long startNanos = System.nanoTime();
+        int processed = 0;
+        try {
+            if (!progress.failedKeys.isEmpty()) {
+                log.info("Retrying {} AppConfigs that failed to migrate before", progress.failedKeys.size());
+                List<String> keys = List.copyOf(progress.failedKeys);
+                List<Callable<Outcome>> retries = new ArrayList<>();
+                for (String key : keys) {
+                    retries.add(() -> {
+                        rateLimiter.acquire();
+                        return retry(key);
+                    });
+                }
+                progress.record(keys, executor.invokeAll(retries));
+                processed += keys.size();
+            }
+
+            while (!listed) {
+                KubernetesResourceList<AppConfig> page;
+                try {
+                    page = kubernetesClient.resources(AppConfig.class).inAnyNamespace().list(new ListOptionsBuilder()
+                            .withLimit((long) config.getPageSize())
+                            .withContinue(continueToken)
+                            .build());
+                } catch (KubernetesClientException e) {
+                    if (e.getCode() != HttpURLConnection.HTTP_GONE || continueToken == null) {
+                        throw e;
+                    }
+                    // The continue token expired; list again and skip what was already migrated
+                    log.warn("Continue token expired, listing AppConfigs again after {}", lastKey);
+                    continueToken = null;
+                    continue;
+                }
+
+                List<String> keys = new ArrayList<>();
+                List<Callable<Outcome>> rewrites = new ArrayList<>();
+                for (AppConfig appConfig : page.getItems()) {
+                    String key = key(appConfig);
+                    if (lastKey == null || key.compareTo(lastKey) > 0) {
+                        keys.add(key);
+                        rewrites.add(() -> {
+                            rateLimiter.acquire();
+                            return rewrite(appConfig);
+                        });
+                    }
+                }
+                progress.record(keys, executor.invokeAll(rewrites));
+                processed += rewrites.size();
+                if (!page.getItems().isEmpty()) {
+                    lastKey = key(page.getItems().get(page.getItems().size() - 1));
+                }
+                continueToken = page.getMetadata() != null ? emptyToNull(page.getMetadata().getContinue()) : null;
+                if (continueToken == null) {
+                    listed = true;
+                    break;
+                }
+                saveCheckpoint(continueToken, lastKey, false, progress);
+                log.info("Migrated {} AppConfigs so far ({} skipped, {} failed), {}/s", progress.migrated,
+                        progress.skipped, progress.failedKeys.size(),
+                        String.format("%.1f", perSecond(processed, System.nanoTime() - startNanos)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (progress.failedKeys.isEmpty()) {
+            deleteCheckpoint();
+        } else {
+            // Keep the failed keys so the next run retries them instead of listing everything again
+            saveCheckpoint(null, lastKey, true, progress);
+        }
+        MigrationReport report = new MigrationReport(progress.migrated, progress.skipped, progress.failedKeys.size(),
+                Duration.ofNanos(System.nanoTime() - startNanos), perSecond(processed, System.nanoTime() - startNanos));
+        log.info("AppConfig migration complete: {} migrated, {} skipped, {} failed in {} ms, {}/s", report.migrated(),
+                report.skipped(), report.failed(), report.elapsed().toMillis(), String.format("%.1f", report.perSecond()));
+        return report;
+    }
+
+    /**
+     * Rewrites an AppConfig that failed to migrate before, reading its current version first
+     */
+    private Outcome retry(String key) {
+        int separator = key.indexOf('/');
+        String namespace = key.substring(0, separator);
+        String name = key.substring(separator + 1);
+        AppConfig current;
+        try {
+            current = kubernetesClient.resources(AppConfig.class).inNamespace(namespace).withName(name).get();
+        } catch (KubernetesClientException e) {
+            log.warn("Failed to read AppConfig {}: {}", key, e.getMessage());
+            return Outcome.FAILED;
+        }
+        return current != null ? rewrite(current) : Outcome.SKIPPED;
+    }
+
+    private Outcome rewrite(AppConfig appConfig) {
+        String namespace = appConfig.getMetadata().getNamespace();
+        String name = appConfig.getMetadata().getName();
+        AppConfig current = appConfig;
+        for (int attempt = 0; ; attempt++) {
+            // Objects marked with a legacy version label get their converted spec written with them
+            VersionConverter.checkAndConvertIfNeeded(current);
+            try {
+                kubernetesClient.resources(AppConfig.class).inNamespace(namespace).resource(current)
+                        .lockResourceVersion().replace();
+                return Outcome.MIGRATED;
+            } catch (KubernetesClientException e) {
+                if (e.getCode() == HttpURLConnection.HTTP_CONFLICT && attempt < MAX_CONFLICT_RETRIES) {
+                    // Changed since it was listed; the other write may have kept a legacy spec, so rewrite it again
+                    current = kubernetesClient.resources(AppConfig.class).inNamespace(namespace).withName(name).get();
+                    if (current == null) {
+                        return Outcome.SKIPPED;
+                    }
+                    continue;
+                }
+                if (e.getCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                    return Outcome.SKIPPED;
+                }
+                log.warn("Failed to migrate AppConfig {}/{}: {}", namespace, name, e.getMessage());
+                return Outcome.FAILED;
+            }
+        }
+    }
+
+    private static Outcome outcomeOf(Future<Outcome> outcome) throws InterruptedException {
+        try {
+            return outcome.get();
+        } catch (ExecutionException e) {
+            log.warn("Failed to migrate AppConfig", e.getCause());
+            return Outcome.FAILED;
+        }
+    }
+
+    private Map<String, String> loadCheckpoint() {
+        ConfigMap checkpoint = kubernetesClient.configMaps().inNamespace(config.getCheckpointNamespace())
+                .withName(config.getCheckpointName()).get();
+        return checkpoint != null && checkpoint.getData() != null ? checkpoint.getData() : Map.of();
+    }
+
+    private void saveCheckpoint(String continueToken, String lastKey, boolean listed, Progress progress) {
+        ConfigMap checkpoint = new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName(config.getCheckpointName())
+                    .withNamespace(config.getCheckpointNamespace())
+                .endMetadata()
+                .addToData(CONTINUE_KEY, continueToken != null ? continueToken : "")
+                .addToData(LAST_KEY, lastKey != null ? lastKey : "")
+                .addToData(LISTED_KEY, String.valueOf(listed))
+                .addToData(MIGRATED_KEY, String.valueOf(progress.migrated))
+                .addToData(SKIPPED_KEY, String.valueOf(progress.skipped))
+                .addToData(FAILED_KEY, String.valueOf(progress.failedKeys.size()))
+                .addToData(FAILED_KEYS_KEY, String.join("\n", progress.failedKeys))
+                .build();
+        kubernetesClient.configMaps().inNamespace(config.getCheckpointNamespace()).resource(checkpoint).createOrReplace();
+    }
+
+    private void deleteCheckpoint() {
+        kubernetesClient.configMaps().inNamespace(config.getCheckpointNamespace())
+                .withName(config.getCheckpointName()).delete();
+    }
+
+    /**
+     * Orders AppConfigs like the API server lists them, by namespace then name
+     */
+    private static String key(AppConfig appConfig) {
+        return appConfig.getMetadata().getNamespace() + "/" + appConfig.getMetadata().getName();
+    }
+
+    private static Set<String> parseKeys(String keys) {
+        Set<String> parsed = new TreeSet<>();
+        if (keys != null) {
+            for (String key : keys.split("\n")) {
+                if (!key.isBlank()) {
+                    parsed.add(key.trim());
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static double perSecond(int count, long elapsedNanos) {
+        return elapsedNanos > 0 ? count * 1e9 / elapsedNanos : 0;
+    }
+
+    private enum Outcome {
+        MIGRATED, SKIPPED, FAILED
+    }
+
+    /**
+     * Counts carried across runs; failed keys stay until a later rewrite succeeds
+     */
+    private static final class Progress {
+        private int migrated;
+        private int skipped;
+        private final Set<String> failedKeys;
+
+        private Progress(int migrated, int skipped, Set<String> failedKeys) {
+            this.migrated = migrated;
+            this.skipped = skipped;
+            this.failedKeys = failedKeys;
+        }
+
+        private void record(List<String> keys, List<Future<Outcome>> outcomes) throws InterruptedException {
+            for (int i = 0; i < keys.size(); i++) {
+                Outcome outcome = outcomeOf(outcomes.get(i));
+                switch (outcome) {
+                    case MIGRATED -> migrated++;
+                    case SKIPPED -> skipped++;
+                    default -> failedKeys.add(keys.get(i));
+                }
+                if (outcome != Outcome.FAILED) {
+                    failedKeys.remove(keys.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Result of a migration run
+     *
+     * @param migrated AppConfigs rewritten in the current storage version
+     * @param skipped AppConfigs deleted before they were rewritten
+     * @param failed AppConfigs that could not be rewritten and are retried by the next run
+     * @param elapsed duration of this run
+     * @param perSecond AppConfigs processed per second in this run
+     */
+    public record MigrationReport(int migrated, int skipped, int failed, Duration elapsed, double perSecond) {
+    }
+}
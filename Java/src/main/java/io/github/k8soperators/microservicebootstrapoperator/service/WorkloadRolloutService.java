@@ -0,0 +1,528 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.util.RateLimiter;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.EnvFromSource;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.VolumeProjection;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Service rolling out only the workloads that consume a Secret or ConfigMap whose content changed.
+ * Deployments and StatefulSets are cached by informers with an index from every Secret and ConfigMap their
+ * pod template references to the workload. On a content change the affected workloads get a checksum
+ * annotation on their pod template, which starts a regular rolling update. Workloads without a checksum for a
+ * ConfigMap first applied by this process only get the checksum recorded on their own metadata, so an operator
+ * restart or upgrade restarts nothing; a changed Secret always rolls its workloads out. Patches are queued per
+ * workload, so repeated changes collapse into one patch, and are sent under a rate limit. A failed patch is put
+ * back, merged with changes queued in the meantime, and retried with exponential backoff.
+ */
+@Slf4j
+@Service
+@ConditionalOnOperatorMode
+public class WorkloadRolloutService {
+
+    static final String CONFIG_REFERENCE_INDEX = "configReferences";
+    static final String CHECKSUM_ANNOTATION_PREFIX = "checksum.microservice.example.com/";
+    public static final String SECRET = "Secret";
+    public static final String CONFIG_MAP = "ConfigMap";
+    private static final String DEPLOYMENT = "Deployment";
+    private static final String STATEFUL_SET = "StatefulSet";
+    // Upper bound of the name part of an annotation key
+    private static final int MAX_ANNOTATION_NAME_LENGTH = 63;
+    private static final long INITIAL_RETRY_MILLIS = 1000;
+    private static final long MAX_RETRY_MILLIS = 300000;
+
+    private final KubernetesClient kubernetesClient;
+    private final OperatorProperties.Rollout config;
+    private final RateLimiter rateLimiter;
+    // Annotations waiting to be patched per workload, a workload is queued at most once
+    private final Map<WorkloadRef, PendingPatch> pending = new LinkedHashMap<>();
+    private final LinkedBlockingQueue<WorkloadRef> queue = new LinkedBlockingQueue<>();
+    // ConfigMaps whose content this process already reported, later reports are real changes
+    private final Set<String> reportedConfigMaps = ConcurrentHashMap.newKeySet();
+    private SharedIndexInformer<Deployment> deploymentInformer;
+    private SharedIndexInformer<StatefulSet> statefulSetInformer;
+    private ExecutorService worker;
+    private ScheduledExecutorService retryScheduler;
+
+    public WorkloadRolloutService(KubernetesClient kubernetesClient, OperatorProperties properties) {
+        this.kubernetesClient = kubernetesClient;
+        this.config = properties.getRollout();
+        this.rateLimiter = new RateLimiter(config.getPatchesPerSecond(), config.getBurst());
+    }
+
+    /**
+     * Start the workload informers and the patch worker
+     */
+    @PostConstruct
+    public void init() {
+        if (!config.isEnabled()) {
+            log.info("Workload rollout on config changes is disabled");
+            return;
+        }
+        try {
+            SharedIndexInformer<Deployment> deployments =
+                    kubernetesClient.apps().deployments().inAnyNamespace().runnableInformer(0);
+            deployments.addIndexers(indexers(WorkloadRolloutService::templateOf));
+            SharedIndexInformer<StatefulSet> statefulSets =
+                    kubernetesClient.apps().statefulSets().inAnyNamespace().runnableInformer(0);
+            statefulSets.addIndexers(indexers(WorkloadRolloutService::templateOf));
+            useInformers(deployments, statefulSets);
+            deployments.start();
+            statefulSets.start();
+        } catch (Exception e) {
+            log.warn("Failed to start workload informers, config changes will not roll out workloads", e);
+            return;
+        }
+
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workload-rollout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.submit(this::drain);
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "workload-rollout-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stop the informers and the patch worker when the service is destroyed
+     */
+    @PreDestroy
+    public void cleanup() {
+        if (worker != null) {
+            worker.shutdownNow();
+        }
+        if (retryScheduler != null) {
+            retryScheduler.shutdownNow();
+        }
+        if (deploymentInformer != null) {
+            deploymentInformer.stop();
+        }
+        if (statefulSetInformer != null) {
+            statefulSetInformer.stop();
+        }
+    }
+
+    /**
+     * Sets the informers the workload index is read from
+     *
+     * @param deployments informer of all Deployments, indexed by {@link #CONFIG_REFERENCE_INDEX}
+     * @param statefulSets informer of all StatefulSets, indexed by {@link #CONFIG_REFERENCE_INDEX}
+     */
+    void useInformers(SharedIndexInformer<Deployment> deployments, SharedIndexInformer<StatefulSet> statefulSets) {
+        this.deploymentInformer = deployments;
+        this.statefulSetInformer = statefulSets;
+    }
+
+    /**
+     * Returns the Deployments of a namespace from the workload informer
+     *
+     * @param namespace the namespace
+     * @return the cached Deployments, or null if the informer is not running or has not synced
+     */
+    public List<Deployment> cachedDeployments(String namespace) {
+        return cached(deploymentInformer, namespace);
+    }
+
+    /**
+     * Returns the StatefulSets of a namespace from the workload informer
+     *
+     * @param namespace the namespace
+     * @return the cached StatefulSets, or null if the informer is not running or has not synced
+     */
+    public List<StatefulSet> cachedStatefulSets(String namespace) {
+        return cached(statefulSetInformer, namespace);
+    }
+
+    private static <T extends HasMetadata> List<T> cached(SharedIndexInformer<T> informer, String namespace) {
+        return informer != null && informer.hasSynced()
+                ? informer.getIndexer().byIndex(Cache.NAMESPACE_INDEX, namespace)
+                : null;
+    }
+
+    /**
+     * Queues a rollout of every workload referencing the given Secret or ConfigMap.
+     * Workloads already carrying the checksum of this content are left alone. On the first report of a
+     * ConfigMap after startup, workloads that never carried a checksum for it get the checksum recorded without
+     * a rollout; Secrets are only reported when their content changed and always roll out.
+     *
+     * @param kind {@link #SECRET} or {@link #CONFIG_MAP}
+     * @param namespace the namespace of the Secret or ConfigMap
+     * @param name the name of the Secret or ConfigMap
+     * @param data the new content
+     * @return the number of workloads queued for rollout
+     */
+    public int onContentChange(String kind, String namespace, String name, Map<String, String> data) {
+        if (deploymentInformer == null || statefulSetInformer == null) {
+            return 0;
+        }
+        String indexKey = referenceKey(kind, namespace, name);
+        String annotation = annotationKey(kind, name);
+        String checksum = checksum(data);
+        boolean coldStart = CONFIG_MAP.equals(kind) && reportedConfigMaps.add(indexKey);
+
+        List<HasMetadata> affected = new ArrayList<>();
+        affected.addAll(deploymentInformer.getIndexer().byIndex(CONFIG_REFERENCE_INDEX, indexKey));
+        affected.addAll(statefulSetInformer.getIndexer().byIndex(CONFIG_REFERENCE_INDEX, indexKey));
+
+        int queued = 0;
+        for (HasMetadata workload : affected) {
+            String current = recordedChecksum(workload, annotation);
+            if (checksum.equals(current)) {
+                continue;
+            }
+            String workloadKind = workload instanceof Deployment ? DEPLOYMENT : STATEFUL_SET;
+            WorkloadRef ref = new WorkloadRef(workloadKind, workload.getMetadata().getNamespace(),
+                    workload.getMetadata().getName());
+            // On cold start a workload that never saw a checksum runs the content it started with, record it only
+            boolean rollout = current != null || !coldStart;
+            enqueue(ref, annotation, checksum, rollout);
+            if (rollout) {
+                queued++;
+            }
+        }
+        if (queued > 0) {
+            log.info("{} {}/{} changed, rolling out {} workload(s)", kind, namespace, name, queued);
+        }
+        return queued;
+    }
+
+    /**
+     * Returns the number of workloads waiting to be patched
+     *
+     * @return the queue depth
+     */
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Patches the next queued workload without waiting for the rate limiter
+     *
+     * @return false if nothing was queued
+     * @throws KubernetesClientException if the patch failed, the workload is queued again
+     */
+    boolean processNext() {
+        WorkloadRef workload = queue.poll();
+        if (workload == null) {
+            return false;
+        }
+        patch(workload);
+        return true;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                WorkloadRef workload = queue.take();
+                rateLimiter.acquire();
+                patch(workload);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // The patch was put back and the workload requeued with backoff
+                log.error("Error rolling out workload", e);
+            }
+        }
+    }
+
+    /**
+     * Returns the checksum last recorded on a workload, from its own metadata or its pod template
+     */
+    private static String recordedChecksum(HasMetadata workload, String annotation) {
+        Map<String, String> annotations = workload.getMetadata().getAnnotations();
+        if (annotations != null && annotations.containsKey(annotation)) {
+            return annotations.get(annotation);
+        }
+        PodTemplateSpec template = templateOf(workload);
+        Map<String, String> templateAnnotations = template != null && template.getMetadata() != null
+                ? template.getMetadata().getAnnotations() : null;
+        return templateAnnotations != null ? templateAnnotations.get(annotation) : null;
+    }
+
+    private void enqueue(WorkloadRef workload, String annotation, String checksum, boolean rollout) {
+        synchronized (pending) {
+            PendingPatch patch = pending.get(workload);
+            if (patch == null) {
+                patch = new PendingPatch();
+                pending.put(workload, patch);
+                queue.add(workload);
+            }
+            (rollout ? patch.rollouts : patch.seeds).put(annotation, checksum);
+        }
+    }
+
+    private void patch(WorkloadRef workload) {
+        PendingPatch pendingPatch;
+        synchronized (pending) {
+            pendingPatch = pending.remove(workload);
+        }
+        if (pendingPatch == null) {
+            return;
+        }
+        // The workload metadata records every checksum, only rollouts touch the pod template
+        Map<String, String> recorded = new TreeMap<>(pendingPatch.seeds);
+        recorded.putAll(pendingPatch.rollouts);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("metadata", Map.of("annotations", recorded));
+        if (!pendingPatch.rollouts.isEmpty()) {
+            body.put("spec", Map.of("template", Map.of("metadata", Map.of("annotations", pendingPatch.rollouts))));
+        }
+        String patch = Serialization.asJson(body);
+        PatchContext context = PatchContext.of(PatchType.JSON_MERGE);
+        try {
+            if (DEPLOYMENT.equals(workload.kind())) {
+                kubernetesClient.apps().deployments().inNamespace(workload.namespace())
+                        .withName(workload.name()).patch(context, patch);
+            } else {
+                kubernetesClient.apps().statefulSets().inNamespace(workload.namespace())
+                        .withName(workload.name()).patch(context, patch);
+            }
+            if (!pendingPatch.rollouts.isEmpty()) {
+                log.info("Rolled out {} {}/{}", workload.kind(), workload.namespace(), workload.name());
+            } else {
+                log.debug("Recorded checksums on {} {}/{}", workload.kind(), workload.namespace(), workload.name());
+            }
+        } catch (KubernetesClientException e) {
+            if (e.getCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                log.debug("{} {}/{} is gone, skipping rollout", workload.kind(), workload.namespace(), workload.name());
+                return;
+            }
+            retry(workload, pendingPatch);
+            throw e;
+        } catch (RuntimeException e) {
+            retry(workload, pendingPatch);
+            throw e;
+        }
+    }
+
+    /**
+     * Puts back the annotations of a failed patch and queues the workload again after a backoff.
+     * Checksums queued since the patch was taken are newer and win over the failed ones.
+     */
+    private void retry(WorkloadRef workload, PendingPatch failed) {
+        long delayMillis;
+        synchronized (pending) {
+            PendingPatch newer = pending.get(workload);
+            if (newer != null) {
+                failed.rollouts.forEach((annotation, checksum) -> {
+                    String newerChecksum = newer.seeds.remove(annotation);
+                    newer.rollouts.putIfAbsent(annotation, newerChecksum != null ? newerChecksum : checksum);
+                });
+                failed.seeds.forEach((annotation, checksum) -> {
+                    if (!newer.rollouts.containsKey(annotation)) {
+                        newer.seeds.putIfAbsent(annotation, checksum);
+                    }
+                });
+                newer.attempts = Math.max(newer.attempts, failed.attempts + 1);
+                // Already queued with the newer changes
+                return;
+            }
+            failed.attempts++;
+            pending.put(workload, failed);
+            delayMillis = Math.min(MAX_RETRY_MILLIS, INITIAL_RETRY_MILLIS << Math.min(failed.attempts - 1, 20));
+        }
+        log.info("Retrying {} {}/{} in {} ms", workload.kind(), workload.namespace(), workload.name(), delayMillis);
+        if (retryScheduler != null) {
+            retryScheduler.schedule(() -> queue.add(workload), delayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            // Without the worker there is nothing to wait for, the next processNext retries it
+            queue.add(workload);
+        }
+    }
+
+    private static <T extends HasMetadata> Map<String, Function<T, List<String>>> indexers(
+            Function<HasMetadata, PodTemplateSpec> template) {
+        return Map.of(CONFIG_REFERENCE_INDEX,
+                workload -> referenceKeys(template.apply(workload), workload.getMetadata().getNamespace()));
+    }
+
+    private static PodTemplateSpec templateOf(HasMetadata workload) {
+        if (workload instanceof Deployment) {
+            Deployment deployment = (Deployment) workload;
+            return deployment.getSpec() != null ? deployment.getSpec().getTemplate() : null;
+        }
+        StatefulSet statefulSet = (StatefulSet) workload;
+        return statefulSet.getSpec() != null ? statefulSet.getSpec().getTemplate() : null;
+    }
+
+    /**
+     * Collects every Secret and ConfigMap referenced by a pod template through env, envFrom and volumes
+     *
+     * @param template the pod template
+     * @param namespace the namespace of the workload
+     * @return the index keys of the referenced Secrets and ConfigMaps
+     */
+    static List<String> referenceKeys(PodTemplateSpec template, String namespace) {
+        if (template == null || template.getSpec() == null) {
+            return List.of();
+        }
+        PodSpec podSpec = template.getSpec();
+        Set<String> keys = new LinkedHashSet<>();
+        List<Container> containers = new ArrayList<>();
+        if (podSpec.getInitContainers() != null) {
+            containers.addAll(podSpec.getInitContainers());
+        }
+        if (podSpec.getContainers() != null) {
+            containers.addAll(podSpec.getContainers());
+        }
+        for (Container container : containers) {
+            if (container.getEnv() != null) {
+                for (EnvVar env : container.getEnv()) {
+                    if (env.getValueFrom() == null) {
+                        continue;
+                    }
+                    if (env.getValueFrom().getSecretKeyRef() != null) {
+                        addKey(keys, SECRET, namespace, env.getValueFrom().getSecretKeyRef().getName());
+                    }
+                    if (env.getValueFrom().getConfigMapKeyRef() != null) {
+                        addKey(keys, CONFIG_MAP, namespace, env.getValueFrom().getConfigMapKeyRef().getName());
+                    }
+                }
+            }
+            if (container.getEnvFrom() != null) {
+                for (EnvFromSource envFrom : container.getEnvFrom()) {
+                    if (envFrom.getSecretRef() != null) {
+                        addKey(keys, SECRET, namespace, envFrom.getSecretRef().getName());
+                    }
+                    if (envFrom.getConfigMapRef() != null) {
+                        addKey(keys, CONFIG_MAP, namespace, envFrom.getConfigMapRef().getName());
+                    }
+                }
+            }
+        }
+        if (podSpec.getVolumes() != null) {
+            for (Volume volume : podSpec.getVolumes()) {
+                if (volume.getSecret() != null) {
+                    addKey(keys, SECRET, namespace, volume.getSecret().getSecretName());
+                }
+                if (volume.getConfigMap() != null) {
+                    addKey(keys, CONFIG_MAP, namespace, volume.getConfigMap().getName());
+                }
+                if (volume.getProjected() != null && volume.getProjected().getSources() != null) {
+                    for (VolumeProjection projection : volume.getProjected().getSources()) {
+                        if (projection.getSecret() != null) {
+                            addKey(keys, SECRET, namespace, projection.getSecret().getName());
+                        }
+                        if (projection.getConfigMap() != null) {
+                            addKey(keys, CONFIG_MAP, namespace, projection.getConfigMap().getName());
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static void addKey(Set<String> keys, String kind, String namespace, String name) {
+        if (name != null && !name.isEmpty()) {
+            keys.add(referenceKey(kind, namespace, name));
+        }
+    }
+
+    static String referenceKey(String kind, String namespace, String name) {
+        return kind + "/" + namespace + "/" + name;
+    }
+
+    /**
+     * Returns the pod template annotation carrying the checksum of one Secret or ConfigMap
+     *
+     * @param kind {@link #SECRET} or {@link #CONFIG_MAP}
+     * @param name the name of the Secret or ConfigMap
+     * @return the annotation key
+     */
+    static String annotationKey(String kind, String name) {
+        String annotationName = kind.toLowerCase() + "-" + name;
+        if (annotationName.length() > MAX_ANNOTATION_NAME_LENGTH) {
+            // Long names are shortened to a stable hash to fit the annotation key limit
+            annotationName = kind.toLowerCase() + "-" + sha256(name).substring(0, 32);
+        }
+        return CHECKSUM_ANNOTATION_PREFIX + annotationName;
+    }
+
+    /**
+     * Computes an order independent checksum of Secret or ConfigMap content
+     *
+     * @param data the content
+     * @return the hex encoded SHA-256 checksum
+     */
+    static String checksum(Map<String, String> data) {
+        StringBuilder canonical = new StringBuilder();
+        new TreeMap<>(data != null ? data : new HashMap<>()).forEach((key, value) ->
+                canonical.append(key).append('\0').append(value).append('\0'));
+        return sha256(canonical.toString());
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A workload to patch
+     */
+    record WorkloadRef(String kind, String namespace, String name) {
+    }
+
+    /**
+     * Checksum annotations waiting to be patched on one workload
+     */
+    private static final class PendingPatch {
+        // Recorded on the workload metadata only
+        private final Map<String, String> seeds = new TreeMap<>();
+        // Recorded on the workload metadata and its pod template, which rolls it out
+        private final Map<String, String> rollouts = new TreeMap<>();
+        // Failed patch attempts, drives the retry backoff
+        private int attempts;
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.NetworkPolicyConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SecretRotationConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
+import io.fabric8.kubernetes.api.model.StatusCause;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Validates AppConfig specs before they reach the reconciler.
+ * Violations are reported as Kubernetes status causes with the field path and the same reasons the
+ * API server uses, so the admission webhook can return them as structured errors.
+ */
+public final class AppConfigValidator {
+
+    public static final String FIELD_VALUE_REQUIRED = "FieldValueRequired";
+    public static final String FIELD_VALUE_INVALID = "FieldValueInvalid";
+
+    // RFC 1123 label, appName prefixes the names of the created resources and is used as a label value
+    private static final Pattern DNS_LABEL = Pattern.compile("[a-z0-9]([-a-z0-9]*[a-z0-9])?");
+    private static final int MAX_LABEL_LENGTH = 63;
+    // RFC 1123 subdomain, the names of the rotated Secrets
+    private static final Pattern DNS_SUBDOMAIN = Pattern.compile(
+            "[a-z0-9]([-a-z0-9]*[a-z0-9])?(\\.[a-z0-9]([-a-z0-9]*[a-z0-9])?)*");
+
+    private AppConfigValidator() {
+    }
+
+    /**
+     * Validates a spec
+     *
+     * @param spec the spec, may be null
+     * @return the violations, empty if the spec is valid
+     */
+    public static List<StatusCause> validate(AppConfigSpec spec) {
+        List<StatusCause> causes = new ArrayList<>();
+        if (spec == null) {
+            causes.add(required("spec"));
+            return causes;
+        }
+
+        String appName = spec.getAppName();
+        if (appName == null || appName.isBlank()) {
+            causes.add(required("spec.appName"));
+        } else if (appName.length() > MAX_LABEL_LENGTH || !DNS_LABEL.matcher(appName).matches()) {
+            causes.add(invalid("spec.appName", "must be a lowercase RFC 1123 label of at most "
+                    + MAX_LABEL_LENGTH + " characters"));
+        }
+
+        if (spec.getRbac() != null
+                && (spec.getRbac().getServiceAccountName() == null || spec.getRbac().getServiceAccountName().isBlank())) {
+            causes.add(required("spec.rbac.serviceAccountName"));
+        }
+
+        SecretRotationConfig secretRotation = spec.getSecretRotation();
+        if (secretRotation != null && secretRotation.getIntervalHours() <= 0) {
+            causes.add(invalid("spec.secretRotation.intervalHours", "must be greater than 0"));
+        }
+        if (secretRotation != null && secretRotation.getSources() != null) {
+            validateSources(appName, secretRotation.getSources(), causes);
+        }
+
+        SidecarInjectionConfig sidecarInjection = spec.getSidecarInjection();
+        if (sidecarInjection != null && sidecarInjection.isEnabled()) {
+            boolean legacySidecars = spec.getSidecars() != null && !spec.getSidecars().isEmpty();
+            if (!legacySidecars && (sidecarInjection.getImage() == null || sidecarInjection.getImage().isBlank())) {
+                causes.add(required("spec.sidecarInjection.image"));
+            }
+            try {
+                CompiledLabelSelector.compile(sidecarInjection.getSelectorLabels(), sidecarInjection.getMatchExpressions());
+            } catch (IllegalArgumentException e) {
+                causes.add(invalid("spec.sidecarInjection.matchExpressions", e.getMessage()));
+            }
+        }
+
+        NetworkPolicyConfig networkPolicy = spec.getNetworkPolicy();
+        if (networkPolicy != null && networkPolicy.isEnabled()) {
+            validateRules("spec.networkPolicy.ingress", networkPolicy.getIngress(), causes);
+            validateRules("spec.networkPolicy.egress", networkPolicy.getEgress(), causes);
+        }
+        return causes;
+    }
+
+    /**
+     * Formats violations as one message, like the API server does for invalid objects
+     *
+     * @param causes the violations
+     * @return the message
+     */
+    public static String message(List<StatusCause> causes) {
+        List<String> parts = new ArrayList<>(causes.size());
+        for (StatusCause cause : causes) {
+            parts.add(cause.getField() + ": " + cause.getMessage());
+        }
+        return String.join("; ", parts);
+    }
+
+    private static void validateSources(String appName, List<String> sources, List<StatusCause> causes) {
+        Map<String, String> sourcesBySecret = new HashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            String source = sources.get(i);
+            if (source == null || source.isBlank()) {
+                continue;
+            }
+            String field = "spec.secretRotation.sources[" + i + "]";
+            if (!SecretRotationConfig.DEFAULT_SOURCE.equals(source) && SecretRotationConfig.sourceSegment(source).isEmpty()) {
+                causes.add(invalid(field, "must contain at least one letter or digit"));
+                continue;
+            }
+            String secretName = SecretRotationConfig.secretName(appName, source);
+            if (!DNS_SUBDOMAIN.matcher(secretName).matches()) {
+                causes.add(invalid(field, "would be stored in \"" + secretName + "\", which is not a valid Secret name"));
+                continue;
+            }
+            String other = sourcesBySecret.putIfAbsent(secretName, source);
+            if (other != null && !other.equals(source)) {
+                causes.add(invalid(field, "would share a Secret with source " + other));
+            }
+        }
+    }
+
+    private static void validateRules(String field, List<String> rules, List<StatusCause> causes) {
+        if (rules == null) {
+            return;
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i) == null) {
+                causes.add(required(field + "[" + i + "]"));
+                continue;
+            }
+            try {
+                NetworkPolicyRule.compile(rules.get(i));
+            } catch (IllegalArgumentException e) {
+                causes.add(invalid(field + "[" + i + "]", e.getMessage()));
+            }
+        }
+    }
+
+    private static StatusCause required(String field) {
+        return new StatusCause(field, "Required value", FIELD_VALUE_REQUIRED);
+    }
+
+    private static StatusCause invalid(String field, String message) {
+        return new StatusCause(field, "Invalid value: " + message, FIELD_VALUE_INVALID);
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x500.X500NameBuilder;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x509.BasicConstraints;
+import org.bouncycastle.asn1.x509.ExtendedKeyUsage;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.asn1.x509.KeyPurposeId;
+import org.bouncycastle.asn1.x509.KeyUsage;
+import org.bouncycastle.asn1.pkcs.PrivateKeyInfo;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.X509v3CertificateBuilder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.bouncycastle.cert.jcajce.JcaX509v3CertificateBuilder;
+import org.bouncycastle.openssl.PEMParser;
+import org.bouncycastle.openssl.jcajce.JcaPEMKeyConverter;
+import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
+import org.bouncycastle.openssl.jcajce.JcaPKCS8Generator;
+import org.bouncycastle.operator.ContentSigner;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Signs leaf certificates with a CA key.
+ * Key generation is left to the caller so the signing step stays cheap and can be fed from a key pool.
+ */
+public class CertificateSigner {
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    // Backdate certificates slightly to tolerate clock skew between nodes
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final X509Certificate caCertificate;
+    private final PrivateKey caPrivateKey;
+    private final String caCertificatePem;
+
+    private CertificateSigner(X509Certificate caCertificate, PrivateKey caPrivateKey) {
+        this.caCertificate = caCertificate;
+        this.caPrivateKey = caPrivateKey;
+        this.caCertificatePem = toPem(caCertificate);
+    }
+
+    /**
+     * Creates a signer backed by a new self-signed CA certificate
+     *
+     * @param caKeyPair the CA key pair
+     * @param commonName the CA common name
+     * @param validityDays the CA validity in days
+     * @return the signer
+     */
+    public static CertificateSigner createSelfSigned(KeyPair caKeyPair, String commonName, int validityDays) {
+        try {
+            X500Name subject = new X500NameBuilder(BCStyle.INSTANCE).addRDN(BCStyle.CN, commonName).build();
+            Instant now = Instant.now();
+            X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(
+                    subject, serialNumber(), Date.from(now.minus(CLOCK_SKEW)),
+                    Date.from(now.plus(Duration.ofDays(validityDays))), subject, caKeyPair.getPublic());
+            JcaX509ExtensionUtils extensionUtils = new JcaX509ExtensionUtils();
+            builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(0));
+            builder.addExtension(Extension.keyUsage, true, new KeyUsage(KeyUsage.keyCertSign | KeyUsage.cRLSign));
+            builder.addExtension(Extension.subjectKeyIdentifier, false,
+                    extensionUtils.createSubjectKeyIdentifier(caKeyPair.getPublic()));
+            X509Certificate certificate = sign(builder, caKeyPair.getPrivate());
+            return new CertificateSigner(certificate, caKeyPair.getPrivate());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to create CA certificate", e);
+        }
+    }
+
+    /**
+     * Creates a signer from a PEM encoded CA certificate and PKCS#8 private key
+     *
+     * @param certificatePem the CA certificate
+     * @param privateKeyPem the CA private key
+     * @return the signer
+     */
+    public static CertificateSigner fromPem(String certificatePem, String privateKeyPem) {
+        try (PEMParser certificateParser = new PEMParser(new StringReader(certificatePem));
+             PEMParser keyParser = new PEMParser(new StringReader(privateKeyPem))) {
+            Object certificateObject = certificateParser.readObject();
+            Object keyObject = keyParser.readObject();
+            if (!(certificateObject instanceof X509CertificateHolder) || !(keyObject instanceof PrivateKeyInfo)) {
+                throw new IllegalArgumentException("Expected a PEM certificate and a PKCS#8 private key");
+            }
+            X509Certificate certificate = new JcaX509CertificateConverter()
+                    .getCertificate((X509CertificateHolder) certificateObject);
+            PrivateKey privateKey = new JcaPEMKeyConverter().getPrivateKey((PrivateKeyInfo) keyObject);
+            return new CertificateSigner(certificate, privateKey);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid CA certificate or key", e);
+        }
+    }
+
+    /**
+     * Issues a server and client certificate for the given key pair
+     *
+     * @param keyPair the key pair of the certificate, typically taken from a {@link KeyPairPool}
+     * @param commonName the subject common name, also added as DNS name
+     * @param dnsNames additional DNS subject alternative names
+     * @param organization the subject organization, may be null
+     * @param validityDays the validity in days
+     * @return the PEM encoded certificate, key and CA certificate
+     */
+    public IssuedCertificate issue(KeyPair keyPair, String commonName, List<String> dnsNames,
+                                   String organization, int validityDays) {
+        try {
+            X500NameBuilder subjectBuilder = new X500NameBuilder(BCStyle.INSTANCE).addRDN(BCStyle.CN, commonName);
+            if (organization != null && !organization.isEmpty()) {
+                subjectBuilder.addRDN(BCStyle.O, organization);
+            }
+            Instant now = Instant.now();
+            X509v3CertificateBuilder builder = new JcaX509v3CertificateBuilder(
+                    caCertificate, serialNumber(), Date.from(now.minus(CLOCK_SKEW)),
+                    Date.from(now.plus(Duration.ofDays(validityDays))), subjectBuilder.build(), keyPair.getPublic());
+
+            Set<String> names = new LinkedHashSet<>();
+            names.add(commonName);
+            if (dnsNames != null) {
+                names.addAll(dnsNames);
+            }
+            GeneralName[] generalNames = names.stream()
+                    .map(name -> new GeneralName(GeneralName.dNSName, name))
+                    .toArray(GeneralName[]::new);
+
+            JcaX509ExtensionUtils extensionUtils = new JcaX509ExtensionUtils();
+            builder.addExtension(Extension.basicConstraints, true, new BasicConstraints(false));
+            builder.addExtension(Extension.keyUsage, true,
+                    new KeyUsage(KeyUsage.digitalSignature | KeyUsage.keyEncipherment));
+            builder.addExtension(Extension.extendedKeyUsage, false, new ExtendedKeyUsage(
+                    new KeyPurposeId[]{KeyPurposeId.id_kp_serverAuth, KeyPurposeId.id_kp_clientAuth}));
+            builder.addExtension(Extension.subjectAlternativeName, false, new GeneralNames(generalNames));
+            builder.addExtension(Extension.authorityKeyIdentifier, false,
+                    extensionUtils.createAuthorityKeyIdentifier(caCertificate));
+
+            X509Certificate certificate = sign(builder, caPrivateKey);
+            return new IssuedCertificate(toPem(certificate), privateKeyToPem(keyPair.getPrivate()), caCertificatePem);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to issue certificate for " + commonName, e);
+        }
+    }
+
+    public X509Certificate getCaCertificate() {
+        return caCertificate;
+    }
+
+    public String getCaCertificatePem() {
+        return caCertificatePem;
+    }
+
+    public String getCaPrivateKeyPem() {
+        return privateKeyToPem(caPrivateKey);
+    }
+
+    public PublicKey getCaPublicKey() {
+        return caCertificate.getPublicKey();
+    }
+
+    private static X509Certificate sign(X509v3CertificateBuilder builder, PrivateKey signingKey)
+            throws GeneralSecurityException {
+        try {
+            ContentSigner signer = new JcaContentSignerBuilder(signatureAlgorithm(signingKey)).build(signingKey);
+            return new JcaX509CertificateConverter().getCertificate(builder.build(signer));
+        } catch (org.bouncycastle.operator.OperatorCreationException e) {
+            throw new GeneralSecurityException("Failed to create certificate signer", e);
+        }
+    }
+
+    private static String signatureAlgorithm(PrivateKey key) {
+        switch (key.getAlgorithm()) {
+            case "EC":
+            case "ECDSA":
+                return "SHA256withECDSA";
+            case "RSA":
+                return "SHA256withRSA";
+            default:
+                throw new IllegalArgumentException("Unsupported CA key algorithm: " + key.getAlgorithm());
+        }
+    }
+
+    private static BigInteger serialNumber() {
+        return new BigInteger(127, SECURE_RANDOM);
+    }
+
+    private static String toPem(Object object) {
+        StringWriter writer = new StringWriter();
+        try (JcaPEMWriter pemWriter = new JcaPEMWriter(writer)) {
+            pemWriter.writeObject(object);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode PEM", e);
+        }
+        return writer.toString();
+    }
+
+    private static String privateKeyToPem(PrivateKey privateKey) {
+        try {
+            return toPem(new JcaPKCS8Generator(privateKey, null));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode private key", e);
+        }
+    }
+
+    /**
+     * PEM encoded result of issuing a certificate
+     */
+    public record IssuedCertificate(String certificatePem, String privateKeyPem, String caCertificatePem) {
+    }
+}
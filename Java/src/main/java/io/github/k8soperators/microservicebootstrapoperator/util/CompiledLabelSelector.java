@@ -0,0 +1,202 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.api.model.LabelSelectorRequirement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Kubernetes label selector compiled into predicates: equality labels (matchLabels) and set-based
+ * requirements (matchExpressions with In, NotIn, Exists and DoesNotExist).
+ * Requirements are validated and their value lists turned into sets once, so matching a label set does
+ * not allocate. All requirements must hold for a match; a selector without requirements matches nothing.
+ */
+public final class CompiledLabelSelector {
+
+    private static final CompiledLabelSelector EMPTY = new CompiledLabelSelector(Map.of(), List.of());
+
+    private final Map<String, String> matchLabels;
+    private final List<Requirement> requirements;
+
+    private CompiledLabelSelector(Map<String, String> matchLabels, List<Requirement> requirements) {
+        this.matchLabels = matchLabels;
+        this.requirements = requirements;
+    }
+
+    /**
+     * Compiles an equality selector
+     *
+     * @param matchLabels the labels a match must have, may be null
+     * @return the compiled selector
+     */
+    public static CompiledLabelSelector of(Map<String, String> matchLabels) {
+        return compile(matchLabels, null);
+    }
+
+    /**
+     * Compiles a selector
+     *
+     * @param matchLabels the labels a match must have, may be null
+     * @param matchExpressions the set-based requirements a match must satisfy, may be null
+     * @return the compiled selector
+     * @throws IllegalArgumentException if a requirement has an unknown operator or values that do not fit it
+     */
+    public static CompiledLabelSelector compile(Map<String, String> matchLabels,
+                                                List<LabelSelectorRequirement> matchExpressions) {
+        boolean noLabels = matchLabels == null || matchLabels.isEmpty();
+        boolean noExpressions = matchExpressions == null || matchExpressions.isEmpty();
+        if (noLabels && noExpressions) {
+            return EMPTY;
+        }
+        List<Requirement> requirements = new ArrayList<>();
+        if (!noExpressions) {
+            for (LabelSelectorRequirement expression : matchExpressions) {
+                requirements.add(Requirement.compile(expression));
+            }
+        }
+        return new CompiledLabelSelector(noLabels ? Map.of() : Map.copyOf(matchLabels), List.copyOf(requirements));
+    }
+
+    /**
+     * Check if a label set satisfies the selector
+     *
+     * @param labels the labels of the object, may be null
+     * @return true if every label and requirement of the selector holds
+     */
+    public boolean matches(Map<String, String> labels) {
+        if (isEmpty()) {
+            return false;
+        }
+        Map<String, String> actual = labels != null ? labels : Map.of();
+        if (matchLabels.size() > actual.size()) {
+            return false;
+        }
+        for (Map.Entry<String, String> required : matchLabels.entrySet()) {
+            if (!required.getValue().equals(actual.get(required.getKey()))) {
+                return false;
+            }
+        }
+        for (Requirement requirement : requirements) {
+            if (!requirement.matches(actual)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the equality labels
+     *
+     * @return the labels a match must have
+     */
+    public Map<String, String> getMatchLabels() {
+        return matchLabels;
+    }
+
+    /**
+     * Returns the set-based requirements
+     *
+     * @return the requirements a match must satisfy
+     */
+    public List<Requirement> getRequirements() {
+        return requirements;
+    }
+
+    /**
+     * Converts the selector back to its API form, e.g. to filter list and watch requests server side
+     *
+     * @return the label selector
+     */
+    public LabelSelector toLabelSelector() {
+        List<LabelSelectorRequirement> expressions = new ArrayList<>(requirements.size());
+        for (Requirement requirement : requirements) {
+            expressions.add(new LabelSelectorRequirement(requirement.key(), requirement.operator().value,
+                    new ArrayList<>(requirement.values())));
+        }
+        return new LabelSelector(expressions, matchLabels);
+    }
+
+    /**
+     * Returns the number of labels and requirements, used to rank how specific a selector is
+     *
+     * @return the number of labels and requirements
+     */
+    public int size() {
+        return matchLabels.size() + requirements.size();
+    }
+
+    /**
+     * Check if the selector has no labels and no requirements
+     *
+     * @return true if the selector matches nothing
+     */
+    public boolean isEmpty() {
+        return matchLabels.isEmpty() && requirements.isEmpty();
+    }
+
+    /**
+     * Operator of a set-based requirement
+     */
+    public enum Operator {
+        IN("In"),
+        NOT_IN("NotIn"),
+        EXISTS("Exists"),
+        DOES_NOT_EXIST("DoesNotExist");
+
+        private final String value;
+
+        Operator(String value) {
+            this.value = value;
+        }
+
+        static Operator fromValue(String value) {
+            for (Operator operator : values()) {
+                if (operator.value.equals(value)) {
+                    return operator;
+                }
+            }
+            throw new IllegalArgumentException("Unknown label selector operator: " + value);
+        }
+    }
+
+    /**
+     * A compiled set-based requirement
+     *
+     * @param key the label key
+     * @param operator the operator
+     * @param values the values of In and NotIn, empty for Exists and DoesNotExist
+     */
+    public record Requirement(String key, Operator operator, Set<String> values) {
+
+        static Requirement compile(LabelSelectorRequirement expression) {
+            if (expression.getKey() == null || expression.getKey().isEmpty()) {
+                throw new IllegalArgumentException("Label selector requirement has no key");
+            }
+            Operator operator = Operator.fromValue(expression.getOperator());
+            List<String> values = expression.getValues() != null ? expression.getValues() : List.of();
+            boolean setOperator = operator == Operator.IN || operator == Operator.NOT_IN;
+            if (setOperator && values.isEmpty()) {
+                throw new IllegalArgumentException("Operator " + expression.getOperator()
+                        + " on label " + expression.getKey() + " requires values");
+            }
+            if (!setOperator && !values.isEmpty()) {
+                throw new IllegalArgumentException("Operator " + expression.getOperator()
+                        + " on label " + expression.getKey() + " does not take values");
+            }
+            return new Requirement(expression.getKey(), operator, Set.copyOf(values));
+        }
+
+        boolean matches(Map<String, String> labels) {
+            String value = labels.get(key);
+            return switch (operator) {
+                case IN -> value != null && values.contains(value);
+                case NOT_IN -> value == null || !values.contains(value);
+                case EXISTS -> value != null;
+                case DOES_NOT_EXIST -> value == null;
+            };
+        }
+    }
+}
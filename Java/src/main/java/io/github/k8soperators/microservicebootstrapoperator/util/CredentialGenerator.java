@@ -0,0 +1,107 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Generates random credentials from per-thread entropy sources.
+ * Every thread owns its own SecureRandom and draws from it in buffered blocks, so bulk rotations on many
+ * threads never contend on a shared generator and do not pay one provider call per character.
+ */
+public final class CredentialGenerator {
+
+    private static final char[] PASSWORD_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()-_=+[]{}|;:,.<>?".toCharArray();
+    // Largest multiple of the alphabet size that fits in a byte, higher bytes are rejected to avoid modulo bias
+    private static final int PASSWORD_BYTE_LIMIT = 256 - (256 % PASSWORD_ALPHABET.length);
+    private static final int BUFFER_SIZE = 512;
+    private static final ThreadLocal<EntropyBuffer> ENTROPY = ThreadLocal.withInitial(EntropyBuffer::new);
+
+    private CredentialGenerator() {
+    }
+
+    /**
+     * Generates a random password of letters, digits and symbols
+     *
+     * @param length the password length
+     * @return the password
+     */
+    public static String password(int length) {
+        EntropyBuffer entropy = ENTROPY.get();
+        char[] password = new char[length];
+        int filled = 0;
+        while (filled < length) {
+            int value = entropy.nextByte();
+            if (value < PASSWORD_BYTE_LIMIT) {
+                password[filled++] = PASSWORD_ALPHABET[value % PASSWORD_ALPHABET.length];
+            }
+        }
+        return new String(password);
+    }
+
+    /**
+     * Generates a URL-safe, unpadded Base64 token
+     *
+     * @param byteLength the number of random bytes encoded in the token
+     * @return the token
+     */
+    public static String token(int byteLength) {
+        byte[] bytes = new byte[byteLength];
+        ENTROPY.get().nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Returns a uniformly distributed random int between 0 (inclusive) and the bound (exclusive)
+     *
+     * @param bound the upper bound, must be positive
+     * @return the random int
+     */
+    public static int nextInt(int bound) {
+        return ENTROPY.get().random.nextInt(bound);
+    }
+
+    /**
+     * A thread confined SecureRandom with a block of pre-drawn bytes
+     */
+    private static final class EntropyBuffer {
+        private final SecureRandom random = newSecureRandom();
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+
+        int nextByte() {
+            if (position == BUFFER_SIZE) {
+                refill();
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        void nextBytes(byte[] out) {
+            int copied = 0;
+            while (copied < out.length) {
+                if (position == BUFFER_SIZE) {
+                    refill();
+                }
+                int count = Math.min(out.length - copied, BUFFER_SIZE - position);
+                System.arraycopy(buffer, position, out, copied, count);
+                position += count;
+                copied += count;
+            }
+        }
+
+        private void refill() {
+            random.nextBytes(buffer);
+            position = 0;
+        }
+
+        private static SecureRandom newSecureRandom() {
+            try {
+                // DRBG instances keep independent state, unlike NativePRNG which serializes on a global lock
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded blocking work queue that deduplicates items by key and serves partitions round-robin.
+ * Offering an item whose key is already queued replaces the queued item without taking extra capacity or
+ * losing its place. Takes rotate over the partitions with pending items, so a burst in one partition
+ * (e.g. a namespace scaling up) only delays other partitions by one item per round.
+ *
+ * @param <T> the item type
+ */
+public class FairWorkQueue<T> {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // partition -> key -> pending item, in arrival order
+    private final Map<String, LinkedHashMap<String, Item<T>>> partitions = new HashMap<>();
+    // Partitions with pending items, in serving order
+    private final Deque<String> ready = new ArrayDeque<>();
+    private int size;
+
+    /**
+     * Creates a work queue
+     *
+     * @param capacity the maximum number of distinct pending keys
+     */
+    public FairWorkQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds an item, waiting for capacity if the queue is full
+     *
+     * @param partition the partition the item belongs to
+     * @param key the deduplication key
+     * @param value the item
+     * @param timeout how long to wait for capacity
+     * @param unit the unit of the timeout
+     * @return true if the item was queued or replaced a queued item, false if the queue stayed full
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean offer(String partition, String key, T value, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                // Checked on every wakeup, the key may have been queued while waiting for capacity
+                LinkedHashMap<String, Item<T>> pending = partitions.get(partition);
+                Item<T> queued = pending != null ? pending.get(key) : null;
+                if (queued != null) {
+                    // Keep the original enqueue time so latency covers the whole wait
+                    pending.put(key, new Item<>(partition, key, value, queued.enqueuedNanos()));
+                    return true;
+                }
+                if (size < capacity) {
+                    break;
+                }
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            LinkedHashMap<String, Item<T>> pending = partitions.computeIfAbsent(partition, p -> new LinkedHashMap<>());
+            if (pending.isEmpty()) {
+                ready.addLast(partition);
+            }
+            pending.put(key, new Item<>(partition, key, value, System.nanoTime()));
+            size++;
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the next item, waiting until one is available
+     *
+     * @return the next item of the partition whose turn it is
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Item<T> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            String partition = ready.pollFirst();
+            LinkedHashMap<String, Item<T>> pending = partitions.get(partition);
+            Map.Entry<String, Item<T>> first = pending.entrySet().iterator().next();
+            pending.remove(first.getKey());
+            if (pending.isEmpty()) {
+                partitions.remove(partition);
+            } else {
+                ready.addLast(partition);
+            }
+            size--;
+            notFull.signal();
+            return first.getValue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of pending items
+     *
+     * @return the number of pending items
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A queued item
+     *
+     * @param partition the partition of the item
+     * @param key the deduplication key
+     * @param value the item
+     * @param enqueuedNanos the {@link System#nanoTime()} at which the key was first queued
+     */
+    public record Item<T>(String partition, String key, T value, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel holding one deadline per key.
+ * Scheduling, rescheduling and cancelling are O(1); advancing costs O(1) per elapsed tick plus the
+ * number of fired or cascaded entries, independent of how many deadlines are held.
+ *
+ * @param <K> the key type, one deadline is held per key
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS_PER_LEVEL = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final List<List<Set<K>>> levels = new ArrayList<>();
+    private final Map<K, Entry> entries = new HashMap<>();
+    private final Set<K> expired = new LinkedHashSet<>();
+    private long currentTick;
+
+    /**
+     * Creates a timing wheel
+     *
+     * @param tickMillis the resolution of the wheel in milliseconds
+     * @param startMillis the current time in epoch milliseconds
+     */
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<K>> slots = new ArrayList<>(SLOTS_PER_LEVEL);
+            for (int slot = 0; slot < SLOTS_PER_LEVEL; slot++) {
+                slots.add(new LinkedHashSet<>());
+            }
+            levels.add(slots);
+        }
+    }
+
+    /**
+     * Schedules or reschedules the deadline for a key
+     *
+     * @param key the key
+     * @param deadlineMillis the deadline in epoch milliseconds
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // Round up so a deadline never fires before it is due
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Entry entry = new Entry(deadlineMillis, deadlineTick);
+        entries.put(key, entry);
+        place(key, entry);
+    }
+
+    /**
+     * Removes the deadline for a key
+     *
+     * @param key the key
+     * @return true if a deadline was held for the key
+     */
+    public synchronized boolean cancel(K key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.level < 0) {
+            expired.remove(key);
+        } else {
+            levels.get(entry.level).get(entry.slot).remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the deadline held for a key
+     *
+     * @param key the key
+     * @return the deadline in epoch milliseconds, or null if none is held
+     */
+    public synchronized Long getDeadline(K key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.deadlineMillis : null;
+    }
+
+    /**
+     * Returns the number of deadlines held
+     *
+     * @return the number of keys with a pending deadline
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advances the wheel to the given time and removes every deadline that has been reached
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the keys whose deadlines fired, in firing order
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> fired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        drainExpired(fired);
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            Set<K> slot = levels.get(0).get((int) (currentTick & SLOT_MASK));
+            if (!slot.isEmpty()) {
+                for (K key : slot) {
+                    entries.remove(key);
+                    fired.add(key);
+                }
+                slot.clear();
+            }
+            drainExpired(fired);
+        }
+        return fired;
+    }
+
+    private void drainExpired(List<K> fired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        for (K key : expired) {
+            entries.remove(key);
+            fired.add(key);
+        }
+        expired.clear();
+    }
+
+    /**
+     * Moves the entries of the current slot of a level down into finer levels whenever the
+     * level below has completed a full revolution
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        long lowerBits = currentTick & ((1L << (SLOT_BITS * level)) - 1);
+        if (lowerBits != 0) {
+            return;
+        }
+        // Coarser levels are cascaded first so their entries can continue down in the same tick
+        cascade(level + 1);
+        Set<K> slot = levels.get(level).get((int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(slot);
+        slot.clear();
+        for (K key : keys) {
+            place(key, entries.get(key));
+        }
+    }
+
+    private void place(K key, Entry entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            entry.level = -1;
+            expired.add(key);
+            return;
+        }
+        // Deadlines beyond the top level are parked at the far end and re-placed when cascaded
+        long placementTick = delta < MAX_SPAN_TICKS ? entry.deadlineTick : currentTick + MAX_SPAN_TICKS - 1;
+        long placementDelta = placementTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && placementDelta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        entry.level = level;
+        entry.slot = (int) ((placementTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        levels.get(level).get(entry.slot).add(key);
+    }
+
+    private static final class Entry {
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private int level;
+        private int slot;
+
+        private Entry(long deadlineMillis, long deadlineTick) {
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+/**
+ * Utility class for deterministic jitter.
+ * The same key always maps to the same offset, so delays stay stable across reconciles and restarts
+ * while different keys spread evenly over the window.
+ */
+public final class Jitter {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private Jitter() {
+    }
+
+    /**
+     * Returns a stable offset for the key
+     *
+     * @param key the key to derive the offset from
+     * @param maxMillis the size of the jitter window
+     * @return an offset in [0, maxMillis)
+     */
+    public static long forKey(String key, long maxMillis) {
+        if (maxMillis <= 0) {
+            return 0;
+        }
+        long hash = key.hashCode() * GOLDEN_RATIO;
+        // Fold the high bits down so small windows still see the well-mixed part of the hash
+        hash ^= hash >>> 32;
+        return Math.floorMod(hash, maxMillis);
+    }
+}
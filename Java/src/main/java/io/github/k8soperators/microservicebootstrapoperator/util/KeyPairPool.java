@@ -0,0 +1,144 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of pre-generated key pairs refilled by background threads.
+ * Key generation is the expensive part of issuing a certificate, so taking a key from the pool keeps
+ * callers on the cheap signing path. When the pool runs dry a key is generated inline instead.
+ */
+@Slf4j
+public class KeyPairPool implements AutoCloseable {
+
+    private final String algorithm;
+    private final int keySize;
+    private final BlockingQueue<KeyPair> pool;
+    private final List<Thread> refillThreads = new ArrayList<>();
+    private final ThreadLocal<KeyPairGenerator> inlineGenerators;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile boolean running;
+
+    /**
+     * Creates a key pair pool, call {@link #start(int)} to begin filling it
+     *
+     * @param algorithm the key algorithm, e.g. RSA or EC
+     * @param keySize the key size in bits
+     * @param capacity the number of key pairs kept ready
+     */
+    public KeyPairPool(String algorithm, int keySize, int capacity) {
+        this.algorithm = algorithm;
+        this.keySize = keySize;
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        // Fail fast on an unsupported algorithm rather than in a background thread
+        newGenerator(algorithm, keySize);
+        this.inlineGenerators = ThreadLocal.withInitial(() -> newGenerator(algorithm, keySize));
+    }
+
+    /**
+     * Starts the background refill threads
+     *
+     * @param threads the number of refill threads
+     */
+    public synchronized void start(int threads) {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            Thread thread = new Thread(this::refill, "key-pair-pool-" + (i + 1));
+            thread.setDaemon(true);
+            // Refilling must never compete with reconcile threads
+            thread.setPriority(Thread.MIN_PRIORITY);
+            refillThreads.add(thread);
+            thread.start();
+        }
+        log.info("Started {} key pair pool with {} {}-bit keys", algorithm, pool.remainingCapacity(), keySize);
+    }
+
+    /**
+     * Takes a key pair from the pool, generating one inline if the pool is empty
+     *
+     * @return a fresh key pair that is never handed out twice
+     */
+    public KeyPair take() {
+        KeyPair keyPair = pool.poll();
+        if (keyPair != null) {
+            hits.incrementAndGet();
+            return keyPair;
+        }
+        misses.incrementAndGet();
+        return inlineGenerators.get().generateKeyPair();
+    }
+
+    /**
+     * Returns the number of key pairs ready in the pool
+     *
+     * @return the pool size
+     */
+    public int available() {
+        return pool.size();
+    }
+
+    /**
+     * Returns the number of takes served from the pool
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of takes that had to generate a key inline
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        refillThreads.forEach(Thread::interrupt);
+        refillThreads.clear();
+        pool.clear();
+    }
+
+    private void refill() {
+        KeyPairGenerator generator = newGenerator(algorithm, keySize);
+        while (running) {
+            try {
+                // Blocks while the pool is full
+                pool.put(generator.generateKeyPair());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static KeyPairGenerator newGenerator(String algorithm, int keySize) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+            generator.initialize(keySize);
+            return generator;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Unsupported key algorithm " + algorithm + "/" + keySize, e);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index from compiled label selectors to values, partitioned by namespace.
+ * Each selector of a namespace is indexed under its least shared equality label or In requirement, so matching
+ * a label set costs about the number of labels plus the few candidates anchored on them, independent of how
+ * many selectors are registered. Selectors without either are indexed by the key of an Exists requirement, and
+ * only selectors made of NotIn and DoesNotExist requirements are checked against every label set.
+ * A namespace partition is immutable and replaced atomically on every change: lookups never lock and always
+ * see a consistent index, while changes to different namespaces do not contend.
+ * <p>
+ * When several selectors match, the most specific one (most labels and requirements) comes first, ties are
+ * broken by name.
+ *
+ * @param <V> the value type
+ */
+public class LabelSelectorIndex<V> {
+
+    private final Map<String, Partition<V>> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or replaces the equality selector registered under a name
+     *
+     * @param namespace the namespace the selector applies to
+     * @param name the name of the selector, unique within the namespace
+     * @param selector the labels a match must have, an empty or null selector matches nothing
+     * @param value the value returned on a match
+     */
+    public void put(String namespace, String name, Map<String, String> selector, V value) {
+        put(namespace, name, CompiledLabelSelector.of(selector), value);
+    }
+
+    /**
+     * Adds or replaces the selector registered under a name
+     *
+     * @param namespace the namespace the selector applies to
+     * @param name the name of the selector, unique within the namespace
+     * @param selector the compiled selector, an empty selector matches nothing
+     * @param value the value returned on a match
+     */
+    public void put(String namespace, String name, CompiledLabelSelector selector, V value) {
+        if (selector.isEmpty()) {
+            remove(namespace, name);
+            return;
+        }
+        Entry<V> entry = new Entry<>(name, selector, value);
+        partitions.compute(namespace, (ns, partition) ->
+                (partition != null ? partition : Partition.<V>empty()).with(entry));
+    }
+
+    /**
+     * Removes the selector registered under a name
+     *
+     * @param namespace the namespace of the selector
+     * @param name the name of the selector
+     */
+    public void remove(String namespace, String name) {
+        partitions.computeIfPresent(namespace, (ns, partition) -> partition.without(name));
+    }
+
+    /**
+     * Returns the value registered under a name
+     *
+     * @param namespace the namespace of the selector
+     * @param name the name of the selector
+     * @return the value, or null if no selector is registered under the name
+     */
+    public V get(String namespace, String name) {
+        Partition<V> partition = partitions.get(namespace);
+        Entry<V> entry = partition != null ? partition.entries.get(name) : null;
+        return entry != null ? entry.value() : null;
+    }
+
+    /**
+     * Finds the values whose selectors are satisfied by a label set
+     *
+     * @param namespace the namespace of the labelled object
+     * @param labels the labels of the object
+     * @return the matching values in precedence order
+     */
+    public List<V> match(String namespace, Map<String, String> labels) {
+        Partition<V> partition = partitions.get(namespace);
+        if (partition == null) {
+            return List.of();
+        }
+        return partition.match(labels != null ? labels : Map.of());
+    }
+
+    /**
+     * Returns the namespaces that have at least one selector
+     *
+     * @return the namespaces
+     */
+    public Set<String> namespaces() {
+        return Collections.unmodifiableSet(partitions.keySet());
+    }
+
+    /**
+     * Returns the number of registered selectors
+     *
+     * @return the number of selectors
+     */
+    public int size() {
+        return partitions.values().stream().mapToInt(partition -> partition.entries.size()).sum();
+    }
+
+    private record Entry<V>(String name, CompiledLabelSelector selector, V value) {
+    }
+
+    /**
+     * Immutable index of the selectors of one namespace
+     */
+    private static final class Partition<V> {
+
+        private static final Comparator<Entry<?>> PRECEDENCE =
+                Comparator.<Entry<?>>comparingInt(entry -> entry.selector().size()).reversed()
+                        .thenComparing(Entry::name);
+
+        private final Map<String, Entry<V>> entries;
+        // label key -> label value -> selectors anchored on that label
+        private final Map<String, Map<String, List<Entry<V>>>> anchors;
+        // label key -> selectors anchored on the presence of that key
+        private final Map<String, List<Entry<V>>> keyAnchors;
+        // Selectors with nothing to anchor on, checked against every label set
+        private final List<Entry<V>> unanchored;
+
+        private Partition(Map<String, Entry<V>> entries) {
+            this.entries = entries;
+            Map<String, Map<String, Integer>> frequencies = new HashMap<>();
+            for (Entry<V> entry : entries.values()) {
+                entry.selector().getMatchLabels().forEach((key, value) -> count(frequencies, key, value));
+                for (CompiledLabelSelector.Requirement requirement : entry.selector().getRequirements()) {
+                    if (requirement.operator() == CompiledLabelSelector.Operator.IN) {
+                        requirement.values().forEach(value -> count(frequencies, requirement.key(), value));
+                    }
+                }
+            }
+            // Each selector is indexed under its least shared label, so labels common to many selectors
+            // (tier, team, ...) do not pull all of them in as candidates. An In requirement is indexed under
+            // each of its values: a label set has one value per key, so it still yields the selector once
+            Map<String, Map<String, List<Entry<V>>>> index = new HashMap<>();
+            Map<String, List<Entry<V>>> keyIndex = new HashMap<>();
+            List<Entry<V>> scanned = new ArrayList<>();
+            for (Entry<V> entry : entries.values()) {
+                String anchorKey = null;
+                Set<String> anchorValues = null;
+                int anchorFrequency = Integer.MAX_VALUE;
+                for (Map.Entry<String, String> label : entry.selector().getMatchLabels().entrySet()) {
+                    int frequency = frequencies.get(label.getKey()).get(label.getValue());
+                    if (frequency < anchorFrequency
+                            || (frequency == anchorFrequency && label.getKey().compareTo(anchorKey) < 0)) {
+                        anchorKey = label.getKey();
+                        anchorValues = Set.of(label.getValue());
+                        anchorFrequency = frequency;
+                    }
+                }
+                String existsKey = null;
+                for (CompiledLabelSelector.Requirement requirement : entry.selector().getRequirements()) {
+                    if (requirement.operator() == CompiledLabelSelector.Operator.EXISTS && existsKey == null) {
+                        existsKey = requirement.key();
+                    }
+                    if (requirement.operator() != CompiledLabelSelector.Operator.IN) {
+                        continue;
+                    }
+                    int frequency = 0;
+                    for (String value : requirement.values()) {
+                        frequency += frequencies.get(requirement.key()).get(value);
+                    }
+                    if (frequency < anchorFrequency
+                            || (frequency == anchorFrequency && requirement.key().compareTo(anchorKey) < 0)) {
+                        anchorKey = requirement.key();
+                        anchorValues = requirement.values();
+                        anchorFrequency = frequency;
+                    }
+                }
+                if (anchorKey != null) {
+                    Map<String, List<Entry<V>>> byValue = index.computeIfAbsent(anchorKey, k -> new HashMap<>());
+                    anchorValues.forEach(value -> byValue.computeIfAbsent(value, v -> new ArrayList<>()).add(entry));
+                } else if (existsKey != null) {
+                    keyIndex.computeIfAbsent(existsKey, k -> new ArrayList<>()).add(entry);
+                } else {
+                    scanned.add(entry);
+                }
+            }
+            this.anchors = index;
+            this.keyAnchors = keyIndex;
+            this.unanchored = List.copyOf(scanned);
+        }
+
+        private static void count(Map<String, Map<String, Integer>> frequencies, String key, String value) {
+            frequencies.computeIfAbsent(key, k -> new HashMap<>()).merge(value, 1, Integer::sum);
+        }
+
+        static <V> Partition<V> empty() {
+            return new Partition<>(Map.of());
+        }
+
+        Partition<V> with(Entry<V> entry) {
+            Map<String, Entry<V>> updated = new HashMap<>(entries);
+            updated.put(entry.name(), entry);
+            return new Partition<>(updated);
+        }
+
+        Partition<V> without(String name) {
+            if (!entries.containsKey(name)) {
+                return this;
+            }
+            Map<String, Entry<V>> updated = new HashMap<>(entries);
+            updated.remove(name);
+            // Returning null drops the namespace from the index
+            return updated.isEmpty() ? null : new Partition<>(updated);
+        }
+
+        List<V> match(Map<String, String> labels) {
+            List<Entry<V>> matches = collect(unanchored, labels, null);
+            for (Map.Entry<String, String> label : labels.entrySet()) {
+                Map<String, List<Entry<V>>> byValue = anchors.get(label.getKey());
+                List<Entry<V>> candidates = byValue != null ? byValue.get(label.getValue()) : null;
+                if (candidates != null) {
+                    matches = collect(candidates, labels, matches);
+                }
+                candidates = keyAnchors.get(label.getKey());
+                if (candidates != null) {
+                    matches = collect(candidates, labels, matches);
+                }
+            }
+            if (matches == null) {
+                return List.of();
+            }
+            if (matches.size() == 1) {
+                return List.of(matches.get(0).value());
+            }
+            matches.sort(PRECEDENCE);
+            List<V> values = new ArrayList<>(matches.size());
+            matches.forEach(entry -> values.add(entry.value()));
+            return values;
+        }
+
+        private static <V> List<Entry<V>> collect(List<Entry<V>> candidates, Map<String, String> labels,
+                                                  List<Entry<V>> matches) {
+            for (Entry<V> candidate : candidates) {
+                if (candidate.selector().matches(labels)) {
+                    if (matches == null) {
+                        matches = new ArrayList<>(2);
+                    }
+                    matches.add(candidate);
+                }
+            }
+            return matches;
+        }
+    }
+}
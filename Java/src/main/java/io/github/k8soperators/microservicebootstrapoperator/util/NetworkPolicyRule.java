@@ -0,0 +1,340 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.api.model.networking.v1.IPBlock;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyEgressRule;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyIngressRule;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyPeer;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyPort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A NetworkPolicy ingress or egress rule compiled from the string form used in {@code spec.networkPolicy}.
+ * <pre>
+ * rule  = "any" [ports] | ports | peer { "|" peer } [ports]
+ * peer  = "pods(" [labels] ")" | "namespaces(" [labels] ")" [ "pods(" [labels] ")" ] | "cidr(" cidr [ "except" cidr { "," cidr } ] ")"
+ * ports = "on" port { "," port }
+ * port  = [ "tcp/" | "udp/" | "sctp/" ] ( number | number "-" number | name )
+ * </pre>
+ * For example {@code namespaces(team=payments) pods(app=api) | cidr(10.0.0.0/8) on tcp/8080, 9090-9100}.
+ * An empty label list selects all pods or namespaces; a rule without peers allows every peer and a rule
+ * without ports every port. Rules are compiled once and cached by their source string; compiled rules are
+ * values, so rules with the same meaning are equal.
+ *
+ * @param peers the allowed peers, empty to allow all
+ * @param ports the allowed ports, empty to allow all
+ */
+public record NetworkPolicyRule(List<Peer> peers, List<Port> ports) {
+
+    // Distinct rule strings are few in practice, the cache is dropped as a whole if that assumption breaks
+    private static final int MAX_CACHED_RULES = 4096;
+    private static final Map<String, NetworkPolicyRule> CACHE = new ConcurrentHashMap<>();
+    private static final Pattern PORT_NAME = Pattern.compile("[a-z0-9]([-a-z0-9]{0,13}[a-z0-9])?");
+    private static final Pattern CIDR = Pattern.compile("[0-9a-fA-F.:]+/\\d{1,3}");
+
+    /**
+     * Compiles a rule, returning the cached compiled form of an already seen rule string
+     *
+     * @param rule the rule string
+     * @return the compiled rule
+     * @throws IllegalArgumentException if the rule does not follow the grammar
+     */
+    public static NetworkPolicyRule compile(String rule) {
+        NetworkPolicyRule cached = CACHE.get(rule);
+        if (cached != null) {
+            return cached;
+        }
+        NetworkPolicyRule compiled = new Parser(rule).parse();
+        if (CACHE.size() >= MAX_CACHED_RULES) {
+            CACHE.clear();
+        }
+        CACHE.put(rule, compiled);
+        return compiled;
+    }
+
+    /**
+     * Returns the rule as an ingress rule allowing traffic from its peers
+     *
+     * @return a new ingress rule
+     */
+    public NetworkPolicyIngressRule toIngressRule() {
+        return new NetworkPolicyIngressRule(toPeers(), toPorts());
+    }
+
+    /**
+     * Returns the rule as an egress rule allowing traffic to its peers
+     *
+     * @return a new egress rule
+     */
+    public NetworkPolicyEgressRule toEgressRule() {
+        return new NetworkPolicyEgressRule(toPorts(), toPeers());
+    }
+
+    private List<NetworkPolicyPeer> toPeers() {
+        List<NetworkPolicyPeer> result = new ArrayList<>(peers.size());
+        for (Peer peer : peers) {
+            result.add(peer.toPeer());
+        }
+        return result;
+    }
+
+    private List<NetworkPolicyPort> toPorts() {
+        List<NetworkPolicyPort> result = new ArrayList<>(ports.size());
+        for (Port port : ports) {
+            result.add(port.toPort());
+        }
+        return result;
+    }
+
+    /**
+     * A peer selected by pod and namespace labels, or by an IP block
+     *
+     * @param podLabels the pod labels, null if pods are not selected by label
+     * @param namespaceLabels the namespace labels, null for the namespace of the policy
+     * @param cidr the IP block, null for label selected peers
+     * @param except the CIDRs excluded from the IP block
+     */
+    public record Peer(Map<String, String> podLabels, Map<String, String> namespaceLabels, String cidr,
+                       List<String> except) {
+
+        NetworkPolicyPeer toPeer() {
+            if (cidr != null) {
+                return new NetworkPolicyPeer(new IPBlock(cidr, new ArrayList<>(except)), null, null);
+            }
+            return new NetworkPolicyPeer(null, selector(namespaceLabels), selector(podLabels));
+        }
+
+        private static LabelSelector selector(Map<String, String> labels) {
+            return labels != null ? new LabelSelector(new ArrayList<>(), new HashMap<>(labels)) : null;
+        }
+    }
+
+    /**
+     * A port or port range
+     *
+     * @param protocol TCP, UDP or SCTP
+     * @param port the port number or name
+     * @param endPort the last port of a range, null for a single port
+     */
+    public record Port(String protocol, String port, Integer endPort) {
+
+        NetworkPolicyPort toPort() {
+            IntOrString value = Character.isDigit(port.charAt(0))
+                    ? new IntOrString(Integer.parseInt(port)) : new IntOrString(port);
+            return new NetworkPolicyPort(endPort, value, protocol);
+        }
+    }
+
+    /**
+     * Recursive descent parser over the rule string
+     */
+    private static final class Parser {
+
+        private final String source;
+        private int position;
+
+        Parser(String source) {
+            if (source == null || source.isBlank()) {
+                throw new IllegalArgumentException("Network policy rule is empty");
+            }
+            this.source = source;
+        }
+
+        NetworkPolicyRule parse() {
+            List<Peer> peers = new ArrayList<>();
+            skipWhitespace();
+            if (peek("on")) {
+                // Ports only, any peer
+            } else if (acceptKeyword("any")) {
+                skipWhitespace();
+            } else {
+                peers.add(peer());
+                while (accept('|')) {
+                    peers.add(peer());
+                }
+            }
+            List<Port> ports = new ArrayList<>();
+            if (acceptKeyword("on")) {
+                do {
+                    ports.add(port());
+                } while (accept(','));
+            }
+            skipWhitespace();
+            if (position < source.length()) {
+                throw error("unexpected '" + source.substring(position) + "'");
+            }
+            return new NetworkPolicyRule(List.copyOf(peers), List.copyOf(ports));
+        }
+
+        private Peer peer() {
+            skipWhitespace();
+            if (acceptKeyword("cidr")) {
+                return cidr();
+            }
+            Map<String, String> namespaceLabels = null;
+            if (acceptKeyword("namespaces") || acceptKeyword("namespace")) {
+                namespaceLabels = labels();
+                skipWhitespace();
+                if (!peek("pods")) {
+                    return new Peer(null, namespaceLabels, null, List.of());
+                }
+            }
+            if (acceptKeyword("pods")) {
+                return new Peer(labels(), namespaceLabels, null, List.of());
+            }
+            throw error("expected pods(...), namespaces(...) or cidr(...) at position " + position);
+        }
+
+        private Map<String, String> labels() {
+            expect('(');
+            Map<String, String> labels = new TreeMap<>();
+            if (accept(')')) {
+                return Collections.unmodifiableMap(labels);
+            }
+            do {
+                String label = until(",)").trim();
+                int separator = label.indexOf('=');
+                if (separator <= 0) {
+                    throw error("label '" + label + "' is not key=value");
+                }
+                labels.put(label.substring(0, separator).trim(), label.substring(separator + 1).trim());
+            } while (accept(','));
+            expect(')');
+            return Collections.unmodifiableMap(labels);
+        }
+
+        private Peer cidr() {
+            expect('(');
+            String cidr = validCidr(token());
+            List<String> except = new ArrayList<>();
+            if (acceptKeyword("except")) {
+                do {
+                    except.add(validCidr(token()));
+                } while (accept(','));
+            }
+            expect(')');
+            return new Peer(null, null, cidr, List.copyOf(except));
+        }
+
+        private Port port() {
+            String value = token().toLowerCase(Locale.ROOT);
+            String protocol = "TCP";
+            int slash = value.indexOf('/');
+            if (slash >= 0) {
+                protocol = switch (value.substring(0, slash)) {
+                    case "tcp" -> "TCP";
+                    case "udp" -> "UDP";
+                    case "sctp" -> "SCTP";
+                    default -> throw error("unknown protocol '" + value.substring(0, slash) + "'");
+                };
+                value = value.substring(slash + 1);
+            }
+            if (value.isEmpty() || !Character.isDigit(value.charAt(0))) {
+                if (!PORT_NAME.matcher(value).matches()) {
+                    throw error("invalid port name '" + value + "'");
+                }
+                return new Port(protocol, value, null);
+            }
+            int dash = value.indexOf('-');
+            int start = portNumber(dash < 0 ? value : value.substring(0, dash));
+            if (dash < 0) {
+                return new Port(protocol, Integer.toString(start), null);
+            }
+            int end = portNumber(value.substring(dash + 1));
+            if (end < start) {
+                throw error("port range " + value + " ends before it starts");
+            }
+            return new Port(protocol, Integer.toString(start), end);
+        }
+
+        private int portNumber(String value) {
+            try {
+                int port = Integer.parseInt(value);
+                if (port >= 1 && port <= 65535) {
+                    return port;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw error("invalid port '" + value + "'");
+        }
+
+        private String validCidr(String value) {
+            if (!CIDR.matcher(value).matches()) {
+                throw error("invalid CIDR '" + value + "'");
+            }
+            return value;
+        }
+
+        private String token() {
+            skipWhitespace();
+            int start = position;
+            while (position < source.length() && !Character.isWhitespace(source.charAt(position))
+                    && ",()|".indexOf(source.charAt(position)) < 0) {
+                position++;
+            }
+            if (start == position) {
+                throw error("expected a value at position " + position);
+            }
+            return source.substring(start, position);
+        }
+
+        private String until(String delimiters) {
+            int start = position;
+            while (position < source.length() && delimiters.indexOf(source.charAt(position)) < 0) {
+                position++;
+            }
+            return source.substring(start, position);
+        }
+
+        private boolean peek(String keyword) {
+            return source.startsWith(keyword, position)
+                    && (position + keyword.length() == source.length()
+                        || !Character.isLetter(source.charAt(position + keyword.length())));
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            skipWhitespace();
+            if (peek(keyword)) {
+                position += keyword.length();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean accept(char c) {
+            skipWhitespace();
+            if (position < source.length() && source.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!accept(c)) {
+                throw error("expected '" + c + "' at position " + position);
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String reason) {
+            return new IllegalArgumentException("Invalid network policy rule '" + source + "': " + reason);
+        }
+    }
+}
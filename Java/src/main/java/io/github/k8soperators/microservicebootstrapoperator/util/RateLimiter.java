@@ -0,0 +1,64 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter.
+ * Permits refill continuously at the configured rate up to the burst size.
+ */
+public class RateLimiter {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private double availablePermits;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a rate limiter that starts with a full bucket
+     *
+     * @param permitsPerSecond the sustained rate
+     * @param burst the maximum number of permits that can accumulate
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.availablePermits = burst;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a permit if one is available
+     *
+     * @return 0 if a permit was taken, otherwise the milliseconds until the next permit is available
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (availablePermits >= 1) {
+            availablePermits -= 1;
+            return 0;
+        }
+        double missingNanos = (1 - availablePermits) / permitsPerNano;
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil(missingNanos)));
+    }
+
+    /**
+     * Takes a permit, waiting until one is available
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitMillis;
+        while ((waitMillis = tryAcquire()) > 0) {
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        availablePermits = Math.min(burst, availablePermits + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+}
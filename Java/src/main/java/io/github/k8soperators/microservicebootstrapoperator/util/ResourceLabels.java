@@ -0,0 +1,80 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Utility class holding the labels stamped on every resource created by the operator.
+ * The labels allow dependents of an AppConfig to be addressed with a single label selector.
+ */
+public final class ResourceLabels {
+
+    public static final String APP_LABEL = "app";
+    public static final String MANAGED_BY_LABEL = "managed-by";
+    public static final String MANAGED_BY_VALUE = "microservice-bootstrap-operator";
+    public static final String APP_CONFIG_LABEL = "microservice.example.com/app-config";
+
+    private static final int MAX_LABEL_VALUE_LENGTH = 63;
+    private static final int HASH_LENGTH = 10;
+
+    private ResourceLabels() {
+    }
+
+    /**
+     * Returns the full label set for a resource owned by the given AppConfig
+     *
+     * @param appConfig the owning AppConfig
+     * @return mutable map of labels
+     */
+    public static Map<String, String> forAppConfig(AppConfig appConfig) {
+        Map<String, String> labels = selectorFor(appConfig);
+        if (appConfig.getSpec() != null && appConfig.getSpec().getAppName() != null) {
+            labels.put(APP_LABEL, appConfig.getSpec().getAppName());
+        }
+        return labels;
+    }
+
+    /**
+     * Returns the label selector matching every resource owned by the given AppConfig
+     *
+     * @param appConfig the owning AppConfig
+     * @return mutable map of selector labels
+     */
+    public static Map<String, String> selectorFor(AppConfig appConfig) {
+        Map<String, String> labels = new HashMap<>();
+        labels.put(MANAGED_BY_LABEL, MANAGED_BY_VALUE);
+        labels.put(APP_CONFIG_LABEL, appConfigLabelValue(appConfig.getMetadata().getName()));
+        return labels;
+    }
+
+    /**
+     * Returns the value of the app-config label for an AppConfig name.
+     * Names fitting a label value are used as is; longer names are truncated and suffixed with a hash
+     * of the full name, so the value stays unique and within the 63 character limit.
+     *
+     * @param appConfigName the name of the AppConfig
+     * @return the label value
+     */
+    public static String appConfigLabelValue(String appConfigName) {
+        if (appConfigName.length() <= MAX_LABEL_VALUE_LENGTH) {
+            return appConfigName;
+        }
+        String prefix = appConfigName.substring(0, MAX_LABEL_VALUE_LENGTH - HASH_LENGTH - 1);
+        return prefix + "-" + hash(appConfigName);
+    }
+
+    private static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,60 +1,106 @@
 package io.github.k8soperators.microservicebootstrapoperator.util;
 
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
-import io.github.k8soperators.microservicebootstrapoperator.model.NetworkPolicyConfig;
 import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.utils.Serialization;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Utility class for handling version conversions of AppConfig CRs
- * This implements the "Hub and Spoke" conversion pattern similar to controller-runtime
+ * This implements the "Hub and Spoke" conversion pattern similar to controller-runtime: v1 is the hub,
+ * v1alpha1 and v1beta1 are spokes converted to and from the hub.
+ * The conversion rules work on raw objects so the conversion webhook keeps fields the model does not know.
  */
 @Slf4j
 public class VersionConverter {
 
+    public static final String GROUP = "microservice.github.io";
+    public static final String HUB_VERSION = "v1";
+
     private static final String VERSION_LABEL = "microservice.example.com/version";
-    private static final String CURRENT_VERSION = "v1";
+    private static final String CURRENT_VERSION = HUB_VERSION;
+    private static final List<String> SPOKE_VERSIONS = List.of("v1alpha1", "v1beta1");
 
     /**
-     * Checks if the AppConfig needs conversion and performs the conversion if needed
-     * 
+     * Converts a raw AppConfig between served API versions
+     *
+     * @param object the AppConfig as sent by the API server
+     * @param desiredApiVersion the requested apiVersion, e.g. {@code microservice.github.io/v1}
+     * @return the same object, converted in place
+     * @throws IllegalArgumentException if either version is not served
+     */
+    public static Map<String, Object> convert(Map<String, Object> object, String desiredApiVersion) {
+        String from = versionOf((String) object.get("apiVersion"));
+        String to = versionOf(desiredApiVersion);
+        if (!from.equals(to)) {
+            // Spokes go through the hub; going down needs no rewrite since the spokes are supersets of the hub
+            upgrade(object, from);
+            object.put("apiVersion", GROUP + "/" + to);
+        }
+        return object;
+    }
+
+    /**
+     * Checks if the AppConfig carries a legacy version label and converts it in memory if needed.
+     * Stored objects are converted by the conversion webhook; this only covers objects created before
+     * the served versions existed, so the reconcile works on the hub shape without writing the object back.
+     *
      * @param appConfig The AppConfig to check and potentially convert
      * @return true if conversion was performed, false otherwise
      */
+    @SuppressWarnings("unchecked")
     public static boolean checkAndConvertIfNeeded(AppConfig appConfig) {
         String version = getVersion(appConfig);
-        
-        if (version == null) {
-            // No version label, assume it's a new resource
-            setVersion(appConfig, CURRENT_VERSION);
+        if (version == null || version.equals(CURRENT_VERSION)) {
             return false;
         }
-        
-        if (version.equals(CURRENT_VERSION)) {
-            // Already at current version
-            return false;
+
+        log.info("Converting AppConfig from {} to {}: {}/{}", version, CURRENT_VERSION,
+                appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
+        Map<String, Object> object = Serialization.jsonMapper().convertValue(appConfig, LinkedHashMap.class);
+        if (SPOKE_VERSIONS.contains(version)) {
+            upgrade(object, version);
+        } else {
+            log.warn("Unknown version: {}, attempting best-effort conversion", version);
+            SPOKE_VERSIONS.forEach(spoke -> upgrade(object, spoke));
+        }
+        AppConfig converted = Serialization.jsonMapper().convertValue(object, AppConfig.class);
+        appConfig.setSpec(converted.getSpec());
+        appConfig.getMetadata().setAnnotations(converted.getMetadata().getAnnotations());
+        setVersion(appConfig, CURRENT_VERSION);
+        return true;
+    }
+
+    private static String versionOf(String apiVersion) {
+        if (apiVersion == null || !apiVersion.startsWith(GROUP + "/")) {
+            throw new IllegalArgumentException("Unexpected apiVersion: " + apiVersion);
         }
-        
-        // Perform conversion based on version
+        String version = apiVersion.substring(GROUP.length() + 1);
+        if (!version.equals(HUB_VERSION) && !SPOKE_VERSIONS.contains(version)) {
+            throw new IllegalArgumentException("Unsupported version: " + version);
+        }
+        return version;
+    }
+
+    private static void upgrade(Map<String, Object> object, String version) {
         switch (version) {
             case "v1alpha1":
-                convertFromV1Alpha1(appConfig);
+                convertFromV1Alpha1(object);
                 break;
             case "v1beta1":
-                convertFromV1Beta1(appConfig);
+                convertFromV1Beta1(object);
                 break;
             default:
-                log.warn("Unknown version: {}, attempting best-effort conversion", version);
-                performBestEffortConversion(appConfig);
+                // Already the hub
         }
-        
-        // Update version to current
-        setVersion(appConfig, CURRENT_VERSION);
-        return true;
     }
-    
+
     private static String getVersion(HasMetadata resource) {
         Map<String, String> labels = resource.getMetadata().getLabels();
         if (labels == null) {
@@ -62,84 +108,57 @@ public class VersionConverter {
         }
         return labels.get(VERSION_LABEL);
     }
-    
+
     private static void setVersion(HasMetadata resource, String version) {
-        Map<String, String> labels = resource.getMetadata().getLabels();
-        if (labels == null) {
-            resource.getMetadata().setLabels(Map.of(VERSION_LABEL, version));
-        } else {
-            labels.put(VERSION_LABEL, version);
-        }
+        Map<String, String> labels = new HashMap<>(resource.getMetadata().getLabels());
+        labels.put(VERSION_LABEL, version);
+        resource.getMetadata().setLabels(labels);
     }
-    
+
     /**
-     * Convert from v1alpha1 to current version
+     * Convert from v1alpha1 to current version.
+     * v1alpha1 enabled the NetworkPolicy through an {@code enableNetworkPolicy} annotation.
      */
-    private static void convertFromV1Alpha1(AppConfig appConfig) {
-        log.info("Converting AppConfig from v1alpha1 to {}: {}/{}", 
-                CURRENT_VERSION, appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
-        
-        // Example conversion logic:
-        // 1. In v1alpha1, networkPolicy might have been a boolean instead of an object
-        // Note: In a real implementation, we would need to add a Map<String, Object> additionalProperties
-        // field to our model classes and annotate it with @JsonAnyGetter/@JsonAnySetter
-        // For now, we'll just use a simplified approach for demonstration
-        
-        // This is a simplified example - in a real implementation, we would handle this differently
-        // by properly implementing additionalProperties in our model classes
-        Map<String, String> annotations = appConfig.getMetadata().getAnnotations();
-        if (appConfig.getSpec().getNetworkPolicy() == null && 
-                annotations != null && annotations.containsKey("enableNetworkPolicy")) {
-            String enableNetworkPolicyStr = annotations.get("enableNetworkPolicy");
-            boolean enableNetworkPolicy = Boolean.parseBoolean(enableNetworkPolicyStr);
-            if (enableNetworkPolicy) {
-                // Create a new NetworkPolicyConfig object
-                appConfig.getSpec().setNetworkPolicy(new NetworkPolicyConfig());
-                appConfig.getSpec().getNetworkPolicy().setEnabled(true);
+    private static void convertFromV1Alpha1(Map<String, Object> object) {
+        Map<String, Object> spec = child(object, "spec");
+        Map<String, Object> annotations = child(child(object, "metadata"), "annotations");
+        if (spec.get("networkPolicy") == null && annotations.containsKey("enableNetworkPolicy")) {
+            if (Boolean.parseBoolean(String.valueOf(annotations.get("enableNetworkPolicy")))) {
+                Map<String, Object> networkPolicy = new LinkedHashMap<>();
+                networkPolicy.put("enabled", true);
+                spec.put("networkPolicy", networkPolicy);
             }
             // Remove the old annotation
             annotations.remove("enableNetworkPolicy");
         }
-        
-        // Add more conversion logic as needed
     }
-    
+
     /**
-     * Convert from v1beta1 to current version
+     * Convert from v1beta1 to current version.
+     * v1beta1 named a single secret rotation source in a {@code secretRotationSource} annotation.
      */
-    private static void convertFromV1Beta1(AppConfig appConfig) {
-        log.info("Converting AppConfig from v1beta1 to {}: {}/{}", 
-                CURRENT_VERSION, appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
-        
-        // Example conversion logic:
-        // In v1beta1, secretRotation.sources might have been a string instead of an array
-        // Note: In a real implementation, we would need to add a Map<String, Object> additionalProperties
-        // field to our model classes and annotate it with @JsonAnyGetter/@JsonAnySetter
-        // For now, we'll just use a simplified approach for demonstration
-        
-        Map<String, String> annotations = appConfig.getMetadata().getAnnotations();
-        if (appConfig.getSpec().getSecretRotation() != null && 
-                annotations != null && annotations.containsKey("secretRotationSource")) {
-            String source = annotations.get("secretRotationSource");
-            if (source != null && !source.isEmpty()) {
-                appConfig.getSpec().getSecretRotation().setSources(java.util.Collections.singletonList(source));
+    @SuppressWarnings("unchecked")
+    private static void convertFromV1Beta1(Map<String, Object> object) {
+        Map<String, Object> spec = child(object, "spec");
+        Map<String, Object> annotations = child(child(object, "metadata"), "annotations");
+        if (spec.get("secretRotation") instanceof Map && annotations.containsKey("secretRotationSource")) {
+            Object source = annotations.get("secretRotationSource");
+            if (source != null && !source.toString().isEmpty()) {
+                List<Object> sources = new ArrayList<>();
+                sources.add(source.toString());
+                ((Map<String, Object>) spec.get("secretRotation")).put("sources", sources);
             }
             // Remove the old annotation
             annotations.remove("secretRotationSource");
         }
-        
-        // Add more conversion logic as needed
     }
-    
-    /**
-     * Perform best-effort conversion for unknown versions
-     */
-    private static void performBestEffortConversion(AppConfig appConfig) {
-        log.info("Performing best-effort conversion for AppConfig: {}/{}", 
-                appConfig.getMetadata().getNamespace(), appConfig.getMetadata().getName());
-        
-        // Try both known conversion methods
-        convertFromV1Alpha1(appConfig);
-        convertFromV1Beta1(appConfig);
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> child(Map<String, Object> parent, String key) {
+        Object value = parent.get(key);
+        if (value instanceof Map) {
+            return (Map<String, Object>) value;
+        }
+        return new LinkedHashMap<>();
     }
 }
@@ -0,0 +1,83 @@
+package io.github.k8soperators.microservicebootstrapoperator.webhook;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.VersionConverter;
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.api.model.KubernetesResource;
+import io.fabric8.kubernetes.api.model.Status;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.apiextensions.v1.ConversionResponse;
+import io.fabric8.kubernetes.api.model.apiextensions.v1.ConversionReview;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CRD conversion webhook converting AppConfigs between the served versions.
+ * The API server calls it whenever an AppConfig is read or written in a version other than the stored one,
+ * so legacy objects are converted on the read path instead of being rewritten by the reconciler.
+ * Objects are converted as raw maps, so fields the model does not know survive the round trip.
+ */
+@Slf4j
+@RestController
+public class AppConfigConversionWebhook {
+
+    static final String PATH = "/convert";
+    private static final String API_VERSION = "apiextensions.k8s.io/v1";
+    private static final String KIND = "ConversionReview";
+
+    /**
+     * Handles a ConversionReview for AppConfigs
+     *
+     * @param body the ConversionReview request
+     * @return the ConversionReview carrying the response
+     */
+    @SuppressWarnings("unchecked")
+    @PostMapping(path = PATH, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public String convert(@RequestBody String body) {
+        Map<String, Object> review = Serialization.unmarshal(body, Map.class);
+        ConversionReview response = new ConversionReview();
+        response.setApiVersion(API_VERSION);
+        response.setKind(KIND);
+        response.setResponse(convert(review));
+        return Serialization.asJson(response);
+    }
+
+    /**
+     * Converts the objects of a raw ConversionReview
+     *
+     * @param review the raw ConversionReview request
+     * @return the response with all objects converted, or a failure converting none of them
+     */
+    @SuppressWarnings("unchecked")
+    ConversionResponse convert(Map<String, Object> review) {
+        Map<String, Object> request = (Map<String, Object>) review.get("request");
+        String uid = (String) request.get("uid");
+        String desiredApiVersion = (String) request.get("desiredAPIVersion");
+        List<Map<String, Object>> objects = (List<Map<String, Object>>) request.getOrDefault("objects", List.of());
+        try {
+            List<KubernetesResource> converted = new ArrayList<>(objects.size());
+            for (Map<String, Object> object : objects) {
+                converted.add(Serialization.jsonMapper().convertValue(
+                        VersionConverter.convert(object, desiredApiVersion), GenericKubernetesResource.class));
+            }
+            return new ConversionResponse(converted, status("Success", null), uid);
+        } catch (RuntimeException e) {
+            log.error("Failed to convert {} AppConfigs to {}", objects.size(), desiredApiVersion, e);
+            return new ConversionResponse(List.of(), status("Failure", e.getMessage()), uid);
+        }
+    }
+
+    private static Status status(String status, String message) {
+        return new StatusBuilder()
+                .withStatus(status)
+                .withMessage(message)
+                .build();
+    }
+}
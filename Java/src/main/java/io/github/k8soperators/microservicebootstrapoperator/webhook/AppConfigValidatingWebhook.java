@@ -0,0 +1,94 @@
+package io.github.k8soperators.microservicebootstrapoperator.webhook;
+
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.AppConfigValidator;
+import io.github.k8soperators.microservicebootstrapoperator.util.VersionConverter;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.StatusCause;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionRequest;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionResponse;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionResponseBuilder;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionReview;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validating admission webhook rejecting AppConfigs whose spec would fail the reconcile.
+ * Violations are returned as a 422 Invalid status listing every offending field, like the API server
+ * reports schema violations. Updates that leave the spec unchanged are always admitted, so finalizers
+ * can still be added and removed on AppConfigs stored before validation existed.
+ */
+@Slf4j
+@RestController
+public class AppConfigValidatingWebhook {
+
+    static final String PATH = "/validate-appconfigs";
+    private static final String KIND = "AppConfig";
+    private static final String REASON_INVALID = "Invalid";
+    private static final int CODE_INVALID = 422;
+
+    /**
+     * Handles an AdmissionReview for an AppConfig
+     *
+     * @param body the AdmissionReview request
+     * @return the AdmissionReview carrying the response
+     */
+    @PostMapping(path = PATH, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public String validateAppConfig(@RequestBody String body) {
+        AdmissionReview review = Serialization.unmarshal(body, AdmissionReview.class);
+        return Serialization.asJson(SidecarInjectionWebhook.review(review, validate(review.getRequest())));
+    }
+
+    /**
+     * Computes the admission response for an AppConfig request
+     *
+     * @param request the admission request
+     * @return the response admitting the AppConfig, or rejecting it with the violations
+     */
+    AdmissionResponse validate(AdmissionRequest request) {
+        AdmissionResponseBuilder response = new AdmissionResponseBuilder()
+                .withUid(request.getUid())
+                .withAllowed(true);
+        if (request.getObject() == null) {
+            return response.build();
+        }
+        AppConfig appConfig = Serialization.jsonMapper().convertValue(request.getObject(), AppConfig.class);
+        if (request.getOldObject() != null) {
+            AppConfig oldAppConfig = Serialization.jsonMapper().convertValue(request.getOldObject(), AppConfig.class);
+            if (Objects.equals(appConfig.getSpec(), oldAppConfig.getSpec())) {
+                return response.build();
+            }
+        }
+
+        List<StatusCause> causes = AppConfigValidator.validate(appConfig.getSpec());
+        if (causes.isEmpty()) {
+            return response.build();
+        }
+        String name = appConfig.getMetadata() != null ? appConfig.getMetadata().getName() : null;
+        String message = KIND + "." + VersionConverter.GROUP + " \"" + name + "\" is invalid: "
+                + AppConfigValidator.message(causes);
+        log.info("Rejecting AppConfig {}/{}: {}", request.getNamespace(), name, AppConfigValidator.message(causes));
+        return response
+                .withAllowed(false)
+                .withStatus(new StatusBuilder()
+                        .withStatus("Failure")
+                        .withCode(CODE_INVALID)
+                        .withReason(REASON_INVALID)
+                        .withMessage(message)
+                        .withNewDetails()
+                            .withGroup(VersionConverter.GROUP)
+                            .withKind(KIND)
+                            .withName(name)
+                            .withCauses(causes)
+                        .endDetails()
+                        .build())
+                .build();
+    }
+}
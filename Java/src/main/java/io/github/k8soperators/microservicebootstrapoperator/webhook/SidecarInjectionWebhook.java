@@ -0,0 +1,94 @@
+package io.github.k8soperators.microservicebootstrapoperator.webhook;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.ConditionalOnOperatorMode;
+import io.github.k8soperators.microservicebootstrapoperator.service.SidecarInjectionService;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionRequest;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionResponse;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionResponseBuilder;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionReview;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionReviewBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Base64;
+
+/**
+ * Mutating admission webhook injecting sidecars into pods as they are created.
+ * The sidecar is returned as a JSON patch in the AdmissionReview response, so injection needs no
+ * API call of its own. Errors never block pod creation; the pod is admitted unchanged instead.
+ */
+@Slf4j
+@RestController
+@ConditionalOnOperatorMode
+@RequiredArgsConstructor
+public class SidecarInjectionWebhook {
+
+    static final String PATH = "/mutate-pods";
+    private static final String PATCH_TYPE = "JSONPatch";
+
+    private final SidecarInjectionService sidecarInjectionService;
+
+    /**
+     * Handles an AdmissionReview for a pod
+     *
+     * @param body the AdmissionReview request
+     * @return the AdmissionReview carrying the response
+     */
+    @PostMapping(path = PATH, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public String mutatePod(@RequestBody String body) {
+        AdmissionReview review = Serialization.unmarshal(body, AdmissionReview.class);
+        return Serialization.asJson(review(review, mutate(review.getRequest())));
+    }
+
+    /**
+     * Computes the admission response for a pod request
+     *
+     * @param request the admission request
+     * @return the response allowing the pod, with a patch if a sidecar is injected
+     */
+    AdmissionResponse mutate(AdmissionRequest request) {
+        AdmissionResponseBuilder response = new AdmissionResponseBuilder()
+                .withUid(request.getUid())
+                .withAllowed(true);
+        if (!(request.getObject() instanceof Pod)) {
+            return response.build();
+        }
+        Pod pod = (Pod) request.getObject();
+        try {
+            // Pods created by controllers carry no namespace in the admitted object
+            if (pod.getMetadata() != null && pod.getMetadata().getNamespace() == null) {
+                pod.getMetadata().setNamespace(request.getNamespace());
+            }
+            byte[] patch = sidecarInjectionService.createInjectionPatch(pod);
+            if (patch != null) {
+                response.withPatchType(PATCH_TYPE)
+                        .withPatch(Base64.getEncoder().encodeToString(patch));
+            }
+        } catch (Exception e) {
+            log.error("Failed to compute sidecar patch for pod in namespace {}, admitting unchanged",
+                    request.getNamespace(), e);
+        }
+        return response.build();
+    }
+
+    /**
+     * Wraps a response into an AdmissionReview of the same API version as the request
+     *
+     * @param request the AdmissionReview request
+     * @param response the admission response
+     * @return the AdmissionReview response
+     */
+    static AdmissionReview review(AdmissionReview request, AdmissionResponse response) {
+        return new AdmissionReviewBuilder()
+                .withApiVersion(request.getApiVersion())
+                .withKind(request.getKind())
+                .withResponse(response)
+                .build();
+    }
+}
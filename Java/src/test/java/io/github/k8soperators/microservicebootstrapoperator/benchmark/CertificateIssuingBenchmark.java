@@ -0,0 +1,93 @@
+package io.github.k8soperators.microservicebootstrapoperator.benchmark;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.CertificateSigner;
+import io.github.k8soperators.microservicebootstrapoperator.util.KeyPairPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time to issue a burst of certificates with key pairs taken from a pre-generated pool
+ * against generating the key pair inline. Each iteration issues one burst of {@value #BURST} certificates
+ * starting from a full pool, i.e. a wave of rotations arriving after the refill threads caught up.
+ * Run {@link #main(String[])} or {@code org.openjdk.jmh.Main CertificateIssuingBenchmark} on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = CertificateIssuingBenchmark.BURST)
+@Measurement(iterations = 10, batchSize = CertificateIssuingBenchmark.BURST)
+@Fork(1)
+public class CertificateIssuingBenchmark {
+
+    static final int BURST = 500;
+    private static final int POOL_SIZE = 1024;
+    private static final List<String> DNS_NAMES = List.of("app", "app.default", "app.default.svc");
+
+    @Param({"EC:256", "RSA:2048"})
+    public String key;
+
+    private CertificateSigner signer;
+    private KeyPairPool pool;
+    private KeyPairGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws GeneralSecurityException {
+        String[] parts = key.split(":");
+        String algorithm = parts[0];
+        int keySize = Integer.parseInt(parts[1]);
+
+        generator = KeyPairGenerator.getInstance(algorithm);
+        generator.initialize(keySize);
+        signer = CertificateSigner.createSelfSigned(generator.generateKeyPair(), "benchmark-ca", 365);
+
+        pool = new KeyPairPool(algorithm, keySize, POOL_SIZE);
+        pool.start(Runtime.getRuntime().availableProcessors());
+    }
+
+    @Setup(Level.Iteration)
+    public void awaitFullPool() throws InterruptedException {
+        while (pool.available() < POOL_SIZE) {
+            Thread.sleep(50);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public CertificateSigner.IssuedCertificate inlineKeyGeneration() {
+        return signer.issue(generator.generateKeyPair(), "app.default.svc", DNS_NAMES, "benchmark", 90);
+    }
+
+    @Benchmark
+    public CertificateSigner.IssuedCertificate pooledKeyPair() {
+        return signer.issue(pool.take(), "app.default.svc", DNS_NAMES, "benchmark", 90);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CertificateIssuingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
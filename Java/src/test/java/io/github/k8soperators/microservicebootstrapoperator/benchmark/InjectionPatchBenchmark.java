@@ -0,0 +1,135 @@
+package io.github.k8soperators.microservicebootstrapoperator.benchmark;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerBuilder;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.EnvVarBuilder;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.VolumeBuilder;
+import io.fabric8.kubernetes.api.model.VolumeMount;
+import io.fabric8.kubernetes.api.model.VolumeMountBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
+import io.github.k8soperators.microservicebootstrapoperator.service.ManagedResourceCache;
+import io.github.k8soperators.microservicebootstrapoperator.service.SidecarInjectionService;
+import io.github.k8soperators.microservicebootstrapoperator.service.WorkloadRolloutService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the admission patch for a matched pod from the compiled injection plan against the
+ * previous path, which rebuilt the sidecar with fabric8 builders and serialized it for every pod.
+ * Run with {@code org.openjdk.jmh.Main InjectionPatchBenchmark -prof gc} on the test classpath to compare
+ * allocation rates too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InjectionPatchBenchmark {
+
+    private SidecarInjectionService service;
+    private AppConfig appConfig;
+    private Pod pod;
+
+    @Setup
+    public void setUp() {
+        appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName("benchmark");
+        metadata.setNamespace("default");
+        metadata.setGeneration(1L);
+        appConfig.setMetadata(metadata);
+        SidecarInjectionConfig sidecarInjection = new SidecarInjectionConfig();
+        sidecarInjection.setEnabled(true);
+        sidecarInjection.setImage("fluent/fluent-bit:2.1");
+        sidecarInjection.setSelectorLabels(Map.of("app", "benchmark"));
+        sidecarInjection.setEnv(Map.of("LOG_LEVEL", "info", "OUTPUT", "stdout", "APP_NAME", "benchmark"));
+        sidecarInjection.setVolumes(List.of("logs", "config"));
+        sidecarInjection.setVolumeMounts(Map.of("logs", "/var/log/app", "config", "/etc/fluent-bit"));
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName("benchmark");
+        spec.setSidecarInjection(sidecarInjection);
+        appConfig.setSpec(spec);
+
+        service = new SidecarInjectionService(Mockito.mock(KubernetesClient.class), new OperatorProperties(),
+                new SimpleMeterRegistry(), Mockito.mock(ManagedResourceCache.class),
+                Mockito.mock(WorkloadRolloutService.class));
+        service.registerAppConfig(appConfig);
+
+        pod = new PodBuilder()
+                .withNewMetadata().withName("benchmark-0").withNamespace("default")
+                    .withLabels(Map.of("app", "benchmark", "pod-template-hash", "7d9f8b6c5")).endMetadata()
+                .withNewSpec()
+                    .addNewContainer().withName("app").withImage("example/app:1.0").endContainer()
+                    .addNewVolume().withName("kube-api-access").withNewEmptyDir().endEmptyDir().endVolume()
+                .endSpec()
+                .build();
+    }
+
+    @Benchmark
+    public byte[] compiledPlan() {
+        return service.createInjectionPatch(pod);
+    }
+
+    @Benchmark
+    public byte[] rebuiltPerPod() {
+        SidecarInjectionConfig config = appConfig.getSpec().getSidecarInjection();
+        List<EnvVar> envVars = new ArrayList<>();
+        for (Map.Entry<String, String> entry : config.getEnv().entrySet()) {
+            envVars.add(new EnvVarBuilder().withName(entry.getKey()).withValue(entry.getValue()).build());
+        }
+        List<VolumeMount> volumeMounts = new ArrayList<>();
+        for (Map.Entry<String, String> entry : config.getVolumeMounts().entrySet()) {
+            volumeMounts.add(new VolumeMountBuilder().withName(entry.getKey()).withMountPath(entry.getValue()).build());
+        }
+        Container sidecar = new ContainerBuilder()
+                .withName(appConfig.getSpec().getAppName() + "-sidecar")
+                .withImage(config.getImage())
+                .withEnv(envVars)
+                .withVolumeMounts(volumeMounts)
+                .build();
+
+        List<Map<String, Object>> operations = new ArrayList<>();
+        operations.add(addOperation("/spec/containers/-", sidecar));
+        for (String volumeName : config.getVolumes()) {
+            Volume volume = new VolumeBuilder().withName(volumeName).withNewEmptyDir().endEmptyDir().build();
+            operations.add(addOperation("/spec/volumes/-", volume));
+        }
+        return Serialization.asJson(operations).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> addOperation(String path, Object value) {
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("op", "add");
+        operation.put("path", path);
+        operation.put("value", value);
+        return operation;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.k8soperators.microservicebootstrapoperator.benchmark;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.LabelSelectorIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching a pod against sidecar selectors with the label index against the previous scan,
+ * which compared the namespace and every selector label of each registered AppConfig.
+ * Run with {@code org.openjdk.jmh.Main SelectorMatchingBenchmark} on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectorMatchingBenchmark {
+
+    private static final int NAMESPACES = 50;
+
+    @Param({"100", "10000"})
+    public int selectors;
+
+    private final LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+    private final List<Selector> scan = new ArrayList<>();
+    private String podNamespace;
+    private Map<String, String> podLabels;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < selectors; i++) {
+            String namespace = "ns-" + (i % NAMESPACES);
+            Map<String, String> selector = Map.of("app", "app-" + i, "tier", "backend");
+            index.put(namespace, "app-" + i, selector, "app-" + i);
+            scan.add(new Selector(namespace, selector, "app-" + i));
+        }
+        // The last registered selector matches, the worst case for the scan
+        int target = selectors - 1;
+        podNamespace = "ns-" + (target % NAMESPACES);
+        podLabels = Map.of("app", "app-" + target, "tier", "backend",
+                "pod-template-hash", "7d9f8b6c5", "version", "1.4.2");
+    }
+
+    @Benchmark
+    public List<String> labelIndex() {
+        return index.match(podNamespace, podLabels);
+    }
+
+    @Benchmark
+    public String linearScan() {
+        for (Selector selector : scan) {
+            if (selector.matches(podNamespace, podLabels)) {
+                return selector.value;
+            }
+        }
+        return null;
+    }
+
+    private record Selector(String namespace, Map<String, String> labels, String value) {
+        boolean matches(String podNamespace, Map<String, String> podLabels) {
+            if (!namespace.equals(podNamespace)) {
+                return false;
+            }
+            for (Map.Entry<String, String> entry : labels.entrySet()) {
+                if (!entry.getValue().equals(podLabels.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -5,8 +5,11 @@ import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigStatus;
 import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
 import io.github.k8soperators.microservicebootstrapoperator.service.ConfigMapService;
+import io.github.k8soperators.microservicebootstrapoperator.service.FinalizationService;
 import io.github.k8soperators.microservicebootstrapoperator.service.NetworkPolicyService;
 import io.github.k8soperators.microservicebootstrapoperator.service.RBACService;
+import io.github.k8soperators.microservicebootstrapoperator.service.SecretRotationExecutor;
+import io.github.k8soperators.microservicebootstrapoperator.service.SecretRotationScheduler;
 import io.github.k8soperators.microservicebootstrapoperator.service.SecretRotationService;
 import io.github.k8soperators.microservicebootstrapoperator.service.SidecarInjectionService;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
@@ -24,9 +27,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
@@ -51,6 +57,15 @@ public class AppConfigControllerTest {
     @Mock
     private SidecarInjectionService sidecarInjectionService;
     
+    @Mock
+    private FinalizationService finalizationService;
+    
+    @Mock
+    private SecretRotationScheduler secretRotationScheduler;
+    
+    @Mock
+    private SecretRotationExecutor secretRotationExecutor;
+    
     @Mock
     private Context<AppConfig> context;
     
@@ -65,7 +80,10 @@ public class AppConfigControllerTest {
             rbacService,
             networkPolicyService,
             secretRotationService,
-            sidecarInjectionService
+            sidecarInjectionService,
+            finalizationService,
+            secretRotationScheduler,
+            secretRotationExecutor
         );
         
         // Setup default behavior for mocks
@@ -123,6 +141,43 @@ public class AppConfigControllerTest {
         verifyNoInteractions(sidecarInjectionService);
     }
     
+    @Test
+    public void testRemovedRbacSectionReleasesSharedRoles() {
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace", false);
+        appConfig.setStatus(new AppConfigStatus());
+
+        controller.reconcile(appConfig, context);
+
+        verify(rbacService).releaseRBAC(appConfig);
+        verify(rbacService, never()).setupRBAC(any(AppConfig.class));
+    }
+
+    @Test
+    public void testDisabledNetworkPolicyIsReleased() {
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace", false);
+        appConfig.setStatus(new AppConfigStatus());
+
+        controller.reconcile(appConfig, context);
+
+        verify(networkPolicyService).releaseNetworkPolicy(appConfig);
+        verify(networkPolicyService, never()).setupNetworkPolicy(any(AppConfig.class));
+    }
+
+    @Test
+    public void testInvalidSpecIsReportedWithoutCallingServices() {
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace", true);
+        appConfig.getSpec().setAppName(null);
+        appConfig.setStatus(new AppConfigStatus());
+
+        UpdateControl<AppConfig> result = controller.reconcile(appConfig, context);
+
+        assertTrue(result.isUpdateStatus());
+        assertTrue(result.getScheduleDelay().isEmpty(), "Invalid specs are not retried until they change");
+        assertEquals("Invalid spec: spec.appName: Required value",
+                appConfig.getStatus().getConditions().get(0).getMessage());
+        verifyNoInteractions(configMapService, sidecarInjectionService, rbacService, networkPolicyService);
+    }
+
     private AppConfig createTestAppConfig(String name, String namespace, boolean sidecarInjectionEnabled) {
         AppConfig appConfig = new AppConfig();
         
@@ -0,0 +1,130 @@
+package io.github.k8soperators.microservicebootstrapoperator.rotation;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.util.CertificateSigner;
+import io.github.k8soperators.microservicebootstrapoperator.util.CredentialGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RotationStrategyRegistry and the built-in rotation strategies
+ */
+public class RotationStrategyRegistryTest {
+
+    private final RotationStrategyRegistry registry = new RotationStrategyRegistry();
+
+    @Test
+    void testBuiltInStrategiesAreDiscovered() {
+        assertEquals(Set.of("api-key", "database", "default", "tls"), registry.getNames());
+        assertInstanceOf(ApiKeyRotationStrategy.class, registry.get("API-KEY"));
+        assertInstanceOf(TlsRotationStrategy.class, registry.get("tls"));
+    }
+
+    @Test
+    void testUnknownStrategyFallsBackToDefault() {
+        assertInstanceOf(DefaultRotationStrategy.class, registry.get("unknown"));
+        assertInstanceOf(DefaultRotationStrategy.class, registry.get(null));
+    }
+
+    @Test
+    void testLaterProviderReplacesEarlier() {
+        RotationStrategy custom = new RotationStrategy() {
+            @Override
+            public String getName() {
+                return "database";
+            }
+
+            @Override
+            public Map<String, String> generate(RotationContext context) {
+                return Map.of();
+            }
+        };
+        RotationStrategyRegistry overridden = new RotationStrategyRegistry(
+                List.of(new DefaultRotationStrategy(), new DatabaseRotationStrategy(), custom));
+
+        assertSame(custom, overridden.get("database"));
+    }
+
+    @Test
+    void testDefaultStrategyIsRequired() {
+        assertThrows(IllegalStateException.class,
+                () -> new RotationStrategyRegistry(List.of(new DatabaseRotationStrategy())));
+    }
+
+    @Test
+    void testDefaultStrategyHonoursPasswordLength() {
+        Map<String, String> data = registry.get("default").generate(context(Map.of("passwordLength", "40"), null));
+
+        assertTrue(data.get("username").matches("testapp_[0-9a-f]{1,3}"));
+        assertEquals(40, data.get("password").length());
+    }
+
+    @Test
+    void testDatabaseStrategy() {
+        Map<String, String> data = registry.get("database").generate(context(Map.of("usernamePrefix", "svc"), null));
+
+        assertTrue(data.get("db-username").startsWith("svc_"));
+        assertEquals(16, data.get("db-password").length());
+        assertEquals("jdbc:postgresql://db.default.svc.cluster.local:5432/testapp", data.get("db-url"));
+    }
+
+    @Test
+    void testApiKeyStrategy() {
+        Map<String, String> data = registry.get("api-key").generate(context(null, null));
+
+        // 16 and 32 bytes in unpadded Base64
+        assertEquals(22, data.get("api-key").length());
+        assertEquals(43, data.get("api-secret").length());
+    }
+
+    @Test
+    void testInvalidLengthIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.get("default").generate(context(Map.of("passwordLength", "-1"), null)));
+    }
+
+    @Test
+    void testTlsStrategyDefaultsCommonNameToServiceName() {
+        CertificateIssuer issuer = (commonName, dnsNames, organization, validityDays) -> {
+            assertEquals("test-app.default.svc", commonName);
+            assertEquals(List.of("a", "b"), dnsNames);
+            assertEquals(0, validityDays);
+            return new CertificateSigner.IssuedCertificate("crt", "key", "ca");
+        };
+
+        Map<String, String> data = registry.get("tls").generate(context(Map.of("dnsNames", "a, ,b"), issuer));
+
+        assertEquals(Map.of("tls.crt", "crt", "tls.key", "key", "ca.crt", "ca"), data);
+    }
+
+    @Test
+    void testGeneratedPasswordsUseWholeAlphabet() {
+        Set<Character> seen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            for (char c : CredentialGenerator.password(64).toCharArray()) {
+                seen.add(c);
+            }
+        }
+        assertEquals(88, seen.size());
+    }
+
+    private static RotationContext context(Map<String, String> strategyConfig, CertificateIssuer issuer) {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName("test-config");
+        metadata.setNamespace("default");
+        appConfig.setMetadata(metadata);
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName("test-app");
+        appConfig.setSpec(spec);
+        return new RotationContext(appConfig, strategyConfig, issuer);
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigStatus;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.api.model.DeletionPropagation;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.StatusDetailsBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for FinalizationService
+ */
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+public class FinalizationServiceTest {
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    @Test
+    void testParseTargetSupportsAllTrackedFormats() {
+        assertEquals(new FinalizationService.DeleteTarget("secret", "ns-a"),
+                FinalizationService.parseTarget("Secret/ns-a/app-secrets", "default-ns"));
+        assertEquals(new FinalizationService.DeleteTarget("role", "default-ns"),
+                FinalizationService.parseTarget("Role/config-reader", "default-ns"));
+        assertEquals(new FinalizationService.DeleteTarget("configmap", "ns-b"),
+                FinalizationService.parseTarget("configmap:ns-b/app-config", "default-ns"));
+        assertNull(FinalizationService.parseTarget("garbage", "default-ns"));
+    }
+
+    @Test
+    void testCollectTargetsIssuesOneDeletePerKindAndNamespace() {
+        FinalizationService service = new FinalizationService(kubernetesClient);
+        AppConfig appConfig = createAppConfig(List.of(
+                "Role/reader", "Role/writer", "RoleBinding/readerBinding",
+                "Secret/test-namespace/a-secrets", "Secret/test-namespace/b-secrets",
+                "NetworkPolicy/test-app-network-policy"));
+
+        Map<FinalizationService.DeleteTarget, Set<String>> targets = service.collectTargets(appConfig);
+
+        assertEquals(4, targets.size(), "Resources of the same kind and namespace should share one delete");
+        assertEquals(Set.of("reader", "writer"), targets.get(new FinalizationService.DeleteTarget("role", "test-namespace")));
+        assertEquals(Set.of("a-secrets", "b-secrets"),
+                targets.get(new FinalizationService.DeleteTarget("secret", "test-namespace")));
+        service.cleanup();
+    }
+
+    @Test
+    void testParseNameSupportsAllTrackedFormats() {
+        assertEquals("app-secrets", FinalizationService.parseName("Secret/ns-a/app-secrets"));
+        assertEquals("config-reader", FinalizationService.parseName("Role/config-reader"));
+        assertEquals("app-config", FinalizationService.parseName("configmap:ns-b/app-config"));
+    }
+
+    @Test
+    void testTrackedResourcesMissedBySelectorAreDeletedByName() {
+        NonNamespaceOperation<ConfigMap, ConfigMapList, Resource<ConfigMap>> configMaps = mock(NonNamespaceOperation.class);
+        MixedOperation<ConfigMap, ConfigMapList, Resource<ConfigMap>> configMapOperation = mock(MixedOperation.class);
+        FilterWatchListDeletable<ConfigMap, ConfigMapList, Resource<ConfigMap>> selected = mock(FilterWatchListDeletable.class);
+        when(kubernetesClient.configMaps()).thenReturn(configMapOperation);
+        when(configMapOperation.inNamespace("test-namespace")).thenReturn(configMaps);
+        when(configMaps.withLabels(anyMap())).thenReturn(selected);
+        doReturn(selected).when(selected).withPropagationPolicy(DeletionPropagation.BACKGROUND);
+        when(selected.delete()).thenReturn(List.of(new StatusDetailsBuilder().withName("labelled").build()));
+
+        // Created before the operator labelled its resources
+        Resource<ConfigMap> unlabelled = mock(Resource.class);
+        when(configMaps.withName("unlabelled")).thenReturn(unlabelled);
+        when(unlabelled.get()).thenReturn(configMap("unlabelled", "uid-1"));
+        doReturn(unlabelled).when(unlabelled).withPropagationPolicy(DeletionPropagation.BACKGROUND);
+        // Shared with another AppConfig
+        Resource<ConfigMap> shared = mock(Resource.class);
+        when(configMaps.withName("shared")).thenReturn(shared);
+        when(shared.get()).thenReturn(configMap("shared", "uid-1", "uid-2"));
+        // Already gone
+        Resource<ConfigMap> gone = mock(Resource.class);
+        when(configMaps.withName("gone")).thenReturn(gone);
+
+        FinalizationService service = new FinalizationService(kubernetesClient);
+        try {
+            service.finalizeResources(createAppConfig(List.of(
+                    "ConfigMap/labelled", "ConfigMap/unlabelled", "ConfigMap/shared", "ConfigMap/gone")));
+
+            verify(selected).delete();
+            verify(configMaps, never()).withName("labelled");
+            verify(unlabelled).delete();
+            verify(shared, never()).delete();
+            verify(gone, never()).delete();
+        } finally {
+            service.cleanup();
+        }
+    }
+
+    private static ConfigMap configMap(String name, String... ownerUids) {
+        ConfigMapBuilder builder = new ConfigMapBuilder().withNewMetadata().withName(name).endMetadata();
+        for (String uid : ownerUids) {
+            builder.editMetadata().addNewOwnerReference().withKind("AppConfig").withUid(uid).endOwnerReference().endMetadata();
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testFinalizeWithoutTrackedResourcesMakesNoApiCalls() {
+        FinalizationService service = new FinalizationService(kubernetesClient);
+
+        service.finalizeResources(createAppConfig(new ArrayList<>()));
+
+        verifyNoInteractions(kubernetesClient);
+        service.cleanup();
+    }
+
+    private AppConfig createAppConfig(List<String> createdResources) {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName("test-app");
+        metadata.setNamespace("test-namespace");
+        metadata.setUid("uid-1");
+        appConfig.setMetadata(metadata);
+
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName("test-app");
+        appConfig.setSpec(spec);
+
+        AppConfigStatus status = new AppConfigStatus();
+        status.setCreatedResources(new ArrayList<>(createdResources));
+        appConfig.setStatus(status);
+        return appConfig;
+    }
+}
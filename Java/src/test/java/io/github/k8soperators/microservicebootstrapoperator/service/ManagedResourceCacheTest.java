@@ -0,0 +1,131 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
+import io.fabric8.kubernetes.api.model.ServiceAccount;
+import io.fabric8.kubernetes.api.model.ServiceAccountBuilder;
+import io.fabric8.kubernetes.api.model.rbac.Role;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.fabric8.kubernetes.client.informers.cache.Indexer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ManagedResourceCache
+ */
+@ExtendWith(MockitoExtension.class)
+public class ManagedResourceCacheTest {
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    @Mock
+    private SharedIndexInformer<ServiceAccount> serviceAccountInformer;
+
+    @Mock
+    private Indexer<ServiceAccount> serviceAccountIndexer;
+
+    private ManagedResourceCache resourceCache;
+
+    @BeforeEach
+    void setUp() {
+        resourceCache = new ManagedResourceCache(kubernetesClient);
+        resourceCache.useInformer(ServiceAccount.class, serviceAccountInformer);
+        lenient().when(serviceAccountInformer.getStore()).thenReturn(serviceAccountIndexer);
+        lenient().when(serviceAccountInformer.getIndexer()).thenReturn(serviceAccountIndexer);
+    }
+
+    @Test
+    void testCacheHitDoesNotCallTheApi() {
+        ServiceAccount cached = serviceAccount("app-sa", "app-config");
+        when(serviceAccountInformer.hasSynced()).thenReturn(true);
+        when(serviceAccountIndexer.getByKey("ns/app-sa")).thenReturn(cached);
+        AtomicInteger apiReads = new AtomicInteger();
+
+        assertSame(cached, resourceCache.get(ServiceAccount.class, "ns", "app-sa", () -> {
+            apiReads.incrementAndGet();
+            return null;
+        }));
+        assertEquals(0, apiReads.get());
+    }
+
+    @Test
+    void testCacheMissFallsBackToTheApi() {
+        ServiceAccount unmanaged = serviceAccount("default", null);
+        when(serviceAccountInformer.hasSynced()).thenReturn(true);
+
+        assertSame(unmanaged, resourceCache.get(ServiceAccount.class, "ns", "default", () -> unmanaged));
+        assertNull(resourceCache.get(ServiceAccount.class, "ns", "missing", () -> null));
+    }
+
+    @Test
+    void testUnsyncedOrUncachedKindsAreReadFromTheApi() {
+        ServiceAccount fromApi = serviceAccount("app-sa", "app-config");
+        when(serviceAccountInformer.hasSynced()).thenReturn(false);
+
+        assertSame(fromApi, resourceCache.get(ServiceAccount.class, "ns", "app-sa", () -> fromApi));
+        verify(serviceAccountIndexer, never()).getByKey(anyString());
+        assertNull(resourceCache.get(Role.class, "ns", "reader", () -> null));
+        assertEquals(List.of(), resourceCache.listForAppConfig(Role.class, "ns", "app-config"));
+    }
+
+    @Test
+    void testResourcesAreIndexedByOwningAppConfig() {
+        assertEquals(List.of("ns/app-config"), ManagedResourceCache.appConfigKeys(serviceAccount("app-sa", "app-config")));
+        assertEquals(List.of(), ManagedResourceCache.appConfigKeys(serviceAccount("default", null)));
+
+        ServiceAccount owned = serviceAccount("app-sa", "app-config");
+        when(serviceAccountIndexer.byIndex(ManagedResourceCache.APP_CONFIG_INDEX, "ns/app-config")).thenReturn(List.of(owned));
+        assertEquals(List.of(owned), resourceCache.listForAppConfig(ServiceAccount.class, "ns", "app-config"));
+    }
+
+    @Test
+    void testNamespaceListsAreServedFromTheSyncedCache() {
+        ServiceAccount cached = serviceAccount("app-sa", "app-config");
+        ServiceAccount fromApi = serviceAccount("other-sa", "app-config");
+        when(serviceAccountInformer.hasSynced()).thenReturn(true, false);
+        when(serviceAccountIndexer.byIndex(Cache.NAMESPACE_INDEX, "ns")).thenReturn(List.of(cached));
+
+        assertEquals(List.of(cached), resourceCache.list(ServiceAccount.class, "ns", () -> fail("Listed from the API")));
+        assertEquals(List.of(fromApi), resourceCache.list(ServiceAccount.class, "ns", () -> List.of(fromApi)));
+        assertEquals(List.of(), resourceCache.list(Role.class, "ns", List::of));
+    }
+
+    @Test
+    void testLongAppConfigNamesAreIndexedByTheirBoundedLabelValue() {
+        String name = "orders-" + "x".repeat(70);
+        String labelValue = ResourceLabels.appConfigLabelValue(name);
+        assertEquals(63, labelValue.length());
+        assertNotEquals(labelValue, ResourceLabels.appConfigLabelValue(name + "y"));
+        assertEquals("app-config", ResourceLabels.appConfigLabelValue("app-config"));
+
+        ServiceAccount owned = serviceAccount("app-sa", labelValue);
+        when(serviceAccountIndexer.byIndex(ManagedResourceCache.APP_CONFIG_INDEX, "ns/" + labelValue))
+                .thenReturn(List.of(owned));
+        assertEquals(List.of(owned), resourceCache.listForAppConfig(ServiceAccount.class, "ns", name));
+    }
+
+    private static ServiceAccount serviceAccount(String name, String appConfig) {
+        return new ServiceAccountBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace("ns")
+                    .withLabels(appConfig != null
+                            ? Map.of(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE,
+                                    ResourceLabels.APP_CONFIG_LABEL, appConfig)
+                            : Map.of())
+                .endMetadata()
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigStatus;
+import io.github.k8soperators.microservicebootstrapoperator.model.NetworkPolicyConfig;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicy;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyBuilder;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NetworkAPIGroupDSL;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NetworkPolicyService
+ */
+@ExtendWith(MockitoExtension.class)
+public class NetworkPolicyServiceTest {
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    @Mock
+    private ResourceApplier resourceApplier;
+
+    @Mock
+    private ManagedResourceCache resourceCache;
+
+    private OperatorProperties properties;
+    private NetworkPolicyService networkPolicyService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OperatorProperties();
+        networkPolicyService = new NetworkPolicyService(kubernetesClient, resourceApplier, resourceCache, properties);
+    }
+
+    @Test
+    void testRulesAreGeneratedFromTheRuleStrings() {
+        AppConfig appConfig = createAppConfig("orders", List.of("pods(app=gateway) on 8080"), List.of("cidr(10.0.0.0/8) on 5432"));
+
+        networkPolicyService.setupNetworkPolicy(appConfig);
+
+        NetworkPolicy policy = appliedPolicies().get(0);
+        assertEquals("orders-network-policy", policy.getMetadata().getName());
+        assertEquals(List.of("Ingress", "Egress"), policy.getSpec().getPolicyTypes());
+        assertEquals("gateway", policy.getSpec().getIngress().get(0).getFrom().get(0).getPodSelector().getMatchLabels().get("app"));
+        assertEquals("10.0.0.0/8", policy.getSpec().getEgress().get(0).getTo().get(0).getIpBlock().getCidr());
+        assertTrue(appConfig.getStatus().getCreatedResources().contains("NetworkPolicy/orders-network-policy"));
+    }
+
+    @Test
+    void testInvalidRuleFailsTheReconcile() {
+        AppConfig appConfig = createAppConfig("orders", List.of("pods(app) on 8080"), null);
+
+        assertThrows(IllegalArgumentException.class, () -> networkPolicyService.setupNetworkPolicy(appConfig));
+        verifyNoInteractions(resourceApplier);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAppConfigsWithIdenticalRulesShareOnePolicy() {
+        properties.getNetwork().setAggregatePolicies(true);
+        AppConfig orders = createAppConfig("orders", List.of("pods(app=gateway) on 8080"), null);
+        AppConfig payments = createAppConfig("payments", List.of("pods( app=gateway ) on tcp/8080"), null);
+        AppConfig admin = createAppConfig("admin", List.of("pods(role=ops)"), null);
+        when(resourceCache.list(eq(AppConfig.class), eq("test-namespace"), any())).thenReturn(List.of(orders, payments, admin));
+        NetworkPolicy superseded = new NetworkPolicyBuilder().withNewMetadata().withName("orders-network-policy").endMetadata().build();
+        NetworkPolicy staleGroup = new NetworkPolicyBuilder().withNewMetadata().withName("network-policy-0123456789")
+                .addToLabels(NetworkPolicyService.POLICY_GROUP_LABEL, "0123456789").endMetadata().build();
+        NetworkAPIGroupDSL network = mock(NetworkAPIGroupDSL.class);
+        MixedOperation<NetworkPolicy, NetworkPolicyList, Resource<NetworkPolicy>> policies = mock(MixedOperation.class);
+        NonNamespaceOperation<NetworkPolicy, NetworkPolicyList, Resource<NetworkPolicy>> namespacePolicies =
+                mock(NonNamespaceOperation.class);
+        Resource<NetworkPolicy> supersededResource = mock(Resource.class);
+        Resource<NetworkPolicy> staleGroupResource = mock(Resource.class);
+        when(kubernetesClient.network()).thenReturn(network);
+        when(network.networkPolicies()).thenReturn(policies);
+        when(policies.inNamespace("test-namespace")).thenReturn(namespacePolicies);
+        when(resourceCache.list(eq(NetworkPolicy.class), eq("test-namespace"), any())).thenReturn(List.of(superseded, staleGroup));
+        when(namespacePolicies.withName("orders-network-policy")).thenReturn(supersededResource);
+        when(namespacePolicies.withName("network-policy-0123456789")).thenReturn(staleGroupResource);
+
+        networkPolicyService.setupNetworkPolicy(orders);
+
+        List<NetworkPolicy> applied = appliedPolicies();
+        assertEquals(2, applied.size(), "Three AppConfigs with two distinct rule sets");
+        NetworkPolicy shared = applied.stream().filter(p -> p.getMetadata().getName().startsWith("network-policy-")).findFirst().orElseThrow();
+        assertEquals(List.of("orders", "payments"), shared.getSpec().getPodSelector().getMatchExpressions().get(0).getValues());
+        assertEquals(2, shared.getMetadata().getOwnerReferences().size());
+        assertTrue(orders.getStatus().getCreatedResources().contains("NetworkPolicy/" + shared.getMetadata().getName()));
+        assertTrue(applied.stream().anyMatch(p -> p.getMetadata().getName().equals("admin-network-policy")));
+        verify(supersededResource).delete();
+        verify(staleGroupResource).delete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDisabledPolicyIsDeleted() {
+        AppConfig appConfig = createAppConfig("orders", List.of("pods(app=gateway) on 8080"), null);
+        appConfig.getSpec().getNetworkPolicy().setEnabled(false);
+        appConfig.getStatus().addCreatedResource("NetworkPolicy/orders-network-policy");
+        appConfig.getStatus().addCreatedResource("ConfigMap/orders-config");
+        Resource<NetworkPolicy> policy = mock(Resource.class);
+        when(mockNamespacePolicies().withName("orders-network-policy")).thenReturn(policy);
+
+        networkPolicyService.releaseNetworkPolicy(appConfig);
+
+        verify(policy).delete();
+        verifyNoInteractions(resourceApplier);
+        assertEquals(List.of("ConfigMap/orders-config"), appConfig.getStatus().getCreatedResources());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDisabledPolicyLeavesTheAggregatedPolicy() {
+        properties.getNetwork().setAggregatePolicies(true);
+        AppConfig orders = createAppConfig("orders", List.of("pods(app=gateway) on 8080"), null);
+        AppConfig payments = createAppConfig("payments", List.of("pods(app=gateway) on 8080"), null);
+        orders.getSpec().getNetworkPolicy().setEnabled(false);
+        orders.getStatus().addCreatedResource("NetworkPolicy/network-policy-0123456789");
+        when(resourceCache.list(eq(AppConfig.class), eq("test-namespace"), any())).thenReturn(List.of(orders, payments));
+        NetworkPolicy group = new NetworkPolicyBuilder().withNewMetadata().withName("network-policy-0123456789")
+                .addToLabels(NetworkPolicyService.POLICY_GROUP_LABEL, "0123456789").endMetadata().build();
+        when(resourceCache.list(eq(NetworkPolicy.class), eq("test-namespace"), any())).thenReturn(List.of(group));
+        NonNamespaceOperation<NetworkPolicy, NetworkPolicyList, Resource<NetworkPolicy>> namespacePolicies =
+                mockNamespacePolicies();
+        Resource<NetworkPolicy> groupResource = mock(Resource.class);
+        Resource<NetworkPolicy> ordersResource = mock(Resource.class);
+        when(namespacePolicies.withName("network-policy-0123456789")).thenReturn(groupResource);
+        when(namespacePolicies.withName("orders-network-policy")).thenReturn(ordersResource);
+
+        networkPolicyService.releaseNetworkPolicy(orders);
+
+        List<NetworkPolicy> applied = appliedPolicies();
+        assertEquals(List.of("payments-network-policy"), applied.stream().map(p -> p.getMetadata().getName()).toList());
+        verify(groupResource).delete();
+        verify(ordersResource).delete();
+        assertTrue(orders.getStatus().getCreatedResources().isEmpty());
+    }
+
+    @Test
+    void testReleaseWithoutTrackedPolicyMakesNoApiCalls() {
+        AppConfig appConfig = createAppConfig("orders", null, null);
+        appConfig.getSpec().setNetworkPolicy(null);
+
+        networkPolicyService.releaseNetworkPolicy(appConfig);
+
+        verifyNoInteractions(kubernetesClient, resourceApplier, resourceCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private NonNamespaceOperation<NetworkPolicy, NetworkPolicyList, Resource<NetworkPolicy>> mockNamespacePolicies() {
+        NetworkAPIGroupDSL network = mock(NetworkAPIGroupDSL.class);
+        MixedOperation<NetworkPolicy, NetworkPolicyList, Resource<NetworkPolicy>> policies = mock(MixedOperation.class);
+        NonNamespaceOperation<NetworkPolicy, NetworkPolicyList, Resource<NetworkPolicy>> namespacePolicies =
+                mock(NonNamespaceOperation.class);
+        when(kubernetesClient.network()).thenReturn(network);
+        when(network.networkPolicies()).thenReturn(policies);
+        when(policies.inNamespace("test-namespace")).thenReturn(namespacePolicies);
+        return namespacePolicies;
+    }
+
+    private List<NetworkPolicy> appliedPolicies() {
+        ArgumentCaptor<NetworkPolicy> captor = ArgumentCaptor.forClass(NetworkPolicy.class);
+        verify(resourceApplier, atLeastOnce()).apply(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private AppConfig createAppConfig(String appName, List<String> ingress, List<String> egress) {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName(appName + "-config");
+        metadata.setNamespace("test-namespace");
+        metadata.setUid(appName + "-uid");
+        appConfig.setMetadata(metadata);
+
+        NetworkPolicyConfig networkPolicy = new NetworkPolicyConfig();
+        networkPolicy.setEnabled(true);
+        networkPolicy.setIngress(ingress);
+        networkPolicy.setEgress(egress);
+
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName(appName);
+        spec.setNetworkPolicy(networkPolicy);
+        appConfig.setSpec(spec);
+
+        AppConfigStatus status = new AppConfigStatus();
+        status.setCreatedResources(new ArrayList<>());
+        appConfig.setStatus(status);
+        return appConfig;
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigStatus;
+import io.github.k8soperators.microservicebootstrapoperator.model.RBACConfig;
+import io.github.k8soperators.microservicebootstrapoperator.util.ResourceLabels;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.rbac.PolicyRuleBuilder;
+import io.fabric8.kubernetes.api.model.rbac.Role;
+import io.fabric8.kubernetes.api.model.rbac.RoleBinding;
+import io.fabric8.kubernetes.api.model.rbac.RoleBindingBuilder;
+import io.fabric8.kubernetes.api.model.rbac.RoleBindingList;
+import io.fabric8.kubernetes.api.model.rbac.RoleBindingListBuilder;
+import io.fabric8.kubernetes.api.model.rbac.RoleList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.RbacAPIGroupDSL;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RBACService
+ */
+@ExtendWith(MockitoExtension.class)
+public class RBACServiceTest {
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    @Mock
+    private ResourceApplier resourceApplier;
+
+    @Mock
+    private RbacAPIGroupDSL rbac;
+
+    @Mock
+    private MixedOperation<RoleBinding, RoleBindingList, Resource<RoleBinding>> roleBindings;
+
+    @Mock
+    private NonNamespaceOperation<RoleBinding, RoleBindingList, Resource<RoleBinding>> namespaceRoleBindings;
+
+    @Mock
+    private FilterWatchListDeletable<RoleBinding, RoleBindingList, Resource<RoleBinding>> managedRoleBindings;
+
+    @Mock
+    private MixedOperation<Role, RoleList, Resource<Role>> roles;
+
+    @Mock
+    private NonNamespaceOperation<Role, RoleList, Resource<Role>> namespaceRoles;
+
+    @Mock
+    private Resource<Role> roleResource;
+
+    @Mock
+    private MixedOperation<AppConfig, KubernetesResourceList<AppConfig>, Resource<AppConfig>> appConfigs;
+
+    @Mock
+    private NonNamespaceOperation<AppConfig, KubernetesResourceList<AppConfig>, Resource<AppConfig>> namespaceAppConfigs;
+
+    @Mock
+    private KubernetesResourceList<AppConfig> appConfigList;
+
+    private RBACService rbacService;
+
+    @BeforeEach
+    void setUp() {
+        rbacService = new RBACService(kubernetesClient, resourceApplier, new RoleTemplateCatalog(new OperatorProperties()));
+        lenient().when(kubernetesClient.rbac()).thenReturn(rbac);
+        lenient().when(rbac.roleBindings()).thenReturn(roleBindings);
+        lenient().when(roleBindings.inNamespace("test-namespace")).thenReturn(namespaceRoleBindings);
+        lenient().when(namespaceRoleBindings.withLabel(ResourceLabels.MANAGED_BY_LABEL, ResourceLabels.MANAGED_BY_VALUE))
+                .thenReturn(managedRoleBindings);
+        lenient().when(rbac.roles()).thenReturn(roles);
+        lenient().when(roles.inNamespace("test-namespace")).thenReturn(namespaceRoles);
+        lenient().when(namespaceRoles.withName(anyString())).thenReturn(roleResource);
+        lenient().when(kubernetesClient.resources(AppConfig.class)).thenReturn(appConfigs);
+        lenient().when(appConfigs.inNamespace("test-namespace")).thenReturn(namespaceAppConfigs);
+        lenient().when(namespaceAppConfigs.list()).thenReturn(appConfigList);
+        lenient().when(appConfigList.getItems()).thenReturn(List.of());
+    }
+
+    @Test
+    void testTemplatesWithTheSameRulesShareOneRole() {
+        RoleTemplateCatalog.RoleTemplate ordered = RoleTemplateCatalog.template(
+                new PolicyRuleBuilder().withApiGroups("").withResources("pods").withVerbs("get", "list").build(),
+                new PolicyRuleBuilder().withApiGroups("apps").withResources("deployments").withVerbs("get").build());
+        RoleTemplateCatalog.RoleTemplate reordered = RoleTemplateCatalog.template(
+                new PolicyRuleBuilder().withApiGroups("apps").withResources("deployments").withVerbs("get").build(),
+                new PolicyRuleBuilder().withApiGroups("").withResources("pods").withVerbs("list", "get").build());
+
+        assertEquals(ordered.roleName(), reordered.roleName());
+        RoleTemplateCatalog catalog = new RoleTemplateCatalog(new OperatorProperties());
+        assertEquals(catalog.resolve(RoleTemplateCatalog.DEFAULT_TEMPLATE), catalog.resolve("my-app-role"));
+        assertEquals(catalog.resolve("config-reader"), catalog.resolve("secret-reader"),
+                "Templates beyond config-reader are opt-in");
+
+        OperatorProperties properties = new OperatorProperties();
+        properties.getRbac().setRoleTemplates(true);
+        RoleTemplateCatalog templates = new RoleTemplateCatalog(properties);
+        assertNotEquals(templates.resolve("config-reader").roleName(), templates.resolve("secret-reader").roleName());
+        assertEquals(catalog.resolve("config-reader"), templates.resolve("config-reader"));
+    }
+
+    @Test
+    void testOnlyBindingsAreCreatedPerAppConfig() {
+        AppConfig orders = createAppConfig("orders", List.of("reader"), List.of("readerBinding"));
+        AppConfig payments = createAppConfig("payments", List.of("config-reader"), List.of("config-readerBinding"));
+
+        rbacService.setupRBAC(orders);
+        rbacService.setupRBAC(payments);
+
+        ArgumentCaptor<HasMetadata> applied = ArgumentCaptor.forClass(HasMetadata.class);
+        verify(resourceApplier, times(6)).apply(applied.capture());
+        List<Role> sharedRoles = applied.getAllValues().stream().filter(Role.class::isInstance).map(Role.class::cast).toList();
+        assertEquals(2, sharedRoles.size());
+        String sharedRole = sharedRoles.get(0).getMetadata().getName();
+        assertEquals(sharedRole, sharedRoles.get(1).getMetadata().getName(), "Both AppConfigs use the same rules");
+        assertTrue(sharedRoles.get(0).getMetadata().getOwnerReferences().isEmpty());
+        assertNull(sharedRoles.get(0).getMetadata().getLabels().get(ResourceLabels.APP_CONFIG_LABEL));
+        assertTrue(applied.getAllValues().stream().filter(RoleBinding.class::isInstance).map(RoleBinding.class::cast)
+                .allMatch(binding -> binding.getRoleRef().getName().equals(sharedRole)));
+        assertTrue(orders.getStatus().getCreatedResources().contains("Role/" + sharedRole));
+        verifyNoInteractions(roleResource);
+    }
+
+    @Test
+    void testSharedRoleIsDeletedWithItsLastReference() {
+        String sharedRole = new RoleTemplateCatalog(new OperatorProperties()).resolve("reader").roleName();
+        AppConfig orders = createAppConfig("orders", List.of("reader"), List.of("readerBinding"));
+        orders.getStatus().getCreatedResources().add("Role/" + sharedRole);
+        when(managedRoleBindings.list()).thenReturn(new RoleBindingListBuilder()
+                .withItems(binding("readerBinding", "orders-config", sharedRole), binding("readerBinding2", "payments-config", sharedRole))
+                .build());
+
+        rbacService.releaseRBAC(orders);
+        verify(roleResource, never()).delete();
+
+        AppConfig payments = createAppConfig("payments", List.of("reader"), List.of("readerBinding2"));
+        payments.getStatus().getCreatedResources().add("Role/" + sharedRole);
+        when(managedRoleBindings.list()).thenReturn(new RoleBindingListBuilder()
+                .withItems(binding("readerBinding2", "payments-config", sharedRole)).build());
+
+        rbacService.releaseRBAC(payments);
+        verify(namespaceRoles).withName(sharedRole);
+        verify(roleResource).delete();
+        assertFalse(payments.getStatus().getCreatedResources().contains("Role/" + sharedRole));
+    }
+
+    @Test
+    void testSharedRoleDeclaredByAnotherAppConfigIsKept() {
+        String sharedRole = new RoleTemplateCatalog(new OperatorProperties()).resolve("reader").roleName();
+        AppConfig orders = createAppConfig("orders", List.of("reader"), List.of("readerBinding"));
+        orders.getStatus().getCreatedResources().add("Role/" + sharedRole);
+        AppConfig payments = createAppConfig("payments", List.of("reader"), List.of());
+        when(managedRoleBindings.list()).thenReturn(new RoleBindingListBuilder()
+                .withItems(binding("readerBinding", "orders-config", sharedRole)).build());
+        when(appConfigList.getItems()).thenReturn(List.of(orders, payments));
+
+        rbacService.releaseRBAC(orders);
+
+        verify(roleResource, never()).delete();
+        assertFalse(orders.getStatus().getCreatedResources().contains("Role/" + sharedRole));
+    }
+
+    private static RoleBinding binding(String name, String appConfigName, String roleName) {
+        return new RoleBindingBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withLabels(Map.of(ResourceLabels.APP_CONFIG_LABEL, appConfigName))
+                .endMetadata()
+                .withNewRoleRef().withKind("Role").withName(roleName).endRoleRef()
+                .build();
+    }
+
+    private AppConfig createAppConfig(String appName, List<String> roleNames, List<String> roleBindingNames) {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName(appName + "-config");
+        metadata.setNamespace("test-namespace");
+        appConfig.setMetadata(metadata);
+
+        RBACConfig rbacConfig = new RBACConfig();
+        rbacConfig.setServiceAccountName(appName + "-sa");
+        rbacConfig.setRoles(roleNames);
+        rbacConfig.setRoleBindings(roleBindingNames);
+
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName(appName);
+        spec.setRbac(rbacConfig);
+        appConfig.setSpec(spec);
+
+        AppConfigStatus status = new AppConfigStatus();
+        status.setCreatedResources(new ArrayList<>());
+        appConfig.setStatus(status);
+        return appConfig;
+    }
+}
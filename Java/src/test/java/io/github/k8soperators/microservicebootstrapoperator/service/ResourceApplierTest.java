@@ -0,0 +1,183 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.FieldsV1;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntry;
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntryBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.NamespaceableResource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ResourceApplier
+ */
+@ExtendWith(MockitoExtension.class)
+public class ResourceApplierTest {
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    @Mock
+    private ManagedResourceCache resourceCache;
+
+    @Mock
+    private NamespaceableResource<ConfigMap> configMapResource;
+
+    private OperatorProperties properties;
+    private ResourceApplier resourceApplier;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OperatorProperties();
+        resourceApplier = new ResourceApplier(kubernetesClient, resourceCache, properties);
+    }
+
+    @Test
+    void testHashIgnoresMapOrderAndTheHashAnnotation() {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("a", "1");
+        data.put("b", "2");
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("b", "2");
+        reversed.put("a", "1");
+        ConfigMap annotated = configMap(reversed);
+        annotated.getMetadata().setAnnotations(new LinkedHashMap<>(Map.of(ResourceApplier.APPLIED_HASH_ANNOTATION, "old")));
+
+        assertEquals(ResourceApplier.hash(configMap(data)), ResourceApplier.hash(annotated));
+        assertEquals("old", annotated.getMetadata().getAnnotations().get(ResourceApplier.APPLIED_HASH_ANNOTATION));
+        assertNotEquals(ResourceApplier.hash(configMap(data)), ResourceApplier.hash(configMap(Map.of("a", "changed"))));
+    }
+
+    @Test
+    void testMissingResourceIsServerSideApplied() {
+        ConfigMap desired = configMap(Map.of("a", "1"));
+        when(kubernetesClient.resource(desired)).thenReturn(configMapResource);
+
+        assertTrue(resourceApplier.apply(desired));
+
+        ArgumentCaptor<PatchContext> context = ArgumentCaptor.forClass(PatchContext.class);
+        verify(configMapResource).patch(context.capture());
+        assertEquals(PatchType.SERVER_SIDE_APPLY, context.getValue().getPatchType());
+        assertEquals("microservice-bootstrap-operator", context.getValue().getFieldManager());
+        assertTrue(context.getValue().getForce());
+        assertNull(context.getValue().getDryRun());
+        assertEquals(ResourceApplier.hash(desired),
+                desired.getMetadata().getAnnotations().get(ResourceApplier.APPLIED_HASH_ANNOTATION));
+    }
+
+    @Test
+    void testUnchangedResourceIsNotApplied() {
+        ConfigMap live = configMap(Map.of("a", "1"));
+        live.getMetadata().setAnnotations(Map.of(ResourceApplier.APPLIED_HASH_ANNOTATION, ResourceApplier.hash(live)));
+        when(resourceCache.get(eq(ConfigMap.class), eq("ns"), eq("app-config"), any())).thenReturn(live);
+
+        assertFalse(resourceApplier.apply(configMap(Map.of("a", "1"))));
+        verifyNoInteractions(kubernetesClient);
+
+        ConfigMap changed = configMap(Map.of("a", "2"));
+        when(kubernetesClient.resource(changed)).thenReturn(configMapResource);
+        assertTrue(resourceApplier.apply(changed));
+        verify(configMapResource).patch(any(PatchContext.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLegacyManagedFieldsAreTransferredBeforeTheApply() {
+        ConfigMap live = configMap(Map.of("a", "1", "dropped", "x"));
+        live.getMetadata().setResourceVersion("7");
+        live.getMetadata().setAnnotations(Map.of(ResourceApplier.APPLIED_HASH_ANNOTATION,
+                ResourceApplier.hash(configMap(Map.of("a", "1")))));
+        live.getMetadata().setManagedFields(List.of(
+                managedFields("fabric8-kubernetes-client", "Update", Map.of("f:data", Map.of("f:dropped", Map.of()))),
+                managedFields("microservice-bootstrap-operator", "Apply", Map.of("f:data", Map.of("f:a", Map.of()))),
+                managedFields("kubectl-edit", "Update", Map.of("f:metadata", Map.of("f:labels", Map.of("f:team", Map.of()))))));
+        when(resourceCache.get(eq(ConfigMap.class), eq("ns"), eq("app-config"), any())).thenReturn(live);
+        NamespaceableResource<ConfigMap> liveResource = mock(NamespaceableResource.class);
+        when(kubernetesClient.resource(live)).thenReturn(liveResource);
+        ConfigMap desired = configMap(Map.of("a", "1"));
+        when(kubernetesClient.resource(desired)).thenReturn(configMapResource);
+
+        // The hash is current, the apply still runs so the taken over key is removed
+        assertTrue(resourceApplier.apply(desired));
+
+        ArgumentCaptor<String> patch = ArgumentCaptor.forClass(String.class);
+        InOrder order = inOrder(liveResource, configMapResource);
+        order.verify(liveResource).patch(any(PatchContext.class), patch.capture());
+        order.verify(configMapResource).patch(any(PatchContext.class));
+        Map<String, Object> metadata = (Map<String, Object>) Serialization.unmarshal(patch.getValue(), Map.class).get("metadata");
+        assertEquals("7", metadata.get("resourceVersion"));
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) metadata.get("managedFields");
+        assertEquals(List.of("kubectl-edit", "microservice-bootstrap-operator"),
+                entries.stream().map(entry -> entry.get("manager")).toList());
+        assertEquals("Apply", entries.get(1).get("operation"));
+        assertEquals(Map.of("f:data", Map.of("f:a", Map.of(), "f:dropped", Map.of())), entries.get(1).get("fieldsV1"));
+
+        // Without legacy entries nothing is rewritten
+        assertFalse(resourceApplier.takeOverLegacyFields(configMap(Map.of())));
+    }
+
+    @Test
+    void testDryRunApplyReportsNoChange() {
+        properties.getApply().setDryRun(true);
+        ConfigMap desired = configMap(Map.of("a", "1"));
+        when(kubernetesClient.resource(desired)).thenReturn(configMapResource);
+
+        assertFalse(resourceApplier.apply(desired), "Nothing was persisted, so no rollout may follow");
+        verify(configMapResource).patch(any(PatchContext.class));
+    }
+
+    @Test
+    void testDryRunAndConflictPolicyFollowTheProperties() {
+        properties.getApply().setDryRun(true);
+        properties.getApply().setForceConflicts(false);
+        properties.getApply().setFieldManager("custom-manager");
+
+        PatchContext context = resourceApplier.patchContext();
+
+        assertEquals(List.of("All"), context.getDryRun());
+        assertFalse(context.getForce());
+        assertEquals("custom-manager", context.getFieldManager());
+    }
+
+    private static ManagedFieldsEntry managedFields(String manager, String operation, Map<String, Object> fields) {
+        FieldsV1 fieldsV1 = new FieldsV1();
+        fieldsV1.setAdditionalProperties(new LinkedHashMap<>(fields));
+        return new ManagedFieldsEntryBuilder()
+                .withManager(manager)
+                .withOperation(operation)
+                .withApiVersion("v1")
+                .withFieldsType("FieldsV1")
+                .withFieldsV1(fieldsV1)
+                .build();
+    }
+
+    private static ConfigMap configMap(Map<String, String> data) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName("app-config")
+                    .withNamespace("ns")
+                .endMetadata()
+                .withData(data)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SecretRotationExecutor
+ */
+@ExtendWith(MockitoExtension.class)
+public class SecretRotationExecutorTest {
+
+    @Mock
+    private SecretRotationScheduler secretRotationScheduler;
+
+    @Test
+    void testGlobalRateLimitDefersRotationsBeyondBurst() throws Exception {
+        SecretRotationExecutor executor = createExecutor(0.5, 3, 100);
+        AtomicInteger rotations = new AtomicInteger();
+
+        int admitted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (executor.execute(createAppConfig("ns-" + i, "app-" + i), rotations::incrementAndGet)) {
+                admitted++;
+            }
+        }
+
+        assertEquals(3, admitted, "Only the burst should be admitted immediately");
+        assertEquals(3, rotations.get());
+        verify(secretRotationScheduler, times(7)).defer(any(AppConfig.class), anyLong());
+    }
+
+    @Test
+    void testNamespaceConcurrencyCapDefersRotation() throws Exception {
+        SecretRotationExecutor executor = createExecutor(100, 100, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread running = new Thread(() -> {
+            try {
+                executor.execute(createAppConfig("shared", "first"), () -> {
+                    started.countDown();
+                    release.await();
+                });
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        running.start();
+        started.await();
+
+        AppConfig second = createAppConfig("shared", "second");
+        assertFalse(executor.execute(second, () -> fail("Should not run while namespace is at capacity")));
+        assertTrue(executor.execute(createAppConfig("other", "third"), () -> { }),
+                "Other namespaces should not be affected");
+
+        release.countDown();
+        running.join();
+        verify(secretRotationScheduler).defer(eq(second), anyLong());
+    }
+
+    @Test
+    void testDeferralJitterIsDeterministic() throws Exception {
+        SecretRotationExecutor executor = createExecutor(0.001, 1, 100);
+        executor.execute(createAppConfig("ns", "warmup"), () -> { });
+
+        AppConfig appConfig = createAppConfig("ns", "app");
+        executor.execute(appConfig, () -> { });
+        executor.execute(appConfig, () -> { });
+
+        ArgumentCaptor<Long> delays = ArgumentCaptor.forClass(Long.class);
+        verify(secretRotationScheduler, times(2)).defer(eq(appConfig), delays.capture());
+        long first = delays.getAllValues().get(0);
+        long second = delays.getAllValues().get(1);
+        assertTrue(Math.abs(first - second) < 100, "Same AppConfig should be deferred by the same jitter");
+    }
+
+    private SecretRotationExecutor createExecutor(double rate, int burst, int perNamespace) {
+        OperatorProperties properties = new OperatorProperties();
+        properties.getSecretRotation().setRotationsPerSecond(rate);
+        properties.getSecretRotation().setBurst(burst);
+        properties.getSecretRotation().setMaxConcurrentPerNamespace(perNamespace);
+        return new SecretRotationExecutor(secretRotationScheduler, properties);
+    }
+
+    private AppConfig createAppConfig(String namespace, String name) {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName(name);
+        metadata.setNamespace(namespace);
+        appConfig.setMetadata(metadata);
+        return appConfig;
+    }
+}
@@ -4,12 +4,20 @@ import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.utils.Serialization;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigStatus;
 import io.github.k8soperators.microservicebootstrapoperator.model.SecretRotationConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SecretSourceStatus;
+import io.github.k8soperators.microservicebootstrapoperator.rotation.RotationStrategyRegistry;
+import io.github.k8soperators.microservicebootstrapoperator.util.CertificateSigner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +28,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,24 +56,30 @@ public class SecretRotationServiceTest {
     @Mock
     private Resource<Secret> secretResource;
 
+    @Mock
+    private CertificateAuthorityService certificateAuthorityService;
+
+    @Mock
+    private WorkloadRolloutService workloadRolloutService;
+
     private SecretRotationService secretRotationService;
 
     @BeforeEach
     void setUp() {
-        secretRotationService = new SecretRotationService(kubernetesClient);
+        secretRotationService = new SecretRotationService(kubernetesClient, certificateAuthorityService,
+                new RotationStrategyRegistry(), workloadRolloutService);
         
         // Mock the Kubernetes client chain
-        when(kubernetesClient.secrets()).thenReturn(secretClient);
-        when(secretClient.inNamespace(anyString())).thenReturn(namespaceSecretClient);
-        when(namespaceSecretClient.withName(anyString())).thenReturn(secretResource);
+        lenient().when(kubernetesClient.secrets()).thenReturn(secretClient);
+        lenient().when(secretClient.inNamespace(anyString())).thenReturn(namespaceSecretClient);
+        lenient().when(namespaceSecretClient.withName(anyString())).thenReturn(secretResource);
         
         // Mock the resource() method to fix the NullPointerException
-        when(namespaceSecretClient.resource(any(Secret.class))).thenReturn(secretResource);
+        lenient().when(namespaceSecretClient.resource(any(Secret.class))).thenReturn(secretResource);
         
         // Make all stubs lenient to avoid unnecessary stubbing exceptions
-        lenient().when(secretResource.get()).thenReturn(null);
         lenient().when(secretResource.create()).thenReturn(null);
-        lenient().when(secretResource.replace(any(Secret.class))).thenReturn(null);
+        lenient().when(secretResource.patch(any(PatchContext.class), anyString())).thenReturn(null);
     }
 
     @Test
@@ -69,21 +87,20 @@ public class SecretRotationServiceTest {
         // Create test AppConfig with default strategy
         AppConfig appConfig = createAppConfig("default", null);
         
-        // Mock the secret resource
-        when(secretResource.get()).thenReturn(null); // Secret doesn't exist yet
-        
-        // Call the service method
+        // Call the service method, the secret doesn't exist yet
         secretRotationService.rotateSecrets(appConfig);
         
-        // Verify that create was called with a Secret containing the expected data
+        // Verify that create was called directly, without a GET, with a Secret containing the expected data
         ArgumentCaptor<Secret> secretCaptor = ArgumentCaptor.forClass(Secret.class);
         verify(namespaceSecretClient).resource(secretCaptor.capture());
         verify(secretResource).create();
+        verify(secretResource, never()).get();
+        verify(secretResource, never()).patch(any(PatchContext.class), anyString());
         
         // Verify the captured Secret
         Secret capturedSecret = secretCaptor.getValue();
         assertEquals("test-namespace", capturedSecret.getMetadata().getNamespace());
-        assertEquals("test-app-secrets", capturedSecret.getMetadata().getName());
+        assertEquals("test-app-test-source-secrets", capturedSecret.getMetadata().getName());
         
         // Verify the secret data contains username and password
         Map<String, String> stringData = capturedSecret.getStringData();
@@ -98,129 +115,115 @@ public class SecretRotationServiceTest {
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void testRotateSecretsWithDatabaseStrategy() {
         // Setup
         Map<String, String> strategyConfig = new HashMap<>();
         strategyConfig.put("dbType", "postgresql");
         AppConfig appConfig = createAppConfig("database", strategyConfig);
         
-        // Mock existing secret
-        Secret existingSecret = new SecretBuilder()
-                .withNewMetadata()
-                .withName("db-secret")
-                .withNamespace("test-namespace")
-                .endMetadata()
-                .withData(new HashMap<>())
-                .build();
-        
-        when(secretResource.get()).thenReturn(existingSecret);
-        // Use lenient stubbing to avoid unnecessary stubbing exception
-        lenient().when(secretResource.replace()).thenReturn(existingSecret);
+        // Mock existing secret, create is rejected because it already exists
+        when(secretResource.create()).thenThrow(alreadyExists());
         
         try {
             // Execute
             secretRotationService.rotateSecrets(appConfig);
             
-            // Verify - since we mocked an existing secret, replace() should be called
-            ArgumentCaptor<Secret> secretCaptor = ArgumentCaptor.forClass(Secret.class);
-            verify(secretResource).replace();
-            verify(namespaceSecretClient).resource(secretCaptor.capture());
+            // Verify - since the secret exists, only the rotated keys are sent in a merge patch
+            ArgumentCaptor<PatchContext> contextCaptor = ArgumentCaptor.forClass(PatchContext.class);
+            ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+            verify(secretResource).patch(contextCaptor.capture(), patchCaptor.capture());
+            verify(secretResource, never()).get();
+            assertEquals(PatchType.JSON_MERGE, contextCaptor.getValue().getPatchType());
             
-            Secret capturedSecret = secretCaptor.getValue();
-            // Check data field for database keys
-            assertNotNull(capturedSecret.getData());
-            assertTrue(capturedSecret.getData().containsKey("db-username"));
-            assertTrue(capturedSecret.getData().containsKey("db-password"));
-            assertTrue(capturedSecret.getData().containsKey("db-url"));
+            Map<String, Object> patch = Serialization.unmarshal(patchCaptor.getValue(), Map.class);
+            Map<String, String> stringData = (Map<String, String>) patch.get("stringData");
+            // Check patched keys
+            assertNotNull(stringData);
+            assertTrue(stringData.containsKey("db-username"));
+            assertTrue(stringData.containsKey("db-password"));
+            assertTrue(stringData.containsKey("db-url"));
             // Verify metadata
-            assertNotNull(capturedSecret.getMetadata().getAnnotations());
-            assertTrue(capturedSecret.getMetadata().getAnnotations().containsKey("rotation-timestamp"));
+            Map<String, Object> metadata = (Map<String, Object>) patch.get("metadata");
+            assertTrue(((Map<String, String>) metadata.get("annotations")).containsKey("rotation-timestamp"));
         } catch (Exception e) {
             fail("Should not throw exception: " + e.getMessage());
         }
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void testRotateSecretsWithApiKeyStrategy() {
         // Setup
         Map<String, String> strategyConfig = new HashMap<>();
         strategyConfig.put("keyLength", "32");
         AppConfig appConfig = createAppConfig("api-key", strategyConfig);
         
-        // Mock existing secret
-        Secret existingSecret = new SecretBuilder()
-                .withNewMetadata()
-                .withName("api-secret")
-                .withNamespace("test-namespace")
-                .endMetadata()
-                .withData(new HashMap<>())
-                .build();
-        
-        when(secretResource.get()).thenReturn(existingSecret);
-        // Use lenient stubbing to avoid unnecessary stubbing exception
-        lenient().when(secretResource.replace()).thenReturn(existingSecret);
+        // Mock existing secret, create is rejected because it already exists
+        when(secretResource.create()).thenThrow(alreadyExists());
         
         try {
             // Execute
             secretRotationService.rotateSecrets(appConfig);
             
-            // Verify
-            ArgumentCaptor<Secret> secretCaptor = ArgumentCaptor.forClass(Secret.class);
-            verify(secretResource).replace();
-            verify(namespaceSecretClient).resource(secretCaptor.capture());
-            
-            Secret capturedSecret = secretCaptor.getValue();
-            // Check data field for API key keys
-            assertNotNull(capturedSecret.getData());
-            assertTrue(capturedSecret.getData().containsKey("api-key"));
-            assertTrue(capturedSecret.getData().containsKey("api-secret"));
+            // Verify - since the secret exists, only the rotated keys are sent in a merge patch
+            ArgumentCaptor<PatchContext> contextCaptor = ArgumentCaptor.forClass(PatchContext.class);
+            ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+            verify(secretResource).patch(contextCaptor.capture(), patchCaptor.capture());
+            verify(secretResource, never()).get();
+            assertEquals(PatchType.JSON_MERGE, contextCaptor.getValue().getPatchType());
             
+            Map<String, Object> patch = Serialization.unmarshal(patchCaptor.getValue(), Map.class);
+            Map<String, String> stringData = (Map<String, String>) patch.get("stringData");
+            // Check patched keys
+            assertNotNull(stringData);
+            assertTrue(stringData.containsKey("api-key"));
+            assertTrue(stringData.containsKey("api-secret"));
             // Verify metadata
-            assertNotNull(capturedSecret.getMetadata().getAnnotations());
-            assertTrue(capturedSecret.getMetadata().getAnnotations().containsKey("rotation-timestamp"));
+            Map<String, Object> metadata = (Map<String, Object>) patch.get("metadata");
+            assertTrue(((Map<String, String>) metadata.get("annotations")).containsKey("rotation-timestamp"));
         } catch (Exception e) {
             fail("Should not throw exception: " + e.getMessage());
         }
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void testRotateSecretsWithTlsStrategy() {
         // Setup
         Map<String, String> strategyConfig = new HashMap<>();
         strategyConfig.put("commonName", "example.com");
         AppConfig appConfig = createAppConfig("tls", strategyConfig);
         
-        // Mock existing secret
-        Secret existingSecret = new SecretBuilder()
-                .withNewMetadata()
-                .withName("tls-secret")
-                .withNamespace("test-namespace")
-                .endMetadata()
-                .withData(new HashMap<>())
-                .build();
+        strategyConfig.put("dnsNames", "example.org, www.example.com");
+        when(certificateAuthorityService.issue(eq("example.com"), eq(List.of("example.org", "www.example.com")),
+                isNull(), eq(0)))
+                .thenReturn(new CertificateSigner.IssuedCertificate("certificate-pem", "key-pem", "ca-pem"));
         
-        when(secretResource.get()).thenReturn(existingSecret);
-        // Use lenient stubbing to avoid unnecessary stubbing exception
-        lenient().when(secretResource.replace()).thenReturn(existingSecret);
+        // Mock existing secret, create is rejected because it already exists
+        when(secretResource.create()).thenThrow(alreadyExists());
         
         try {
             // Execute
             secretRotationService.rotateSecrets(appConfig);
             
-            // Verify
-            ArgumentCaptor<Secret> secretCaptor = ArgumentCaptor.forClass(Secret.class);
-            verify(secretResource).replace();
-            verify(namespaceSecretClient).resource(secretCaptor.capture());
-            
-            Secret capturedSecret = secretCaptor.getValue();
-            // Check data field for TLS keys
-            assertNotNull(capturedSecret.getData());
-            assertTrue(capturedSecret.getData().containsKey("tls.crt"));
-            assertTrue(capturedSecret.getData().containsKey("tls.key"));
+            // Verify - since the secret exists, only the rotated keys are sent in a merge patch
+            ArgumentCaptor<PatchContext> contextCaptor = ArgumentCaptor.forClass(PatchContext.class);
+            ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+            verify(secretResource).patch(contextCaptor.capture(), patchCaptor.capture());
+            verify(secretResource, never()).get();
+            assertEquals(PatchType.JSON_MERGE, contextCaptor.getValue().getPatchType());
             
+            Map<String, Object> patch = Serialization.unmarshal(patchCaptor.getValue(), Map.class);
+            Map<String, String> stringData = (Map<String, String>) patch.get("stringData");
+            // Check patched keys
+            assertNotNull(stringData);
+            assertEquals("certificate-pem", stringData.get("tls.crt"));
+            assertEquals("key-pem", stringData.get("tls.key"));
+            assertEquals("ca-pem", stringData.get("ca.crt"));
             // Verify metadata
-            assertNotNull(capturedSecret.getMetadata().getAnnotations());
-            assertTrue(capturedSecret.getMetadata().getAnnotations().containsKey("rotation-timestamp"));
+            Map<String, Object> metadata = (Map<String, Object>) patch.get("metadata");
+            assertTrue(((Map<String, String>) metadata.get("annotations")).containsKey("rotation-timestamp"));
         } catch (Exception e) {
             fail("Should not throw exception: " + e.getMessage());
         }
@@ -231,9 +234,7 @@ public class SecretRotationServiceTest {
         // Setup
         AppConfig appConfig = createAppConfig("default", null);
         
-        // Mock non-existent secret
-        when(secretResource.get()).thenReturn(null);
-        
+        // Secret doesn't exist yet
         try {
             // Execute
             secretRotationService.rotateSecrets(appConfig);
@@ -259,36 +260,179 @@ public class SecretRotationServiceTest {
         // Setup
         AppConfig appConfig = createAppConfig("default", null);
         
-        // Mock existing secret
-        Secret existingSecret = new SecretBuilder()
-                .withNewMetadata()
-                .withName("test-secret")
-                .withNamespace("test-namespace")
-                .endMetadata()
-                .withData(new HashMap<>())
-                .build();
-        
-        when(secretResource.get()).thenReturn(existingSecret);
-        
-        // For non-void methods like replace(), we need to use when().thenThrow().thenReturn()
-        when(secretResource.replace())
+        // Secret exists, the first patch fails with a transient error
+        when(secretResource.create()).thenThrow(alreadyExists());
+        when(secretResource.patch(any(PatchContext.class), anyString()))
             .thenThrow(new RuntimeException("API server error"))
-            .thenReturn(existingSecret);
+            .thenReturn(existingSecret("7"));
         
         try {
             // Execute - should succeed after retry
             secretRotationService.rotateSecrets(appConfig);
             
-            // If we get here without exception, the test passes
-            
-            // Verify that replace was called twice (once for the failure, once for the retry)
-            verify(secretResource, times(2)).replace();
-            verify(namespaceSecretClient, times(2)).resource(any(Secret.class));
+            // Verify that patch was called twice (once for the failure, once for the retry)
+            verify(secretResource, times(2)).patch(any(PatchContext.class), anyString());
         } catch (Exception e) {
             fail("Should not throw exception: " + e.getMessage());
         }
     }
 
+    @Test
+    void testSubsequentRotationPatchesWithResourceVersionPrecondition() {
+        AppConfig appConfig = createAppConfig("default", null);
+        when(secretResource.create()).thenReturn(existingSecret("41"));
+        when(secretResource.patch(any(PatchContext.class), anyString())).thenReturn(existingSecret("42"));
+        
+        // First rotation creates the secret, the second one patches it in a single call
+        secretRotationService.rotateSecrets(appConfig);
+        secretRotationService.rotateSecrets(appConfig);
+        
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(secretResource, times(1)).create();
+        verify(secretResource).patch(any(PatchContext.class), patchCaptor.capture());
+        verify(secretResource, never()).get();
+        assertTrue(patchCaptor.getValue().contains("\"resourceVersion\":\"41\""),
+                "Patch should be guarded by the last written resourceVersion");
+    }
+
+    @Test
+    void testConflictingPatchRefreshesResourceVersion() {
+        AppConfig appConfig = createAppConfig("default", null);
+        when(secretResource.create()).thenReturn(existingSecret("41"));
+        when(secretResource.get()).thenReturn(existingSecret("50"));
+        when(secretResource.patch(any(PatchContext.class), anyString()))
+            .thenThrow(new KubernetesClientException("conflict", 409, null))
+            .thenReturn(existingSecret("51"));
+        
+        secretRotationService.rotateSecrets(appConfig);
+        secretRotationService.rotateSecrets(appConfig);
+        
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(secretResource, times(2)).patch(any(PatchContext.class), patchCaptor.capture());
+        assertTrue(patchCaptor.getAllValues().get(1).contains("\"resourceVersion\":\"50\""));
+    }
+
+    @Test
+    void testDeletedSecretIsCreatedAgainInsteadOfPatched() {
+        AppConfig appConfig = createAppConfig("default", null);
+        when(secretResource.create()).thenReturn(existingSecret("41")).thenReturn(existingSecret("60"));
+        when(secretResource.patch(any(PatchContext.class), anyString()))
+            .thenThrow(new KubernetesClientException("not found", 404, null))
+            .thenReturn(existingSecret("61"));
+        
+        secretRotationService.rotateSecrets(appConfig);
+        secretRotationService.rotateSecrets(appConfig);
+        secretRotationService.rotateSecrets(appConfig);
+        
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(secretResource, times(2)).create();
+        verify(secretResource, times(2)).patch(any(PatchContext.class), patchCaptor.capture());
+        assertTrue(patchCaptor.getAllValues().get(1).contains("\"resourceVersion\":\"60\""),
+                "The stale resourceVersion must be replaced by the one of the recreated secret");
+    }
+
+    @Test
+    void testFinalizedAppConfigsDropTheirCachedResourceVersions() {
+        AppConfig appConfig = createAppConfig("default", null);
+        when(secretResource.create()).thenReturn(existingSecret("41"));
+        
+        secretRotationService.rotateSecrets(appConfig);
+        secretRotationService.forgetSecrets(appConfig);
+        secretRotationService.rotateSecrets(appConfig);
+        
+        verify(secretResource, times(2)).create();
+        verify(secretResource, never()).patch(any(PatchContext.class), anyString());
+    }
+
+    @Test
+    void testRotateSecretsForEverySourceInOnePass() {
+        AppConfig appConfig = createAppConfig("database", null);
+        appConfig.getSpec().getSecretRotation().setSources(List.of("postgresql", "redis", "Redis_Cache", "redis"));
+        appConfig.setStatus(new AppConfigStatus());
+        
+        secretRotationService.rotateSecrets(appConfig);
+        
+        ArgumentCaptor<Secret> secretCaptor = ArgumentCaptor.forClass(Secret.class);
+        verify(namespaceSecretClient, times(3)).resource(secretCaptor.capture());
+        verify(secretResource, times(3)).create();
+        Set<String> secretNames = secretCaptor.getAllValues().stream()
+                .map(secret -> secret.getMetadata().getName())
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("test-app-postgresql-secrets", "test-app-redis-secrets", "test-app-redis-cache-secrets"),
+                secretNames, "Names derive from the source alone, duplicates are rotated once");
+        
+        // Credentials are generated independently per source
+        Set<String> passwords = secretCaptor.getAllValues().stream()
+                .map(secret -> secret.getStringData().get("db-password"))
+                .collect(Collectors.toSet());
+        assertEquals(3, passwords.size());
+        
+        Map<String, SecretSourceStatus> sourceStatus = appConfig.getStatus().getSecretSources();
+        assertEquals(3, sourceStatus.size());
+        assertEquals("Rotated", sourceStatus.get("redis").getState());
+        assertEquals("test-app-redis-secrets", sourceStatus.get("redis").getSecretName());
+        assertNotNull(sourceStatus.get("postgresql").getLastRotationTime());
+        assertEquals(3, appConfig.getStatus().getCreatedResources().size());
+        
+        // Every rotated secret triggers a rollout of its consumers
+        verify(workloadRolloutService).onContentChange(eq("Secret"), eq("test-namespace"), eq("test-app-redis-secrets"), anyMap());
+        verify(workloadRolloutService, times(3)).onContentChange(eq("Secret"), anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    void testSecretNamesDoNotDependOnSourceOrder() {
+        AppConfig appConfig = createAppConfig("default", null);
+        appConfig.getSpec().getSecretRotation().setSources(List.of("redis", "default"));
+        Map<String, String> names = secretRotationService.resolveSecretNames(appConfig);
+        
+        appConfig.getSpec().getSecretRotation().setSources(List.of("default", "redis"));
+        assertEquals(names, secretRotationService.resolveSecretNames(appConfig));
+        assertEquals("test-app-secrets", names.get("default"));
+        
+        appConfig.getSpec().getSecretRotation().setSources(List.of("redis_cache", "Redis-Cache"));
+        assertThrows(IllegalArgumentException.class, () -> secretRotationService.resolveSecretNames(appConfig));
+    }
+
+    @Test
+    void testRetryRotatesOnlyTheFailedSources() {
+        AppConfig appConfig = createAppConfig("default", null);
+        appConfig.getSpec().getSecretRotation().setSources(List.of("postgresql", "redis"));
+        Map<String, Integer> creates = new ConcurrentHashMap<>();
+        AtomicBoolean redisUnavailable = new AtomicBoolean(true);
+        when(namespaceSecretClient.resource(any(Secret.class))).thenAnswer(invocation -> {
+            String name = invocation.<Secret>getArgument(0).getMetadata().getName();
+            if (redisUnavailable.get() && name.equals("test-app-redis-secrets")) {
+                throw new KubernetesClientException("unavailable", 503, null);
+            }
+            creates.merge(name, 1, Integer::sum);
+            return secretResource;
+        });
+        
+        assertThrows(RuntimeException.class, () -> secretRotationService.rotateSecrets(appConfig));
+        redisUnavailable.set(false);
+        secretRotationService.rotateSecrets(appConfig);
+        assertEquals(Map.of("test-app-postgresql-secrets", 1, "test-app-redis-secrets", 1), creates,
+                "Sources rotated before the failure are not rotated again on the retry");
+        
+        // Once every source succeeded the next rotation covers all of them again
+        secretRotationService.rotateSecrets(appConfig);
+        assertEquals(Map.of("test-app-postgresql-secrets", 2, "test-app-redis-secrets", 2), creates);
+    }
+
+    private KubernetesClientException alreadyExists() {
+        return new KubernetesClientException("already exists", 409, null);
+    }
+    
+    private Secret existingSecret(String resourceVersion) {
+        return new SecretBuilder()
+                .withNewMetadata()
+                .withName("test-app-secrets")
+                .withNamespace("test-namespace")
+                .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .build();
+    }
+
     // Helper method to create AppConfig with specific rotation strategy
     private AppConfig createAppConfig(String strategy, Map<String, String> strategyConfig) {
         AppConfig appConfig = new AppConfig();
@@ -0,0 +1,142 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SidecarInjectionPlan
+ */
+public class SidecarInjectionPlanTest {
+
+    @Test
+    void testCompiledPatchIsReusedForCommonPods() {
+        SidecarInjectionPlan plan = SidecarInjectionPlan.compile(createAppConfig(List.of("config-volume")));
+
+        byte[] first = plan.patchFor(createPod(List.of("kube-api-access")));
+        byte[] second = plan.patchFor(createPod(List.of("data")));
+
+        assertSame(first, second, "Pods with containers and volumes should share the precompiled patch");
+        List<Map<String, Object>> operations = parse(first);
+        assertEquals(List.of("/spec/containers/-", "/spec/volumes/-"),
+                operations.stream().map(operation -> operation.get("path")).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testPatchAddsMissingListsAndSkipsExistingVolumes() {
+        SidecarInjectionPlan plan = SidecarInjectionPlan.compile(createAppConfig(List.of("config-volume", "cache")));
+
+        List<Map<String, Object>> withoutVolumes = parse(plan.patchFor(createPod(null)));
+        assertEquals("/spec/volumes", withoutVolumes.get(1).get("path"));
+        assertEquals(2, ((List<Object>) withoutVolumes.get(1).get("value")).size());
+
+        List<Map<String, Object>> withCache = parse(plan.patchFor(createPod(List.of("cache"))));
+        assertEquals(2, withCache.size());
+        assertEquals("config-volume", ((Map<String, Object>) withCache.get(1).get("value")).get("name"));
+
+        Pod withoutContainers = createPod(null);
+        withoutContainers.getSpec().setContainers(null);
+        List<Map<String, Object>> operations = parse(plan.patchFor(withoutContainers));
+        assertEquals("/spec/containers", operations.get(0).get("path"));
+        assertEquals("test-app-sidecar", ((List<Map<String, Object>>) operations.get(0).get("value")).get(0).get("name"));
+    }
+
+    @Test
+    void testPlanDoesNotFollowLaterAppConfigChanges() {
+        AppConfig appConfig = createAppConfig(List.of());
+        SidecarInjectionPlan plan = SidecarInjectionPlan.compile(appConfig);
+
+        appConfig.getSpec().getSidecarInjection().getSelectorLabels().put("app", "changed");
+        appConfig.getSpec().getSidecarInjection().setImage("nginx:changed");
+
+        assertTrue(plan.appliesTo(createPod(null)));
+        assertTrue(new String(plan.patchFor(createPod(null)), StandardCharsets.UTF_8).contains("nginx:latest"));
+    }
+
+    @Test
+    void testLegacySidecarsUseTheInjectionSelector() {
+        AppConfig appConfig = createAppConfig(List.of());
+        appConfig.getSpec().getSidecarInjection().setImage(null);
+        SidecarConfig named = new SidecarConfig();
+        named.setName("log-shipper");
+        named.setImage("fluent-bit:2.1");
+        named.setConfig(Map.of("OUTPUT", "stdout"));
+        SidecarConfig unnamed = new SidecarConfig();
+        unnamed.setImage("exporter:1.0");
+        SidecarConfig withoutImage = new SidecarConfig();
+        withoutImage.setName("ignored");
+        appConfig.getSpec().setSidecars(List.of(named, unnamed, withoutImage));
+
+        SidecarInjectionPlan plan = SidecarInjectionPlan.compile(appConfig);
+
+        // Without an image the sidecarInjection container is left out in favour of the legacy sidecars
+        assertEquals(List.of("log-shipper", "test-app-sidecar-2"), plan.getSidecarNames());
+        List<Map<String, Object>> operations = parse(plan.patchFor(createPod(List.of())));
+        assertEquals(2, operations.size());
+        assertTrue(operations.get(0).toString().contains("OUTPUT"));
+        assertNull(plan.patchFor(createPod(List.of(), "log-shipper", "test-app-sidecar-2")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> parse(byte[] patch) {
+        return Serialization.unmarshal(new String(patch, StandardCharsets.UTF_8), List.class);
+    }
+
+    private static AppConfig createAppConfig(List<String> volumes) {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName("test-app");
+        metadata.setNamespace("test-namespace");
+        metadata.setGeneration(1L);
+        appConfig.setMetadata(metadata);
+
+        SidecarInjectionConfig sidecarInjection = new SidecarInjectionConfig();
+        sidecarInjection.setEnabled(true);
+        sidecarInjection.setImage("nginx:latest");
+        sidecarInjection.setSelectorLabels(new HashMap<>(Map.of("app", "test-app")));
+        sidecarInjection.setVolumes(volumes);
+
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName("test-app");
+        spec.setSidecarInjection(sidecarInjection);
+        appConfig.setSpec(spec);
+        return appConfig;
+    }
+
+    private static Pod createPod(List<String> volumes, String... extraContainers) {
+        PodBuilder builder = new PodBuilder()
+                .withNewMetadata()
+                    .withName("test-pod")
+                    .withNamespace("test-namespace")
+                    .withLabels(Map.of("app", "test-app"))
+                .endMetadata()
+                .withNewSpec()
+                    .addNewContainer().withName("app").withImage("app:latest").endContainer()
+                .endSpec();
+        if (volumes != null) {
+            volumes.forEach(volume -> builder.editSpec().addNewVolume().withName(volume).withNewEmptyDir().endEmptyDir().endVolume().endSpec());
+        }
+        for (String container : extraContainers) {
+            builder.editSpec().addNewContainer().withName(container).endContainer().endSpec();
+        }
+        Pod pod = builder.build();
+        if (volumes == null) {
+            pod.getSpec().setVolumes(null);
+        }
+        return pod;
+    }
+}
@@ -1,17 +1,38 @@
 package io.github.k8soperators.microservicebootstrapoperator.service;
 
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
 import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarConfig;
 import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
 import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerBuilder;
+import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.api.model.LabelSelectorRequirement;
+import io.fabric8.kubernetes.api.model.ListMetaBuilder;
+import io.fabric8.kubernetes.api.model.ListOptions;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.apps.DeploymentList;
+import io.fabric8.kubernetes.api.model.apps.DeploymentListBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetList;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.AppsAPIGroupDSL;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.ReducedStateItemStore;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,10 +40,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +58,7 @@ import static org.mockito.Mockito.*;
  * Updated for Java 22 compatibility
  */
 @ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
 public class SidecarInjectionServiceTest {
 
     @Mock
@@ -50,6 +75,12 @@ public class SidecarInjectionServiceTest {
     
     @Mock
     private PodResource podResource;
+
+    @Mock
+    private ManagedResourceCache resourceCache;
+
+    @Mock
+    private WorkloadRolloutService workloadRolloutService;
     
     private SidecarInjectionService sidecarInjectionService;
     
@@ -69,7 +100,7 @@ public class SidecarInjectionServiceTest {
         lenient().when(podResource.get()).thenReturn(null);
         lenient().when(podResource.serverSideApply()).thenReturn(null);
         
-        sidecarInjectionService = new SidecarInjectionService(kubernetesClient);
+        sidecarInjectionService = new SidecarInjectionService(kubernetesClient, informerModeProperties(), new SimpleMeterRegistry(), resourceCache, workloadRolloutService);
     }
     
     @Test
@@ -91,7 +122,7 @@ public class SidecarInjectionServiceTest {
         sidecarInjectionService.handlePodCreation(pod);
         
         // Verify expected interactions occurred
-        verify(podResource).serverSideApply();
+        verify(podResource).patch(any(PatchContext.class), anyString());
         
         // Unregister AppConfig
         sidecarInjectionService.unregisterAppConfig(appConfig);
@@ -144,21 +175,27 @@ public class SidecarInjectionServiceTest {
         // Create test pod
         Pod pod = createTestPod("test-pod", "test-namespace", Map.of("app", "test-app"));
         
-        // Capture the pod that is passed to resource() method
-        ArgumentCaptor<Pod> podCaptor = ArgumentCaptor.forClass(Pod.class);
-        when(nonNamespaceOperation.resource(podCaptor.capture())).thenReturn(podResource);
+        // Capture the patch sent for the pod
+        ArgumentCaptor<PatchContext> contextCaptor = ArgumentCaptor.forClass(PatchContext.class);
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        when(podResource.patch(contextCaptor.capture(), patchCaptor.capture())).thenReturn(pod);
         
         // Inject sidecar
         sidecarInjectionService.injectSidecar(pod, appConfig);
         
-        // Verify serverSideApply was called
-        verify(podResource).serverSideApply();
+        // Verify a JSON patch was sent for the pod instead of the whole object
+        verify(nonNamespaceOperation).withName("test-pod");
+        verify(podResource, never()).serverSideApply();
+        assertEquals(PatchType.JSON, contextCaptor.getValue().getPatchType());
         
-        // Verify the pod has the sidecar container
-        Pod updatedPod = podCaptor.getValue();
-        List<Container> containers = updatedPod.getSpec().getContainers();
+        // Verify the patch only appends the sidecar container
+        List<Map<String, Object>> operations = Serialization.unmarshal(patchCaptor.getValue(), List.class);
+        assertEquals(1, operations.size(), "Patch should only add the sidecar");
+        assertEquals("add", operations.get(0).get("op"));
+        assertEquals("/spec/containers/-", operations.get(0).get("path"));
+        Container sidecar = Serialization.jsonMapper().convertValue(operations.get(0).get("value"), Container.class);
+        List<Container> containers = List.of(pod.getSpec().getContainers().get(0), sidecar);
         
-        assertEquals(2, containers.size(), "Pod should have 2 containers after injection");
         assertEquals("test-app-sidecar", containers.get(1).getName(), "Second container should be the sidecar");
         assertEquals("nginx:latest", containers.get(1).getImage(), "Sidecar should have the correct image");
         
@@ -174,7 +211,491 @@ public class SidecarInjectionServiceTest {
         assertEquals("config-volume", containers.get(1).getVolumeMounts().get(0).getName(), "Volume mount should have correct name");
         assertEquals("/etc/config", containers.get(1).getVolumeMounts().get(0).getMountPath(), "Volume mount should have correct path");
     }
-    
+
+    @Test
+    public void testPodInformersFollowRegisteredNamespaces() {
+        when(nonNamespaceOperation.runnableInformer(0)).thenReturn(podInformer);
+        sidecarInjectionService.init();
+        assertTrue(sidecarInjectionService.getWatchedNamespaces().isEmpty(), "No pods should be watched without AppConfigs");
+
+        AppConfig first = createTestAppConfig("first", "test-namespace");
+        AppConfig second = createTestAppConfig("second", "test-namespace");
+        sidecarInjectionService.registerAppConfig(first);
+        sidecarInjectionService.registerAppConfig(second);
+
+        assertEquals(Set.of("test-namespace"), sidecarInjectionService.getWatchedNamespaces());
+        verify(podOperation, never()).inAnyNamespace();
+        verify(podOperation, times(1)).inNamespace("test-namespace");
+        verify(podInformer).itemStore(any(ReducedStateItemStore.class));
+        verify(podInformer).start();
+
+        sidecarInjectionService.unregisterAppConfig(first);
+        verify(podInformer, never()).stop();
+        sidecarInjectionService.unregisterAppConfig(second);
+        verify(podInformer).stop();
+        assertTrue(sidecarInjectionService.getWatchedNamespaces().isEmpty());
+    }
+
+    @Test
+    public void testPodInformerAppliesLabelPreFilter() {
+        OperatorProperties properties = informerModeProperties();
+        properties.getSidecar().setPodLabelSelector("sidecar.microservice.example.com/inject=enabled");
+        NonNamespaceOperation<Pod, io.fabric8.kubernetes.api.model.PodList, PodResource> filtered = mock(NonNamespaceOperation.class);
+        when(nonNamespaceOperation.withLabelSelector("sidecar.microservice.example.com/inject=enabled")).thenReturn(filtered);
+        when(filtered.runnableInformer(0)).thenReturn(podInformer);
+
+        SidecarInjectionService service = new SidecarInjectionService(kubernetesClient, properties, new SimpleMeterRegistry(), resourceCache, workloadRolloutService);
+        service.init();
+        service.registerAppConfig(createTestAppConfig("test-app", "test-namespace"));
+
+        verify(filtered).runnableInformer(0);
+        verify(podInformer).start();
+    }
+
+    @Test
+    public void testWebhookModeDoesNotWatchPods() {
+        OperatorProperties properties = new OperatorProperties();
+        assertEquals(OperatorProperties.InjectionMode.WEBHOOK, properties.getSidecar().getInjectionMode());
+        SidecarInjectionService service = new SidecarInjectionService(kubernetesClient, properties, new SimpleMeterRegistry(), resourceCache, workloadRolloutService);
+
+        service.init();
+        service.registerAppConfig(createTestAppConfig("test-app", "test-namespace"));
+
+        assertTrue(service.getWatchedNamespaces().isEmpty());
+        verify(kubernetesClient, never()).pods();
+    }
+
+    @Test
+    public void testPodCacheKeepsOnlyMatcherFields() {
+        ArgumentCaptor<ReducedStateItemStore<Pod>> storeCaptor = ArgumentCaptor.forClass(ReducedStateItemStore.class);
+        when(nonNamespaceOperation.runnableInformer(0)).thenReturn(podInformer);
+        when(podInformer.itemStore(storeCaptor.capture())).thenReturn(podInformer);
+        sidecarInjectionService.init();
+        sidecarInjectionService.registerAppConfig(createTestAppConfig("test-app", "test-namespace"));
+
+        Pod pod = createTestPod("test-pod", "test-namespace", Map.of("app", "test-app"));
+        pod.getMetadata().setUid("uid-1");
+        pod.getMetadata().setResourceVersion("42");
+        pod.getMetadata().setManagedFields(List.of(new io.fabric8.kubernetes.api.model.ManagedFieldsEntry()));
+        pod.getMetadata().setAnnotations(Map.of("kubectl.kubernetes.io/last-applied-configuration", "{}"));
+        pod.setStatus(new io.fabric8.kubernetes.api.model.PodStatusBuilder().withPhase("Running").build());
+
+        ReducedStateItemStore<Pod> store = storeCaptor.getValue();
+        String key = store.getKey(pod);
+        store.put(key, pod);
+        Pod cached = store.get(key);
+
+        assertEquals("test-pod", cached.getMetadata().getName());
+        assertEquals("test-namespace", cached.getMetadata().getNamespace());
+        assertEquals("uid-1", cached.getMetadata().getUid());
+        assertEquals(Map.of("app", "test-app"), cached.getMetadata().getLabels());
+        assertTrue(cached.getMetadata().getManagedFields() == null || cached.getMetadata().getManagedFields().isEmpty());
+        assertTrue(cached.getMetadata().getAnnotations() == null || cached.getMetadata().getAnnotations().isEmpty());
+        assertNull(cached.getStatus());
+        assertNull(cached.getSpec());
+    }
+
+    @Test
+    public void testPodEventsAreInjectedAsynchronouslyByWorkers() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SidecarInjectionService service = new SidecarInjectionService(kubernetesClient, informerModeProperties(), meterRegistry, resourceCache, workloadRolloutService);
+        when(nonNamespaceOperation.runnableInformer(0)).thenReturn(podInformer);
+        ArgumentCaptor<ResourceEventHandler<Pod>> handlerCaptor = ArgumentCaptor.forClass(ResourceEventHandler.class);
+        when(podInformer.addEventHandler(handlerCaptor.capture())).thenReturn(podInformer);
+        service.init();
+        try {
+            service.registerAppConfig(createTestAppConfig("test-app", "test-namespace"));
+
+            Pod pod = createTestPod("test-pod", "test-namespace", Map.of("app", "test-app"));
+            pod.getMetadata().setUid("uid-1");
+            handlerCaptor.getValue().onAdd(pod);
+
+            verify(podResource, timeout(5000)).patch(any(PatchContext.class), anyString());
+            assertEquals(1, meterRegistry.get("operator.sidecar.queue.latency").timer().count());
+            assertEquals(0.0, meterRegistry.get("operator.sidecar.queue.depth").gauge().value());
+        } finally {
+            service.cleanup();
+        }
+    }
+
+    @Test
+    public void testPatchPayloadIsAFractionOfTheFullPod() throws Exception {
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace");
+        appConfig.getSpec().getSidecarInjection().setVolumes(List.of("config-volume"));
+        sidecarInjectionService.registerAppConfig(appConfig);
+        Pod pod;
+        try (InputStream stream = getClass().getResourceAsStream("/pods/running-pod.json")) {
+            pod = Serialization.unmarshal(stream, Pod.class);
+        }
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        when(podResource.patch(any(PatchContext.class), patchCaptor.capture())).thenReturn(pod);
+
+        sidecarInjectionService.handlePodCreation(pod);
+
+        int patchBytes = patchCaptor.getValue().getBytes(StandardCharsets.UTF_8).length;
+        // What a full-object apply would have sent: the whole pod with the sidecar added
+        List<Map<String, Object>> operations = Serialization.unmarshal(patchCaptor.getValue(), List.class);
+        Pod fullPod = Serialization.clone(pod);
+        fullPod.getSpec().getContainers().add(Serialization.jsonMapper().convertValue(operations.get(0).get("value"), Container.class));
+        int fullPodBytes = Serialization.asJson(fullPod).getBytes(StandardCharsets.UTF_8).length;
+
+        assertTrue(patchBytes < 512, "Patch should stay small, was " + patchBytes + " bytes");
+        assertTrue(patchBytes * 10 < fullPodBytes,
+                "Patch should be an order of magnitude smaller than the pod, was " + patchBytes + " of " + fullPodBytes + " bytes");
+    }
+
+    @Test
+    public void testSidecarIsCompiledOncePerGeneration() {
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace");
+        appConfig.getMetadata().setGeneration(1L);
+        sidecarInjectionService.registerAppConfig(appConfig);
+
+        // A reconcile of the same generation reuses the compiled sidecar
+        appConfig.getSpec().getSidecarInjection().setImage("nginx:ignored");
+        sidecarInjectionService.registerAppConfig(appConfig);
+        Pod pod = createTestPod("test-pod", "test-namespace", Map.of("app", "test-app"));
+        assertTrue(new String(sidecarInjectionService.createInjectionPatch(pod), StandardCharsets.UTF_8).contains("nginx:latest"));
+
+        appConfig.getMetadata().setGeneration(2L);
+        sidecarInjectionService.registerAppConfig(appConfig);
+        assertTrue(new String(sidecarInjectionService.createInjectionPatch(pod), StandardCharsets.UTF_8).contains("nginx:ignored"));
+    }
+
+    @Test
+    public void testMostSpecificAppConfigTakesPrecedence() {
+        AppConfig generic = createTestAppConfig("generic", "test-namespace");
+        generic.getSpec().getSidecarInjection().setSelectorLabels(Map.of("app", "web"));
+        AppConfig canary = createTestAppConfig("canary", "test-namespace");
+        canary.getSpec().getSidecarInjection().setSelectorLabels(Map.of("app", "web", "track", "canary"));
+        sidecarInjectionService.registerAppConfig(generic);
+        sidecarInjectionService.registerAppConfig(canary);
+
+        String canaryPatch = new String(sidecarInjectionService.createInjectionPatch(
+                createTestPod("canary-pod", "test-namespace", Map.of("app", "web", "track", "canary"))), StandardCharsets.UTF_8);
+        String stablePatch = new String(sidecarInjectionService.createInjectionPatch(
+                createTestPod("stable-pod", "test-namespace", Map.of("app", "web", "track", "stable"))), StandardCharsets.UTF_8);
+
+        assertTrue(canaryPatch.indexOf("canary-sidecar") < canaryPatch.indexOf("generic-sidecar"),
+                "The selector with more labels should come first");
+        assertTrue(stablePatch.contains("generic-sidecar"));
+        assertFalse(stablePatch.contains("canary-sidecar"));
+
+        // Disabling injection on a registered AppConfig removes it from matching
+        canary.getSpec().getSidecarInjection().setEnabled(false);
+        sidecarInjectionService.registerAppConfig(canary);
+        assertTrue(new String(sidecarInjectionService.createInjectionPatch(
+                createTestPod("canary-pod-2", "test-namespace", Map.of("app", "web", "track", "canary"))), StandardCharsets.UTF_8)
+                .contains("generic-sidecar"));
+    }
+
+    @Test
+    public void testSidecarsOfAllMatchingAppConfigsAreMergedIntoOnePatch() {
+        AppConfig logging = createTestAppConfig("logging", "test-namespace");
+        logging.getSpec().getSidecarInjection().setSelectorLabels(Map.of("app", "web"));
+        logging.getSpec().setSidecars(List.of(createSidecarConfig("metrics", "exporter:1.0")));
+        AppConfig proxy = createTestAppConfig("proxy", "test-namespace");
+        proxy.getSpec().getSidecarInjection().setSelectorLabels(Map.of("tier", "frontend"));
+        proxy.getSpec().getSidecarInjection().setVolumes(List.of("config-volume"));
+        // Same name as a legacy sidecar of the other AppConfig, only the first one is injected
+        proxy.getSpec().setSidecars(List.of(createSidecarConfig("metrics", "other-exporter:1.0")));
+        sidecarInjectionService.registerAppConfig(logging);
+        sidecarInjectionService.registerAppConfig(proxy);
+
+        Pod pod = createTestPod("web-pod", "test-namespace", Map.of("app", "web", "tier", "frontend"));
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        when(podResource.patch(any(PatchContext.class), patchCaptor.capture())).thenReturn(pod);
+        sidecarInjectionService.handlePodCreation(pod);
+
+        // One write for the pod, carrying the sidecars of both AppConfigs
+        verify(podResource, times(1)).patch(any(PatchContext.class), anyString());
+        List<Map<String, Object>> operations = Serialization.unmarshal(patchCaptor.getValue(), List.class);
+        List<Object> added = new ArrayList<>();
+        operations.forEach(operation -> added.add(((Map<String, Object>) operation.get("value")).get("name")));
+        assertEquals(List.of("logging-sidecar", "metrics", "proxy-sidecar", "config-volume"), added);
+        assertFalse(patchCaptor.getValue().contains("other-exporter"));
+
+        // A pod that already has some of the sidecars only gets the missing ones
+        Container metrics = new Container();
+        metrics.setName("metrics");
+        pod.getSpec().getContainers().add(metrics);
+        String partialPatch = new String(sidecarInjectionService.createInjectionPatch(pod), StandardCharsets.UTF_8);
+        assertTrue(partialPatch.contains("logging-sidecar") && partialPatch.contains("proxy-sidecar"));
+        assertFalse(partialPatch.contains("exporter:1.0"));
+    }
+
+    @Test
+    public void testMatchExpressionsSelectPods() {
+        AppConfig appConfig = createTestAppConfig("shared", "test-namespace");
+        appConfig.getSpec().getSidecarInjection().setSelectorLabels(null);
+        appConfig.getSpec().getSidecarInjection().setMatchExpressions(List.of(
+                new LabelSelectorRequirement("app", "In", List.of("orders", "payments")),
+                new LabelSelectorRequirement("sidecar.injection/disabled", "DoesNotExist", List.of())));
+        sidecarInjectionService.registerAppConfig(appConfig);
+
+        assertNotNull(sidecarInjectionService.createInjectionPatch(
+                createTestPod("orders", "test-namespace", Map.of("app", "orders"))));
+        assertNotNull(sidecarInjectionService.createInjectionPatch(
+                createTestPod("payments", "test-namespace", Map.of("app", "payments"))));
+        assertNull(sidecarInjectionService.createInjectionPatch(
+                createTestPod("web", "test-namespace", Map.of("app", "web"))));
+        assertNull(sidecarInjectionService.createInjectionPatch(
+                createTestPod("opted-out", "test-namespace", Map.of("app", "orders", "sidecar.injection/disabled", "true"))));
+
+        // An invalid expression is reported and stops injection for the AppConfig
+        appConfig.getMetadata().setGeneration(2L);
+        appConfig.getSpec().getSidecarInjection().setMatchExpressions(List.of(
+                new LabelSelectorRequirement("app", "In", List.of())));
+        assertThrows(IllegalArgumentException.class, () -> sidecarInjectionService.registerAppConfig(appConfig));
+        assertNull(sidecarInjectionService.createInjectionPatch(
+                createTestPod("orders-2", "test-namespace", Map.of("app", "orders"))));
+    }
+
+    @Test
+    public void testRegistrationBackfillsMatchingWorkloads() {
+        AppsAPIGroupDSL apps = mock(AppsAPIGroupDSL.class);
+        MixedOperation<Deployment, DeploymentList, RollableScalableResource<Deployment>> deployments = mock(MixedOperation.class);
+        RollableScalableResource<Deployment> deploymentResource = mock(RollableScalableResource.class);
+        MixedOperation<StatefulSet, StatefulSetList, RollableScalableResource<StatefulSet>> statefulSets = mock(MixedOperation.class);
+        when(kubernetesClient.apps()).thenReturn(apps);
+        when(apps.deployments()).thenReturn(deployments);
+        when(apps.statefulSets()).thenReturn(statefulSets);
+        when(deployments.inNamespace("test-namespace")).thenReturn(deployments);
+        when(statefulSets.inNamespace("test-namespace")).thenReturn(statefulSets);
+        when(deployments.withName(anyString())).thenReturn(deploymentResource);
+
+        // Two pages: a workload to backfill, one that already has the sidecar and one whose pods do not match.
+        // None of the workloads carries the pod labels itself, the selector applies to the pod template.
+        DeploymentList firstPage = new DeploymentListBuilder()
+                .withMetadata(new ListMetaBuilder().withContinue("next").build())
+                .addToItems(deployment("api", Map.of("app", "test-app"), "app"))
+                .addToItems(withSidecarsOf(deployment("patched", Map.of("app", "test-app"), "app"),
+                        createTestAppConfig("test-app", "test-namespace")))
+                .build();
+        DeploymentList secondPage = new DeploymentListBuilder()
+                .addToItems(deployment("other", Map.of("app", "other"), "app"))
+                .build();
+        // The workload informers are not running, workloads are listed from the API server
+        when(workloadRolloutService.cachedDeployments("test-namespace")).thenReturn(null);
+        when(workloadRolloutService.cachedStatefulSets("test-namespace")).thenReturn(null);
+        when(deployments.list(any(ListOptions.class))).thenAnswer(invocation ->
+                invocation.<ListOptions>getArgument(0).getContinue() == null ? firstPage : secondPage);
+        when(statefulSets.list(any(ListOptions.class))).thenReturn(new StatefulSetList());
+
+        OperatorProperties properties = new OperatorProperties();
+        properties.getSidecar().setInjectionMode(OperatorProperties.InjectionMode.WEBHOOK);
+        SidecarInjectionService service = new SidecarInjectionService(kubernetesClient, properties, new SimpleMeterRegistry(), resourceCache, workloadRolloutService);
+        service.init();
+        try {
+            service.registerAppConfig(createTestAppConfig("test-app", "test-namespace"));
+
+            ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+            verify(statefulSets, timeout(5000)).list(any(ListOptions.class));
+            verify(deployments, never()).withLabelSelector(any(LabelSelector.class));
+            verify(deployments).withName("api");
+            verify(deploymentResource).patch(any(PatchContext.class), patchCaptor.capture());
+            verify(deployments, times(2)).list(any(ListOptions.class));
+
+            List<Map<String, Object>> operations = Serialization.unmarshal(patchCaptor.getValue(), List.class);
+            assertEquals("/spec/template/spec/containers/-", operations.get(0).get("path"));
+        } finally {
+            service.cleanup();
+        }
+    }
+
+    @Test
+    public void testBackfillReadsWorkloadInformersAndReplacesChangedSidecars() {
+        MixedOperation<Deployment, DeploymentList, RollableScalableResource<Deployment>> deployments = mockDeployments();
+        RollableScalableResource<Deployment> deploymentResource = mock(RollableScalableResource.class);
+        when(deployments.withName("api")).thenReturn(deploymentResource);
+
+        // The sidecar of an older generation ran another image
+        AppConfig previous = createTestAppConfig("test-app", "test-namespace");
+        previous.getSpec().getSidecarInjection().setImage("nginx:1.0");
+        Deployment stale = withSidecarsOf(deployment("api", Map.of("app", "test-app"), "app"), previous);
+        when(workloadRolloutService.cachedDeployments("test-namespace")).thenReturn(List.of(stale));
+        when(workloadRolloutService.cachedStatefulSets("test-namespace")).thenReturn(List.of());
+
+        SidecarInjectionService service = webhookModeService();
+        try {
+            service.registerAppConfig(createTestAppConfig("test-app", "test-namespace"));
+
+            ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+            verify(deploymentResource, timeout(5000)).patch(any(PatchContext.class), patchCaptor.capture());
+            verify(deployments, never()).list(any(ListOptions.class));
+
+            List<Map<String, Object>> operations = Serialization.unmarshal(patchCaptor.getValue(), List.class);
+            assertEquals(2, operations.size());
+            assertEquals(Map.of("op", "test", "path", "/spec/template/spec/containers/1/name", "value", "test-app-sidecar"),
+                    operations.get(0));
+            assertEquals("replace", operations.get(1).get("op"));
+            assertEquals("/spec/template/spec/containers/1", operations.get(1).get("path"));
+            assertEquals("nginx:latest", ((Map<String, Object>) operations.get(1).get("value")).get("image"));
+        } finally {
+            service.cleanup();
+        }
+    }
+
+    @Test
+    public void testUnregisterRemovesSidecarsFromWorkloads() {
+        MixedOperation<Deployment, DeploymentList, RollableScalableResource<Deployment>> deployments = mockDeployments();
+        RollableScalableResource<Deployment> deploymentResource = mock(RollableScalableResource.class);
+        when(deployments.withName("api")).thenReturn(deploymentResource);
+
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace");
+        Deployment injected = withSidecarsOf(deployment("api", Map.of("app", "test-app"), "app"), appConfig);
+        // A container of the same name created after the registration is not the operator's and is left alone
+        Deployment own = deployment("own", Map.of("app", "test-app"), "app", "test-app-sidecar");
+        when(workloadRolloutService.cachedDeployments("test-namespace"))
+                .thenReturn(List.of(injected))
+                .thenReturn(List.of(injected, own));
+        when(workloadRolloutService.cachedStatefulSets("test-namespace")).thenReturn(List.of());
+
+        SidecarInjectionService service = webhookModeService();
+        try {
+            service.registerAppConfig(appConfig);
+            verify(workloadRolloutService, timeout(5000)).cachedStatefulSets("test-namespace");
+            verify(deploymentResource, never()).patch(any(PatchContext.class), anyString());
+
+            service.unregisterAppConfig(appConfig);
+
+            ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+            verify(deploymentResource, timeout(5000)).patch(any(PatchContext.class), patchCaptor.capture());
+            verify(deployments, never()).withName("own");
+            List<Map<String, Object>> operations = Serialization.unmarshal(patchCaptor.getValue(), List.class);
+            assertEquals(List.of(
+                    Map.of("op", "test", "path", "/spec/template/spec/containers/1/name", "value", "test-app-sidecar"),
+                    Map.of("op", "remove", "path", "/spec/template/spec/containers/1")), operations);
+        } finally {
+            service.cleanup();
+        }
+    }
+
+    @Test
+    public void testDisablingSidecarInjectionRemovesSidecarsFromWorkloads() {
+        MixedOperation<Deployment, DeploymentList, RollableScalableResource<Deployment>> deployments = mockDeployments();
+        RollableScalableResource<Deployment> deploymentResource = mock(RollableScalableResource.class);
+        when(deployments.withName("api")).thenReturn(deploymentResource);
+
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace");
+        when(workloadRolloutService.cachedDeployments("test-namespace")).thenReturn(
+                List.of(withSidecarsOf(deployment("api", Map.of("app", "test-app"), "app"), appConfig)));
+        when(workloadRolloutService.cachedStatefulSets("test-namespace")).thenReturn(List.of());
+
+        SidecarInjectionService service = webhookModeService();
+        try {
+            service.registerAppConfig(appConfig);
+            AppConfig disabled = createTestAppConfig("test-app", "test-namespace");
+            disabled.getSpec().getSidecarInjection().setEnabled(false);
+            service.registerAppConfig(disabled);
+
+            ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+            verify(deploymentResource, timeout(5000)).patch(any(PatchContext.class), patchCaptor.capture());
+            assertTrue(patchCaptor.getValue().contains("\"op\":\"remove\""));
+        } finally {
+            service.cleanup();
+        }
+    }
+
+    private MixedOperation<Deployment, DeploymentList, RollableScalableResource<Deployment>> mockDeployments() {
+        AppsAPIGroupDSL apps = mock(AppsAPIGroupDSL.class);
+        MixedOperation<Deployment, DeploymentList, RollableScalableResource<Deployment>> deployments = mock(MixedOperation.class);
+        lenient().when(kubernetesClient.apps()).thenReturn(apps);
+        lenient().when(apps.deployments()).thenReturn(deployments);
+        lenient().when(deployments.inNamespace("test-namespace")).thenReturn(deployments);
+        return deployments;
+    }
+
+    private SidecarInjectionService webhookModeService() {
+        OperatorProperties properties = new OperatorProperties();
+        properties.getSidecar().setInjectionMode(OperatorProperties.InjectionMode.WEBHOOK);
+        SidecarInjectionService service = new SidecarInjectionService(kubernetesClient, properties, new SimpleMeterRegistry(),
+                resourceCache, workloadRolloutService);
+        service.init();
+        return service;
+    }
+
+    @Test
+    public void testRegistryIsBuiltFromAppConfigInformer() {
+        SharedIndexInformer<AppConfig> appConfigInformer = mock(SharedIndexInformer.class);
+        when(resourceCache.informer(AppConfig.class)).thenReturn(appConfigInformer);
+        when(appConfigInformer.hasSynced()).thenReturn(true);
+
+        OperatorProperties properties = new OperatorProperties();
+        properties.getSidecar().setInjectionMode(OperatorProperties.InjectionMode.WEBHOOK);
+        properties.getSidecar().setBackfill(false);
+        SidecarInjectionService service = new SidecarInjectionService(kubernetesClient, properties, new SimpleMeterRegistry(), resourceCache, workloadRolloutService);
+        service.init();
+        ArgumentCaptor<ResourceEventHandler<AppConfig>> handlerCaptor = ArgumentCaptor.forClass(ResourceEventHandler.class);
+        verify(appConfigInformer).addEventHandler(handlerCaptor.capture());
+        ResourceEventHandler<AppConfig> handler = handlerCaptor.getValue();
+        assertTrue(service.isRegistrySynced());
+        verify(appConfigInformer).addIndexers(anyMap());
+        verify(kubernetesClient, never()).resources(AppConfig.class);
+
+        // AppConfigs listed at startup are injectable before the reconciler gets to them
+        AppConfig appConfig = createTestAppConfig("test-app", "test-namespace");
+        Pod pod = createTestPod("test-pod", "test-namespace", Map.of("app", "test-app"));
+        handler.onAdd(createTestAppConfig("no-sidecar", "test-namespace"));
+        handler.onAdd(appConfig);
+        assertNotNull(service.createInjectionPatch(pod));
+
+        AppConfig disabled = createTestAppConfig("test-app", "test-namespace");
+        disabled.getSpec().getSidecarInjection().setEnabled(false);
+        handler.onUpdate(appConfig, disabled);
+        assertNull(service.createInjectionPatch(pod));
+
+        handler.onUpdate(disabled, appConfig);
+        handler.onDelete(appConfig, false);
+        assertNull(service.createInjectionPatch(pod));
+
+        // Invalid selectors are left to the reconciler to report
+        AppConfig invalid = createTestAppConfig("invalid", "test-namespace");
+        invalid.getSpec().getSidecarInjection().setMatchExpressions(List.of(new LabelSelectorRequirement("app", "Near", List.of())));
+        assertDoesNotThrow(() -> handler.onAdd(invalid));
+        service.cleanup();
+        verify(appConfigInformer, never()).stop();
+    }
+
+    private static OperatorProperties informerModeProperties() {
+        OperatorProperties properties = new OperatorProperties();
+        properties.getSidecar().setInjectionMode(OperatorProperties.InjectionMode.INFORMER);
+        return properties;
+    }
+
+    private static Deployment deployment(String name, Map<String, String> podLabels, String... containers) {
+        DeploymentBuilder builder = new DeploymentBuilder()
+                .withNewMetadata().withName(name).withNamespace("test-namespace").endMetadata()
+                .withNewSpec()
+                    .withNewTemplate()
+                        .withNewMetadata().withLabels(podLabels).endMetadata()
+                        .withNewSpec().endSpec()
+                    .endTemplate()
+                .endSpec();
+        for (String container : containers) {
+            builder.editSpec().editTemplate().editSpec().addNewContainer().withName(container).endContainer()
+                    .endSpec().endTemplate().endSpec();
+        }
+        return builder.build();
+    }
+
+    private static Deployment withSidecarsOf(Deployment deployment, AppConfig appConfig) {
+        for (Container sidecar : SidecarInjectionPlan.compile(appConfig).getSidecars()) {
+            deployment.getSpec().getTemplate().getSpec().getContainers().add(new ContainerBuilder(sidecar).build());
+        }
+        return deployment;
+    }
+
+    /**
+     * Helper method to create a legacy sidecar
+     */
+    private SidecarConfig createSidecarConfig(String name, String image) {
+        SidecarConfig sidecar = new SidecarConfig();
+        sidecar.setName(name);
+        sidecar.setImage(image);
+        sidecar.setConfig(Map.of("PORT", "9100"));
+        return sidecar;
+    }
+
     /**
      * Helper method to create a test AppConfig
      */
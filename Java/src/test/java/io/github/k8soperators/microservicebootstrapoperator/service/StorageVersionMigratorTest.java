@@ -0,0 +1,251 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListMetaBuilder;
+import io.fabric8.kubernetes.api.model.ListOptions;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.AnyNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.ReplaceDeletable;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StorageVersionMigrator
+ */
+@ExtendWith(MockitoExtension.class)
+public class StorageVersionMigratorTest {
+
+    private static final String CHECKPOINT = "microservice-bootstrap-operator-migration";
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    @Mock
+    private MixedOperation<AppConfig, KubernetesResourceList<AppConfig>, Resource<AppConfig>> appConfigs;
+
+    @Mock
+    private AnyNamespaceOperation<AppConfig, KubernetesResourceList<AppConfig>, Resource<AppConfig>> allAppConfigs;
+
+    @Mock
+    private MixedOperation<ConfigMap, ConfigMapList, Resource<ConfigMap>> configMaps;
+
+    @Mock
+    private NonNamespaceOperation<ConfigMap, ConfigMapList, Resource<ConfigMap>> operatorConfigMaps;
+
+    @Mock
+    private Resource<ConfigMap> checkpointResource;
+
+    private final Set<String> rewritten = ConcurrentHashMap.newKeySet();
+    private final Map<String, List<String>> writtenVersions = new ConcurrentHashMap<>();
+    private StorageVersionMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        OperatorProperties properties = new OperatorProperties();
+        properties.getMigration().setPageSize(2);
+        properties.getMigration().setConcurrency(2);
+        properties.getMigration().setWritesPerSecond(1000);
+        properties.getMigration().setCheckpointNamespace("ops");
+        migrator = new StorageVersionMigrator(kubernetesClient, properties);
+
+        lenient().when(kubernetesClient.resources(AppConfig.class)).thenReturn(appConfigs);
+        lenient().when(appConfigs.inAnyNamespace()).thenReturn(allAppConfigs);
+        lenient().when(kubernetesClient.configMaps()).thenReturn(configMaps);
+        lenient().when(configMaps.inNamespace("ops")).thenReturn(operatorConfigMaps);
+        lenient().when(operatorConfigMaps.withName(CHECKPOINT)).thenReturn(checkpointResource);
+    }
+
+    @Test
+    void testPagesAreRewrittenAndCheckpointed() throws InterruptedException {
+        Resource<ConfigMap> checkpointWrite = mockCheckpointWrite();
+        KubernetesResourceList<AppConfig> first = page("t1", appConfig("a", "orders"), appConfig("a", "payments"));
+        KubernetesResourceList<AppConfig> last = page(null, appConfig("b", "gone"), appConfig("b", "busy"));
+        when(allAppConfigs.list(any(ListOptions.class))).thenReturn(first).thenReturn(last);
+        mockRewrites(Map.of("b/gone", List.of(404), "b/busy", List.of(409)));
+
+        StorageVersionMigrator.MigrationReport report = migrator.migrate();
+
+        assertEquals(3, report.migrated());
+        assertEquals(1, report.skipped());
+        assertEquals(0, report.failed());
+        assertEquals(Set.of("a/orders", "a/payments", "b/gone", "b/busy"), rewritten);
+        assertEquals(List.of("1", "2"), writtenVersions.get("b/busy"), "Conflicts are rewritten from a fresh read");
+        ArgumentCaptor<ListOptions> options = ArgumentCaptor.forClass(ListOptions.class);
+        verify(allAppConfigs, times(2)).list(options.capture());
+        assertEquals(2L, options.getValue().getLimit());
+        assertNull(options.getAllValues().get(0).getContinue());
+        assertEquals("t1", options.getAllValues().get(1).getContinue());
+
+        ArgumentCaptor<ConfigMap> checkpoint = ArgumentCaptor.forClass(ConfigMap.class);
+        verify(operatorConfigMaps).resource(checkpoint.capture());
+        verify(checkpointWrite).createOrReplace();
+        assertEquals(Map.of("continue", "t1", "lastKey", "a/payments", "listed", "false", "migrated", "2",
+                "skipped", "0", "failed", "0", "failedKeys", ""), checkpoint.getValue().getData());
+        verify(checkpointResource).delete();
+    }
+
+    @Test
+    void testFailedKeysAreCheckpointedWhenTheListIsComplete() throws InterruptedException {
+        Resource<ConfigMap> checkpointWrite = mockCheckpointWrite();
+        KubernetesResourceList<AppConfig> only =
+                page(null, appConfig("a", "orders"), appConfig("b", "busy"), appConfig("b", "broken"));
+        when(allAppConfigs.list(any(ListOptions.class))).thenReturn(only);
+        mockRewrites(Map.of("b/busy", List.of(409, 409, 409, 409), "b/broken", List.of(500)));
+
+        StorageVersionMigrator.MigrationReport report = migrator.migrate();
+
+        assertEquals(1, report.migrated());
+        assertEquals(2, report.failed());
+        assertEquals(StorageVersionMigrator.MAX_CONFLICT_RETRIES + 1, writtenVersions.get("b/busy").size());
+        ArgumentCaptor<ConfigMap> checkpoint = ArgumentCaptor.forClass(ConfigMap.class);
+        verify(operatorConfigMaps).resource(checkpoint.capture());
+        verify(checkpointWrite).createOrReplace();
+        assertEquals(Map.of("continue", "", "lastKey", "b/broken", "listed", "true", "migrated", "1",
+                "skipped", "0", "failed", "2", "failedKeys", "b/broken\nb/busy"), checkpoint.getValue().getData());
+        verify(checkpointResource, never()).delete();
+    }
+
+    @Test
+    void testFailedKeysAreRetriedOnResume() throws InterruptedException {
+        Resource<ConfigMap> checkpointWrite = mockCheckpointWrite();
+        when(checkpointResource.get()).thenReturn(checkpoint(Map.of("continue", "", "lastKey", "b/broken",
+                "listed", "true", "migrated", "1", "skipped", "0", "failed", "2", "failedKeys", "b/broken\nb/busy")));
+        mockRewrites(Map.of("b/broken", List.of(500)));
+
+        StorageVersionMigrator.MigrationReport report = migrator.migrate();
+
+        assertEquals(Set.of("b/broken", "b/busy"), rewritten);
+        assertEquals(2, report.migrated());
+        assertEquals(1, report.failed());
+        verify(allAppConfigs, never()).list(any(ListOptions.class));
+        ArgumentCaptor<ConfigMap> checkpoint = ArgumentCaptor.forClass(ConfigMap.class);
+        verify(operatorConfigMaps).resource(checkpoint.capture());
+        verify(checkpointWrite).createOrReplace();
+        assertEquals("b/broken", checkpoint.getValue().getData().get("failedKeys"));
+        verify(checkpointResource, never()).delete();
+    }
+
+    @Test
+    void testExpiredContinueTokenResumesAfterTheLastMigratedKey() throws InterruptedException {
+        when(checkpointResource.get()).thenReturn(checkpoint(Map.of("continue", "t1", "lastKey", "a/payments",
+                "listed", "false", "migrated", "2", "skipped", "0", "failed", "1", "failedKeys", "a/orders")));
+        KubernetesResourceList<AppConfig> relisted =
+                page(null, appConfig("a", "orders"), appConfig("a", "payments"), appConfig("b", "search"));
+        when(allAppConfigs.list(any(ListOptions.class)))
+                .thenThrow(new KubernetesClientException("Expired", 410, null))
+                .thenReturn(relisted);
+        mockRewrites(Map.of());
+
+        StorageVersionMigrator.MigrationReport report = migrator.migrate();
+
+        assertEquals(Set.of("a/orders", "b/search"), rewritten);
+        assertEquals(4, report.migrated());
+        assertEquals(0, report.failed());
+        verify(checkpointResource).delete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Resource<ConfigMap> mockCheckpointWrite() {
+        Resource<ConfigMap> checkpointWrite = mock(Resource.class);
+        when(operatorConfigMaps.resource(any(ConfigMap.class))).thenReturn(checkpointWrite);
+        return checkpointWrite;
+    }
+
+    /**
+     * Replaces throw the given status codes one after the other, then succeed. Reads return the AppConfig
+     * in resourceVersion 2.
+     */
+    @SuppressWarnings("unchecked")
+    private void mockRewrites(Map<String, List<Integer>> errors) {
+        Map<String, NonNamespaceOperation<AppConfig, KubernetesResourceList<AppConfig>, Resource<AppConfig>>> namespaces =
+                new ConcurrentHashMap<>();
+        when(appConfigs.inNamespace(anyString())).thenAnswer(inNamespace ->
+                namespaces.computeIfAbsent(inNamespace.getArgument(0), namespace -> mockNamespace(namespace, errors)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private NonNamespaceOperation<AppConfig, KubernetesResourceList<AppConfig>, Resource<AppConfig>> mockNamespace(
+            String namespace, Map<String, List<Integer>> errors) {
+        NonNamespaceOperation<AppConfig, KubernetesResourceList<AppConfig>, Resource<AppConfig>> namespaced =
+                mock(NonNamespaceOperation.class);
+        lenient().when(namespaced.withName(anyString())).thenAnswer(withName -> {
+            Resource<AppConfig> read = mock(Resource.class);
+            AppConfig current = appConfig(namespace, withName.getArgument(0));
+            current.getMetadata().setResourceVersion("2");
+            when(read.get()).thenReturn(current);
+            return read;
+        });
+        lenient().when(namespaced.resource(any(AppConfig.class))).thenAnswer(invocation -> {
+            AppConfig appConfig = invocation.getArgument(0);
+            String key = namespace + "/" + appConfig.getMetadata().getName();
+            Resource<AppConfig> resource = mock(Resource.class);
+            ReplaceDeletable<AppConfig> locked = mock(ReplaceDeletable.class);
+            when(resource.lockResourceVersion()).thenReturn(locked);
+            when(locked.replace()).thenAnswer(replace -> {
+                rewritten.add(key);
+                List<String> versions = writtenVersions.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+                versions.add(appConfig.getMetadata().getResourceVersion());
+                List<Integer> codes = errors.getOrDefault(key, List.of());
+                if (versions.size() <= codes.size()) {
+                    throw new KubernetesClientException("Rejected", codes.get(versions.size() - 1), null);
+                }
+                return appConfig;
+            });
+            return resource;
+        });
+        return namespaced;
+    }
+
+    private static ConfigMap checkpoint(Map<String, String> data) {
+        return new ConfigMapBuilder()
+                .withNewMetadata().withName(CHECKPOINT).endMetadata()
+                .withData(data)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KubernetesResourceList<AppConfig> page(String continueToken, AppConfig... items) {
+        KubernetesResourceList<AppConfig> page = mock(KubernetesResourceList.class);
+        when(page.getItems()).thenReturn(List.of(items));
+        when(page.getMetadata()).thenReturn(new ListMetaBuilder().withContinue(continueToken).build());
+        return page;
+    }
+
+    private static AppConfig appConfig(String namespace, String name) {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName(name);
+        metadata.setNamespace(namespace);
+        metadata.setResourceVersion("1");
+        appConfig.setMetadata(metadata);
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName(name);
+        appConfig.setSpec(spec);
+        return appConfig;
+    }
+}
@@ -0,0 +1,272 @@
+package io.github.k8soperators.microservicebootstrapoperator.service;
+
+import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import io.fabric8.kubernetes.api.model.PodTemplateSpecBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.apps.DeploymentList;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.AppsAPIGroupDSL;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Indexer;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WorkloadRolloutService
+ */
+@ExtendWith(MockitoExtension.class)
+public class WorkloadRolloutServiceTest {
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    @Mock
+    private AppsAPIGroupDSL apps;
+
+    @Mock
+    private MixedOperation<Deployment, DeploymentList, RollableScalableResource<Deployment>> deployments;
+
+    @Mock
+    private MixedOperation<StatefulSet, StatefulSetList, RollableScalableResource<StatefulSet>> statefulSets;
+
+    @Mock
+    private RollableScalableResource<Deployment> deploymentResource;
+
+    @Mock
+    private RollableScalableResource<StatefulSet> statefulSetResource;
+
+    @Mock
+    private SharedIndexInformer<Deployment> deploymentInformer;
+
+    @Mock
+    private SharedIndexInformer<StatefulSet> statefulSetInformer;
+
+    @Mock
+    private Indexer<Deployment> deploymentIndexer;
+
+    @Mock
+    private Indexer<StatefulSet> statefulSetIndexer;
+
+    private WorkloadRolloutService workloadRolloutService;
+
+    @BeforeEach
+    void setUp() {
+        workloadRolloutService = new WorkloadRolloutService(kubernetesClient, new OperatorProperties());
+        workloadRolloutService.useInformers(deploymentInformer, statefulSetInformer);
+        lenient().when(kubernetesClient.apps()).thenReturn(apps);
+        lenient().when(apps.deployments()).thenReturn(deployments);
+        lenient().when(apps.statefulSets()).thenReturn(statefulSets);
+        lenient().when(deployments.inNamespace("ns")).thenReturn(deployments);
+        lenient().when(statefulSets.inNamespace("ns")).thenReturn(statefulSets);
+        lenient().when(deployments.withName(anyString())).thenReturn(deploymentResource);
+        lenient().when(statefulSets.withName(anyString())).thenReturn(statefulSetResource);
+        lenient().when(deploymentInformer.getIndexer()).thenReturn(deploymentIndexer);
+        lenient().when(statefulSetInformer.getIndexer()).thenReturn(statefulSetIndexer);
+        lenient().when(deploymentIndexer.byIndex(anyString(), anyString())).thenReturn(List.of());
+        lenient().when(statefulSetIndexer.byIndex(anyString(), anyString())).thenReturn(List.of());
+    }
+
+    @Test
+    void testReferenceKeysCoverEnvEnvFromAndVolumes() {
+        PodTemplateSpec template = new PodTemplateSpecBuilder()
+                .withNewSpec()
+                    .addNewInitContainer()
+                        .addNewEnvFrom().withNewConfigMapRef().withName("init-config").endConfigMapRef().endEnvFrom()
+                    .endInitContainer()
+                    .addNewContainer()
+                        .addNewEnv().withName("PASSWORD").withNewValueFrom()
+                            .withNewSecretKeyRef().withName("app-secrets").withKey("password").endSecretKeyRef()
+                        .endValueFrom().endEnv()
+                        .addNewEnv().withName("PLAIN").withValue("value").endEnv()
+                        .addNewEnvFrom().withNewSecretRef().withName("app-secrets").endSecretRef().endEnvFrom()
+                    .endContainer()
+                    .addNewVolume().withName("config").withNewConfigMap().withName("app-config").endConfigMap().endVolume()
+                    .addNewVolume().withName("projected").withNewProjected()
+                        .addNewSource().withNewSecret().withName("app-tls").endSecret().endSource()
+                    .endProjected().endVolume()
+                .endSpec()
+                .build();
+
+        assertEquals(List.of("ConfigMap/ns/init-config", "Secret/ns/app-secrets", "ConfigMap/ns/app-config", "Secret/ns/app-tls"),
+                WorkloadRolloutService.referenceKeys(template, "ns"));
+        assertEquals(List.of(), WorkloadRolloutService.referenceKeys(new PodTemplateSpec(), "ns"));
+    }
+
+    @Test
+    void testOnlyAffectedWorkloadsArePatched() {
+        String annotation = WorkloadRolloutService.annotationKey("Secret", "app-secrets");
+        Deployment deployment = deployment("api", Map.of(annotation, "old"));
+        StatefulSet statefulSet = new StatefulSetBuilder()
+                .withNewMetadata().withName("db").withNamespace("ns").withAnnotations(Map.of(annotation, "old")).endMetadata()
+                .withNewSpec().withNewTemplate().endTemplate().endSpec()
+                .build();
+        when(deploymentIndexer.byIndex(WorkloadRolloutService.CONFIG_REFERENCE_INDEX, "Secret/ns/app-secrets"))
+                .thenReturn(List.of(deployment));
+        when(statefulSetIndexer.byIndex(WorkloadRolloutService.CONFIG_REFERENCE_INDEX, "Secret/ns/app-secrets"))
+                .thenReturn(List.of(statefulSet));
+
+        assertEquals(2, workloadRolloutService.onContentChange("Secret", "ns", "app-secrets", Map.of("password", "x")));
+        assertTrue(workloadRolloutService.processNext());
+        assertTrue(workloadRolloutService.processNext());
+        assertFalse(workloadRolloutService.processNext());
+
+        String checksum = WorkloadRolloutService.checksum(Map.of("password", "x"));
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(deployments).withName("api");
+        verify(deploymentResource).patch(any(PatchContext.class), patchCaptor.capture());
+        String annotations = "{\"annotations\":{\"" + annotation + "\":\"" + checksum + "\"}}";
+        assertEquals("{\"metadata\":" + annotations + ",\"spec\":{\"template\":{\"metadata\":" + annotations + "}}}",
+                patchCaptor.getValue());
+        verify(statefulSets).withName("db");
+        verify(statefulSetResource).patch(any(PatchContext.class), anyString());
+    }
+
+    @Test
+    void testWorkloadWithCurrentChecksumIsSkipped() {
+        Map<String, String> data = Map.of("password", "x");
+        String annotation = WorkloadRolloutService.annotationKey("Secret", "app-secrets");
+        when(deploymentIndexer.byIndex(anyString(), eq("Secret/ns/app-secrets"))).thenReturn(List.of(
+                deployment("current", Map.of(annotation, WorkloadRolloutService.checksum(data))),
+                deployment("stale", Map.of(annotation, "old"))));
+
+        assertEquals(1, workloadRolloutService.onContentChange("Secret", "ns", "app-secrets", data));
+    }
+
+    @Test
+    void testFirstConfigMapReportRecordsTheChecksumWithoutRollout() {
+        Map<String, String> data = Map.of("key", "x");
+        String annotation = WorkloadRolloutService.annotationKey("ConfigMap", "app-config");
+        when(deploymentIndexer.byIndex(anyString(), eq("ConfigMap/ns/app-config"))).thenReturn(List.of(deployment("api", null)));
+
+        assertEquals(0, workloadRolloutService.onContentChange("ConfigMap", "ns", "app-config", data));
+        assertTrue(workloadRolloutService.processNext());
+
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(deploymentResource).patch(any(PatchContext.class), patchCaptor.capture());
+        assertEquals("{\"metadata\":{\"annotations\":{\"" + annotation + "\":\""
+                + WorkloadRolloutService.checksum(data) + "\"}}}", patchCaptor.getValue());
+
+        // A later change is real, even for a workload whose recorded checksum is not in the cache yet
+        assertEquals(1, workloadRolloutService.onContentChange("ConfigMap", "ns", "app-config", Map.of("key", "y")));
+
+        // Once recorded, the same content is not patched again
+        Deployment seeded = new DeploymentBuilder(deployment("api", null))
+                .editMetadata().withAnnotations(Map.of(annotation, WorkloadRolloutService.checksum(data))).endMetadata()
+                .build();
+        when(deploymentIndexer.byIndex(anyString(), eq("ConfigMap/ns/app-config"))).thenReturn(List.of(seeded));
+        assertEquals(0, workloadRolloutService.onContentChange("ConfigMap", "ns", "app-config", data));
+    }
+
+    @Test
+    void testChangedSecretRollsOutWorkloadsWithoutAChecksum() {
+        when(deploymentIndexer.byIndex(anyString(), eq("Secret/ns/app-secrets"))).thenReturn(List.of(deployment("api", null)));
+
+        assertEquals(1, workloadRolloutService.onContentChange("Secret", "ns", "app-secrets", Map.of("password", "x")));
+        assertTrue(workloadRolloutService.processNext());
+
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(deploymentResource).patch(any(PatchContext.class), patchCaptor.capture());
+        assertTrue(patchCaptor.getValue().contains("\"spec\":{\"template\""));
+    }
+
+    @Test
+    void testRepeatedChangesCollapseIntoOnePatch() {
+        Deployment deployment = deployment("api", null);
+        when(deploymentIndexer.byIndex(anyString(), eq("Secret/ns/app-secrets"))).thenReturn(List.of(deployment));
+        when(deploymentIndexer.byIndex(anyString(), eq("ConfigMap/ns/app-config"))).thenReturn(List.of(deployment));
+
+        workloadRolloutService.onContentChange("Secret", "ns", "app-secrets", Map.of("password", "1"));
+        workloadRolloutService.onContentChange("Secret", "ns", "app-secrets", Map.of("password", "2"));
+        workloadRolloutService.onContentChange("ConfigMap", "ns", "app-config", Map.of("key", "value"));
+        assertEquals(1, workloadRolloutService.getPendingCount());
+
+        assertTrue(workloadRolloutService.processNext());
+        assertFalse(workloadRolloutService.processNext());
+
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(deployments).withName("api");
+        verify(deploymentResource).patch(any(PatchContext.class), patchCaptor.capture());
+        assertTrue(patchCaptor.getValue().contains(WorkloadRolloutService.checksum(Map.of("password", "2"))));
+        assertTrue(patchCaptor.getValue().contains("checksum.microservice.example.com/configmap-app-config"));
+    }
+
+    @Test
+    void testDeletedWorkloadIsIgnored() {
+        when(deploymentIndexer.byIndex(anyString(), anyString())).thenReturn(List.of(deployment("api", null)));
+        when(deploymentResource.patch(any(PatchContext.class), anyString()))
+                .thenThrow(new KubernetesClientException("not found", 404, null));
+
+        workloadRolloutService.onContentChange("Secret", "ns", "app-secrets", Map.of());
+
+        assertDoesNotThrow(() -> workloadRolloutService.processNext());
+    }
+
+    @Test
+    void testFailedPatchIsRequeuedWithNewerChanges() {
+        String secretAnnotation = WorkloadRolloutService.annotationKey("Secret", "app-secrets");
+        String configAnnotation = WorkloadRolloutService.annotationKey("ConfigMap", "app-config");
+        Deployment deployment = deployment("api", Map.of(secretAnnotation, "old", configAnnotation, "old"));
+        when(deploymentIndexer.byIndex(anyString(), anyString())).thenReturn(List.of(deployment));
+        when(deploymentResource.patch(any(PatchContext.class), anyString()))
+                .thenThrow(new KubernetesClientException("unavailable", 503, null))
+                .thenReturn(deployment);
+
+        workloadRolloutService.onContentChange("Secret", "ns", "app-secrets", Map.of("password", "1"));
+        assertThrows(KubernetesClientException.class, () -> workloadRolloutService.processNext());
+        assertEquals(1, workloadRolloutService.getPendingCount(), "The failed patch is put back");
+
+        workloadRolloutService.onContentChange("ConfigMap", "ns", "app-config", Map.of("key", "value"));
+        assertTrue(workloadRolloutService.processNext());
+        assertFalse(workloadRolloutService.processNext());
+
+        ArgumentCaptor<String> patchCaptor = ArgumentCaptor.forClass(String.class);
+        verify(deploymentResource, times(2)).patch(any(PatchContext.class), patchCaptor.capture());
+        String retried = patchCaptor.getAllValues().get(1);
+        assertTrue(retried.contains(WorkloadRolloutService.checksum(Map.of("password", "1"))));
+        assertTrue(retried.contains(WorkloadRolloutService.checksum(Map.of("key", "value"))));
+        assertEquals(0, workloadRolloutService.getPendingCount());
+    }
+
+    @Test
+    void testAnnotationKeyFitsLimitForLongNames() {
+        String key = WorkloadRolloutService.annotationKey("ConfigMap", "x".repeat(200));
+        String name = key.substring(WorkloadRolloutService.CHECKSUM_ANNOTATION_PREFIX.length());
+        assertTrue(name.length() <= 63);
+        assertEquals(key, WorkloadRolloutService.annotationKey("ConfigMap", "x".repeat(200)));
+    }
+
+    @Test
+    void testChecksumIsOrderIndependent() {
+        assertEquals(WorkloadRolloutService.checksum(Map.of("a", "1", "b", "2")),
+                WorkloadRolloutService.checksum(new java.util.LinkedHashMap<>(Map.of("b", "2", "a", "1"))));
+        assertNotEquals(WorkloadRolloutService.checksum(Map.of("a", "1")), WorkloadRolloutService.checksum(Map.of("a", "2")));
+    }
+
+    private static Deployment deployment(String name, Map<String, String> templateAnnotations) {
+        return new DeploymentBuilder()
+                .withNewMetadata().withName(name).withNamespace("ns").endMetadata()
+                .withNewSpec().withNewTemplate().withNewMetadata().withAnnotations(templateAnnotations).endMetadata()
+                .endTemplate().endSpec()
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.SecretRotationConfig;
+import io.fabric8.kubernetes.api.model.StatusCause;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AppConfigValidator
+ */
+public class AppConfigValidatorTest {
+
+    @Test
+    void testSecretNamesAreCollapsedTrimmedAndTruncated() {
+        assertEquals("orders-secrets", SecretRotationConfig.secretName("orders", SecretRotationConfig.DEFAULT_SOURCE));
+        assertEquals("orders-db-primary-secrets", SecretRotationConfig.secretName("orders", "DB__Primary"));
+        assertEquals("orders-db-primary-secrets", SecretRotationConfig.secretName("orders", "-db--primary-"));
+
+        String symbols = SecretRotationConfig.secretName("orders", "***");
+        assertTrue(symbols.matches("orders-[0-9a-f]{10}-secrets"), symbols);
+
+        String longName = SecretRotationConfig.secretName("orders", "x".repeat(300));
+        assertEquals(253, longName.length());
+        assertNotEquals(longName, SecretRotationConfig.secretName("orders", "x".repeat(301)));
+        assertTrue(longName.matches("[a-z0-9-]+[a-z0-9]"), longName);
+    }
+
+    @Test
+    void testSourcesWithoutAValidSecretNameAreRejected() {
+        List<StatusCause> causes = AppConfigValidator.validate(spec("orders", "database", "***", "Data Base", "data-base"));
+
+        assertEquals(List.of("spec.secretRotation.sources[1]", "spec.secretRotation.sources[3]"),
+                causes.stream().map(StatusCause::getField).toList());
+        assertTrue(causes.get(0).getMessage().contains("letter or digit"));
+        assertTrue(causes.get(1).getMessage().contains("share a Secret"));
+    }
+
+    @Test
+    void testValidSourcesAreAccepted() {
+        assertEquals(List.of(), AppConfigValidator.validate(spec("orders", "default", "database", "api_key")));
+    }
+
+    private static AppConfigSpec spec(String appName, String... sources) {
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName(appName);
+        SecretRotationConfig secretRotation = new SecretRotationConfig();
+        secretRotation.setEnabled(true);
+        secretRotation.setSources(List.of(sources));
+        spec.setSecretRotation(secretRotation);
+        return spec;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.fabric8.kubernetes.api.model.LabelSelectorRequirement;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompiledLabelSelector
+ */
+public class CompiledLabelSelectorTest {
+
+    @Test
+    void testOperators() {
+        CompiledLabelSelector selector = CompiledLabelSelector.compile(Map.of("team", "payments"), List.of(
+                requirement("app", "In", "api", "worker"),
+                requirement("track", "NotIn", "canary"),
+                requirement("version", "Exists"),
+                requirement("legacy", "DoesNotExist")));
+
+        assertEquals(5, selector.size());
+        assertTrue(selector.matches(Map.of("team", "payments", "app", "api", "version", "v1")));
+        assertTrue(selector.matches(Map.of("team", "payments", "app", "worker", "version", "v2", "track", "stable")));
+        assertFalse(selector.matches(Map.of("team", "payments", "app", "web", "version", "v1")), "In");
+        assertFalse(selector.matches(Map.of("team", "payments", "app", "api", "version", "v1", "track", "canary")), "NotIn");
+        assertFalse(selector.matches(Map.of("team", "payments", "app", "api")), "Exists");
+        assertFalse(selector.matches(Map.of("team", "payments", "app", "api", "version", "v1", "legacy", "true")), "DoesNotExist");
+        assertFalse(selector.matches(Map.of("team", "billing", "app", "api", "version", "v1")), "matchLabels");
+    }
+
+    @Test
+    void testNegativeRequirementsMatchUnlabelledObjects() {
+        CompiledLabelSelector selector = CompiledLabelSelector.compile(null, List.of(requirement("sidecar", "DoesNotExist")));
+
+        assertTrue(selector.matches(null));
+        assertTrue(selector.matches(Map.of("app", "web")));
+        assertFalse(selector.matches(Map.of("sidecar", "disabled")));
+    }
+
+    @Test
+    void testEmptySelectorMatchesNothing() {
+        CompiledLabelSelector selector = CompiledLabelSelector.compile(Map.of(), List.of());
+
+        assertTrue(selector.isEmpty());
+        assertFalse(selector.matches(Map.of("app", "web")));
+    }
+
+    @Test
+    void testInvalidRequirementsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledLabelSelector.compile(null, List.of(requirement("app", "Equals", "web"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledLabelSelector.compile(null, List.of(requirement("app", "In"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledLabelSelector.compile(null, List.of(requirement("app", "Exists", "web"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledLabelSelector.compile(null, List.of(requirement(null, "Exists"))));
+    }
+
+    private static LabelSelectorRequirement requirement(String key, String operator, String... values) {
+        return new LabelSelectorRequirement(key, operator, List.of(values));
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FairWorkQueue
+ */
+public class FairWorkQueueTest {
+
+    @Test
+    void testDuplicateKeysReplaceQueuedItem() throws InterruptedException {
+        FairWorkQueue<String> queue = new FairWorkQueue<>(10);
+        queue.offer("ns", "uid-1", "v1", 0, TimeUnit.MILLISECONDS);
+        queue.offer("ns", "uid-2", "other", 0, TimeUnit.MILLISECONDS);
+        queue.offer("ns", "uid-1", "v2", 0, TimeUnit.MILLISECONDS);
+
+        assertEquals(2, queue.size());
+        FairWorkQueue.Item<String> first = queue.take();
+        assertEquals("uid-1", first.key());
+        assertEquals("v2", first.value(), "The latest item should be processed");
+        assertEquals("other", queue.take().value());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void testPartitionsAreServedRoundRobin() throws InterruptedException {
+        FairWorkQueue<String> queue = new FairWorkQueue<>(100);
+        for (int i = 0; i < 5; i++) {
+            queue.offer("busy", "busy-" + i, "busy", 0, TimeUnit.MILLISECONDS);
+        }
+        queue.offer("quiet-a", "a", "quiet-a", 0, TimeUnit.MILLISECONDS);
+        queue.offer("quiet-b", "b", "quiet-b", 0, TimeUnit.MILLISECONDS);
+
+        List<String> order = new ArrayList<>();
+        while (queue.size() > 0) {
+            order.add(queue.take().value());
+        }
+        assertEquals(List.of("busy", "quiet-a", "quiet-b", "busy", "busy", "busy", "busy"), order,
+                "A burst in one partition must not delay the others");
+    }
+
+    @Test
+    void testFullQueueAppliesBackpressure() throws Exception {
+        FairWorkQueue<String> queue = new FairWorkQueue<>(2);
+        assertTrue(queue.offer("ns", "1", "1", 0, TimeUnit.MILLISECONDS));
+        assertTrue(queue.offer("ns", "2", "2", 0, TimeUnit.MILLISECONDS));
+
+        assertFalse(queue.offer("ns", "3", "3", 10, TimeUnit.MILLISECONDS), "A full queue should reject after the timeout");
+        assertTrue(queue.offer("ns", "2", "2b", 0, TimeUnit.MILLISECONDS), "Duplicates never need capacity");
+
+        CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.offer("ns", "3", "3", 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(blocked.isDone(), "The producer should wait for capacity");
+
+        assertEquals("1", queue.take().value());
+        assertTrue(blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    void testTakeWaitsForItems() throws Exception {
+        FairWorkQueue<String> queue = new FairWorkQueue<>(1);
+        CompletableFuture<String> taken = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.take().value();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(taken.isDone());
+
+        queue.offer("ns", "1", "item", 0, TimeUnit.MILLISECONDS);
+        assertEquals("item", taken.get(5, TimeUnit.SECONDS));
+    }
+}
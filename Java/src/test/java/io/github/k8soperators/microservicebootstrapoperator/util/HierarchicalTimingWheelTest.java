@@ -0,0 +1,75 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HierarchicalTimingWheel
+ */
+public class HierarchicalTimingWheelTest {
+
+    @Test
+    void testDeadlinesFireExactlyWhenReachedAcrossAllLevels() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 2000; key++) {
+            // Spread deadlines over the first three levels of the wheel
+            long deadline = 1 + random.nextInt(300_000);
+            deadlines.put(key, deadline);
+            wheel.schedule(key, deadline);
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 300_000; now += 250) {
+            for (Integer key : wheel.advance(now)) {
+                firedAt.put(key, now);
+            }
+        }
+
+        assertEquals(deadlines.size(), firedAt.size(), "Every deadline should fire exactly once");
+        for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+            long fired = firedAt.get(entry.getKey());
+            assertTrue(fired >= entry.getValue(), "Deadline must not fire early");
+            assertTrue(fired - entry.getValue() < 250, "Deadline must fire at the first advance after it is due");
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testRescheduleAndCancel() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 0);
+        wheel.schedule("a", 5_000);
+        wheel.schedule("b", 5_000);
+        wheel.schedule("a", 120_000);
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+
+        assertTrue(wheel.advance(60_000).isEmpty(), "Rescheduled and cancelled keys should not fire");
+        assertEquals(120_000L, wheel.getDeadline("a"));
+        assertEquals(List.of("a"), wheel.advance(120_000));
+    }
+
+    @Test
+    void testPastAndFarFutureDeadlines() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 1_000_000);
+        wheel.schedule("overdue", 10);
+        // Beyond the span of the top level, parked and re-placed when cascaded
+        long farFuture = 1_000_000 + 400L * 24 * 60 * 60 * 1000;
+        wheel.schedule("far", farFuture);
+
+        assertEquals(List.of("overdue"), wheel.advance(1_000_000));
+
+        List<String> fired = new ArrayList<>();
+        fired.addAll(wheel.advance(farFuture - 1000));
+        assertTrue(fired.isEmpty(), "Far future deadline must not fire early");
+        assertEquals(List.of("far"), wheel.advance(farFuture));
+    }
+}
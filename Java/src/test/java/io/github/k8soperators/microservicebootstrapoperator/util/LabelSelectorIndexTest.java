@@ -0,0 +1,152 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.fabric8.kubernetes.api.model.LabelSelectorRequirement;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LabelSelectorIndex
+ */
+public class LabelSelectorIndexTest {
+
+    @Test
+    void testMatchRequiresAllSelectorLabels() {
+        LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+        index.put("ns", "web", Map.of("app", "web", "tier", "frontend"), "web");
+        index.put("ns", "db", Map.of("app", "db"), "db");
+
+        assertEquals(List.of("web"), index.match("ns", Map.of("app", "web", "tier", "frontend", "pod-template-hash", "abc")));
+        assertEquals(List.of(), index.match("ns", Map.of("app", "web")));
+        assertEquals(List.of(), index.match("ns", Map.of("app", "web", "tier", "backend")));
+        assertEquals(List.of("db"), index.match("ns", Map.of("app", "db")));
+        assertEquals(List.of(), index.match("ns", Map.of()));
+        assertEquals(List.of(), index.match("ns", null));
+    }
+
+    @Test
+    void testMatchIsScopedToNamespace() {
+        LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+        index.put("ns-a", "web", Map.of("app", "web"), "a");
+
+        assertEquals(List.of("a"), index.match("ns-a", Map.of("app", "web")));
+        assertEquals(List.of(), index.match("ns-b", Map.of("app", "web")));
+    }
+
+    @Test
+    void testMostSpecificSelectorTakesPrecedenceThenName() {
+        LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+        index.put("ns", "zeta", Map.of("app", "web"), "zeta");
+        index.put("ns", "alpha", Map.of("app", "web"), "alpha");
+        index.put("ns", "specific", Map.of("app", "web", "track", "canary"), "specific");
+
+        Map<String, String> labels = Map.of("app", "web", "track", "canary");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(List.of("specific", "alpha", "zeta"), index.match("ns", labels));
+        }
+    }
+
+    @Test
+    void testMatchesSetBasedSelectors() {
+        LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+        index.put("ns", "services", CompiledLabelSelector.compile(null, List.of(
+                new LabelSelectorRequirement("app", "In", List.of("api", "worker")),
+                new LabelSelectorRequirement("track", "NotIn", List.of("canary")))), "services");
+        index.put("ns", "versioned", CompiledLabelSelector.compile(null, List.of(
+                new LabelSelectorRequirement("version", "Exists", List.of()))), "versioned");
+        index.put("ns", "opt-out", CompiledLabelSelector.compile(null, List.of(
+                new LabelSelectorRequirement("sidecar", "DoesNotExist", List.of()))), "opt-out");
+
+        assertEquals(List.of("services", "opt-out", "versioned"),
+                index.match("ns", Map.of("app", "worker", "track", "stable", "version", "v1")));
+        assertEquals(List.of("opt-out"), index.match("ns", Map.of("app", "worker", "track", "canary")));
+        assertEquals(List.of("versioned"), index.match("ns", Map.of("app", "web", "version", "v1", "sidecar", "off")));
+        assertEquals(List.of("opt-out"), index.match("ns", null));
+    }
+
+    @Test
+    void testPutReplacesAndRemoveDropsSelector() {
+        LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+        index.put("ns", "web", Map.of("app", "web"), "v1");
+        index.put("ns", "web", Map.of("app", "frontend"), "v2");
+
+        assertEquals(List.of(), index.match("ns", Map.of("app", "web")));
+        assertEquals(List.of("v2"), index.match("ns", Map.of("app", "frontend")));
+        assertEquals(1, index.size());
+
+        index.remove("ns", "web");
+        assertEquals(List.of(), index.match("ns", Map.of("app", "frontend")));
+        assertEquals(0, index.size());
+        assertFalse(index.namespaces().contains("ns"));
+
+        // Removing unknown selectors is a no-op
+        index.remove("ns", "web");
+        index.remove("other", "web");
+    }
+
+    @Test
+    void testEmptySelectorMatchesNothing() {
+        LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+        index.put("ns", "web", Map.of("app", "web"), "web");
+        index.put("ns", "web", Map.of(), "web");
+
+        assertEquals(List.of(), index.match("ns", Map.of("app", "web")));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testMatchesUnderConcurrentRegistration() throws Exception {
+        LabelSelectorIndex<String> index = new LabelSelectorIndex<>();
+        index.put("ns", "stable", Map.of("app", "stable"), "stable");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < 3; writer++) {
+                int id = writer;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 2000; i++) {
+                        String name = "app-" + id + "-" + i;
+                        index.put("ns", name, Map.of("app", name), name);
+                        if (i % 2 == 0) {
+                            index.remove("ns", name);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20_000; i++) {
+                    assertEquals(List.of("stable"), index.match("ns", Map.of("app", "stable")));
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> future : writers) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // No registration may be lost when namespaces are updated concurrently
+        assertEquals(1 + 3 * 1000, index.size());
+        Map<String, String> labels = new HashMap<>();
+        labels.put("app", "app-2-1999");
+        assertEquals(List.of("app-2-1999"), index.match("ns", labels));
+    }
+}
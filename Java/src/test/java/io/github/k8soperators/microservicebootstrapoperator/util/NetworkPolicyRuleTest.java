@@ -0,0 +1,69 @@
+package io.github.k8soperators.microservicebootstrapoperator.util;
+
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyEgressRule;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyIngressRule;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyPeer;
+import io.fabric8.kubernetes.api.model.networking.v1.NetworkPolicyPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NetworkPolicyRule
+ */
+public class NetworkPolicyRuleTest {
+
+    @Test
+    void testPeersAndPortsAreCompiledIntoAnIngressRule() {
+        NetworkPolicyIngressRule rule = NetworkPolicyRule.compile(
+                "namespaces(team=payments) pods(app=api, tier=web) | pods() on tcp/8080, udp/53, 9090-9100, http")
+                .toIngressRule();
+
+        assertEquals(2, rule.getFrom().size());
+        NetworkPolicyPeer scoped = rule.getFrom().get(0);
+        assertEquals(Map.of("team", "payments"), scoped.getNamespaceSelector().getMatchLabels());
+        assertEquals(Map.of("app", "api", "tier", "web"), scoped.getPodSelector().getMatchLabels());
+        assertNull(rule.getFrom().get(1).getNamespaceSelector());
+        assertTrue(rule.getFrom().get(1).getPodSelector().getMatchLabels().isEmpty());
+
+        List<NetworkPolicyPort> ports = rule.getPorts();
+        assertEquals(new NetworkPolicyPort(null, new IntOrString(8080), "TCP"), ports.get(0));
+        assertEquals(new NetworkPolicyPort(null, new IntOrString(53), "UDP"), ports.get(1));
+        assertEquals(new NetworkPolicyPort(9100, new IntOrString(9090), "TCP"), ports.get(2));
+        assertEquals(new NetworkPolicyPort(null, new IntOrString("http"), "TCP"), ports.get(3));
+    }
+
+    @Test
+    void testIpBlocksAndAnyPeerCompileIntoEgressRules() {
+        NetworkPolicyEgressRule external = NetworkPolicyRule.compile(
+                "cidr(0.0.0.0/0 except 169.254.169.254/32, 10.0.0.0/8) on 443").toEgressRule();
+        assertEquals("0.0.0.0/0", external.getTo().get(0).getIpBlock().getCidr());
+        assertEquals(List.of("169.254.169.254/32", "10.0.0.0/8"), external.getTo().get(0).getIpBlock().getExcept());
+
+        assertTrue(NetworkPolicyRule.compile("any on 53").toEgressRule().getTo().isEmpty());
+        assertTrue(NetworkPolicyRule.compile("on 53").peers().isEmpty());
+        assertTrue(NetworkPolicyRule.compile("any").ports().isEmpty());
+    }
+
+    @Test
+    void testRulesAreCachedAndComparedByMeaning() {
+        NetworkPolicyRule rule = NetworkPolicyRule.compile("pods(app=a, tier=b) on 80");
+
+        assertSame(rule, NetworkPolicyRule.compile("pods(app=a, tier=b) on 80"));
+        assertEquals(rule, NetworkPolicyRule.compile("pods( tier=b,app=a )  on  tcp/80"));
+        assertNotEquals(rule, NetworkPolicyRule.compile("pods(app=a, tier=b) on 81"));
+    }
+
+    @Test
+    void testInvalidRulesAreRejected() {
+        for (String invalid : List.of("", "pods(app)", "pods(app=a", "hosts(a=b)", "pods() on 0",
+                "pods() on 90-80", "pods() on icmp/1", "cidr(not-a-cidr)", "pods() on 80 trailing",
+                "pods() on Bad_Name")) {
+            assertThrows(IllegalArgumentException.class, () -> NetworkPolicyRule.compile(invalid), invalid);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.k8soperators.microservicebootstrapoperator.webhook;
+
+import io.fabric8.kubernetes.api.model.apiextensions.v1.ConversionResponse;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AppConfigConversionWebhook, driven by ConversionReview fixtures
+ */
+public class AppConfigConversionWebhookTest {
+
+    private final AppConfigConversionWebhook webhook = new AppConfigConversionWebhook();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSpokesAreConvertedToTheHub() throws IOException {
+        Map<String, Object> review = Serialization.unmarshal(webhook.convert(fixture("v1alpha1-to-v1.json")), Map.class);
+
+        assertEquals("apiextensions.k8s.io/v1", review.get("apiVersion"));
+        assertEquals("ConversionReview", review.get("kind"));
+        Map<String, Object> response = (Map<String, Object>) review.get("response");
+        assertEquals("0000000b-52a3-4c1c-9d9e-0f6a1a3b7c10", response.get("uid"));
+        assertEquals("Success", ((Map<String, Object>) response.get("result")).get("status"));
+
+        List<Map<String, Object>> objects = (List<Map<String, Object>>) response.get("convertedObjects");
+        assertEquals(2, objects.size());
+        Map<String, Object> orders = objects.get(0);
+        assertEquals("microservice.github.io/v1", orders.get("apiVersion"));
+        Map<String, Object> ordersMetadata = (Map<String, Object>) orders.get("metadata");
+        assertEquals("7b1c2d3e-1111-4a2b-8c3d-4e5f6a7b8c9d", ordersMetadata.get("uid"));
+        assertEquals("4711", ordersMetadata.get("resourceVersion"));
+        assertEquals(Map.of("team", "checkout"), ordersMetadata.get("annotations"));
+        Map<String, Object> ordersSpec = (Map<String, Object>) orders.get("spec");
+        assertEquals(Map.of("enabled", true), ordersSpec.get("networkPolicy"));
+        assertEquals(Map.of("kept", true), ordersSpec.get("futureField"), "Unknown fields survive the conversion");
+
+        Map<String, Object> payments = objects.get(1);
+        assertEquals("microservice.github.io/v1", payments.get("apiVersion"));
+        Map<String, Object> rotation = (Map<String, Object>) ((Map<String, Object>) payments.get("spec")).get("secretRotation");
+        assertEquals(List.of("vault"), rotation.get("sources"));
+        assertEquals("payments-db", rotation.get("secretName"));
+        assertFalse(Serialization.asJson(payments.get("metadata")).contains("secretRotationSource"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHubIsConvertedDownWithoutRewrites() throws IOException {
+        Map<String, Object> request = Serialization.unmarshal(fixture("v1-to-v1beta1.json"), Map.class);
+
+        ConversionResponse response = webhook.convert(request);
+
+        assertEquals("0000000c-52a3-4c1c-9d9e-0f6a1a3b7c10", response.getUid());
+        assertEquals("Success", response.getResult().getStatus());
+        Map<String, Object> converted = Serialization.jsonMapper().convertValue(response.getConvertedObjects().get(0), Map.class);
+        assertEquals("microservice.github.io/v1beta1", converted.get("apiVersion"));
+        assertEquals(Map.of("appName", "orders", "networkPolicy", Map.of("enabled", true)), converted.get("spec"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUnsupportedVersionFailsTheWholeReview() throws IOException {
+        Map<String, Object> request = Serialization.unmarshal(fixture("v1-to-v1beta1.json"), Map.class);
+        ((Map<String, Object>) request.get("request")).put("desiredAPIVersion", "microservice.github.io/v2");
+
+        ConversionResponse response = webhook.convert(request);
+
+        assertEquals("0000000c-52a3-4c1c-9d9e-0f6a1a3b7c10", response.getUid());
+        assertEquals("Failure", response.getResult().getStatus());
+        assertTrue(response.getResult().getMessage().contains("v2"));
+        assertTrue(response.getConvertedObjects().isEmpty());
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream stream = AppConfigConversionWebhookTest.class.getResourceAsStream("/conversion/" + name)) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
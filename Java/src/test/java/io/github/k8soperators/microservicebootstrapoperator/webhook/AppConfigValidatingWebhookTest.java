@@ -0,0 +1,78 @@
+package io.github.k8soperators.microservicebootstrapoperator.webhook;
+
+import io.fabric8.kubernetes.api.model.Status;
+import io.fabric8.kubernetes.api.model.StatusCause;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionRequest;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionResponse;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionReview;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AppConfigValidatingWebhook, driven by AdmissionReview fixtures
+ */
+public class AppConfigValidatingWebhookTest {
+
+    private final AppConfigValidatingWebhook webhook = new AppConfigValidatingWebhook();
+
+    @Test
+    void testInvalidSpecIsRejectedWithEveryViolation() throws IOException {
+        AdmissionReview review = Serialization.unmarshal(
+                webhook.validateAppConfig(fixture("appconfig-create-invalid.json")), AdmissionReview.class);
+
+        assertEquals("admission.k8s.io/v1", review.getApiVersion());
+        AdmissionResponse response = review.getResponse();
+        assertEquals("3f6d2a1e-8b7c-4d5e-9f0a-1b2c3d4e5f60", response.getUid());
+        assertFalse(response.getAllowed());
+
+        Status status = response.getStatus();
+        assertEquals(422, status.getCode());
+        assertEquals("Invalid", status.getReason());
+        assertTrue(status.getMessage().startsWith("AppConfig.microservice.github.io \"orders-config\" is invalid: "));
+        assertEquals("orders-config", status.getDetails().getName());
+        List<StatusCause> causes = status.getDetails().getCauses();
+        assertEquals(List.of("spec.appName", "spec.rbac.serviceAccountName", "spec.secretRotation.intervalHours",
+                "spec.networkPolicy.ingress[1]"), causes.stream().map(StatusCause::getField).toList());
+        assertEquals("FieldValueRequired", causes.get(0).getReason());
+        assertEquals("FieldValueInvalid", causes.get(2).getReason());
+    }
+
+    @Test
+    void testValidSpecIsAdmitted() throws IOException {
+        AdmissionReview review = Serialization.unmarshal(
+                webhook.validateAppConfig(fixture("appconfig-create-valid.json")), AdmissionReview.class);
+
+        AdmissionResponse response = review.getResponse();
+        assertEquals("4a7e3b2f-9c8d-4e6f-a01b-2c3d4e5f6a71", response.getUid());
+        assertTrue(response.getAllowed());
+        assertNull(response.getStatus());
+    }
+
+    @Test
+    void testUpdateKeepingAnInvalidSpecIsAdmitted() throws IOException {
+        AdmissionRequest request = Serialization.unmarshal(fixture("appconfig-create-invalid.json"), AdmissionReview.class)
+                .getRequest();
+        request.setOperation("UPDATE");
+        request.setOldObject(Serialization.unmarshal(fixture("appconfig-create-invalid.json"), AdmissionReview.class)
+                .getRequest().getObject());
+
+        assertTrue(webhook.validate(request).getAllowed(), "Finalizer updates on stored AppConfigs must not be blocked");
+
+        request.setOldObject(Serialization.unmarshal(fixture("appconfig-create-valid.json"), AdmissionReview.class)
+                .getRequest().getObject());
+        assertFalse(webhook.validate(request).getAllowed());
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream stream = AppConfigValidatingWebhookTest.class.getResourceAsStream("/admission/" + name)) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.k8soperators.microservicebootstrapoperator.webhook;
+
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionResponse;
+import io.fabric8.kubernetes.api.model.admission.v1.AdmissionReview;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.github.k8soperators.microservicebootstrapoperator.config.OperatorProperties;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfig;
+import io.github.k8soperators.microservicebootstrapoperator.model.AppConfigSpec;
+import io.github.k8soperators.microservicebootstrapoperator.model.SidecarInjectionConfig;
+import io.github.k8soperators.microservicebootstrapoperator.service.ManagedResourceCache;
+import io.github.k8soperators.microservicebootstrapoperator.service.SidecarInjectionService;
+import io.github.k8soperators.microservicebootstrapoperator.service.WorkloadRolloutService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SidecarInjectionWebhook, driven by AdmissionReview fixtures
+ */
+@ExtendWith(MockitoExtension.class)
+public class SidecarInjectionWebhookTest {
+
+    @Mock
+    private KubernetesClient kubernetesClient;
+
+    private SidecarInjectionWebhook webhook;
+
+    @BeforeEach
+    void setUp() {
+        SidecarInjectionService sidecarInjectionService = new SidecarInjectionService(kubernetesClient, new OperatorProperties(),
+                new SimpleMeterRegistry(), mock(ManagedResourceCache.class), mock(WorkloadRolloutService.class));
+        sidecarInjectionService.registerAppConfig(createAppConfig());
+        webhook = new SidecarInjectionWebhook(sidecarInjectionService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMatchingPodIsPatchedWithoutApiCalls() throws IOException {
+        AdmissionReview review = Serialization.unmarshal(webhook.mutatePod(fixture("pod-create.json")), AdmissionReview.class);
+
+        assertEquals("admission.k8s.io/v1", review.getApiVersion());
+        assertEquals("AdmissionReview", review.getKind());
+        AdmissionResponse response = review.getResponse();
+        assertEquals("705ab4f5-6393-11e8-b7cc-42010a800002", response.getUid());
+        assertTrue(response.getAllowed());
+        assertEquals("JSONPatch", response.getPatchType());
+
+        String patch = new String(Base64.getDecoder().decode(response.getPatch()), StandardCharsets.UTF_8);
+        List<Map<String, Object>> operations = Serialization.unmarshal(patch, List.class);
+        assertEquals(2, operations.size());
+        assertEquals("add", operations.get(0).get("op"));
+        assertEquals("/spec/containers/-", operations.get(0).get("path"));
+        Map<String, Object> sidecar = (Map<String, Object>) operations.get(0).get("value");
+        assertEquals("test-app-sidecar", sidecar.get("name"));
+        assertEquals("nginx:latest", sidecar.get("image"));
+        assertEquals("/spec/volumes/-", operations.get(1).get("path"));
+        assertEquals("config-volume", ((Map<String, Object>) operations.get(1).get("value")).get("name"));
+
+        // Injection happens inline, the pod is never written through the API
+        verifyNoInteractions(kubernetesClient);
+    }
+
+    @Test
+    void testUnmatchedPodIsAdmittedUnchanged() throws IOException {
+        AdmissionReview review = Serialization.unmarshal(
+                webhook.mutatePod(fixture("pod-create-unmatched.json")), AdmissionReview.class);
+
+        AdmissionResponse response = review.getResponse();
+        assertEquals("9c1f0e0a-2d3b-4f7e-8a51-3b7d2f6c1e40", response.getUid());
+        assertTrue(response.getAllowed());
+        assertNull(response.getPatch());
+        assertNull(response.getPatchType());
+    }
+
+    @Test
+    void testPodWithoutVolumesGetsVolumeList() throws IOException {
+        AdmissionReview request = Serialization.unmarshal(fixture("pod-create.json"), AdmissionReview.class);
+        ((Pod) request.getRequest().getObject()).getSpec().setVolumes(null);
+
+        AdmissionResponse response = webhook.mutate(request.getRequest());
+
+        String patch = new String(Base64.getDecoder().decode(response.getPatch()), StandardCharsets.UTF_8);
+        assertTrue(patch.contains("\"path\":\"/spec/volumes\""));
+        assertFalse(patch.contains("/spec/volumes/-"));
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream stream = SidecarInjectionWebhookTest.class.getResourceAsStream("/admission/" + name)) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static AppConfig createAppConfig() {
+        AppConfig appConfig = new AppConfig();
+        ObjectMeta metadata = new ObjectMeta();
+        metadata.setName("test-app");
+        metadata.setNamespace("test-namespace");
+        appConfig.setMetadata(metadata);
+
+        SidecarInjectionConfig sidecarInjection = new SidecarInjectionConfig();
+        sidecarInjection.setEnabled(true);
+        sidecarInjection.setImage("nginx:latest");
+        sidecarInjection.setSelectorLabels(Map.of("app", "test-app"));
+        sidecarInjection.setVolumes(List.of("config-volume"));
+        sidecarInjection.setVolumeMounts(Map.of("config-volume", "/etc/config"));
+
+        AppConfigSpec spec = new AppConfigSpec();
+        spec.setAppName("test-app");
+        spec.setSidecarInjection(sidecarInjection);
+        appConfig.setSpec(spec);
+        return appConfig;
+    }
+}